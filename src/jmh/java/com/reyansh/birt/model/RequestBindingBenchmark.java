@@ -0,0 +1,99 @@
+package com.reyansh.birt.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON binding of the report request bodies, with the object mapper configuration Spring MVC uses
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBindingBenchmark {
+
+    private ObjectReader reportRequestReader;
+
+    private ObjectReader dynamicRequestReader;
+
+    private byte[] reportRequestJson;
+
+    private byte[] dynamicRequestJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reportRequestReader = objectMapper.readerFor(ReportRequest.class);
+        dynamicRequestReader = objectMapper.readerFor(DynamicReportRequest.class);
+
+        reportRequestJson = objectMapper.writeValueAsBytes(ReportRequest.builder()
+                .reportName("sales-report")
+                .outputFormat("pdf")
+                .parameters(Map.of("region", "West", "year", 2024, "minAmount", 100.5))
+                .locale("en_US")
+                .pageRange("1-10")
+                .build());
+
+        dynamicRequestJson = objectMapper.writeValueAsBytes(DynamicReportRequest.builder()
+                .libraryPath("reports/library/common.rptlibrary")
+                .reportName("regional-sales")
+                .outputFormat("xlsx")
+                .dataSourceName("Warehouse")
+                .datasetNames(List.of("Orders", "Regions"))
+                .parameters(Map.of("region", "West", "year", 2024))
+                .components(DynamicReportRequest.ReportComponents.builder()
+                        .title(DynamicReportRequest.TitleSection.builder()
+                                .text("Regional Sales").fontSize(18).alignment("center").includeDate(true).build())
+                        .tables(List.of(DynamicReportRequest.TableConfig.builder()
+                                .datasetName("Orders")
+                                .title("Orders by Region")
+                                .columns(List.of(
+                                        column("region", "Region", "string"),
+                                        column("quantity", "Quantity", "integer"),
+                                        column("amount", "Amount", "decimal")))
+                                .enableGrouping(true)
+                                .groupByColumn("region")
+                                .includeTotals(true)
+                                .build()))
+                        .charts(List.of(DynamicReportRequest.ChartConfig.builder()
+                                .datasetName("Orders").title("Amount by Region").chartType("bar")
+                                .categoryColumn("region").valueColumn("amount").width(600).height(400)
+                                .showLegend(true).build()))
+                        .footer("Confidential")
+                        .pageOrientation("landscape")
+                        .pageSize("A4")
+                        .build())
+                .build());
+    }
+
+    @Benchmark
+    public ReportRequest bindReportRequest() throws Exception {
+        return reportRequestReader.readValue(reportRequestJson);
+    }
+
+    @Benchmark
+    public DynamicReportRequest bindDynamicReportRequest() throws Exception {
+        return dynamicRequestReader.readValue(dynamicRequestJson);
+    }
+
+    private static DynamicReportRequest.ColumnConfig column(String name, String label, String dataType) {
+        return DynamicReportRequest.ColumnConfig.builder().name(name).label(label).dataType(dataType).build();
+    }
+}
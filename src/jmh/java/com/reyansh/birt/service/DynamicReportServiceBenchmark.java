@@ -0,0 +1,175 @@
+package com.reyansh.birt.service;
+
+import com.reyansh.birt.aggregate.TableAggregator;
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.chart.ChartRenderer;
+import com.reyansh.birt.chart.ChartService;
+import com.reyansh.birt.data.ConnectionPools;
+import com.reyansh.birt.data.DatasetService;
+import com.reyansh.birt.data.ResultCache;
+import com.reyansh.birt.data.RowPrefetcher;
+import com.reyansh.birt.export.CsvTableExporter;
+import com.reyansh.birt.export.NdjsonTableExporter;
+import com.reyansh.birt.export.XlsxTableExporter;
+import com.reyansh.birt.health.ReportJobs;
+import com.reyansh.birt.metrics.ReportMetrics;
+import com.reyansh.birt.metrics.SlowReportWatchdog;
+import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.storage.ReportOutputStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Template building and output writing of {@link DynamicReportService}. Output is written from an
+ * in-memory H2 data set of the given size, with the result cache disabled so every invocation
+ * executes the query; pdf takes the mock output path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DynamicReportServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Service {
+
+        @Param({"1000", "10000", "100000"})
+        int rows;
+
+        @Param({"csv", "xlsx", "pdf"})
+        String format;
+
+        Path directory;
+
+        ConnectionPools connectionPools;
+
+        RowPrefetcher rowPrefetcher;
+
+        TableAggregator tableAggregator;
+
+        DynamicReportService dynamicReportService;
+
+        DynamicReportRequest request;
+
+        @Setup
+        public void setUp() throws Exception {
+            directory = Files.createTempDirectory("dynamic-report-benchmark");
+            Path library = directory.resolve("orders.rptlibrary");
+            try (InputStream in = getClass().getResourceAsStream("/benchmark/orders.rptlibrary")) {
+                Files.copy(in, library);
+            }
+
+            connectionPools = new ConnectionPools(4, "", 30000, 600000);
+            ResultCache resultCache = new ResultCache(new CacheRegistry(), directory.resolve("cache").toString(),
+                    16, 16, 0, "");
+            resultCache.init();
+            rowPrefetcher = new RowPrefetcher(2, 16);
+            DatasetService datasetService = new DatasetService(connectionPools, resultCache, rowPrefetcher, 1000);
+            tableAggregator = new TableAggregator(0, 0);
+            dynamicReportService = new DynamicReportService(
+                    new ReportOutputStore(directory.resolve("output").toString(), true, 3), datasetService,
+                    new ChartService(datasetService, new ChartRenderer(), new CacheRegistry(), 8),
+                    tableAggregator, new PreviewLane(200, 3, 2, 5000),
+                    new ReportMetrics(new SimpleMeterRegistry(), directory.resolve("templates").toString()),
+                    new ReportJobs(new SlowReportWatchdog(false, 10000, 50, 20, directory.resolve("slow").toString())),
+                    List.of(new XlsxTableExporter(100), new CsvTableExporter(), new NdjsonTableExporter()),
+                    directory.resolve("templates").toString());
+
+            request = DynamicReportRequest.builder()
+                    .libraryPath(library.toString())
+                    .reportName("orders")
+                    .outputFormat(format)
+                    .datasetNames(List.of("Orders"))
+                    .parameters(Map.of("rows", rows))
+                    .components(DynamicReportRequest.ReportComponents.builder()
+                            .title(DynamicReportRequest.TitleSection.builder().text("Orders").build())
+                            .tables(List.of(DynamicReportRequest.TableConfig.builder()
+                                    .datasetName("Orders")
+                                    .title("Orders")
+                                    .columns(List.of(
+                                            DynamicReportRequest.ColumnConfig.builder().name("product").build(),
+                                            DynamicReportRequest.ColumnConfig.builder().name("quantity").build(),
+                                            DynamicReportRequest.ColumnConfig.builder().name("amount").build()))
+                                    .includeTotals(true)
+                                    .build()))
+                            .build())
+                    .build();
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            tableAggregator.destroy();
+            rowPrefetcher.destroy();
+            connectionPools.close();
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Template {
+
+        DynamicReportService dynamicReportService;
+
+        DynamicReportRequest request;
+
+        @Setup
+        public void setUp() {
+            dynamicReportService = new DynamicReportService(null, null, null, null, null,
+                    new ReportMetrics(new SimpleMeterRegistry(), "reports/templates"), null, List.of(),
+                    "reports/templates");
+            request = DynamicReportRequest.builder()
+                    .libraryPath("reports/library/common.rptlibrary")
+                    .reportName("regional-sales")
+                    .outputFormat("pdf")
+                    .dataSourceName("Warehouse")
+                    .datasetNames(List.of("Orders", "Regions", "Products"))
+                    .parameters(Map.of("region", "West", "year", 2024))
+                    .components(DynamicReportRequest.ReportComponents.builder()
+                            .title(DynamicReportRequest.TitleSection.builder().text("Regional Sales").build())
+                            .tables(List.of(DynamicReportRequest.TableConfig.builder()
+                                    .datasetName("Orders")
+                                    .title("Orders by Region")
+                                    .enableGrouping(true)
+                                    .groupByColumn("region")
+                                    .includeTotals(true)
+                                    .build()))
+                            .charts(List.of(DynamicReportRequest.ChartConfig.builder()
+                                    .datasetName("Orders").title("Amount by Region").chartType("bar")
+                                    .categoryColumn("region").valueColumn("amount").build()))
+                            .footer("Confidential")
+                            .build())
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public String buildTemplate(Template template) throws Exception {
+        return template.dynamicReportService.buildTemplate(template.request);
+    }
+
+    @Benchmark
+    public void writeOutput(Service service) throws Exception {
+        service.dynamicReportService.writeOutput(service.request, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,123 @@
+package com.reyansh.birt.service;
+
+import com.reyansh.birt.BirtReportEngineApplication;
+import com.reyansh.birt.model.ReportRequest;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.birt.report.engine.api.IRenderOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end rendering through {@link ReportGenerationService} with the real BIRT engine, and the
+ * render options built for every render.
+ *
+ * The sample design benchmark/orders.rptdesign reads a generated H2 data set of the given size;
+ * pdf and html run and render through the engine, csv exports the data set rows directly. The
+ * application context is started once per trial with the engine enabled and every template,
+ * output and scratch directory in a temporary directory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReportGenerationServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+
+        @Param({"100", "1000", "10000"})
+        int rows;
+
+        @Param({"pdf", "html", "csv"})
+        String format;
+
+        Path directory;
+
+        ConfigurableApplicationContext context;
+
+        ReportGenerationService reportGenerationService;
+
+        ReportRequest request;
+
+        @Setup
+        public void setUp() throws Exception {
+            directory = Files.createTempDirectory("report-generation-benchmark");
+            Path templates = Files.createDirectories(directory.resolve("templates"));
+            try (InputStream in = getClass().getResourceAsStream("/benchmark/orders.rptdesign")) {
+                String design = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                Files.writeString(templates.resolve("orders.rptdesign"), design.replace("${rows}", Integer.toString(rows)));
+            }
+
+            context = new SpringApplicationBuilder(BirtReportEngineApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "birt.engine.enabled=true",
+                            "birt.report.directory=" + templates,
+                            "birt.output.directory=" + directory.resolve("output"),
+                            "birt.resource.directory=" + directory.resolve("resources"),
+                            "birt.log.directory=" + directory.resolve("logs"),
+                            "report.scratch.directory=" + directory.resolve("scratch"),
+                            "report.data.cache.directory=" + directory.resolve("result-cache"),
+                            "logging.file.name=",
+                            "logging.level.com.reyansh=WARN",
+                            "spring.main.banner-mode=off")
+                    .run();
+            reportGenerationService = context.getBean(ReportGenerationService.class);
+            request = ReportRequest.builder().reportName("orders").outputFormat(format).build();
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            context.close();
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Options {
+
+        @Param({"pdf", "html", "xlsx"})
+        String format;
+
+        ReportGenerationService reportGenerationService;
+
+        @Setup
+        public void setUp() {
+            reportGenerationService = new ReportGenerationService();
+        }
+    }
+
+    @Benchmark
+    public void streamReport(Engine engine) throws Exception {
+        engine.reportGenerationService.streamReport(engine.request, UUID.randomUUID().toString(),
+                OutputStream.nullOutputStream(), false);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public IRenderOption createRenderOptions(Options options) {
+        return options.reportGenerationService.createRenderOptions(options.format, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,135 @@
+package com.reyansh.birt.load;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency reports of a load run: an HdrHistogram percentile distribution per endpoint
+ * (endpoint.hgrm, plottable with the HdrHistogram plotter), all histograms in one interval log
+ * (latency.hlog) for later comparisons, and a summary table. Latencies are recorded in
+ * microseconds and reported in milliseconds.
+ */
+final class LatencyReport {
+
+    static final String LOG_FILE = "latency.hlog";
+
+    static final String SUMMARY_FILE = "summary.txt";
+
+    static final String COMPARISON_FILE = "comparison.txt";
+
+    private static final double MICROS_PER_MS = 1000.0;
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private LatencyReport() {
+    }
+
+    /**
+     * Write the reports of a run
+     *
+     * @param histograms latency per endpoint, keyed by endpoint name
+     * @param errors     failed requests per endpoint
+     */
+    static void write(Path directory, Map<String, Histogram> histograms, Map<String, Long> errors,
+                      long startMillis, long endMillis) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")),
+                    false, StandardCharsets.UTF_8)) {
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MS);
+            }
+        }
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(LOG_FILE)),
+                false, StandardCharsets.UTF_8)) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.outputLegend();
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                Histogram histogram = entry.getValue();
+                histogram.setTag(entry.getKey());
+                histogram.setStartTimeStamp(startMillis);
+                histogram.setEndTimeStamp(endMillis);
+                writer.outputIntervalHistogram(histogram);
+            }
+        }
+
+        Files.writeString(directory.resolve(SUMMARY_FILE), summary(histograms, errors, (endMillis - startMillis) / 1000.0));
+    }
+
+    /**
+     * Histograms of an earlier run, keyed by endpoint name
+     */
+    static Map<String, Histogram> read(Path directory) throws IOException {
+        Map<String, Histogram> histograms = new TreeMap<>();
+        HistogramLogReader reader = new HistogramLogReader(directory.resolve(LOG_FILE).toFile());
+        EncodableHistogram histogram;
+        while ((histogram = reader.nextIntervalHistogram()) != null) {
+            if (histogram instanceof Histogram recorded && recorded.getTag() != null) {
+                histograms.put(recorded.getTag(), recorded);
+            }
+        }
+        return histograms;
+    }
+
+    static String summary(Map<String, Histogram> histograms, Map<String, Long> errors, double seconds) {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%-18s %8s %7s %8s", "endpoint", "count",
+                "errors", "req/s"));
+        for (double percentile : PERCENTILES) {
+            text.append(String.format(Locale.ROOT, " %9s", "p" + format(percentile)));
+        }
+        text.append(String.format(Locale.ROOT, " %9s  (ms)%n", "max"));
+        histograms.forEach((name, histogram) -> {
+            text.append(String.format(Locale.ROOT, "%-18s %8d %7d %8.1f", name, histogram.getTotalCount(),
+                    errors.getOrDefault(name, 0L), histogram.getTotalCount() / seconds));
+            for (double percentile : PERCENTILES) {
+                text.append(String.format(Locale.ROOT, " %9.1f", histogram.getValueAtPercentile(percentile) / MICROS_PER_MS));
+            }
+            text.append(String.format(Locale.ROOT, " %9.1f%n", histogram.getMaxValue() / MICROS_PER_MS));
+        });
+        return text.toString();
+    }
+
+    /**
+     * Percentiles of each endpoint in both runs and the relative change, positive when the run got slower
+     */
+    static String compare(Map<String, Histogram> baseline, Map<String, Histogram> current) {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%-18s %10s %12s %12s %9s%n",
+                "endpoint", "percentile", "baseline ms", "current ms", "change"));
+        for (Map.Entry<String, Histogram> entry : current.entrySet()) {
+            Histogram before = baseline.get(entry.getKey());
+            if (before == null) {
+                text.append(String.format(Locale.ROOT, "%-18s %10s%n", entry.getKey(), "(not in baseline)"));
+                continue;
+            }
+            for (double percentile : PERCENTILES) {
+                row(text, entry.getKey(), "p" + format(percentile), before.getValueAtPercentile(percentile),
+                        entry.getValue().getValueAtPercentile(percentile));
+            }
+            row(text, entry.getKey(), "max", before.getMaxValue(), entry.getValue().getMaxValue());
+        }
+        return text.toString();
+    }
+
+    private static void row(StringBuilder text, String endpoint, String percentile, long before, long after) {
+        String change = before > 0 ? String.format(Locale.ROOT, "%+.1f%%", 100.0 * (after - before) / before) : "n/a";
+        text.append(String.format(Locale.ROOT, "%-18s %10s %12.1f %12.1f %9s%n", endpoint, percentile,
+                before / MICROS_PER_MS, after / MICROS_PER_MS, change));
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+}
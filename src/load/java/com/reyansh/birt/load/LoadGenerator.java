@@ -0,0 +1,306 @@
+package com.reyansh.birt.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.model.ReportRequest;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Open-loop load generator for a running node: starts requests to /generate, /generate-dynamic,
+ * status and download at a fixed arrival rate in the configured mix and records their latency in
+ * HdrHistograms.
+ *
+ * Requests are sent on schedule whether or not earlier ones have completed, and latency is
+ * measured from the time a request was scheduled to start, so a stalled node shows up as the full
+ * wait its callers would see instead of being hidden by a generator that waits with it
+ * (coordinated omission). Status and download requests use report IDs returned by earlier
+ * /generate-dynamic requests, whose outputs are stored; until one has completed they are sent as
+ * /generate-dynamic. Responses other than 2xx count as errors and are recorded like the others.
+ * Requests still unanswered when the drain time is up count as errors too, with the time they had
+ * waited by then as their latency, so the slowest responses are not left out of the tail.
+ *
+ * Run with {@code mvn -Ploadtest test-compile exec:exec -Dload.args="..."}; see
+ * {@link LoadOptions#USAGE} for the options and {@link LatencyReport} for the reports.
+ */
+public final class LoadGenerator {
+
+    enum Endpoint {
+        GENERATE("generate"), GENERATE_DYNAMIC("generate-dynamic"), STATUS("status"), DOWNLOAD("download");
+
+        private final String name;
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        static Endpoint of(String name) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.name.equals(name)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint " + name);
+        }
+    }
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private static final int REPORT_ID_SLOTS = 1024;
+
+    private final LoadOptions options;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final HttpClient client;
+
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+
+    private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+
+    // Recently generated report IDs for status and download requests
+    private final AtomicReferenceArray<String> reportIds = new AtomicReferenceArray<>(REPORT_ID_SLOTS);
+
+    private final AtomicLong reportIdCount = new AtomicLong();
+
+    // Requests sent and not answered yet, by sequence number
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Endpoint[] schedule;
+
+    private final byte[] generateBody;
+
+    private final byte[] generateDynamicBody;
+
+    LoadGenerator(LoadOptions options) throws Exception {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (Endpoint endpoint : options.mix().keySet()) {
+            recorders.put(endpoint, new Recorder(HIGHEST_LATENCY_MICROS, 3));
+            errors.put(endpoint, new AtomicLong());
+        }
+        // Status and download fall back to /generate-dynamic until it has returned a report ID
+        recorders.computeIfAbsent(Endpoint.GENERATE_DYNAMIC, endpoint -> new Recorder(HIGHEST_LATENCY_MICROS, 3));
+        errors.computeIfAbsent(Endpoint.GENERATE_DYNAMIC, endpoint -> new AtomicLong());
+        // One slot per unit of weight, picked uniformly
+        this.schedule = options.mix().entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Endpoint[]::new);
+        this.generateBody = objectMapper.writeValueAsBytes(ReportRequest.builder()
+                .reportName(options.report())
+                .outputFormat(options.format())
+                .build());
+        this.generateDynamicBody = objectMapper.writeValueAsBytes(DynamicReportRequest.builder()
+                .libraryPath(options.library())
+                .reportName(options.report())
+                .outputFormat(options.format())
+                .datasetNames(options.dataSets())
+                .build());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments;
+        try {
+            arguments = LoadOptions.arguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        if (arguments.containsKey("compare")) {
+            String[] directories = arguments.get("compare").split(",");
+            System.out.print(LatencyReport.compare(LatencyReport.read(Path.of(directories[0])),
+                    LatencyReport.read(Path.of(directories[1]))));
+            return;
+        }
+
+        LoadGenerator generator = new LoadGenerator(LoadOptions.parse(arguments));
+        try {
+            generator.run();
+        } finally {
+            generator.executor.shutdownNow();
+        }
+    }
+
+    void run() throws Exception {
+        System.out.printf(Locale.ROOT, "Driving %s at %.1f req/s for %ds after a %ds warmup, mix %s%n",
+                options.target(), options.rate(), options.duration().toSeconds(), options.warmup().toSeconds(),
+                options.mix());
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+        long warmupNanos = options.warmup().toNanos();
+        long endNanos = warmupNanos + options.duration().toNanos();
+        long start = System.nanoTime();
+        long measuredStartMillis = 0;
+        for (long i = 0; ; i++) {
+            long offset = i * intervalNanos;
+            if (offset >= endNanos) {
+                break;
+            }
+            long intended = start + offset;
+            long delay;
+            while ((delay = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            boolean measured = offset >= warmupNanos;
+            if (measured && measuredStartMillis == 0) {
+                measuredStartMillis = System.currentTimeMillis();
+            }
+            send(schedule[ThreadLocalRandom.current().nextInt(schedule.length)], intended, measured);
+        }
+        long measuredEndMillis = System.currentTimeMillis();
+
+        long drainDeadline = System.nanoTime() + options.drain().toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        int unanswered = recordUnanswered();
+        if (unanswered > 0) {
+            System.out.printf("%d requests still in flight after %ds, recorded as errors%n",
+                    unanswered, options.drain().toSeconds());
+        }
+
+        Map<String, Histogram> histograms = new TreeMap<>();
+        Map<String, Long> errorCounts = new TreeMap<>();
+        Histogram all = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        recorders.forEach((endpoint, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            histograms.put(endpoint.name, histogram);
+            errorCounts.put(endpoint.name, errors.get(endpoint).get());
+            all.add(histogram);
+        });
+        histograms.put("all", all);
+        errorCounts.put("all", errorCounts.values().stream().mapToLong(Long::longValue).sum());
+
+        LatencyReport.write(options.output(), histograms, errorCounts, measuredStartMillis, measuredEndMillis);
+        System.out.print(LatencyReport.summary(histograms, errorCounts,
+                (measuredEndMillis - measuredStartMillis) / 1000.0));
+        if (options.baseline() != null) {
+            String comparison = LatencyReport.compare(LatencyReport.read(options.baseline()), histograms);
+            Files.writeString(options.output().resolve(LatencyReport.COMPARISON_FILE), comparison);
+            System.out.print(comparison);
+        }
+        System.out.println("Reports written to " + options.output().toAbsolutePath());
+    }
+
+    /**
+     * @param measured whether the request belongs to the measured run; warmup requests are not recorded
+     */
+    private void send(Endpoint endpoint, long intendedNanos, boolean measured) {
+        boolean needsReport = endpoint == Endpoint.STATUS || endpoint == Endpoint.DOWNLOAD;
+        String reportId = needsReport ? recentReportId() : null;
+        Endpoint sent = needsReport && reportId == null ? Endpoint.GENERATE_DYNAMIC : endpoint;
+
+        long id = sequence.incrementAndGet();
+        inFlight.put(id, new InFlight(sent, intendedNanos, measured));
+        client.sendAsync(request(sent, reportId), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    // Already recorded as unanswered at the end of the run
+                    if (inFlight.remove(id) == null) {
+                        return;
+                    }
+                    boolean success = error == null && response.statusCode() / 100 == 2;
+                    if (measured) {
+                        record(sent, intendedNanos, System.nanoTime(), success);
+                    }
+                    if (success && sent == Endpoint.GENERATE_DYNAMIC) {
+                        rememberReportId(response.body());
+                    }
+                });
+    }
+
+    /**
+     * Record the requests still in flight as failed, with the time they have waited so far
+     *
+     * @return how many measured requests were unanswered
+     */
+    private int recordUnanswered() {
+        long now = System.nanoTime();
+        int unanswered = 0;
+        for (Long id : inFlight.keySet()) {
+            InFlight request = inFlight.remove(id);
+            if (request != null && request.measured()) {
+                record(request.endpoint(), request.intendedNanos(), now, false);
+                unanswered++;
+            }
+        }
+        return unanswered;
+    }
+
+    private void record(Endpoint endpoint, long intendedNanos, long endNanos, boolean success) {
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(endNanos - intendedNanos);
+        recorders.get(endpoint).recordValue(Math.min(latencyMicros, HIGHEST_LATENCY_MICROS));
+        if (!success) {
+            errors.get(endpoint).incrementAndGet();
+        }
+    }
+
+    private record InFlight(Endpoint endpoint, long intendedNanos, boolean measured) {
+    }
+
+    private HttpRequest request(Endpoint endpoint, String reportId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofMinutes(5));
+        switch (endpoint) {
+            case GENERATE:
+                return builder.uri(URI.create(options.target() + "/api/reports/generate"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(generateBody)).build();
+            case GENERATE_DYNAMIC:
+                return builder.uri(URI.create(options.target() + "/api/reports/generate-dynamic"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(generateDynamicBody)).build();
+            case STATUS:
+                return builder.uri(URI.create(options.target() + "/api/reports/status/" + reportId)).GET().build();
+            case DOWNLOAD:
+                return builder.uri(URI.create(options.target() + "/api/reports/download/" + reportId)).GET().build();
+            default:
+                throw new IllegalStateException("Unknown endpoint " + endpoint);
+        }
+    }
+
+    private void rememberReportId(byte[] body) {
+        try {
+            String reportId = objectMapper.readTree(body).path("reportId").asText(null);
+            if (reportId != null) {
+                reportIds.set((int) (reportIdCount.getAndIncrement() % REPORT_ID_SLOTS), reportId);
+            }
+        } catch (Exception e) {
+            // Not a report response; nothing to reuse
+        }
+    }
+
+    private String recentReportId() {
+        long count = Math.min(reportIdCount.get(), REPORT_ID_SLOTS);
+        return count == 0 ? null : reportIds.get(ThreadLocalRandom.current().nextInt((int) count));
+    }
+}
@@ -0,0 +1,118 @@
+package com.reyansh.birt.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options of the {@link LoadGenerator}, given as --name=value
+ *
+ * @param target     base URL of the node under test
+ * @param rate       requests started per second, independent of how fast responses come back
+ * @param duration   measured run time, after the warmup
+ * @param warmup     time the load runs before latencies are recorded
+ * @param drain      time to wait for requests still in flight at the end
+ * @param mix        relative weight of each endpoint
+ * @param report     design name for /generate
+ * @param library    library path for /generate-dynamic
+ * @param dataSets   data sets for /generate-dynamic
+ * @param format     output format of generated reports
+ * @param output     directory the reports are written to
+ * @param baseline   directory of an earlier run to compare with, or null
+ */
+record LoadOptions(String target, double rate, Duration duration, Duration warmup, Duration drain,
+                   Map<LoadGenerator.Endpoint, Integer> mix, String report, String library, List<String> dataSets,
+                   String format, Path output, Path baseline) {
+
+    static final String USAGE = """
+            Options (--name=value):
+              --target=http://localhost:8080   node under test
+              --rate=20                        requests per second (open loop)
+              --duration=60s                   measured run time
+              --warmup=10s                     unrecorded load before the measured run
+              --drain=30s                      wait for in-flight requests at the end
+              --mix=generate=40,generate-dynamic=40,status=10,download=10
+              --report=sales-report            design for /generate
+              --library=reports/library/common.rptlibrary
+              --datasets=Orders                data sets for /generate-dynamic, comma separated
+              --format=pdf
+              --output=target/load/<timestamp>
+              --baseline=<directory>           earlier run to write a comparison against
+            Compare two earlier runs only:
+              --compare=<baseline directory>,<directory>
+            """;
+
+    static LoadOptions parse(Map<String, String> args) {
+        return new LoadOptions(
+                args.getOrDefault("target", "http://localhost:8080").replaceAll("/+$", ""),
+                Double.parseDouble(args.getOrDefault("rate", "20")),
+                duration(args.getOrDefault("duration", "60s")),
+                duration(args.getOrDefault("warmup", "10s")),
+                duration(args.getOrDefault("drain", "30s")),
+                mix(args.getOrDefault("mix", "generate=40,generate-dynamic=40,status=10,download=10")),
+                args.getOrDefault("report", "sales-report"),
+                args.getOrDefault("library", "reports/library/common.rptlibrary"),
+                List.of(args.getOrDefault("datasets", "Orders").split(",")),
+                args.getOrDefault("format", "pdf"),
+                Path.of(args.getOrDefault("output", "target/load/"
+                        + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")))),
+                args.containsKey("baseline") ? Path.of(args.get("baseline")) : null);
+    }
+
+    static Map<String, String> arguments(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return values;
+    }
+
+    /**
+     * Durations like 500ms, 30s, 5m, plain seconds (30) or ISO-8601 (PT30S, PT5M)
+     */
+    static Duration duration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        // ISO-8601 first: PT30S and PT5M end in the same units as 30s and 5m
+        if (text.startsWith("p")) {
+            return Duration.parse(value.trim());
+        }
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+
+    private static Map<LoadGenerator.Endpoint, Integer> mix(String value) {
+        Map<LoadGenerator.Endpoint, Integer> mix = new EnumMap<>(LoadGenerator.Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint=weight in --mix but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(LoadGenerator.Endpoint.of(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix selects no endpoint");
+        }
+        return mix;
+    }
+}
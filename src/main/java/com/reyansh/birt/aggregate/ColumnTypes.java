@@ -0,0 +1,79 @@
+package com.reyansh.birt.aggregate;
+
+import java.math.BigInteger;
+
+/**
+ * Tracks which columns hold numbers as values arrive and converts them to primitives.
+ *
+ * A column is summed when all its non-null values are numbers. Integer types are summed as
+ * long; once a column has seen any other number type its sum is reported as a double.
+ */
+final class ColumnTypes {
+
+    private final boolean[] integral;
+
+    private final boolean[] fractional;
+
+    private final boolean[] other;
+
+    ColumnTypes(int columnCount) {
+        this.integral = new boolean[columnCount];
+        this.fractional = new boolean[columnCount];
+        this.other = new boolean[columnCount];
+    }
+
+    /**
+     * Store the value of a column in the current chunk row
+     */
+    void store(RowChunk chunk, int column, Object value) {
+        if (value == null || other[column]) {
+            return;
+        }
+        if (isIntegral(value)) {
+            integral[column] = true;
+            chunk.setLong(column, ((Number) value).longValue());
+        } else if (value instanceof Number number) {
+            fractional[column] = true;
+            chunk.setDouble(column, number.doubleValue());
+        } else {
+            other[column] = true;
+        }
+    }
+
+    /**
+     * Add the value of a column to running sums indexed by column
+     */
+    void accumulate(long[] longSums, double[] doubleSums, int column, Object value) {
+        if (value == null || other[column]) {
+            return;
+        }
+        if (isIntegral(value)) {
+            integral[column] = true;
+            longSums[column] += ((Number) value).longValue();
+        } else if (value instanceof Number number) {
+            fractional[column] = true;
+            doubleSums[column] += number.doubleValue();
+        } else {
+            other[column] = true;
+        }
+    }
+
+    boolean isSummed(int column) {
+        return !other[column] && (integral[column] || fractional[column]);
+    }
+
+    /**
+     * Reported sum of a column, Long for integer-only columns and Double otherwise
+     */
+    Object sum(int column, long longSum, double doubleSum) {
+        if (fractional[column]) {
+            return longSum + doubleSum;
+        }
+        return longSum;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger big && big.bitLength() < 64;
+    }
+}
@@ -0,0 +1,200 @@
+package com.reyansh.birt.aggregate;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Per-column sums by group, in flat primitive arrays indexed by
+ * slot * columnCount + column. Integral and floating-point values are summed separately so
+ * integer columns stay exact.
+ *
+ * The sums of a whole data set have one slot per group, the slot being the group id. Partial sums
+ * of a range of rows only have slots for the groups that occur in it, their ids ascending in
+ * {@link #groups}, so a partial never outgrows the rows it covers however many groups there are.
+ */
+final class GroupSums {
+
+    final int columnCount;
+
+    // Group id of each slot in ascending order, or null if the slot is the group id
+    final int[] groups;
+
+    int groupCount;
+
+    long[] longSums;
+
+    double[] doubleSums;
+
+    GroupSums(int columnCount, int groupCount) {
+        this(columnCount, groupCount, null);
+    }
+
+    private GroupSums(int columnCount, int groupCount, int[] groups) {
+        this.columnCount = columnCount;
+        this.groupCount = groupCount;
+        this.groups = groups;
+        this.longSums = new long[groupCount * columnCount];
+        this.doubleSums = new double[groupCount * columnCount];
+    }
+
+    /**
+     * Add the other sums into these, growing to its largest group if needed
+     */
+    void merge(GroupSums other) {
+        if (other.groupCount == 0) {
+            return;
+        }
+        ensureGroups((other.groups != null ? other.groups[other.groupCount - 1] : other.groupCount - 1) + 1);
+        for (int slot = 0; slot < other.groupCount; slot++) {
+            add(other.groups != null ? other.groups[slot] : slot, other, slot);
+        }
+    }
+
+    /**
+     * Grow to at least the given number of groups. Capacity grows by half at a time so that
+     * merging partials with ever new groups does not copy the arrays on every merge.
+     */
+    void ensureGroups(int count) {
+        if (count <= groupCount) {
+            return;
+        }
+        int length = longSums.length / columnCount;
+        if (count > length) {
+            int capacity = Math.max(count, length + (length >> 1));
+            longSums = Arrays.copyOf(longSums, capacity * columnCount);
+            doubleSums = Arrays.copyOf(doubleSums, capacity * columnCount);
+        }
+        groupCount = count;
+    }
+
+    private void add(int slot, GroupSums other, int otherSlot) {
+        int to = slot * columnCount;
+        int from = otherSlot * columnCount;
+        for (int column = 0; column < columnCount; column++) {
+            longSums[to + column] += other.longSums[from + column];
+            doubleSums[to + column] += other.doubleSums[from + column];
+        }
+    }
+
+    /**
+     * Sums of two partials, with the groups of either in ascending order
+     */
+    static GroupSums union(GroupSums left, GroupSums right) {
+        int[] groups = new int[left.groupCount + right.groupCount];
+        GroupSums sums = new GroupSums(left.columnCount, groups.length, groups);
+        int slot = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.groupCount || j < right.groupCount) {
+            int leftGroup = i < left.groupCount ? left.groups[i] : Integer.MAX_VALUE;
+            int rightGroup = j < right.groupCount ? right.groups[j] : Integer.MAX_VALUE;
+            int group = Math.min(leftGroup, rightGroup);
+            groups[slot] = group;
+            if (leftGroup == group) {
+                sums.add(slot, left, i++);
+            }
+            if (rightGroup == group) {
+                sums.add(slot, right, j++);
+            }
+            slot++;
+        }
+        sums.groupCount = slot;
+        return sums;
+    }
+
+    /**
+     * Sums a range of a chunk into partial sums, splitting it in halves down to {@link #LEAF_ROWS} rows
+     */
+    static final class SumTask extends RecursiveTask<GroupSums> {
+
+        static final int LEAF_ROWS = 8192;
+
+        private final RowChunk chunk;
+
+        private final int from;
+
+        private final int to;
+
+        SumTask(RowChunk chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected GroupSums compute() {
+            if (to - from > LEAF_ROWS) {
+                int middle = (from + to) >>> 1;
+                SumTask left = new SumTask(chunk, from, middle);
+                left.fork();
+                GroupSums right = new SumTask(chunk, middle, to).compute();
+                return union(left.join(), right);
+            }
+            return sumRange();
+        }
+
+        private GroupSums sumRange() {
+            int[] groups = chunk.groups;
+            int length = to - from;
+            int maxGroup = 0;
+            for (int i = from; i < to; i++) {
+                maxGroup = Math.max(maxGroup, groups[i]);
+            }
+
+            // Number the groups of the range densely: through a table by group id while it is no
+            // larger than the range, otherwise by searching the sorted distinct ids
+            int[] ids;
+            int[] slots = new int[length];
+            if (maxGroup < length) {
+                int[] slotOf = new int[maxGroup + 1];
+                for (int i = from; i < to; i++) {
+                    slotOf[groups[i]] = 1;
+                }
+                ids = new int[length];
+                int distinct = 0;
+                for (int group = 0; group <= maxGroup; group++) {
+                    if (slotOf[group] != 0) {
+                        ids[distinct] = group;
+                        slotOf[group] = ++distinct;
+                    }
+                }
+                ids = Arrays.copyOf(ids, distinct);
+                for (int i = from; i < to; i++) {
+                    slots[i - from] = slotOf[groups[i]] - 1;
+                }
+            } else {
+                ids = Arrays.copyOfRange(groups, from, to);
+                Arrays.sort(ids);
+                int distinct = 0;
+                for (int i = 0; i < ids.length; i++) {
+                    if (i == 0 || ids[i] != ids[distinct - 1]) {
+                        ids[distinct++] = ids[i];
+                    }
+                }
+                ids = Arrays.copyOf(ids, distinct);
+                for (int i = from; i < to; i++) {
+                    slots[i - from] = Arrays.binarySearch(ids, groups[i]);
+                }
+            }
+
+            int columnCount = chunk.longs.length;
+            GroupSums sums = new GroupSums(columnCount, ids.length, ids);
+            // Column at a time keeps the inner loops over contiguous primitive arrays
+            for (int column = 0; column < columnCount; column++) {
+                long[] longs = chunk.longs[column];
+                if (longs != null) {
+                    for (int i = from; i < to; i++) {
+                        sums.longSums[slots[i - from] * columnCount + column] += longs[i];
+                    }
+                }
+                double[] doubles = chunk.doubles[column];
+                if (doubles != null) {
+                    for (int i = from; i < to; i++) {
+                        sums.doubleSums[slots[i - from] * columnCount + column] += doubles[i];
+                    }
+                }
+            }
+            return sums;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.reyansh.birt.aggregate;
+
+/**
+ * A block of rows in columnar primitive form: the group of each row and, per column, its
+ * integral or floating-point value. A value lives in exactly one of the two arrays; the other
+ * holds 0, and arrays of a column without such values are never allocated.
+ */
+final class RowChunk {
+
+    final int[] groups;
+
+    final long[][] longs;
+
+    final double[][] doubles;
+
+    int size;
+
+    RowChunk(int capacity, int columnCount) {
+        this.groups = new int[capacity];
+        this.longs = new long[columnCount][];
+        this.doubles = new double[columnCount][];
+    }
+
+    boolean isFull() {
+        return size == groups.length;
+    }
+
+    void setLong(int column, long value) {
+        if (longs[column] == null) {
+            longs[column] = new long[groups.length];
+        }
+        longs[column][size] = value;
+    }
+
+    void setDouble(int column, double value) {
+        if (doubles[column] == null) {
+            doubles[column] = new double[groups.length];
+        }
+        doubles[column][size] = value;
+    }
+}
@@ -0,0 +1,236 @@
+package com.reyansh.birt.aggregate;
+
+import com.reyansh.birt.data.ListRowSource;
+import com.reyansh.birt.data.RowSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes the group summaries and totals of dynamic report tables (TableConfig.enableGrouping,
+ * groupByColumn and includeTotals) before the rows reach the exporter.
+ *
+ * Grouping reads the data set once, turning each block of rows into primitive column arrays
+ * that are summed on a fork-join pool while the next block is read. Partial sums are merged as
+ * they complete, so the sums grow with the number of groups rather than the number of rows.
+ *
+ * Blocks being filled or summed hold a permit of a budget shared by all requests,
+ * report.aggregation.max-chunks (two per worker by default). A block of {@value #CHUNK_ROWS} rows
+ * takes 4 bytes plus 8 per numeric column per row, so the blocks of all concurrent grouped
+ * requests together take at most the budget times that. A request that finds the budget used up
+ * merges its own oldest block before it waits for a permit, so requests never wait on each other
+ * while holding one.
+ */
+@Slf4j
+@Component
+public class TableAggregator implements MeterBinder {
+
+    static final String TOTAL_LABEL = "Total";
+
+    static final int CHUNK_ROWS = 16384;
+
+    private final ForkJoinPool pool;
+
+    private final Semaphore chunks;
+
+    public TableAggregator(@Value("${report.aggregation.parallelism:0}") int parallelism,
+                           @Value("${report.aggregation.max-chunks:0}") int maxChunks) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("table-aggregate-" + count.incrementAndGet());
+            return thread;
+        }, null, false);
+        this.chunks = new Semaphore(maxChunks > 0 ? maxChunks : threads * 2);
+    }
+
+    /**
+     * One row per distinct value of the group column, in ascending order, with the sums of the
+     * numeric columns; other columns are null. The source is read to the end and closed.
+     *
+     * @param includeTotals append a row labelled "Total" with the sums over all groups
+     * @throws IllegalArgumentException if the data set has no such column
+     */
+    public RowSource group(RowSource source, String groupByColumn, boolean includeTotals) throws Exception {
+        try (source) {
+            List<String> columnNames = source.getColumnNames();
+            int groupIndex = indexOf(columnNames, groupByColumn);
+            if (groupIndex < 0) {
+                throw new IllegalArgumentException("Group column not found in data set: " + groupByColumn);
+            }
+
+            int columnCount = columnNames.size();
+            ColumnTypes types = new ColumnTypes(columnCount);
+            Map<Object, Integer> groupIds = new HashMap<>();
+            List<Object> keys = new ArrayList<>();
+            GroupSums sums = new GroupSums(columnCount, 0);
+            ArrayDeque<ForkJoinTask<GroupSums>> pending = new ArrayDeque<>();
+            long rowCount = 0;
+            RowChunk chunk = null;
+            try {
+                chunk = nextChunk(pending, sums, columnCount);
+                while (source.next()) {
+                    Object key = source.getValue(groupIndex);
+                    Integer id = groupIds.get(key);
+                    if (id == null) {
+                        id = keys.size();
+                        groupIds.put(key, id);
+                        keys.add(key);
+                    }
+                    chunk.groups[chunk.size] = id;
+                    for (int column = 0; column < columnCount; column++) {
+                        if (column != groupIndex) {
+                            types.store(chunk, column, source.getValue(column));
+                        }
+                    }
+                    chunk.size++;
+                    rowCount++;
+                    if (chunk.isFull()) {
+                        pending.add(pool.submit(new GroupSums.SumTask(chunk, 0, chunk.size)));
+                        // Its permit now belongs to the pending task
+                        chunk = null;
+                        chunk = nextChunk(pending, sums, columnCount);
+                    }
+                }
+                if (chunk.size > 0) {
+                    pending.add(pool.submit(new GroupSums.SumTask(chunk, 0, chunk.size)));
+                } else {
+                    chunks.release();
+                }
+                chunk = null;
+                while (!pending.isEmpty()) {
+                    mergeOldest(pending, sums);
+                }
+            } finally {
+                pending.forEach(task -> task.cancel(false));
+                chunks.release(pending.size() + (chunk != null ? 1 : 0));
+            }
+            sums.ensureGroups(keys.size());
+            log.debug("Aggregated {} rows into {} groups by {}", rowCount, keys.size(), groupByColumn);
+
+            return new ListRowSource(columnNames, summaryRows(sums, types, keys, groupIndex, includeTotals));
+        }
+    }
+
+    /**
+     * A new block to fill once a permit is free, merging the request's own pending blocks first
+     */
+    private RowChunk nextChunk(ArrayDeque<ForkJoinTask<GroupSums>> pending, GroupSums sums, int columnCount)
+            throws InterruptedException {
+        while (!chunks.tryAcquire()) {
+            if (pending.isEmpty()) {
+                chunks.acquire();
+                break;
+            }
+            mergeOldest(pending, sums);
+        }
+        return new RowChunk(CHUNK_ROWS, columnCount);
+    }
+
+    private void mergeOldest(ArrayDeque<ForkJoinTask<GroupSums>> pending, GroupSums sums) {
+        ForkJoinTask<GroupSums> task = pending.peek();
+        GroupSums partial = task.join();
+        pending.poll();
+        chunks.release();
+        sums.merge(partial);
+    }
+
+    /**
+     * The rows of the source followed by a row with the sums of its numeric columns, labelled
+     * "Total" in the first other column. Rows are streamed, not collected.
+     */
+    public RowSource withTotals(RowSource source) {
+        return new TotalsRowSource(source);
+    }
+
+    /**
+     * The fork-join pool as executor.* meters named table-aggregate
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(pool, "table-aggregate", Tags.empty()).bindTo(registry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private static List<Object[]> summaryRows(GroupSums sums, ColumnTypes types, List<Object> keys,
+                                              int groupIndex, boolean includeTotals) {
+        int columnCount = sums.columnCount;
+        long[] totalLongs = new long[columnCount];
+        double[] totalDoubles = new double[columnCount];
+        List<Object[]> rows = new ArrayList<>(keys.size() + 1);
+        for (int group : sortedGroups(keys)) {
+            Object[] row = new Object[columnCount];
+            row[groupIndex] = keys.get(group);
+            for (int column = 0; column < columnCount; column++) {
+                if (column != groupIndex && types.isSummed(column)) {
+                    int slot = group * columnCount + column;
+                    row[column] = types.sum(column, sums.longSums[slot], sums.doubleSums[slot]);
+                    totalLongs[column] += sums.longSums[slot];
+                    totalDoubles[column] += sums.doubleSums[slot];
+                }
+            }
+            rows.add(row);
+        }
+
+        if (includeTotals) {
+            Object[] totals = new Object[columnCount];
+            totals[groupIndex] = TOTAL_LABEL;
+            for (int column = 0; column < columnCount; column++) {
+                if (column != groupIndex && types.isSummed(column)) {
+                    totals[column] = types.sum(column, totalLongs[column], totalDoubles[column]);
+                }
+            }
+            rows.add(totals);
+        }
+        return rows;
+    }
+
+    /**
+     * Group ids ordered by key, nulls first; in order of appearance if the keys are not mutually comparable
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<Integer> sortedGroups(List<Object> keys) {
+        List<Integer> order = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            order.add(i);
+        }
+        try {
+            Comparator<Object> byKey = Comparator.nullsFirst((a, b) -> ((Comparable) a).compareTo(b));
+            order.sort((a, b) -> byKey.compare(keys.get(a), keys.get(b)));
+        } catch (ClassCastException e) {
+            order.sort(Comparator.naturalOrder());
+        }
+        return order;
+    }
+
+    private static int indexOf(List<String> columnNames, String name) {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (columnNames.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
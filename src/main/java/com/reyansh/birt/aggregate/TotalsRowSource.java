@@ -0,0 +1,80 @@
+package com.reyansh.birt.aggregate;
+
+import com.reyansh.birt.data.RowSource;
+
+import java.util.List;
+
+/**
+ * Passes the detail rows through and appends a totals row once they are exhausted. Sums are kept
+ * in primitive arrays while the rows stream, so nothing is retained.
+ */
+class TotalsRowSource implements RowSource {
+
+    private final RowSource delegate;
+
+    private final ColumnTypes types;
+
+    private final long[] longSums;
+
+    private final double[] doubleSums;
+
+    private Object[] totals;
+
+    private boolean done;
+
+    TotalsRowSource(RowSource delegate) {
+        int columnCount = delegate.getColumnNames().size();
+        this.delegate = delegate;
+        this.types = new ColumnTypes(columnCount);
+        this.longSums = new long[columnCount];
+        this.doubleSums = new double[columnCount];
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return delegate.getColumnNames();
+    }
+
+    @Override
+    public boolean next() throws Exception {
+        if (totals != null) {
+            done = true;
+            return false;
+        }
+        if (delegate.next()) {
+            for (int i = 0; i < longSums.length; i++) {
+                types.accumulate(longSums, doubleSums, i, delegate.getValue(i));
+            }
+            return true;
+        }
+        totals = new Object[longSums.length];
+        boolean labelled = false;
+        for (int i = 0; i < totals.length; i++) {
+            if (types.isSummed(i)) {
+                totals[i] = types.sum(i, longSums[i], doubleSums[i]);
+            } else if (!labelled) {
+                totals[i] = TableAggregator.TOTAL_LABEL;
+                labelled = true;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object getValue(int index) throws Exception {
+        if (done) {
+            throw new IllegalStateException("No current row");
+        }
+        return totals != null ? totals[index] : delegate.getValue(index);
+    }
+
+    @Override
+    public void cancel() throws Exception {
+        delegate.cancel();
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+}
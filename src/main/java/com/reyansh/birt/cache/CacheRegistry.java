@@ -0,0 +1,62 @@
+package com.reyansh.birt.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-wide list of caches whose statistics are reported, both at GET /api/cache/stats and as
+ * report.cache.* meters tagged with the cache name
+ */
+@Component
+public class CacheRegistry implements MeterBinder {
+
+    private final List<LruCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+    private final List<MeterRegistry> meterRegistries = new ArrayList<>();
+
+    public synchronized <K, V> LruCache<K, V> register(LruCache<K, V> cache) {
+        caches.add(cache);
+        // Caches created after the registry was bound are published right away
+        meterRegistries.forEach(registry -> bind(cache, registry));
+        return cache;
+    }
+
+    public List<LruCache<?, ?>> getCaches() {
+        return List.copyOf(caches);
+    }
+
+    public List<CacheStats> getStats() {
+        return caches.stream().map(LruCache::getStats).toList();
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        meterRegistries.add(registry);
+        caches.forEach(cache -> bind(cache, registry));
+    }
+
+    private static void bind(LruCache<?, ?> cache, MeterRegistry registry) {
+        String name = cache.getName();
+        FunctionCounter.builder("report.cache.hits", cache, c -> c.getStats().hits())
+                .tag("cache", name).description("Cache lookups served from the cache").register(registry);
+        FunctionCounter.builder("report.cache.misses", cache, c -> c.getStats().misses())
+                .tag("cache", name).description("Cache lookups that missed").register(registry);
+        FunctionCounter.builder("report.cache.evictions", cache, c -> c.getStats().evictions())
+                .tag("cache", name).description("Entries evicted to stay within the size limit").register(registry);
+        Gauge.builder("report.cache.hit.ratio", cache, c -> c.getStats().hitRate())
+                .tag("cache", name).description("Share of lookups served from the cache").register(registry);
+        Gauge.builder("report.cache.entries", cache, c -> c.getStats().entries())
+                .tag("cache", name).register(registry);
+        Gauge.builder("report.cache.size", cache, c -> c.getStats().sizeBytes())
+                .tag("cache", name).baseUnit("bytes").register(registry);
+        Gauge.builder("report.cache.max.size", cache, c -> c.getStats().maxBytes())
+                .tag("cache", name).baseUnit("bytes").register(registry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.reyansh.birt.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Point-in-time counters of a cache
+ */
+public record CacheStats(String name, long hits, long misses, long evictions, int entries,
+                         long sizeBytes, long maxBytes) {
+
+    /**
+     * Share of lookups served from the cache, 0 before the first lookup
+     */
+    @JsonProperty
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,174 @@
+package com.reyansh.birt.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe LRU cache bounded by the total weight (usually bytes) of its values.
+ *
+ * Values are shared between callers and must be treated as read-only. A value heavier than
+ * the whole cache is not stored. Hits, misses and evictions are counted for {@link CacheStats}.
+ * An optional removal listener is called for every value that leaves the cache, under the cache lock.
+ */
+public class LruCache<K, V> {
+
+    private final String name;
+
+    private final long maxBytes;
+
+    private final ToLongFunction<V> weigher;
+
+    private final Consumer<V> removalListener;
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long sizeBytes;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    public LruCache(String name, long maxBytes, ToLongFunction<V> weigher) {
+        this(name, maxBytes, weigher, value -> {
+        });
+    }
+
+    public LruCache(String name, long maxBytes, ToLongFunction<V> weigher, Consumer<V> removalListener) {
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+        this.removalListener = removalListener;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Cached value, or null on a miss
+     */
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    /**
+     * Cached value if it is still valid; an invalid value is removed and counted as a miss
+     */
+    public synchronized V get(K key, Predicate<V> valid) {
+        V value = entries.get(key);
+        if (value != null && !valid.test(value)) {
+            invalidate(key);
+            value = null;
+        }
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    /**
+     * Cached value without touching recency or counters
+     */
+    public synchronized V peek(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized boolean containsKey(K key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Store a value, evicting least recently used entries to stay within the size limit
+     *
+     * @return false if the value is too large to be cached
+     */
+    public synchronized boolean put(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        if (weight > maxBytes) {
+            return false;
+        }
+
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            sizeBytes -= weigher.applyAsLong(previous);
+            if (previous != value) {
+                removalListener.accept(previous);
+            }
+        }
+        sizeBytes += weight;
+
+        Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<K, V> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            sizeBytes -= weigher.applyAsLong(entry.getValue());
+            eldest.remove();
+            evictions++;
+            removalListener.accept(entry.getValue());
+        }
+        return true;
+    }
+
+    public synchronized V invalidate(K key) {
+        V removed = entries.remove(key);
+        if (removed != null) {
+            sizeBytes -= weigher.applyAsLong(removed);
+            removalListener.accept(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Remove all entries whose key matches
+     *
+     * @return number of removed entries
+     */
+    public synchronized int invalidateIf(Predicate<K> predicate) {
+        return invalidateEntries((key, value) -> predicate.test(key));
+    }
+
+    /**
+     * Remove all entries whose key and value match
+     *
+     * @return number of removed entries
+     */
+    public synchronized int invalidateEntries(BiPredicate<K, V> predicate) {
+        List<K> matching = new ArrayList<>();
+        for (Map.Entry<K, V> entry : entries.entrySet()) {
+            if (predicate.test(entry.getKey(), entry.getValue())) {
+                matching.add(entry.getKey());
+            }
+        }
+        matching.forEach(this::invalidate);
+        return matching.size();
+    }
+
+    public synchronized void clear() {
+        entries.values().forEach(removalListener);
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, hits, misses, evictions, entries.size(), sizeBytes, maxBytes);
+    }
+}
@@ -0,0 +1,7 @@
+package com.reyansh.birt.chart;
+
+/**
+ * Rendered chart. The bytes are shared through the chart cache and must not be modified.
+ */
+public record ChartImage(String title, String contentType, byte[] bytes, int width, int height) {
+}
@@ -0,0 +1,247 @@
+package com.reyansh.birt.chart;
+
+import com.reyansh.birt.model.DynamicReportRequest;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Rasterizes bar, line, area and pie charts of a single series to PNG with Java2D.
+ *
+ * Rendering is stateless and safe to call concurrently; it runs headless.
+ */
+@Component
+public class ChartRenderer {
+
+    public static final String CONTENT_TYPE = "image/png";
+
+    static final int DEFAULT_WIDTH = 600;
+
+    static final int DEFAULT_HEIGHT = 400;
+
+    private static final int MAX_SIZE = 4000;
+
+    private static final int PADDING = 16;
+
+    private static final Color[] PALETTE = {
+            new Color(0x4E79A7), new Color(0xF28E2B), new Color(0xE15759), new Color(0x76B7B2),
+            new Color(0x59A14F), new Color(0xEDC948), new Color(0xB07AA1), new Color(0xFF9DA7),
+            new Color(0x9C755F), new Color(0xBAB0AC)
+    };
+
+    private static final Color AXIS = new Color(0x666666);
+
+    private static final Color GRID = new Color(0xE0E0E0);
+
+    public ChartImage render(DynamicReportRequest.ChartConfig chart, ChartSeries series) throws IOException {
+        int width = size(chart.getWidth(), DEFAULT_WIDTH);
+        int height = size(chart.getHeight(), DEFAULT_HEIGHT);
+        String type = chart.getChartType() != null ? chart.getChartType().toLowerCase(Locale.ROOT) : "bar";
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+
+            int top = PADDING;
+            if (chart.getTitle() != null) {
+                g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 16));
+                FontMetrics metrics = g.getFontMetrics();
+                g.setColor(Color.BLACK);
+                g.drawString(chart.getTitle(), (width - metrics.stringWidth(chart.getTitle())) / 2,
+                        top + metrics.getAscent());
+                top += metrics.getHeight() + PADDING / 2;
+            }
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+
+            boolean legend = Boolean.TRUE.equals(chart.getShowLegend());
+            int legendWidth = legend ? legendWidth(g, chart, series, type) : 0;
+            Rectangle2D area = new Rectangle2D.Double(PADDING, top,
+                    Math.max(1, width - 2 * PADDING - legendWidth), Math.max(1, height - top - PADDING));
+
+            switch (type) {
+                case "pie" -> drawPie(g, series, area);
+                case "line" -> drawCartesian(g, series, area, false, false);
+                case "area" -> drawCartesian(g, series, area, false, true);
+                default -> drawCartesian(g, series, area, true, false);
+            }
+            if (legend) {
+                drawLegend(g, chart, series, type, (int) area.getMaxX() + PADDING, top);
+            }
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(width * height / 8);
+        ImageIO.write(image, "png", out);
+        return new ChartImage(chart.getTitle(), CONTENT_TYPE, out.toByteArray(), width, height);
+    }
+
+    private static int size(Integer requested, int defaultSize) {
+        return requested != null && requested > 0 ? Math.min(requested, MAX_SIZE) : defaultSize;
+    }
+
+    private static void drawCartesian(Graphics2D g, ChartSeries series, Rectangle2D area,
+                                      boolean bars, boolean filled) {
+        FontMetrics metrics = g.getFontMetrics();
+        double min = 0;
+        double max = 0;
+        for (double value : series.values()) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (max == min) {
+            max = min + 1;
+        }
+
+        // Value axis labels on the left, category labels below
+        int ticks = 5;
+        int labelWidth = 0;
+        for (int i = 0; i <= ticks; i++) {
+            labelWidth = Math.max(labelWidth, metrics.stringWidth(tickLabel(min + (max - min) * i / ticks)));
+        }
+        double left = area.getX() + labelWidth + 6;
+        double bottom = area.getMaxY() - metrics.getHeight() - 4;
+        double plotWidth = Math.max(1, area.getMaxX() - left);
+        double plotHeight = Math.max(1, bottom - area.getY());
+
+        for (int i = 0; i <= ticks; i++) {
+            double value = min + (max - min) * i / ticks;
+            int y = (int) (bottom - plotHeight * i / ticks);
+            g.setColor(GRID);
+            g.drawLine((int) left, y, (int) area.getMaxX(), y);
+            g.setColor(AXIS);
+            String label = tickLabel(value);
+            g.drawString(label, (int) left - 4 - metrics.stringWidth(label), y + metrics.getAscent() / 2);
+        }
+
+        int count = series.size();
+        if (count == 0) {
+            return;
+        }
+        double slot = plotWidth / count;
+        double zero = bottom - plotHeight * (0 - min) / (max - min);
+
+        // Skip category labels that would overlap
+        int maxLabelWidth = 1;
+        for (String category : series.categories()) {
+            maxLabelWidth = Math.max(maxLabelWidth, metrics.stringWidth(category));
+        }
+        int labelStep = Math.max(1, (int) Math.ceil((maxLabelWidth + 6) / slot));
+
+        Path2D line = new Path2D.Double();
+        for (int i = 0; i < count; i++) {
+            double x = left + slot * i;
+            double y = bottom - plotHeight * (series.values()[i] - min) / (max - min);
+            if (bars) {
+                g.setColor(PALETTE[0]);
+                double barWidth = Math.max(1, slot * 0.7);
+                g.fill(new Rectangle2D.Double(x + (slot - barWidth) / 2, Math.min(y, zero),
+                        barWidth, Math.abs(zero - y)));
+            } else if (i == 0) {
+                line.moveTo(x + slot / 2, y);
+            } else {
+                line.lineTo(x + slot / 2, y);
+            }
+            if (i % labelStep == 0) {
+                String category = series.categories().get(i);
+                g.setColor(AXIS);
+                g.drawString(category, (int) (x + (slot - metrics.stringWidth(category)) / 2),
+                        (int) area.getMaxY() - metrics.getDescent());
+            }
+        }
+
+        if (!bars) {
+            if (filled) {
+                Path2D fill = new Path2D.Double(line);
+                fill.lineTo(left + slot * (count - 0.5), zero);
+                fill.lineTo(left + slot / 2, zero);
+                fill.closePath();
+                g.setColor(new Color(PALETTE[0].getRed(), PALETTE[0].getGreen(), PALETTE[0].getBlue(), 96));
+                g.fill(fill);
+            }
+            g.setColor(PALETTE[0]);
+            g.setStroke(new BasicStroke(2f));
+            g.draw(line);
+        }
+
+        g.setColor(AXIS);
+        g.setStroke(new BasicStroke(1f));
+        g.drawLine((int) left, (int) zero, (int) area.getMaxX(), (int) zero);
+        g.drawLine((int) left, (int) area.getY(), (int) left, (int) bottom);
+    }
+
+    private static void drawPie(Graphics2D g, ChartSeries series, Rectangle2D area) {
+        double total = 0;
+        for (double value : series.values()) {
+            total += Math.max(0, value);
+        }
+        if (total == 0) {
+            return;
+        }
+        double diameter = Math.min(area.getWidth(), area.getHeight());
+        double x = area.getX() + (area.getWidth() - diameter) / 2;
+        double y = area.getY() + (area.getHeight() - diameter) / 2;
+
+        double start = 90;
+        for (int i = 0; i < series.size(); i++) {
+            double extent = -360 * Math.max(0, series.values()[i]) / total;
+            g.setColor(PALETTE[i % PALETTE.length]);
+            g.fill(new Arc2D.Double(x, y, diameter, diameter, start, extent, Arc2D.PIE));
+            start += extent;
+        }
+    }
+
+    private static int legendWidth(Graphics2D g, DynamicReportRequest.ChartConfig chart, ChartSeries series,
+                                   String type) {
+        FontMetrics metrics = g.getFontMetrics();
+        int width = 0;
+        for (String entry : legendEntries(chart, series, type)) {
+            width = Math.max(width, metrics.stringWidth(entry));
+        }
+        return width + 14 + PADDING;
+    }
+
+    private static void drawLegend(Graphics2D g, DynamicReportRequest.ChartConfig chart, ChartSeries series,
+                                   String type, int x, int y) {
+        FontMetrics metrics = g.getFontMetrics();
+        String[] entries = legendEntries(chart, series, type);
+        for (int i = 0; i < entries.length; i++) {
+            int rowY = y + i * (metrics.getHeight() + 2);
+            g.setColor(PALETTE[i % PALETTE.length]);
+            g.fillRect(x, rowY + 2, 10, 10);
+            g.setColor(Color.BLACK);
+            g.drawString(entries[i], x + 14, rowY + metrics.getAscent());
+        }
+    }
+
+    private static String[] legendEntries(DynamicReportRequest.ChartConfig chart, ChartSeries series, String type) {
+        if ("pie".equals(type)) {
+            return series.categories().toArray(String[]::new);
+        }
+        return new String[]{chart.getValueColumn() != null ? chart.getValueColumn() : ""};
+    }
+
+    private static String tickLabel(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
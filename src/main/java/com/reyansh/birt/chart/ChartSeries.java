@@ -0,0 +1,91 @@
+package com.reyansh.birt.chart;
+
+import com.reyansh.birt.data.RowSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Category/value pairs of a chart, in data set order
+ */
+public record ChartSeries(List<String> categories, double[] values) {
+
+    public int size() {
+        return categories.size();
+    }
+
+    /**
+     * Read the category and value columns of a data set. Null values count as zero.
+     *
+     * @throws IllegalArgumentException if a column is missing or a value is not numeric
+     */
+    public static ChartSeries read(RowSource source, String categoryColumn, String valueColumn) throws Exception {
+        int category = columnIndex(source.getColumnNames(), categoryColumn);
+        int value = columnIndex(source.getColumnNames(), valueColumn);
+
+        List<String> categories = new ArrayList<>();
+        double[] values = new double[16];
+        while (source.next()) {
+            if (categories.size() == values.length) {
+                double[] grown = new double[values.length * 2];
+                System.arraycopy(values, 0, grown, 0, values.length);
+                values = grown;
+            }
+            values[categories.size()] = toDouble(source.getValue(value), valueColumn);
+            categories.add(String.valueOf(source.getValue(category)));
+        }
+        double[] trimmed = new double[categories.size()];
+        System.arraycopy(values, 0, trimmed, 0, trimmed.length);
+        return new ChartSeries(List.copyOf(categories), trimmed);
+    }
+
+    /**
+     * SHA-256 of the series, identical for identical data regardless of where it came from
+     */
+    public String digest() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer value = ByteBuffer.allocate(Double.BYTES);
+            for (int i = 0; i < categories.size(); i++) {
+                digest.update(categories.get(i).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                value.clear();
+                value.putDouble(values[i]);
+                digest.update(value.array());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static int columnIndex(List<String> columnNames, String column) {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (columnNames.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Chart column not found: " + column + " (available: " + columnNames + ")");
+    }
+
+    private static double toDouble(Object value, String column) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format(Locale.ROOT,
+                    "Chart value column %s is not numeric: %s", column, value));
+        }
+    }
+}
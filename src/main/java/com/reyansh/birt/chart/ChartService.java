@@ -0,0 +1,106 @@
+package com.reyansh.birt.chart;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.cache.LruCache;
+import com.reyansh.birt.data.ColumnSelection;
+import com.reyansh.birt.data.DatasetService;
+import com.reyansh.birt.data.RowSource;
+import com.reyansh.birt.model.DynamicReportRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders dynamic report charts from their data sets with a shared image cache.
+ *
+ * Images are cached by the chart settings that affect the picture plus a digest of the series
+ * data, so an unchanged chart is rasterized once and reused across reports and output formats.
+ * The data set still runs on every call since the digest is what detects changed data.
+ */
+@Slf4j
+@Service
+public class ChartService {
+
+    private final DatasetService datasetService;
+
+    private final ChartRenderer renderer;
+
+    private final LruCache<ChartKey, ChartImage> cache;
+
+    public ChartService(DatasetService datasetService, ChartRenderer renderer, CacheRegistry cacheRegistry,
+                        @Value("${report.cache.charts.max-size-mb:32}") long maxSizeMb) {
+        this.datasetService = datasetService;
+        this.renderer = renderer;
+        this.cache = cacheRegistry.register(
+                new LruCache<>("chart-images", maxSizeMb * 1024 * 1024, image -> image.bytes().length));
+    }
+
+    /**
+     * Chart of a data set in the library
+     *
+     * @param dataSourceName data source to run against, or null for the one the data set declares
+     * @param parameters     values of the data set parameters
+     */
+    public ChartImage render(String libraryPath, String dataSourceName, Map<String, Object> parameters,
+                             DynamicReportRequest.ChartConfig chart) throws Exception {
+        return render(libraryPath, dataSourceName, parameters, chart, 0);
+    }
+
+    /**
+     * Chart of the first rows of a data set in the library
+     *
+     * @param maxRows rows plotted at most, 0 for all
+     * @see #render(String, String, Map, DynamicReportRequest.ChartConfig)
+     */
+    public ChartImage render(String libraryPath, String dataSourceName, Map<String, Object> parameters,
+                             DynamicReportRequest.ChartConfig chart, int maxRows) throws Exception {
+        // Only the two plotted columns are fetched; rows keep their data set order, so nothing is grouped
+        ColumnSelection selection = chart.getCategoryColumn() != null && chart.getValueColumn() != null
+                ? ColumnSelection.of(List.of(chart.getCategoryColumn(), chart.getValueColumn())).withMaxRows(maxRows)
+                : maxRows > 0 ? ColumnSelection.limit(maxRows) : null;
+        ChartSeries series;
+        try (RowSource source = datasetService.open(libraryPath, dataSourceName, chart.getDatasetName(), parameters,
+                selection)) {
+            series = ChartSeries.read(source, chart.getCategoryColumn(), chart.getValueColumn());
+        }
+        return render(chart, series);
+    }
+
+    public ChartImage render(DynamicReportRequest.ChartConfig chart, ChartSeries series) throws Exception {
+        ChartKey key = ChartKey.of(chart, series.digest());
+        ChartImage image = cache.get(key);
+        if (image != null) {
+            return image;
+        }
+
+        long start = System.nanoTime();
+        image = renderer.render(chart, series);
+        cache.put(key, image);
+        log.debug("Rendered {} chart '{}' with {} points in {}ms", key.chartType(), chart.getTitle(),
+                series.size(), (System.nanoTime() - start) / 1_000_000);
+        return image;
+    }
+
+    /**
+     * Everything that changes the rendered picture; the data set name is deliberately left out
+     */
+    record ChartKey(String chartType, String title, String categoryColumn, String valueColumn,
+                    int width, int height, boolean showLegend, String seriesDigest) {
+
+        static ChartKey of(DynamicReportRequest.ChartConfig chart, String seriesDigest) {
+            return new ChartKey(
+                    chart.getChartType() != null ? chart.getChartType().toLowerCase(Locale.ROOT) : "bar",
+                    chart.getTitle(),
+                    chart.getCategoryColumn(),
+                    chart.getValueColumn(),
+                    chart.getWidth() != null && chart.getWidth() > 0 ? chart.getWidth() : ChartRenderer.DEFAULT_WIDTH,
+                    chart.getHeight() != null && chart.getHeight() > 0 ? chart.getHeight() : ChartRenderer.DEFAULT_HEIGHT,
+                    Boolean.TRUE.equals(chart.getShowLegend()),
+                    seriesDigest);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.reyansh.birt.config;
+
+import com.reyansh.birt.metrics.ReportTimingsInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ReportTimingsInterceptor reportTimingsInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(reportTimingsInterceptor).addPathPatterns("/api/reports/**");
+    }
+}
@@ -0,0 +1,54 @@
+package com.reyansh.birt.controller;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.cache.CacheStats;
+import com.reyansh.birt.data.ResultCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller reporting the process-wide caches
+ */
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+@Tag(name = "Caches", description = "Statistics of the shared render caches")
+public class CacheController {
+
+    private final CacheRegistry cacheRegistry;
+
+    private final ResultCache resultCache;
+
+    @Operation(
+            summary = "Get cache statistics",
+            description = "Hits, misses, evictions, hit rate and size of every registered cache"
+    )
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStats>> getStats() {
+        return ResponseEntity.ok(cacheRegistry.getStats());
+    }
+
+    @Operation(
+            summary = "Invalidate cached data set results",
+            description = "Drops the cached results of a data set and/or data source, or all of them when neither is given"
+    )
+    @ApiResponse(responseCode = "200", description = "Results invalidated")
+    @DeleteMapping("/datasets")
+    public ResponseEntity<Map<String, Integer>> invalidateDatasets(
+            @RequestParam(required = false) String dataSet,
+            @RequestParam(required = false) String dataSource) {
+        return ResponseEntity.ok(Map.of("invalidated", resultCache.invalidate(dataSet, dataSource)));
+    }
+}
@@ -0,0 +1,56 @@
+package com.reyansh.birt.controller;
+
+import com.reyansh.birt.chart.ChartImage;
+import com.reyansh.birt.chart.ChartService;
+import com.reyansh.birt.model.ChartRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for rendering dashboard charts
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/charts")
+@RequiredArgsConstructor
+@Tag(name = "Charts", description = "APIs for rendering charts from library data sets")
+public class ChartController {
+
+    private final ChartService chartService;
+
+    @Operation(
+            summary = "Render a chart",
+            description = "Runs the chart's data set and returns the chart as PNG. Renderings are cached by chart " +
+                    "settings and series data, so unchanged charts are not rasterized again."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Chart rendered successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request, unknown data set or column")
+    })
+    @PostMapping("/render")
+    public ResponseEntity<byte[]> renderChart(
+            @Valid @RequestBody @Parameter(description = "Chart rendering request") ChartRequest request)
+            throws Exception {
+
+        log.debug("Rendering chart: {}", request.getChart().getTitle());
+
+        ChartImage image = chartService.render(request.getLibraryPath(), request.getDataSourceName(),
+                request.getParameters(), request.getChart());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .contentLength(image.bytes().length)
+                .body(image.bytes());
+    }
+}
@@ -0,0 +1,37 @@
+package com.reyansh.birt.controller;
+
+import com.reyansh.birt.data.ConnectionPools;
+import com.reyansh.birt.data.PoolStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller reporting the data source connection pools
+ */
+@RestController
+@RequestMapping("/api/pools")
+@RequiredArgsConstructor
+@Tag(name = "Connection Pools", description = "Saturation of the shared data source connection pools")
+public class ConnectionPoolController {
+
+    private final ConnectionPools connectionPools;
+
+    @Operation(
+            summary = "Get connection pool statistics",
+            description = "Active, idle and total connections, threads waiting for a connection, borrow timeouts " +
+                    "and saturation (active / max size) of every data source pool"
+    )
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @GetMapping("/stats")
+    public ResponseEntity<List<PoolStats>> getStats() {
+        return ResponseEntity.ok(connectionPools.getStats());
+    }
+}
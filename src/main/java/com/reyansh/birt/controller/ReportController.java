@@ -1,9 +1,18 @@
 package com.reyansh.birt.controller;
 
+import com.reyansh.birt.health.CapacityStats;
+import com.reyansh.birt.health.ReportCapacity;
+import com.reyansh.birt.health.ReportJobs;
+import com.reyansh.birt.metrics.ReportMetrics;
 import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.model.OutputFormat;
 import com.reyansh.birt.model.ReportRequest;
 import com.reyansh.birt.model.ReportResponse;
 import com.reyansh.birt.service.DynamicReportService;
+import com.reyansh.birt.service.PreviewLane;
+import com.reyansh.birt.service.ReportGenerationService;
+import com.reyansh.birt.storage.ReportOutputStore;
+import com.reyansh.birt.storage.StoredOutput;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,14 +22,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -34,8 +55,24 @@ import java.util.UUID;
 @Tag(name = "Report Generation", description = "APIs for generating and managing BIRT reports")
 public class ReportController {
 
+    // Request attribute under which a download releases its output lease
+    private static final String DOWNLOAD_LEASE = ReportController.class.getName() + ".downloadLease";
+
     private final DynamicReportService dynamicReportService;
 
+    private final ReportOutputStore outputStore;
+
+    // Only available when birt.engine.enabled=true
+    private final ObjectProvider<ReportGenerationService> reportGenerationService;
+
+    private final PreviewLane previewLane;
+
+    private final ReportMetrics reportMetrics;
+
+    private final ReportJobs reportJobs;
+
+    private final ReportCapacity reportCapacity;
+
     @Operation(
             summary = "Generate dynamic report from library",
             description = "Dynamically generates a report template (.rptdesign) using components from a .rptlibrary file, " +
@@ -63,6 +100,7 @@ public class ReportController {
             DynamicReportRequest request) {
         
         log.info("Generating dynamic report from library: {}", request.getLibraryPath());
+        rejectPreview(request.getPreview(), "/api/reports/preview/dynamic");
         
         long startTime = System.currentTimeMillis();
         
@@ -70,9 +108,12 @@ public class ReportController {
             String reportId = dynamicReportService.generateDynamicReport(request);
             long generationTime = System.currentTimeMillis() - startTime;
             
+            String outputPath = outputStore.getEntry(reportId)
+                    .map(entry -> entry.getFiles().get(0).toString())
+                    .orElse(null);
             ReportResponse response = ReportResponse.success(
                     reportId,
-                    "reports/output/" + reportId + "." + request.getOutputFormat(),
+                    outputPath,
                     request.getOutputFormat(),
                     generationTime,
                     "/api/reports/download/" + reportId
@@ -112,6 +153,14 @@ public class ReportController {
             @Valid @RequestBody @Parameter(description = "Report generation request") ReportRequest request) {
         
         log.info("Generating report: {} in format: {}", request.getReportName(), request.getOutputFormat());
+        rejectPreview(request.getPreview(), "/api/reports/preview");
+
+        ReportGenerationService generationService = reportGenerationService.getIfAvailable();
+        if (generationService != null) {
+            ReportResponse response = generationService.generateReport(request, UUID.randomUUID().toString());
+            HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+            return ResponseEntity.status(status).body(response);
+        }
         
         // Simulated response (BIRT engine is disabled)
         String reportId = UUID.randomUUID().toString();
@@ -138,6 +187,177 @@ public class ReportController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Generate a report and stream it in the response",
+            description = "Runs and renders the report directly into the HTTP response so the client receives bytes " +
+                    "while rendering is still in progress. Nothing is written to disk unless cache=true, in which " +
+                    "case the output is also stored for later download."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Report streamed successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request parameters"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "BIRT engine is disabled"
+            )
+    })
+    @PostMapping("/generate/stream")
+    public void streamReport(
+            @Valid @RequestBody @Parameter(description = "Report generation request") ReportRequest request,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Also store the output for later download")
+            boolean cache,
+            HttpServletResponse response) throws Exception {
+
+        log.info("Streaming report: {} in format: {}", request.getReportName(), request.getOutputFormat());
+
+        ReportGenerationService generationService = reportGenerationService.getIfAvailable();
+        if (generationService == null) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "BIRT engine is disabled");
+            return;
+        }
+
+        String reportId = UUID.randomUUID().toString();
+        String fileName = request.getOutputFileName() != null ? request.getOutputFileName() : request.getReportName();
+        runStreaming(reportId, request.getReportName(), request.getOutputFormat(), request.getParameters(),
+                request.getPreview(), () -> {
+            prepareStreamingResponse(response, reportId, fileName, request.getOutputFormat(), request.getPreview());
+            generationService.streamReport(request, reportId, response.getOutputStream(), cache);
+        });
+    }
+
+    @Operation(
+            summary = "Generate dynamic report and stream it in the response",
+            description = "Builds the dynamic report and writes the output directly into the HTTP response. " +
+                    "Nothing is written to the output directory unless cache=true."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Report streamed successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request parameters"
+            )
+    })
+    @PostMapping("/generate-dynamic/stream")
+    public void streamDynamicReport(
+            @Valid @RequestBody @Parameter(description = "Dynamic report generation request with library components")
+            DynamicReportRequest request,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Also store the output for later download")
+            boolean cache,
+            HttpServletResponse response) throws Exception {
+
+        log.info("Streaming dynamic report from library: {}", request.getLibraryPath());
+
+        String reportId = UUID.randomUUID().toString();
+        runStreaming(reportId, request.getReportName(), request.getOutputFormat(), request.getParameters(),
+                request.getPreview(), () -> {
+            prepareStreamingResponse(response, reportId, request.getReportName(), request.getOutputFormat(),
+                    request.getPreview());
+            dynamicReportService.streamDynamicReport(request, reportId, response.getOutputStream(), cache);
+        });
+    }
+
+    @Operation(
+            summary = "Preview a report",
+            description = "Streams a quick preview of the report: each query returns at most report.preview.max-rows " +
+                    "rows and only the first report.preview.max-pages pages are rendered. Previews run in their own " +
+                    "small lane, separate from production reports, and are never stored."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Preview streamed successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request parameters"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "All preview slots are busy"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "BIRT engine is disabled"
+            )
+    })
+    @PostMapping("/preview")
+    public void previewReport(
+            @Valid @RequestBody @Parameter(description = "Report generation request") ReportRequest request,
+            HttpServletResponse response) throws Exception {
+        request.setPreview(true);
+        streamReport(request, false, response);
+    }
+
+    @Operation(
+            summary = "Preview a dynamic report",
+            description = "Streams a quick preview of the dynamic report built from at most report.preview.max-rows " +
+                    "rows per data set. Previews run in their own small lane, separate from production reports, " +
+                    "and are never stored."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Preview streamed successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request parameters"
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "All preview slots are busy"
+            )
+    })
+    @PostMapping("/preview/dynamic")
+    public void previewDynamicReport(
+            @Valid @RequestBody @Parameter(description = "Dynamic report generation request with library components")
+            DynamicReportRequest request,
+            HttpServletResponse response) throws Exception {
+        request.setPreview(true);
+        streamDynamicReport(request, false, response);
+    }
+
+    /**
+     * Previews wait for a slot in the preview lane; other reports stream right away
+     */
+    private void runStreaming(String reportId, String reportName, String format, Map<String, Object> parameters,
+                              Boolean preview, PreviewLane.Work work) throws Exception {
+        try (ReportJobs.Job job = reportJobs.begin(reportId, reportName, format, parameters)) {
+            if (Boolean.TRUE.equals(preview)) {
+                previewLane.run(work);
+            } else {
+                work.run();
+            }
+        }
+    }
+
+    private static void rejectPreview(Boolean preview, String previewPath) {
+        if (Boolean.TRUE.equals(preview)) {
+            throw new IllegalArgumentException("Previews are never stored; use POST " + previewPath);
+        }
+    }
+
+    private void prepareStreamingResponse(HttpServletResponse response, String reportId,
+                                          String fileName, String format, Boolean preview) {
+        OutputFormat outputFormat = OutputFormat.fromExtension(format);
+        response.setContentType(outputFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + fileName + "." + outputFormat.getExtension() + "\"");
+        response.setHeader("X-Report-Id", reportId);
+        if (Boolean.TRUE.equals(preview)) {
+            response.setHeader("X-Report-Preview", "true");
+        }
+    }
+
     @Operation(
             summary = "Get report status",
             description = "Check the generation status of a report by its ID"
@@ -156,7 +376,7 @@ public class ReportController {
     public ResponseEntity<Map<String, Object>> getReportStatus(
             @PathVariable @Parameter(description = "Unique report identifier") String reportId) {
         
-        log.info("Checking status for report: {}", reportId);
+        log.debug("Checking status for report: {}", reportId);
         
         Map<String, Object> status = new HashMap<>();
         status.put("reportId", reportId);
@@ -182,13 +402,55 @@ public class ReportController {
             )
     })
     @GetMapping("/download/{reportId}")
-    public ResponseEntity<String> downloadReport(
-            @PathVariable @Parameter(description = "Unique report identifier") String reportId) {
-        
-        log.info("Downloading report: {}", reportId);
+    public ResponseEntity<Resource> downloadReport(
+            @PathVariable @Parameter(description = "Unique report identifier") String reportId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response)
+            throws IOException {
         
-        // Return simulated response
-        return ResponseEntity.ok("Report download would happen here. Report ID: " + reportId);
+        log.debug("Downloading report: {}", reportId);
+
+        Optional<StoredOutput> stored = outputStore.resolve(reportId, acceptEncoding);
+        if (stored.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Compressed outputs are served with the stored bytes as-is, never re-compressed per request
+        StoredOutput output = stored.get();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(output.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + output.getFileName() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        ReportOutputStore.Lease lease;
+        try {
+            lease = outputStore.lease(output);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // The lease keeps retention from deleting the output until the request completes, whether the
+        // body was written, failed or never read
+        ReportMetrics.Stop timing = reportMetrics.start(ReportMetrics.Phase.DOWNLOAD, null,
+                output.getFormat().getExtension());
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(DOWNLOAD_LEASE, () -> {
+            lease.close();
+            timing.stop(response.getStatus() < HttpStatus.BAD_REQUEST.value());
+        }, RequestAttributes.SCOPE_REQUEST);
+
+        if (output.isDecodeRequired()) {
+            try {
+                return builder.body(new InputStreamResource(lease.openStream()));
+            } catch (NoSuchFileException e) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+
+        // Served from the file so that Range requests get partial content and HEAD requests no body
+        if (output.getContentEncoding() != null) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, output.getContentEncoding());
+        }
+        return builder.body(new FileSystemResource(output.getPath()));
     }
 
     @Operation(
@@ -219,24 +481,62 @@ public class ReportController {
 
     @Operation(
             summary = "Health check",
-            description = "Check if the report engine is running and healthy"
+            description = "Readiness of this node for new reports: UP while it has capacity, OUT_OF_SERVICE while " +
+                    "its request threads are nearly all busy, the estimated queue wait is too long or the " +
+                    "output or scratch volume is short of space, DOWN without a report engine"
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Service is healthy"
+                    description = "Service is ready for new reports"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service is saturated or unhealthy; route reports elsewhere"
             )
     })
     @GetMapping("/health")
-    public ResponseEntity<Map<String, String>> healthCheck() {
-        
-        Map<String, String> health = new HashMap<>();
-        health.put("status", "UP");
+    public ResponseEntity<Map<String, Object>> healthCheck() {
+        CapacityStats capacity = reportCapacity.snapshot();
+
+        Map<String, Object> health = new HashMap<>();
+        health.put("status", capacity.status());
         health.put("service", "BIRT Report Engine");
         health.put("version", "1.0.0");
         health.put("java", System.getProperty("java.version"));
-        
-        return ResponseEntity.ok(health);
+        health.put("capacity", capacity);
+
+        return ResponseEntity.status(capacity.ready() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(health);
+    }
+
+    @Operation(
+            summary = "Liveness check",
+            description = "Whether the process is up; does not look at load, so a busy node is not restarted"
+    )
+    @ApiResponse(responseCode = "200", description = "Service is alive")
+    @GetMapping("/health/live")
+    public ResponseEntity<Map<String, String>> livenessCheck() {
+        return ResponseEntity.ok(Map.of("status", "UP"));
+    }
+
+    @Operation(
+            summary = "Load score",
+            description = "Load of this node from 0 (idle) to 1 (saturated) and the weight a load balancer should " +
+                    "give it, from 100 when idle down to 0 when it is not ready for new reports"
+    )
+    @ApiResponse(responseCode = "200", description = "Load retrieved successfully")
+    @GetMapping("/load")
+    public ResponseEntity<Map<String, Object>> getLoad() {
+        CapacityStats capacity = reportCapacity.snapshot();
+
+        Map<String, Object> load = new HashMap<>();
+        load.put("status", capacity.status());
+        load.put("load", capacity.load());
+        load.put("weight", capacity.weight());
+        load.put("activeJobs", capacity.activeJobs());
+        load.put("estimatedQueueWaitMs", capacity.estimatedQueueWaitMs());
+
+        return ResponseEntity.ok(load);
     }
 
     @Operation(
@@ -251,6 +551,10 @@ public class ReportController {
             @ApiResponse(
                     responseCode = "404",
                     description = "Report not found"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Report is currently being downloaded"
             )
     })
     @DeleteMapping("/{reportId}")
@@ -260,9 +564,18 @@ public class ReportController {
         log.info("Deleting report: {}", reportId);
         
         Map<String, String> response = new HashMap<>();
-        response.put("message", "Report deleted successfully");
         response.put("reportId", reportId);
-        
-        return ResponseEntity.ok(response);
+
+        switch (outputStore.delete(reportId)) {
+            case DELETED:
+                response.put("message", "Report deleted successfully");
+                return ResponseEntity.ok(response);
+            case IN_USE:
+                response.put("message", "Report is being downloaded, try again later");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            default:
+                response.put("message", "Report not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
     }
 }
@@ -0,0 +1,92 @@
+package com.reyansh.birt.controller;
+
+import com.reyansh.birt.template.TemplateDeployment;
+import com.reyansh.birt.template.TemplateDeploymentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * REST Controller for deploying report templates and libraries
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/templates")
+@RequiredArgsConstructor
+@Tag(name = "Template Deployment", description = "APIs for hot deployment of BIRT designs and libraries")
+public class TemplateController {
+
+    private final TemplateDeploymentService deploymentService;
+
+    @Operation(
+            summary = "Upload a design or library",
+            description = "Streams the raw request body (a .rptdesign or .rptlibrary file) to disk. The file is " +
+                    "validated in the background and then swapped in atomically; only cached designs affected by " +
+                    "the change are invalidated. Poll the returned deployment for the result."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Upload received, validation in progress",
+                    content = @Content(schema = @Schema(implementation = TemplateDeployment.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid template file name"
+            ),
+            @ApiResponse(
+                    responseCode = "413",
+                    description = "Upload exceeds report.templates.max-upload-size-mb"
+            )
+    })
+    @PutMapping("/{fileName}")
+    public ResponseEntity<TemplateDeployment> uploadTemplate(
+            @PathVariable @Parameter(description = "Template file name, e.g. sales-report.rptdesign") String fileName,
+            HttpServletRequest request) throws IOException {
+
+        log.info("Uploading template: {}", fileName);
+
+        // Read from the servlet stream so the body is never buffered in memory
+        TemplateDeployment deployment = deploymentService.upload(fileName, request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/templates/deployments/" + deployment.getDeploymentId())
+                .body(deployment);
+    }
+
+    @Operation(
+            summary = "Get deployment status",
+            description = "Check whether an uploaded template was validated and deployed"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Deployment status retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = TemplateDeployment.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Deployment not found"
+            )
+    })
+    @GetMapping("/deployments/{deploymentId}")
+    public ResponseEntity<TemplateDeployment> getDeployment(
+            @PathVariable @Parameter(description = "Deployment identifier returned by the upload") String deploymentId) {
+
+        return deploymentService.getDeployment(deploymentId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,120 @@
+package com.reyansh.birt.controller;
+
+import com.reyansh.birt.model.ReportRequest;
+import com.reyansh.birt.model.ViewerDocument;
+import com.reyansh.birt.service.ReportViewerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * REST Controller for viewing reports page by page from retained report documents
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Tag(name = "Report Viewer", description = "APIs for on-demand HTML page rendering")
+public class ViewerController {
+
+    private final ObjectProvider<ReportViewerService> reportViewerService;
+
+    @Operation(
+            summary = "Open a report for viewing",
+            description = "Runs the report and keeps its document without rendering it. Pages are then rendered " +
+                    "one at a time through the page endpoint. Only the html output format is supported."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Document retained",
+                    content = @Content(schema = @Schema(implementation = ViewerDocument.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid request or output format other than html"),
+            @ApiResponse(responseCode = "503", description = "BIRT engine is disabled")
+    })
+    @PostMapping("/viewer")
+    public ResponseEntity<ViewerDocument> openViewer(
+            @Valid @RequestBody @Parameter(description = "Report generation request") ReportRequest request)
+            throws Exception {
+
+        ReportViewerService viewerService = reportViewerService.getIfAvailable();
+        if (viewerService == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (!"html".equalsIgnoreCase(request.getOutputFormat())) {
+            throw new IllegalArgumentException("Viewer mode only supports the html output format");
+        }
+
+        log.info("Opening report for viewing: {}", request.getReportName());
+        ViewerDocument document = viewerService.open(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(HttpHeaders.LOCATION, document.getFirstPageUrl())
+                .body(document);
+    }
+
+    @Operation(
+            summary = "Get a page",
+            description = "Renders a single page of a retained document as HTML. Recently viewed pages are cached " +
+                    "and the following pages are rendered ahead in the background."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page rendered successfully"),
+            @ApiResponse(responseCode = "400", description = "Page number outside the document"),
+            @ApiResponse(responseCode = "404", description = "Document not found or expired"),
+            @ApiResponse(responseCode = "503", description = "BIRT engine is disabled")
+    })
+    @GetMapping("/{documentId}/pages/{page}")
+    public ResponseEntity<byte[]> getPage(
+            @PathVariable @Parameter(description = "Document identifier returned when opening the viewer") String documentId,
+            @PathVariable @Parameter(description = "Page number, starting at 1") long page) throws Exception {
+
+        ReportViewerService viewerService = reportViewerService.getIfAvailable();
+        if (viewerService == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return viewerService.getPage(documentId, page)
+                .map(html -> ResponseEntity.ok()
+                        .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                        .body(html))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+            summary = "Close a viewer document",
+            description = "Releases the retained document and its cached pages before it expires"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Document closed"),
+            @ApiResponse(responseCode = "404", description = "Document not found or expired"),
+            @ApiResponse(responseCode = "503", description = "BIRT engine is disabled")
+    })
+    @DeleteMapping("/viewer/{documentId}")
+    public ResponseEntity<Void> closeViewer(
+            @PathVariable @Parameter(description = "Document identifier returned when opening the viewer") String documentId) {
+
+        ReportViewerService viewerService = reportViewerService.getIfAvailable();
+        if (viewerService == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return viewerService.close(documentId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,181 @@
+package com.reyansh.birt.data;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Writes rows in the compact binary format read by {@link MappedRowSource}.
+ *
+ * Layout: column count and names, then per row a row marker followed by one type tag and value
+ * per column, and an end marker. Values of types without a tag are stored as their string form.
+ */
+class BinaryRowWriter implements Closeable {
+
+    static final byte END = 0;
+    static final byte ROW = 1;
+
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte INT = 2;
+    static final byte LONG = 3;
+    static final byte DOUBLE = 4;
+    static final byte FLOAT = 5;
+    static final byte DECIMAL = 6;
+    static final byte BOOLEAN = 7;
+    static final byte SQL_DATE = 8;
+    static final byte SQL_TIMESTAMP = 9;
+    static final byte SQL_TIME = 10;
+    static final byte BYTES = 11;
+    static final byte SHORT = 12;
+    static final byte BIG_INTEGER = 13;
+    static final byte LOCAL_DATE = 14;
+    static final byte LOCAL_DATE_TIME = 15;
+
+    private final Path path;
+
+    private final DataOutputStream out;
+
+    private final long maxBytes;
+
+    private long written;
+
+    BinaryRowWriter(Path path, List<String> columnNames, long maxBytes) throws IOException {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024));
+        out.writeInt(columnNames.size());
+        for (String columnName : columnNames) {
+            writeString(columnName);
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Append a row
+     *
+     * @return false if the result has grown beyond the size limit; the writer must then be discarded
+     */
+    boolean writeRow(Object[] row) throws IOException {
+        out.writeByte(ROW);
+        for (Object value : row) {
+            writeValue(value);
+        }
+        written = out.size();
+        return written <= maxBytes;
+    }
+
+    /**
+     * Write the end marker and close the file
+     *
+     * @return size of the file
+     */
+    long finish() throws IOException {
+        out.writeByte(END);
+        out.close();
+        return Files.size(path);
+    }
+
+    /**
+     * Close and delete the file
+     */
+    void discard() {
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // The file is deleted anyway
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Cleaned up with the cache directory on restart
+        }
+    }
+
+    @Override
+    public void close() {
+        discard();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(string);
+        } else if (value instanceof Integer number) {
+            out.writeByte(INT);
+            out.writeInt(number);
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG);
+            out.writeLong(number);
+        } else if (value instanceof Double number) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof Float number) {
+            out.writeByte(FLOAT);
+            out.writeFloat(number);
+        } else if (value instanceof Short number) {
+            out.writeByte(SHORT);
+            out.writeShort(number);
+        } else if (value instanceof BigDecimal number) {
+            out.writeByte(DECIMAL);
+            out.writeInt(number.scale());
+            writeBytes(number.unscaledValue().toByteArray());
+        } else if (value instanceof BigInteger number) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(number.toByteArray());
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof java.sql.Timestamp timestamp) {
+            out.writeByte(SQL_TIMESTAMP);
+            writeDateTime(timestamp.toLocalDateTime());
+        } else if (value instanceof java.sql.Date date) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(date.toLocalDate().toEpochDay());
+        } else if (value instanceof java.sql.Time time) {
+            out.writeByte(SQL_TIME);
+            out.writeLong(time.toLocalTime().toNanoOfDay());
+        } else if (value instanceof LocalDate date) {
+            out.writeByte(LOCAL_DATE);
+            out.writeLong(date.toEpochDay());
+        } else if (value instanceof LocalDateTime dateTime) {
+            out.writeByte(LOCAL_DATE_TIME);
+            writeDateTime(dateTime);
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(BYTES);
+            writeBytes(bytes);
+        } else {
+            out.writeByte(STRING);
+            writeString(value.toString());
+        }
+    }
+
+    private void writeDateTime(LocalDateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+
+    private void writeString(String value) throws IOException {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,88 @@
+package com.reyansh.birt.data;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Passes rows through from a data set while writing them to a result file. The file is handed
+ * to the completion callback only if every row was read and it stayed within the size limit;
+ * otherwise it is discarded when the source is closed.
+ */
+@Slf4j
+class CachingRowSource implements RowSource {
+
+    @FunctionalInterface
+    interface Completion {
+        void complete(BinaryRowWriter writer) throws Exception;
+    }
+
+    private final RowSource delegate;
+
+    private final Completion completion;
+
+    private final Object[] row;
+
+    private BinaryRowWriter writer;
+
+    CachingRowSource(RowSource delegate, BinaryRowWriter writer, Completion completion) {
+        this.delegate = delegate;
+        this.writer = writer;
+        this.completion = completion;
+        this.row = new Object[delegate.getColumnNames().size()];
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return delegate.getColumnNames();
+    }
+
+    @Override
+    public boolean next() throws Exception {
+        if (!delegate.next()) {
+            if (writer != null) {
+                BinaryRowWriter completed = writer;
+                writer = null;
+                try {
+                    completion.complete(completed);
+                } catch (Exception e) {
+                    log.warn("Could not cache data set result: {}", e.getMessage());
+                    completed.discard();
+                }
+            }
+            return false;
+        }
+
+        for (int i = 0; i < row.length; i++) {
+            row[i] = delegate.getValue(i);
+        }
+        if (writer != null && !writer.writeRow(row)) {
+            log.debug("Data set result exceeds the cache entry limit, not caching");
+            writer.discard();
+            writer = null;
+        }
+        return true;
+    }
+
+    @Override
+    public Object getValue(int index) {
+        return row[index];
+    }
+
+    @Override
+    public void cancel() throws Exception {
+        delegate.cancel();
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            delegate.close();
+        } finally {
+            if (writer != null) {
+                writer.discard();
+                writer = null;
+            }
+        }
+    }
+}
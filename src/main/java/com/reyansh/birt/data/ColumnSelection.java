@@ -0,0 +1,102 @@
+package com.reyansh.birt.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The columns a consumer actually reads from a data set, and optionally the group-by it applies
+ * and the number of rows it needs, so the data set query can be narrowed in the database instead
+ * of fetching every column and row.
+ *
+ * The query is wrapped as a derived table: {@code select a, b from (<query>) q}, or with a group
+ * column {@code select g, sum(a) as a from (<query>) q group by g}. Only plain identifiers and
+ * plain SELECT queries are rewritten. A grouped result still holds one row per group with the
+ * same column names, so consumers that aggregate the rows themselves give the same result
+ * whether or not the rewrite was applied. A row limit is applied to the statement rather than the
+ * query text, so it holds for any data set; no columns means every column.
+ */
+public record ColumnSelection(List<String> columns, String groupByColumn, List<String> sumColumns, int maxRows) {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    public ColumnSelection {
+        columns = List.copyOf(columns);
+        sumColumns = List.copyOf(sumColumns);
+    }
+
+    /**
+     * Only the given columns, every row
+     */
+    public static ColumnSelection of(List<String> columns) {
+        return new ColumnSelection(columns, null, List.of(), 0);
+    }
+
+    /**
+     * Every column, at most the given number of rows
+     */
+    public static ColumnSelection limit(int maxRows) {
+        return new ColumnSelection(List.of(), null, List.of(), maxRows);
+    }
+
+    /**
+     * One row per value of the group column with the sums of the given columns
+     */
+    public static ColumnSelection groupBy(String groupByColumn, List<String> sumColumns) {
+        List<String> columns = new ArrayList<>();
+        columns.add(groupByColumn);
+        columns.addAll(sumColumns);
+        return new ColumnSelection(columns, groupByColumn, sumColumns, 0);
+    }
+
+    /**
+     * The same selection with at most the given number of rows, 0 for all
+     */
+    public ColumnSelection withMaxRows(int maxRows) {
+        return new ColumnSelection(columns, groupByColumn, sumColumns, maxRows);
+    }
+
+    /**
+     * The query narrowed to the selection
+     *
+     * @return the rewritten query, or null if the query or a column name cannot be rewritten safely
+     */
+    public String rewrite(String queryText) {
+        if (queryText == null || columns.isEmpty()) {
+            return null;
+        }
+        String query = queryText.strip();
+        while (query.endsWith(";")) {
+            query = query.substring(0, query.length() - 1).stripTrailing();
+        }
+        if (!query.regionMatches(true, 0, "select", 0, 6) || query.contains(";")) {
+            return null;
+        }
+        for (String column : columns) {
+            if (column == null || !IDENTIFIER.matcher(column).matches()) {
+                return null;
+            }
+        }
+
+        List<String> selected = new ArrayList<>();
+        List<String> seen = new ArrayList<>();
+        for (String column : columns) {
+            String key = column.toLowerCase(Locale.ROOT);
+            if (seen.contains(key)) {
+                continue;
+            }
+            seen.add(key);
+            boolean summed = groupByColumn != null && !column.equalsIgnoreCase(groupByColumn)
+                    && sumColumns.stream().anyMatch(column::equalsIgnoreCase);
+            selected.add(summed ? "sum(" + column + ") as " + column : column);
+        }
+
+        StringBuilder sql = new StringBuilder("select ").append(String.join(", ", selected))
+                .append(" from (\n").append(query).append("\n) q");
+        if (groupByColumn != null) {
+            sql.append(" group by ").append(groupByColumn);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.reyansh.birt.data;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide JDBC connection pools for the data sources declared in libraries and designs.
+ *
+ * Pools are keyed by the connection settings of a data source (driver, URL, user, password), so
+ * libraries that declare the same warehouse under different names share one pool. A pool is
+ * created on first use with report.data.pool.max-size connections, or the size configured for
+ * the data source name in report.data.pool.max-sizes (e.g. Warehouse=20,Crm=5). Connections are
+ * opened lazily and returned to the pool when closed.
+ */
+@Slf4j
+@Component
+public class ConnectionPools {
+
+    private final int defaultMaxSize;
+
+    private final Map<String, Integer> maxSizes;
+
+    private final long connectionTimeoutMs;
+
+    private final long idleTimeoutMs;
+
+    private final Map<PoolKey, Pool> pools = new ConcurrentHashMap<>();
+
+    public ConnectionPools(@Value("${report.data.pool.max-size:10}") int defaultMaxSize,
+                           @Value("${report.data.pool.max-sizes:}") String maxSizes,
+                           @Value("${report.data.pool.connection-timeout-ms:30000}") long connectionTimeoutMs,
+                           @Value("${report.data.pool.idle-timeout-ms:600000}") long idleTimeoutMs) {
+        this.defaultMaxSize = defaultMaxSize;
+        this.maxSizes = NamedValues.parse("report.data.pool.max-sizes", maxSizes);
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * Borrow a connection for the data source; closing it returns it to the pool
+     *
+     * @throws SQLTransientConnectionException if the pool stays exhausted for the connection timeout
+     */
+    public Connection getConnection(LibraryDefinition.DataSourceDefinition dataSource) throws SQLException {
+        if (dataSource.url() == null) {
+            throw new IllegalArgumentException("Data source has no JDBC URL: " + dataSource.name());
+        }
+        Pool pool = pools.computeIfAbsent(PoolKey.of(dataSource), key -> createPool(dataSource));
+        try {
+            return pool.dataSource().getConnection();
+        } catch (SQLTransientConnectionException e) {
+            pool.timeouts().incrementAndGet();
+            log.warn("Connection pool {} exhausted: {}", pool.dataSource().getPoolName(), e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Borrow a connection whose statements return at most maxRows rows each, for callers such as
+     * the report engine that run queries they do not control
+     *
+     * @see #getConnection(LibraryDefinition.DataSourceDefinition)
+     */
+    public Connection getConnection(LibraryDefinition.DataSourceDefinition dataSource, int maxRows)
+            throws SQLException {
+        return RowLimitedConnection.wrap(getConnection(dataSource), maxRows);
+    }
+
+    public List<PoolStats> getStats() {
+        return pools.values().stream()
+                .map(ConnectionPools::stats)
+                .sorted(Comparator.comparing(PoolStats::name))
+                .toList();
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.values().forEach(pool -> pool.dataSource().close());
+        pools.clear();
+    }
+
+    private Pool createPool(LibraryDefinition.DataSourceDefinition dataSource) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("report-" + dataSource.name());
+        config.setJdbcUrl(dataSource.url());
+        config.setUsername(dataSource.user());
+        config.setPassword(dataSource.password());
+        if (dataSource.driverClass() != null) {
+            config.setDriverClassName(dataSource.driverClass());
+        }
+        config.setMaximumPoolSize(maxSizes.getOrDefault(dataSource.name(), defaultMaxSize));
+        // No connections are held until reports need them
+        config.setMinimumIdle(0);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setIdleTimeout(idleTimeoutMs);
+        // Unreachable databases surface on first use instead of at pool creation
+        config.setInitializationFailTimeout(-1);
+        config.setRegisterMbeans(false);
+
+        log.info("Creating connection pool {} for {} with up to {} connections",
+                config.getPoolName(), dataSource.url(), config.getMaximumPoolSize());
+        return new Pool(new HikariDataSource(config), new AtomicLong());
+    }
+
+    private static PoolStats stats(Pool pool) {
+        HikariDataSource dataSource = pool.dataSource();
+        HikariPoolMXBean bean = dataSource.getHikariPoolMXBean();
+        return new PoolStats(dataSource.getPoolName(), dataSource.getJdbcUrl(), dataSource.getMaximumPoolSize(),
+                bean != null ? bean.getActiveConnections() : 0,
+                bean != null ? bean.getIdleConnections() : 0,
+                bean != null ? bean.getTotalConnections() : 0,
+                bean != null ? bean.getThreadsAwaitingConnection() : 0,
+                pool.timeouts().get());
+    }
+
+    private record PoolKey(String driverClass, String url, String user, String password) {
+
+        static PoolKey of(LibraryDefinition.DataSourceDefinition dataSource) {
+            return new PoolKey(dataSource.driverClass(), dataSource.url(), dataSource.user(), dataSource.password());
+        }
+    }
+
+    private record Pool(HikariDataSource dataSource, AtomicLong timeouts) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.reyansh.birt.data;
+
+import com.reyansh.birt.metrics.ReportEvents;
+import com.reyansh.birt.metrics.ReportTimings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs data sets declared in BIRT libraries directly over JDBC.
+ *
+ * Used by the table export paths that do not need the layout engine. Rows are fetched in
+ * batches of report.data.fetch-size, read ahead through the bounded {@link RowPrefetcher} buffer
+ * and handed out through a forward-only {@link RowSource}, so memory use does not grow with the
+ * size of the result. Connections are borrowed from the shared {@link ConnectionPools} and
+ * returned when the row source is closed. Results of repeated queries with the same parameter
+ * values are served from the {@link ResultCache}.
+ */
+@Slf4j
+@Service
+public class DatasetService {
+
+    private final ConnectionPools connectionPools;
+
+    private final ResultCache resultCache;
+
+    private final RowPrefetcher rowPrefetcher;
+
+    private final int fetchSize;
+
+    private final Map<Path, CachedLibrary> libraries = new ConcurrentHashMap<>();
+
+    // Rewritten queries remembered at most; further rejections evict the oldest
+    private static final int MAX_REJECTED_QUERIES = 256;
+
+    // Rewritten queries the database refused as invalid; those data sets run unchanged from then on
+    private final Set<String> rejectedQueries = Collections.synchronizedSet(Collections.newSetFromMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_REJECTED_QUERIES;
+                }
+            }));
+
+    public DatasetService(ConnectionPools connectionPools, ResultCache resultCache, RowPrefetcher rowPrefetcher,
+                          @Value("${report.data.fetch-size:1000}") int fetchSize) {
+        this.connectionPools = connectionPools;
+        this.resultCache = resultCache;
+        this.rowPrefetcher = rowPrefetcher;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Parsed library, reparsed when the file changes
+     */
+    public LibraryDefinition getLibrary(String libraryPath) throws IOException {
+        Path path = Paths.get(libraryPath).toAbsolutePath().normalize();
+        FileTime modified = Files.getLastModifiedTime(path);
+
+        CachedLibrary cached = libraries.get(path);
+        if (cached != null && cached.modified().equals(modified)) {
+            return cached.definition();
+        }
+
+        LibraryDefinition definition = LibraryDefinition.parse(path);
+        libraries.put(path, new CachedLibrary(definition, modified));
+        return definition;
+    }
+
+    /**
+     * Execute a data set of the library without parameter values
+     *
+     * @see #open(String, String, String, Map)
+     */
+    public RowSource open(String libraryPath, String dataSourceName, String dataSetName) throws Exception {
+        return open(libraryPath, dataSourceName, dataSetName, Map.of());
+    }
+
+    /**
+     * Execute a data set of the library
+     *
+     * @param libraryPath    .rptlibrary declaring the data set
+     * @param dataSourceName data source to run against, or null for the one the data set declares
+     * @param dataSetName    data set to execute
+     * @param parameters     values of the data set parameters by linked report parameter or parameter
+     *                       name; parameters without a value use their default
+     * @throws IllegalArgumentException if the data set or data source is not declared in the library
+     */
+    public RowSource open(String libraryPath, String dataSourceName, String dataSetName,
+                          Map<String, Object> parameters) throws Exception {
+        return open(libraryPath, dataSourceName, dataSetName, parameters, null);
+    }
+
+    /**
+     * Execute a data set of the library, narrowed to the columns the caller reads. The query is
+     * rewritten to select only those columns (and to group in the database, see
+     * {@link ColumnSelection}); if the rewritten query is rejected, the data set runs unchanged,
+     * so callers must accept either shape.
+     *
+     * @param selection columns and rows read by the caller, or null for all
+     * @see #open(String, String, String, Map)
+     */
+    public RowSource open(String libraryPath, String dataSourceName, String dataSetName,
+                          Map<String, Object> parameters, ColumnSelection selection) throws Exception {
+        LibraryDefinition library = getLibrary(libraryPath);
+        LibraryDefinition.DataSetDefinition dataSet = library.getDataSet(dataSetName)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Data set not found in " + libraryPath + ": " + dataSetName));
+        String sourceName = dataSourceName != null ? dataSourceName : dataSet.dataSourceName();
+        LibraryDefinition.DataSourceDefinition dataSource = library.getDataSource(sourceName)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Data source not found in " + libraryPath + ": " + sourceName));
+
+        List<Object> values = parameterValues(dataSet, parameters != null ? parameters : Map.of());
+        String rewritten = selection != null ? selection.rewrite(dataSet.queryText()) : null;
+        if (rewritten != null && rejectedQueries.contains(rewritten)) {
+            rewritten = null;
+        }
+        String queryText = rewritten != null ? rewritten : dataSet.queryText();
+        int maxRows = selection != null ? selection.maxRows() : 0;
+        ResultCache.ResultKey key = new ResultCache.ResultKey(dataSource.url(), dataSource.user(), queryText, values,
+                maxRows);
+
+        ReportTimings timings = ReportTimings.current();
+        ReportEvents.DataSetEvent event = ReportEvents.beginDataSet();
+        long start = System.nanoTime();
+        RowSource rows = resultCache.open(dataSetName, sourceName, key,
+                () -> execute(dataSource, dataSet, queryText, values, maxRows));
+        if (timings == null && !event.isEnabled()) {
+            return rows;
+        }
+        return new TimedRowSource(rows, dataSetName, timings, event, System.nanoTime() - start);
+    }
+
+    private RowSource execute(LibraryDefinition.DataSourceDefinition dataSource,
+                              LibraryDefinition.DataSetDefinition dataSet, String queryText, List<Object> values,
+                              int maxRows) throws Exception {
+        log.debug("Executing data set {} on data source {}", dataSet.name(), dataSource.name());
+        Connection connection = connectionPools.getConnection(dataSource);
+        try {
+            // Drivers such as PostgreSQL only stream with a fetch size outside auto-commit
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            ResultSetStatement result;
+            if (queryText.equals(dataSet.queryText())) {
+                result = executeQuery(connection, queryText, values, maxRows);
+            } else {
+                try {
+                    result = executeQuery(connection, queryText, values, maxRows);
+                } catch (SQLException e) {
+                    // Not every query can be wrapped as a derived table (e.g. ORDER BY on SQL Server).
+                    // Timeouts, lost connections and lock waits say nothing about the query.
+                    if (!isRejection(e)) {
+                        throw e;
+                    }
+                    log.info("Data set {} cannot be narrowed in the database, running it unchanged: {}",
+                            dataSet.name(), e.getMessage());
+                    rejectedQueries.add(queryText);
+                    connection.rollback();
+                    result = executeQuery(connection, dataSet.queryText(), values, maxRows);
+                }
+            }
+            // One fetch per batch; the next batch is fetched while the exporter writes this one
+            return rowPrefetcher.prefetch(new JdbcRowSource(connection, result.statement(), result.resultSet()),
+                    batchSize(maxRows));
+        } catch (Exception e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the database refused the query itself: a syntax error or access rule violation (SQLState class 42)
+     */
+    static boolean isRejection(SQLException e) {
+        return e instanceof SQLSyntaxErrorException || (e.getSQLState() != null && e.getSQLState().startsWith("42"));
+    }
+
+    private ResultSetStatement executeQuery(Connection connection, String queryText, List<Object> values,
+                                           int maxRows) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(queryText,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            statement.setFetchSize(batchSize(maxRows));
+            if (maxRows > 0) {
+                // The database stops at the limit, so a capped read never fetches rows it discards
+                statement.setMaxRows(maxRows);
+            }
+            for (int i = 0; i < values.size(); i++) {
+                statement.setObject(i + 1, values.get(i));
+            }
+            return new ResultSetStatement(statement, statement.executeQuery());
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+    }
+
+    private int batchSize(int maxRows) {
+        return maxRows > 0 ? Math.min(fetchSize, maxRows) : fetchSize;
+    }
+
+    /**
+     * Values bound to the query placeholders, in parameter position order
+     */
+    static List<Object> parameterValues(LibraryDefinition.DataSetDefinition dataSet, Map<String, Object> parameters) {
+        List<Object> values = new ArrayList<>(dataSet.parameters().size());
+        for (LibraryDefinition.ParameterDefinition parameter : dataSet.parameters()) {
+            Object value = parameters.get(parameter.boundName());
+            values.add(value != null ? value : parameter.defaultValue());
+        }
+        return values;
+    }
+
+    private record ResultSetStatement(PreparedStatement statement, ResultSet resultSet) {
+    }
+
+    private record CachedLibrary(LibraryDefinition definition, FileTime modified) {
+    }
+}
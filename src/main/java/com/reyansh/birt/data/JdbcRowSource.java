@@ -0,0 +1,67 @@
+package com.reyansh.birt.data;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Row source over an open JDBC result set. Owns the result set, its statement and the connection.
+ */
+public class JdbcRowSource implements RowSource {
+
+    private final Connection connection;
+
+    private final Statement statement;
+
+    private final ResultSet resultSet;
+
+    private final List<String> columnNames;
+
+    public JdbcRowSource(Connection connection, Statement statement, ResultSet resultSet) throws SQLException {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        List<String> names = new ArrayList<>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            names.add(metaData.getColumnLabel(i));
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        return resultSet.next();
+    }
+
+    @Override
+    public Object getValue(int index) throws SQLException {
+        return resultSet.getObject(index + 1);
+    }
+
+    /**
+     * Cancels the statement, so the driver aborts the running query or fetch
+     */
+    @Override
+    public void cancel() throws SQLException {
+        statement.cancel();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (connection; statement; resultSet) {
+            // Closed in reverse order: result set, statement, connection
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.reyansh.birt.data;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC data sources and data sets declared in a BIRT library (.rptlibrary) or design (.rptdesign),
+ * in declaration order.
+ *
+ * Only the parts needed to run a data set outside the engine are read: driver class, URL and
+ * credentials of each oda-data-source, and the data source, query text and input parameters of
+ * each oda-data-set.
+ */
+public class LibraryDefinition {
+
+    public record DataSourceDefinition(String name, String driverClass, String url, String user, String password) {
+    }
+
+    public record DataSetDefinition(String name, String dataSourceName, String queryText,
+                                    List<ParameterDefinition> parameters) {
+    }
+
+    /**
+     * Input parameter of a data set, bound to the query placeholder at position (1-based)
+     *
+     * @param paramName    linked report parameter, or null
+     * @param defaultValue literal default value, or null if there is none or it is computed by a script
+     */
+    public record ParameterDefinition(String name, String paramName, int position, String defaultValue) {
+
+        /**
+         * Name under which the value is looked up in the request parameters
+         */
+        public String boundName() {
+            return paramName != null && !paramName.isEmpty() ? paramName : name;
+        }
+    }
+
+    private final Map<String, DataSourceDefinition> dataSources;
+
+    private final Map<String, DataSetDefinition> dataSets;
+
+    private LibraryDefinition(Map<String, DataSourceDefinition> dataSources, Map<String, DataSetDefinition> dataSets) {
+        this.dataSources = Collections.unmodifiableMap(dataSources);
+        this.dataSets = Collections.unmodifiableMap(dataSets);
+    }
+
+    public Optional<DataSourceDefinition> getDataSource(String name) {
+        return Optional.ofNullable(dataSources.get(name));
+    }
+
+    public Optional<DataSetDefinition> getDataSet(String name) {
+        return Optional.ofNullable(dataSets.get(name));
+    }
+
+    public Map<String, DataSourceDefinition> getDataSources() {
+        return dataSources;
+    }
+
+    public Map<String, DataSetDefinition> getDataSets() {
+        return dataSets;
+    }
+
+    /**
+     * Parse a library or design file. DTDs and external entities are not processed.
+     */
+    public static LibraryDefinition parse(Path library) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        Map<String, DataSourceDefinition> dataSources = new LinkedHashMap<>();
+        Map<String, DataSetDefinition> dataSets = new LinkedHashMap<>();
+
+        try (InputStream in = Files.newInputStream(library)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    String element = reader.getLocalName();
+                    if ("oda-data-source".equals(element)) {
+                        String name = reader.getAttributeValue(null, "name");
+                        Map<String, String> properties = readProperties(reader, null);
+                        dataSources.put(name, new DataSourceDefinition(name,
+                                properties.get("odaDriverClass"),
+                                properties.get("odaURL"),
+                                properties.get("odaUser"),
+                                properties.get("odaPassword")));
+                    } else if ("oda-data-set".equals(element)) {
+                        String name = reader.getAttributeValue(null, "name");
+                        List<ParameterDefinition> parameters = new ArrayList<>();
+                        Map<String, String> properties = readProperties(reader, parameters);
+                        parameters.sort(Comparator.comparingInt(ParameterDefinition::position));
+                        dataSets.put(name, new DataSetDefinition(name,
+                                properties.get("dataSource"),
+                                properties.get("queryText"),
+                                List.copyOf(parameters)));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid library " + library + ": " + e.getMessage(), e);
+        }
+        return new LibraryDefinition(dataSources, dataSets);
+    }
+
+    /**
+     * Direct property children of the current element; nested structures are skipped except the
+     * input parameters, which are added to the given list when it is not null
+     */
+    private static Map<String, String> readProperties(XMLStreamReader reader, List<ParameterDefinition> parameters)
+            throws XMLStreamException {
+        Map<String, String> properties = new HashMap<>();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1 && parameters != null && "list-property".equals(reader.getLocalName())
+                        && "parameters".equals(reader.getAttributeValue(null, "name"))) {
+                    readParameters(reader, parameters);
+                } else if (depth == 1 && isProperty(reader.getLocalName())) {
+                    String name = reader.getAttributeValue(null, "name");
+                    String encryption = reader.getAttributeValue(null, "encryptionID");
+                    String value = reader.getElementText().trim();
+                    if ("base64".equals(encryption)) {
+                        value = new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+                    }
+                    properties.put(name, value);
+                } else {
+                    depth++;
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Input parameters of a data set; consumes the list-property element
+     */
+    private static void readParameters(XMLStreamReader reader, List<ParameterDefinition> parameters)
+            throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1 && "structure".equals(reader.getLocalName())) {
+                    Map<String, String> structure = readStructure(reader);
+                    if (!"false".equals(structure.get("isInput")) && structure.get("name") != null) {
+                        parameters.add(new ParameterDefinition(structure.get("name"),
+                                structure.get("paramName"),
+                                Integer.parseInt(structure.getOrDefault("position", "0")),
+                                structure.get("defaultValue")));
+                    }
+                } else {
+                    depth++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Members of a structure. Expressions are kept only when they are literals.
+     */
+    private static Map<String, String> readStructure(XMLStreamReader reader) throws XMLStreamException {
+        Map<String, String> members = new HashMap<>();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String element = reader.getLocalName();
+                if (depth == 1 && ("property".equals(element) || "expression".equals(element))) {
+                    String name = reader.getAttributeValue(null, "name");
+                    String type = reader.getAttributeValue(null, "type");
+                    String value = reader.getElementText().trim();
+                    if ("expression".equals(element)) {
+                        value = literal(type, value);
+                    }
+                    if (value != null) {
+                        members.put(name, value);
+                    }
+                } else {
+                    depth++;
+                }
+            }
+        }
+        return members;
+    }
+
+    private static String literal(String type, String expression) {
+        if ("constant".equals(type)) {
+            return expression;
+        }
+        if (expression.length() >= 2 && (expression.startsWith("\"") && expression.endsWith("\"")
+                || expression.startsWith("'") && expression.endsWith("'"))) {
+            return expression.substring(1, expression.length() - 1);
+        }
+        return expression.matches("-?\\d+(\\.\\d+)?") ? expression : null;
+    }
+
+    private static boolean isProperty(String element) {
+        return "property".equals(element) || "xml-property".equals(element) || "encrypted-property".equals(element);
+    }
+}
@@ -0,0 +1,45 @@
+package com.reyansh.birt.data;
+
+import java.util.List;
+
+/**
+ * Row source over rows that are already in memory
+ */
+public class ListRowSource implements RowSource {
+
+    private final List<String> columnNames;
+
+    private final List<Object[]> rows;
+
+    private int position = -1;
+
+    public ListRowSource(List<String> columnNames, List<Object[]> rows) {
+        this.columnNames = List.copyOf(columnNames);
+        this.rows = rows;
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public boolean next() {
+        if (position + 1 >= rows.size()) {
+            position = rows.size();
+            return false;
+        }
+        position++;
+        return true;
+    }
+
+    @Override
+    public Object getValue(int index) {
+        return rows.get(position)[index];
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}
@@ -0,0 +1,112 @@
+package com.reyansh.birt.data;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.reyansh.birt.data.BinaryRowWriter.*;
+
+/**
+ * Row source over rows written by {@link BinaryRowWriter}, decoded one row at a time from a
+ * (usually memory-mapped) buffer that is shared read-only between readers.
+ */
+class MappedRowSource implements RowSource {
+
+    private final ByteBuffer buffer;
+
+    private final List<String> columnNames;
+
+    private final Object[] row;
+
+    private boolean exhausted;
+
+    MappedRowSource(ByteBuffer shared) {
+        this.buffer = shared.duplicate();
+        this.buffer.rewind();
+
+        int columnCount = buffer.getInt();
+        List<String> names = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            names.add(readString());
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+        this.row = new Object[columnCount];
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public boolean next() {
+        if (exhausted || buffer.get() == END) {
+            exhausted = true;
+            return false;
+        }
+        for (int i = 0; i < row.length; i++) {
+            row[i] = readValue();
+        }
+        return true;
+    }
+
+    @Override
+    public Object getValue(int index) {
+        return row[index];
+    }
+
+    @Override
+    public void close() {
+        exhausted = true;
+    }
+
+    private Object readValue() {
+        byte type = buffer.get();
+        return switch (type) {
+            case NULL -> null;
+            case STRING -> readString();
+            case INT -> buffer.getInt();
+            case LONG -> buffer.getLong();
+            case DOUBLE -> buffer.getDouble();
+            case FLOAT -> buffer.getFloat();
+            case SHORT -> buffer.getShort();
+            case DECIMAL -> {
+                int scale = buffer.getInt();
+                yield new BigDecimal(new BigInteger(readBytes()), scale);
+            }
+            case BIG_INTEGER -> new BigInteger(readBytes());
+            case BOOLEAN -> buffer.get() != 0;
+            case SQL_TIMESTAMP -> java.sql.Timestamp.valueOf(readDateTime());
+            case SQL_DATE -> java.sql.Date.valueOf(LocalDate.ofEpochDay(buffer.getLong()));
+            case SQL_TIME -> java.sql.Time.valueOf(LocalTime.ofNanoOfDay(buffer.getLong()));
+            case LOCAL_DATE -> LocalDate.ofEpochDay(buffer.getLong());
+            case LOCAL_DATE_TIME -> readDateTime();
+            case BYTES -> readBytes();
+            default -> throw new IllegalStateException("Corrupt cached result, unknown type " + type);
+        };
+    }
+
+    private LocalDateTime readDateTime() {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private String readString() {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
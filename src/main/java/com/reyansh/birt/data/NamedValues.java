@@ -0,0 +1,28 @@
+package com.reyansh.birt.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses per-name settings written as a comma separated list, e.g. Warehouse=20,Crm=5
+ */
+final class NamedValues {
+
+    private NamedValues() {
+    }
+
+    static Map<String, Integer> parse(String property, String value) {
+        Map<String, Integer> values = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return values;
+        }
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid " + property + " entry: " + entry);
+            }
+            values.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return values;
+    }
+}
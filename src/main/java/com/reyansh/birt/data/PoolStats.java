@@ -0,0 +1,18 @@
+package com.reyansh.birt.data;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Point-in-time state of a data source connection pool
+ */
+public record PoolStats(String name, String url, int maxSize, int active, int idle, int total, int waiting,
+                        long timeouts) {
+
+    /**
+     * Share of the pool in use, 1 when every connection is borrowed
+     */
+    @JsonProperty
+    public double saturation() {
+        return maxSize == 0 ? 0 : (double) active / maxSize;
+    }
+}
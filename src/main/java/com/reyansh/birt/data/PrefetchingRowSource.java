@@ -0,0 +1,196 @@
+package com.reyansh.birt.data;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Reads a row source ahead on a producer thread into a bounded buffer of row batches, so the
+ * database fetch overlaps with writing the output.
+ *
+ * The buffer is bounded by the estimated size of the rows it holds, including the batch the
+ * consumer is working through. Once the limit is reached the producer waits until the consumer
+ * moves on, so a slow output stream throttles the fetch instead of letting rows pile up on the
+ * heap. At least one batch is always admitted, whatever its size.
+ */
+@Slf4j
+class PrefetchingRowSource implements RowSource {
+
+    private record Batch(List<Object[]> rows, long bytes) {
+    }
+
+    private final RowSource delegate;
+
+    private final int batchRows;
+
+    private final long maxBufferedBytes;
+
+    // Wide rows end a batch early so a single batch cannot exceed the budget by much
+    private final long maxBatchBytes;
+
+    private final ArrayDeque<Batch> batches = new ArrayDeque<>();
+
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    // Guarded by this
+    private long bufferedBytes;
+
+    private boolean finished;
+
+    private boolean closed;
+
+    private Throwable failure;
+
+    private int stalls;
+
+    // Consumer side only
+    private Batch current;
+
+    private int position;
+
+    PrefetchingRowSource(RowSource delegate, int batchRows, long maxBufferedBytes) {
+        this.delegate = delegate;
+        this.batchRows = Math.max(1, batchRows);
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.maxBatchBytes = Math.max(1, maxBufferedBytes / 4);
+    }
+
+    /**
+     * Producer loop; runs on the prefetch thread until the rows are exhausted or the source is closed
+     */
+    void produce() {
+        Throwable error = null;
+        try {
+            int columnCount = delegate.getColumnNames().size();
+            List<Object[]> rows = new ArrayList<>(batchRows);
+            long bytes = 0;
+            while (delegate.next()) {
+                Object[] row = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = delegate.getValue(i);
+                }
+                rows.add(row);
+                bytes += estimateSize(row);
+                if (rows.size() >= batchRows || bytes >= maxBatchBytes) {
+                    if (!offer(new Batch(rows, bytes))) {
+                        return;
+                    }
+                    rows = new ArrayList<>(batchRows);
+                    bytes = 0;
+                }
+            }
+            if (!rows.isEmpty()) {
+                offer(new Batch(rows, bytes));
+            }
+        } catch (Throwable e) {
+            error = e;
+        } finally {
+            finish(error);
+            stopped.countDown();
+        }
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return delegate.getColumnNames();
+    }
+
+    @Override
+    public boolean next() throws Exception {
+        if (current != null && ++position < current.rows().size()) {
+            return true;
+        }
+        current = take();
+        position = 0;
+        return current != null;
+    }
+
+    @Override
+    public Object getValue(int index) {
+        return current.rows().get(position)[index];
+    }
+
+    /**
+     * Stops the producer, cancelling the fetch it is waiting for, then closes the underlying source
+     */
+    @Override
+    public void close() throws Exception {
+        boolean producing;
+        synchronized (this) {
+            closed = true;
+            producing = !finished;
+            batches.clear();
+            notifyAll();
+        }
+        current = null;
+        if (producing) {
+            // Otherwise an abandoned export holds this thread and the connection for the rest of a slow query
+            try {
+                delegate.cancel();
+            } catch (Exception e) {
+                log.debug("Could not cancel the prefetch fetch: {}", e.getMessage());
+            }
+        }
+        stopped.await();
+        log.debug("Prefetch finished; producer waited on a full buffer {} times", stalls);
+        delegate.close();
+    }
+
+    private synchronized boolean offer(Batch batch) throws InterruptedException {
+        while (!closed && bufferedBytes > 0 && bufferedBytes + batch.bytes() > maxBufferedBytes) {
+            stalls++;
+            wait();
+        }
+        if (closed) {
+            return false;
+        }
+        batches.add(batch);
+        bufferedBytes += batch.bytes();
+        notifyAll();
+        return true;
+    }
+
+    private synchronized void finish(Throwable error) {
+        failure = error;
+        finished = true;
+        notifyAll();
+    }
+
+    private synchronized Batch take() throws Exception {
+        if (current != null) {
+            bufferedBytes -= current.bytes();
+            notifyAll();
+        }
+        while (batches.isEmpty() && !finished) {
+            wait();
+        }
+        Batch batch = batches.poll();
+        if (batch == null && failure != null) {
+            if (failure instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) failure;
+        }
+        return batch;
+    }
+
+    /**
+     * Rough heap footprint of a row: array header and references plus the values
+     */
+    static long estimateSize(Object[] row) {
+        long size = 16 + 8L * row.length;
+        for (Object value : row) {
+            if (value instanceof String string) {
+                size += 40 + string.length();
+            } else if (value instanceof byte[] bytes) {
+                size += 16 + bytes.length;
+            } else if (value != null) {
+                size += 32;
+            }
+        }
+        return size;
+    }
+}
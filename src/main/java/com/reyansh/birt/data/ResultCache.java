@@ -0,0 +1,164 @@
+package com.reyansh.birt.data;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.cache.LruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.file.PathUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of data set results keyed by data source, query text and bound parameter values.
+ *
+ * Results are written in a compact binary format to files under report.data.cache.directory
+ * while the first run streams its rows, and later runs read them from a read-only memory
+ * mapping, so cached rows live in the page cache rather than on the heap. Entries expire after
+ * the TTL of their data set (report.data.cache.ttls, default report.data.cache.default-ttl-seconds;
+ * a TTL of 0 disables caching) and are evicted least recently used beyond report.data.cache.max-size-mb.
+ */
+@Slf4j
+@Component
+public class ResultCache {
+
+    private static final long MB = 1024L * 1024L;
+
+    private final Path directory;
+
+    private final long maxEntryBytes;
+
+    private final long defaultTtlMillis;
+
+    private final Map<String, Integer> ttlSeconds;
+
+    private final LruCache<ResultKey, CachedResult> cache;
+
+    public ResultCache(CacheRegistry cacheRegistry,
+                       @Value("${report.data.cache.directory:${java.io.tmpdir}/birt-scratch/result-cache}") String directory,
+                       @Value("${report.data.cache.max-size-mb:512}") long maxSizeMb,
+                       @Value("${report.data.cache.max-entry-mb:64}") long maxEntryMb,
+                       @Value("${report.data.cache.default-ttl-seconds:300}") long defaultTtlSeconds,
+                       @Value("${report.data.cache.ttls:}") String ttls) {
+        this.directory = Paths.get(directory);
+        this.maxEntryBytes = maxEntryMb * MB;
+        this.defaultTtlMillis = TimeUnit.SECONDS.toMillis(defaultTtlSeconds);
+        this.ttlSeconds = NamedValues.parse("report.data.cache.ttls", ttls);
+        this.cache = cacheRegistry.register(new LruCache<>("dataset-results", maxSizeMb * MB,
+                CachedResult::size, ResultCache::delete));
+    }
+
+    /**
+     * Result files do not survive a restart
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (Files.isDirectory(directory)) {
+            PathUtils.cleanDirectory(directory);
+        }
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Rows of a data set, from the cache or from the loader. A loaded result is cached once it
+     * has been read to the end.
+     */
+    public RowSource open(String dataSetName, String dataSourceName, ResultKey key, Callable<RowSource> loader)
+            throws Exception {
+        long ttlMillis = ttlMillis(dataSetName);
+        if (ttlMillis <= 0) {
+            return loader.call();
+        }
+
+        long now = System.currentTimeMillis();
+        CachedResult cached = cache.get(key, result -> result.expiresAt() > now);
+        if (cached != null) {
+            log.debug("Data set {} served from the result cache", dataSetName);
+            return new MappedRowSource(cached.buffer());
+        }
+
+        RowSource source = loader.call();
+        BinaryRowWriter writer;
+        try {
+            writer = new BinaryRowWriter(directory.resolve(UUID.randomUUID() + ".rows"),
+                    source.getColumnNames(), maxEntryBytes);
+        } catch (IOException e) {
+            log.warn("Could not create result cache file: {}", e.getMessage());
+            return source;
+        }
+        return new CachingRowSource(source, writer, completed -> {
+            long size = completed.finish();
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(completed.getPath(), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            CachedResult result = new CachedResult(dataSetName, dataSourceName, completed.getPath(), buffer, size,
+                    System.currentTimeMillis() + ttlMillis);
+            if (!cache.put(key, result)) {
+                delete(result);
+            }
+        });
+    }
+
+    /**
+     * Drop cached results
+     *
+     * @param dataSetName    only results of this data set, or null for all
+     * @param dataSourceName only results of this data source, or null for all
+     * @return number of results removed
+     */
+    public int invalidate(String dataSetName, String dataSourceName) {
+        int removed = cache.invalidateEntries((key, result) ->
+                (dataSetName == null || dataSetName.equals(result.dataSetName()))
+                        && (dataSourceName == null || dataSourceName.equals(result.dataSourceName())));
+        log.info("Invalidated {} cached data set results (data set: {}, data source: {})",
+                removed, dataSetName, dataSourceName);
+        return removed;
+    }
+
+    private long ttlMillis(String dataSetName) {
+        Integer seconds = ttlSeconds.get(dataSetName);
+        return seconds != null ? TimeUnit.SECONDS.toMillis(seconds) : defaultTtlMillis;
+    }
+
+    private static void delete(CachedResult result) {
+        // Readers still holding the mapping keep working; the pages are released with the last one
+        try {
+            Files.deleteIfExists(result.path());
+        } catch (IOException e) {
+            log.warn("Could not delete cached result {}: {}", result.path(), e.getMessage());
+        }
+    }
+
+    /**
+     * Identity of a result: where it comes from, the query, the values bound to it and the row
+     * limit it was read with (0 for none)
+     */
+    public record ResultKey(String url, String user, String queryText, List<Object> parameterValues, int maxRows) {
+
+        public ResultKey {
+            Objects.requireNonNull(queryText);
+            // Parameter values may be null, which List.copyOf rejects
+            parameterValues = Collections.unmodifiableList(new ArrayList<>(parameterValues));
+        }
+    }
+
+    private record CachedResult(String dataSetName, String dataSourceName, Path path, MappedByteBuffer buffer,
+                                long size, long expiresAt) {
+    }
+}
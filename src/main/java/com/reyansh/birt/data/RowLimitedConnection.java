@@ -0,0 +1,46 @@
+package com.reyansh.birt.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Connection proxy that sets a row limit on every statement it creates, so the database stops
+ * producing rows at the limit instead of the caller discarding them
+ */
+final class RowLimitedConnection implements InvocationHandler {
+
+    private final Connection delegate;
+
+    private final int maxRows;
+
+    private RowLimitedConnection(Connection delegate, int maxRows) {
+        this.delegate = delegate;
+        this.maxRows = maxRows;
+    }
+
+    static Connection wrap(Connection connection, int maxRows) {
+        if (maxRows <= 0) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new RowLimitedConnection(connection, maxRows));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object result;
+        try {
+            result = method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        if (result instanceof Statement statement) {
+            statement.setMaxRows(maxRows);
+        }
+        return result;
+    }
+}
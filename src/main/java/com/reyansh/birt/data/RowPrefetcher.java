@@ -0,0 +1,92 @@
+package com.reyansh.birt.data;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams data set rows through a bounded read-ahead buffer on a dedicated thread.
+ *
+ * Each job gets at most report.data.pipeline.buffer-mb of buffered rows; beyond that the fetch
+ * waits for the exporter, so heap use stays constant however many rows a data set returns.
+ * When all report.data.pipeline.threads are busy the rows are read on the caller's thread
+ * instead, which has the same memory bound without the overlap. Zero threads disables read-ahead.
+ * The pool is published as executor.* meters named row-prefetch, together with the number of
+ * jobs that found no free thread.
+ */
+@Slf4j
+@Component
+public class RowPrefetcher implements MeterBinder {
+
+    private final long maxBufferedBytes;
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    public RowPrefetcher(@Value("${report.data.pipeline.threads:8}") int threads,
+                         @Value("${report.data.pipeline.buffer-mb:16}") long bufferMb) {
+        this.maxBufferedBytes = bufferMb * 1024 * 1024;
+        if (threads <= 0) {
+            this.executor = null;
+            return;
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "row-prefetch-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Read the source ahead in batches of the given number of rows. Closing the returned source
+     * closes the given one.
+     */
+    public RowSource prefetch(RowSource source, int batchRows) {
+        if (executor == null) {
+            return source;
+        }
+        PrefetchingRowSource prefetching = new PrefetchingRowSource(source, batchRows, maxBufferedBytes);
+        try {
+            executor.execute(prefetching::produce);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.debug("No prefetch thread available, reading rows on the calling thread");
+            return source;
+        }
+        return prefetching;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (executor != null) {
+            new ExecutorServiceMetrics(executor, "row-prefetch", Tags.empty()).bindTo(registry);
+        }
+        FunctionCounter.builder("report.executor.rejected", rejected, AtomicLong::get)
+                .tag("name", "row-prefetch")
+                .description("Tasks turned away because every worker was busy")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.reyansh.birt.data;
+
+import java.util.List;
+
+/**
+ * Forward-only cursor over the rows of a data set.
+ *
+ * Consumers pull one row at a time, so only the current row is held in memory no matter how
+ * many rows the data set returns. Closing releases the underlying statement and connection.
+ */
+public interface RowSource extends AutoCloseable {
+
+    /**
+     * Column names in result order
+     */
+    List<String> getColumnNames();
+
+    /**
+     * Move to the next row
+     *
+     * @return false once all rows have been read
+     */
+    boolean next() throws Exception;
+
+    /**
+     * Value of a column in the current row, null for SQL NULL
+     *
+     * @param index zero-based column index
+     */
+    Object getValue(int index) throws Exception;
+
+    /**
+     * Abort a fetch in progress on another thread, for a consumer that stops early. The source
+     * still has to be closed. Sources that never block on a fetch do nothing.
+     */
+    default void cancel() throws Exception {
+    }
+
+    @Override
+    void close() throws Exception;
+}
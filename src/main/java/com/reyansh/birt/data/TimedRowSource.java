@@ -0,0 +1,82 @@
+package com.reyansh.birt.data;
+
+import com.reyansh.birt.metrics.ReportEvents;
+import com.reyansh.birt.metrics.ReportTimings;
+
+import java.util.List;
+
+/**
+ * Counts the rows read from a data set and the time spent waiting for them, and adds both to the
+ * job's {@link ReportTimings} and flight recorder event when the source is closed
+ */
+class TimedRowSource implements RowSource {
+
+    private final RowSource delegate;
+
+    private final String dataSetName;
+
+    private final ReportTimings timings;
+
+    private final ReportEvents.DataSetEvent event;
+
+    private long nanos;
+
+    private long rows;
+
+    private boolean closed;
+
+    /**
+     * @param timings   timings of the job, or null if it does not collect them
+     * @param event     event started before the query was executed
+     * @param openNanos time it took to execute the query or open the cached result
+     */
+    TimedRowSource(RowSource delegate, String dataSetName, ReportTimings timings, ReportEvents.DataSetEvent event,
+                   long openNanos) {
+        this.delegate = delegate;
+        this.dataSetName = dataSetName;
+        this.timings = timings;
+        this.event = event;
+        this.nanos = openNanos;
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return delegate.getColumnNames();
+    }
+
+    @Override
+    public boolean next() throws Exception {
+        long start = System.nanoTime();
+        boolean hasRow = delegate.next();
+        nanos += System.nanoTime() - start;
+        if (hasRow) {
+            rows++;
+        }
+        return hasRow;
+    }
+
+    @Override
+    public Object getValue(int index) throws Exception {
+        return delegate.getValue(index);
+    }
+
+    @Override
+    public void cancel() throws Exception {
+        delegate.cancel();
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            delegate.close();
+        } finally {
+            if (!closed) {
+                closed = true;
+                if (timings != null) {
+                    timings.addDataSet(dataSetName, rows, nanos);
+                }
+                ReportEvents.endDataSet(event, dataSetName, rows);
+            }
+        }
+    }
+}
@@ -50,6 +50,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    @ExceptionHandler(UploadTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> handleUploadTooLargeException(
+            UploadTooLargeException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Upload too large");
+        response.put("error", ex.getMessage());
+        
+        log.error("Upload rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+    }
+
+    @ExceptionHandler(PreviewCapacityException.class)
+    public ResponseEntity<Map<String, Object>> handlePreviewCapacityException(
+            PreviewCapacityException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Preview capacity exhausted");
+        response.put("error", ex.getMessage());
+        
+        log.warn("Preview rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         Map<String, Object> response = new HashMap<>();
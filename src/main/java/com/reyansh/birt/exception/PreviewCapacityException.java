@@ -0,0 +1,11 @@
+package com.reyansh.birt.exception;
+
+/**
+ * Thrown when every preview slot stays busy for the configured wait
+ */
+public class PreviewCapacityException extends RuntimeException {
+
+    public PreviewCapacityException(String message) {
+        super(message);
+    }
+}
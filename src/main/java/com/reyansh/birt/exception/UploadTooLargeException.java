@@ -0,0 +1,11 @@
+package com.reyansh.birt.exception;
+
+/**
+ * Thrown when a streamed upload exceeds the configured size limit
+ */
+public class UploadTooLargeException extends RuntimeException {
+
+    public UploadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,121 @@
+package com.reyansh.birt.export;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Turns the values of one column into text for the row-only formats (csv, ndjson).
+ *
+ * ColumnConfig.format is applied as a DecimalFormat pattern to numbers and as a DateTimeFormatter
+ * pattern to dates. Without a format, dataType decides the representation: integer drops the
+ * fraction, decimal is written in plain notation and date as an ISO date. Formatters are created
+ * lazily with locale-neutral symbols and are not thread-safe; use one instance per export.
+ */
+class ColumnFormatter {
+
+    private final String dataType;
+
+    private final String format;
+
+    private DecimalFormat numberFormat;
+
+    private DateTimeFormatter dateFormat;
+
+    ColumnFormatter(ExportColumn column) {
+        this.dataType = column.dataType() != null ? column.dataType().toLowerCase(Locale.ROOT) : "";
+        this.format = column.format();
+    }
+
+    /**
+     * Whether the value is written as a bare JSON number rather than a string
+     */
+    boolean isJsonNumber(Object value) {
+        return value instanceof Number && format == null && !"string".equals(dataType);
+    }
+
+    /**
+     * Number to write for a value that {@link #isJsonNumber} accepts; integer drops the fraction as in the text
+     */
+    Number toJsonNumber(Number number) {
+        if (!"integer".equals(dataType) || number instanceof BigInteger) {
+            return number;
+        }
+        return number instanceof BigDecimal decimal ? decimal.toBigInteger() : Long.valueOf(number.longValue());
+    }
+
+    /**
+     * Text of a non-null value
+     */
+    String format(Object value) {
+        if ("string".equals(dataType)) {
+            return value.toString();
+        }
+        if (value instanceof Number number) {
+            return formatNumber(number);
+        }
+        if (value instanceof Date || value instanceof TemporalAccessor) {
+            return formatDate(value);
+        }
+        return value.toString();
+    }
+
+    private String formatNumber(Number number) {
+        if (format != null) {
+            if (numberFormat == null) {
+                numberFormat = new DecimalFormat(format, DecimalFormatSymbols.getInstance(Locale.ROOT));
+            }
+            return numberFormat.format(number);
+        }
+        if ("integer".equals(dataType)) {
+            return number instanceof BigDecimal decimal
+                    ? decimal.toBigInteger().toString()
+                    : Long.toString(number.longValue());
+        }
+        if (number instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (number instanceof BigInteger || number instanceof Long || number instanceof Integer
+                || number instanceof Short || number instanceof Byte) {
+            return number.toString();
+        }
+        return BigDecimal.valueOf(number.doubleValue()).toPlainString();
+    }
+
+    private String formatDate(Object value) {
+        TemporalAccessor temporal = toTemporal(value);
+        if (format != null) {
+            if (dateFormat == null) {
+                dateFormat = DateTimeFormatter.ofPattern(format, Locale.ROOT);
+            }
+            return dateFormat.format(temporal);
+        }
+        if ("date".equals(dataType) && temporal instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate().toString();
+        }
+        return temporal.toString();
+    }
+
+    private static TemporalAccessor toTemporal(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof java.sql.Time time) {
+            return time.toLocalTime();
+        }
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        }
+        return (TemporalAccessor) value;
+    }
+}
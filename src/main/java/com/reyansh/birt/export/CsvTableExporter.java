@@ -0,0 +1,111 @@
+package com.reyansh.birt.export;
+
+import com.reyansh.birt.data.RowSource;
+import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.model.OutputFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV export of table rows, without pagination or layout.
+ *
+ * Rows are formatted into one reused line buffer and written through a small buffered writer.
+ * Each table starts with a header row of column labels; multiple tables are separated by an empty line.
+ */
+@Slf4j
+@Component
+public class CsvTableExporter implements TableExporter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Override
+    public OutputFormat getFormat() {
+        return OutputFormat.CSV;
+    }
+
+    @Override
+    public void export(List<DynamicReportRequest.TableConfig> tables, TableRows rows, OutputStream out)
+            throws Exception {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        StringBuilder line = new StringBuilder(256);
+        boolean first = true;
+        for (DynamicReportRequest.TableConfig table : tables) {
+            if (!first) {
+                writer.write("\r\n");
+            }
+            first = false;
+
+            try (RowSource source = rows.open(table)) {
+                long written = writeTable(writer, line, table, source);
+                log.debug("Exported {} rows of table {} to csv", written, table.getTitle());
+            }
+        }
+        writer.flush();
+    }
+
+    private long writeTable(Writer writer, StringBuilder line, DynamicReportRequest.TableConfig table,
+                            RowSource source) throws Exception {
+        List<ExportColumn> columns = ExportColumn.bind(table.getColumns(), source.getColumnNames());
+        List<ColumnFormatter> formatters = new ArrayList<>(columns.size());
+
+        line.setLength(0);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendField(line, columns.get(i).label());
+            formatters.add(new ColumnFormatter(columns.get(i)));
+        }
+        writer.append(line).append("\r\n");
+
+        long written = 0;
+        while (source.next()) {
+            line.setLength(0);
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                Object value = source.getValue(columns.get(i).index());
+                if (value != null) {
+                    appendField(line, formatters.get(i).format(value));
+                }
+            }
+            writer.append(line).append("\r\n");
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Append a field, quoted only when it contains a separator, quote or line break
+     */
+    static void appendField(StringBuilder line, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,49 @@
+package com.reyansh.birt.export;
+
+import com.reyansh.birt.model.DynamicReportRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A configured table column bound to its position in the row source
+ */
+public record ExportColumn(int index, String name, String label, Integer width, String dataType,
+                           String format, String alignment) {
+
+    /**
+     * Bind the configured columns to the row source columns by name, ignoring case.
+     * Without configured columns every row source column is exported as is.
+     *
+     * @throws IllegalArgumentException if a configured column is not returned by the data set
+     */
+    public static List<ExportColumn> bind(List<DynamicReportRequest.ColumnConfig> configured, List<String> available) {
+        List<ExportColumn> columns = new ArrayList<>();
+        if (configured == null || configured.isEmpty()) {
+            for (int i = 0; i < available.size(); i++) {
+                columns.add(new ExportColumn(i, available.get(i), available.get(i), null, null, null, null));
+            }
+            return columns;
+        }
+
+        for (DynamicReportRequest.ColumnConfig column : configured) {
+            int index = indexOf(available, column.getName());
+            if (index < 0) {
+                throw new IllegalArgumentException("Column not found in data set: " + column.getName());
+            }
+            String label = column.getLabel() != null ? column.getLabel() : column.getName();
+            columns.add(new ExportColumn(index, column.getName(), label, column.getWidth(),
+                    column.getDataType(), column.getFormat(), column.getAlignment()));
+        }
+        return columns;
+    }
+
+    private static int indexOf(List<String> available, String name) {
+        for (int i = 0; i < available.size(); i++) {
+            if (available.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.reyansh.birt.export;
+
+import com.reyansh.birt.chart.ChartImage;
+import com.reyansh.birt.data.RowSource;
+import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.model.OutputFormat;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes the tables of a dynamic report straight from their data sets, without the layout engine.
+ * Implementations write rows as they are read and never close the target stream.
+ */
+public interface TableExporter {
+
+    /**
+     * Opens the rows of one table; the exporter closes the returned source
+     */
+    @FunctionalInterface
+    interface TableRows {
+        RowSource open(DynamicReportRequest.TableConfig table) throws Exception;
+    }
+
+    OutputFormat getFormat();
+
+    void export(List<DynamicReportRequest.TableConfig> tables, TableRows rows, OutputStream out) throws Exception;
+
+    /**
+     * Whether rendered charts can be embedded in this format
+     */
+    default boolean supportsCharts() {
+        return false;
+    }
+
+    /**
+     * Export the tables followed by the rendered charts; formats without images ignore the charts
+     */
+    default void export(List<DynamicReportRequest.TableConfig> tables, TableRows rows, List<ChartImage> charts,
+                        OutputStream out) throws Exception {
+        export(tables, rows, out);
+    }
+}
@@ -0,0 +1,268 @@
+package com.reyansh.birt.export;
+
+import com.reyansh.birt.chart.ChartImage;
+import com.reyansh.birt.data.RowSource;
+import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.model.OutputFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.usermodel.Drawing;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Streaming XLSX export based on POI's SXSSF workbook.
+ *
+ * Only the last report.export.xlsx.row-window rows of a sheet are kept in memory; older rows are
+ * flushed to a compressed temp file as new rows arrive, so memory stays flat regardless of row count.
+ * Each table becomes a sheet with a frozen header row of column labels. Column widths, number and
+ * date formats and alignment come from the table's ColumnConfig. Tables longer than the XLSX row
+ * limit continue on additional sheets. Rendered charts are placed as pictures on a final Charts sheet.
+ */
+@Slf4j
+@Component
+public class XlsxTableExporter implements TableExporter {
+
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-mm-dd";
+
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+    /**
+     * Default column width and row height in pixels, used to size chart anchors
+     */
+    private static final int COLUMN_PIXELS = 64;
+
+    private static final int ROW_PIXELS = 20;
+
+    private final int rowWindow;
+
+    private final int maxRowsPerSheet;
+
+    @Autowired
+    public XlsxTableExporter(@Value("${report.export.xlsx.row-window:100}") int rowWindow) {
+        this(rowWindow, SpreadsheetVersion.EXCEL2007.getMaxRows());
+    }
+
+    XlsxTableExporter(int rowWindow, int maxRowsPerSheet) {
+        this.rowWindow = rowWindow;
+        this.maxRowsPerSheet = maxRowsPerSheet;
+    }
+
+    @Override
+    public OutputFormat getFormat() {
+        return OutputFormat.XLSX;
+    }
+
+    @Override
+    public boolean supportsCharts() {
+        return true;
+    }
+
+    @Override
+    public void export(List<DynamicReportRequest.TableConfig> tables, TableRows rows, OutputStream out)
+            throws Exception {
+        export(tables, rows, List.of(), out);
+    }
+
+    @Override
+    public void export(List<DynamicReportRequest.TableConfig> tables, TableRows rows, List<ChartImage> charts,
+                       OutputStream out) throws Exception {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            Set<String> sheetNames = new HashSet<>();
+            for (DynamicReportRequest.TableConfig table : tables) {
+                try (RowSource source = rows.open(table)) {
+                    long written = writeTable(workbook, sheetNames, table, source);
+                    log.debug("Exported {} rows of table {} to xlsx", written, table.getTitle());
+                }
+            }
+            if (!charts.isEmpty()) {
+                writeCharts(workbook, sheetNames, charts);
+            }
+            // The workbook closes the stream it writes to, which belongs to the caller
+            workbook.write(CloseShieldOutputStream.wrap(out));
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private long writeTable(SXSSFWorkbook workbook, Set<String> sheetNames,
+                            DynamicReportRequest.TableConfig table, RowSource source) throws Exception {
+        List<ExportColumn> columns = ExportColumn.bind(table.getColumns(), source.getColumnNames());
+        String baseName = table.getTitle() != null ? table.getTitle() : table.getDatasetName();
+
+        CellStyle headerStyle = headerStyle(workbook);
+        CellStyle[] valueStyles = new CellStyle[columns.size()];
+        CellStyle[] dateStyles = new CellStyle[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            valueStyles[i] = valueStyle(workbook, columns.get(i));
+            dateStyles[i] = columns.get(i).format() != null ? valueStyles[i] : dateStyle(workbook, valueStyles[i]);
+        }
+
+        SXSSFSheet sheet = createSheet(workbook, sheetNames, baseName, columns, headerStyle);
+        int rowIndex = 1;
+        long written = 0;
+        while (source.next()) {
+            if (rowIndex == maxRowsPerSheet) {
+                sheet = createSheet(workbook, sheetNames, baseName, columns, headerStyle);
+                rowIndex = 1;
+            }
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 0; i < columns.size(); i++) {
+                ExportColumn column = columns.get(i);
+                Object value = source.getValue(column.index());
+                if (value != null) {
+                    setValue(row.createCell(i), value, column, valueStyles[i], dateStyles[i]);
+                }
+            }
+            written++;
+        }
+        return written;
+    }
+
+    private static void writeCharts(SXSSFWorkbook workbook, Set<String> sheetNames, List<ChartImage> charts) {
+        SXSSFSheet sheet = workbook.createSheet(uniqueSheetName(sheetNames, "Charts"));
+        Drawing<?> drawing = sheet.createDrawingPatriarch();
+        int row = 0;
+        for (ChartImage chart : charts) {
+            int picture = workbook.addPicture(chart.bytes(), Workbook.PICTURE_TYPE_PNG);
+            ClientAnchor anchor = workbook.getCreationHelper().createClientAnchor();
+            anchor.setAnchorType(ClientAnchor.AnchorType.MOVE_DONT_RESIZE);
+            anchor.setCol1(0);
+            anchor.setRow1(row);
+            anchor.setCol2(Math.ceilDiv(chart.width(), COLUMN_PIXELS));
+            anchor.setRow2(row + Math.ceilDiv(chart.height(), ROW_PIXELS));
+            drawing.createPicture(anchor, picture);
+            row = anchor.getRow2() + 1;
+        }
+    }
+
+    private SXSSFSheet createSheet(SXSSFWorkbook workbook, Set<String> sheetNames, String baseName,
+                                   List<ExportColumn> columns, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(uniqueSheetName(sheetNames, baseName));
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < columns.size(); i++) {
+            ExportColumn column = columns.get(i);
+            Cell cell = header.createCell(i);
+            cell.setCellValue(column.label());
+            cell.setCellStyle(headerStyle);
+            if (column.width() != null && column.width() > 0) {
+                sheet.setColumnWidth(i, widthUnits(column.width()));
+            }
+        }
+        sheet.createFreezePane(0, 1);
+        return sheet;
+    }
+
+    private static void setValue(Cell cell, Object value, ExportColumn column,
+                                 CellStyle valueStyle, CellStyle dateStyle) {
+        String dataType = column.dataType() != null ? column.dataType().toLowerCase(Locale.ROOT) : "";
+        cell.setCellStyle(valueStyle);
+
+        if ("string".equals(dataType)) {
+            cell.setCellValue(value.toString());
+        } else if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+        } else if (value instanceof Date date) {
+            cell.setCellValue(date);
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof LocalDateTime dateTime) {
+            cell.setCellValue(dateTime);
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof LocalDate date) {
+            cell.setCellValue(date);
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof Boolean bool) {
+            cell.setCellValue(bool);
+        } else if (("integer".equals(dataType) || "decimal".equals(dataType)) && isNumeric(value.toString())) {
+            cell.setCellValue(Double.parseDouble(value.toString()));
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+
+    private static boolean isNumeric(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static CellStyle headerStyle(SXSSFWorkbook workbook) {
+        Font font = workbook.createFont();
+        font.setBold(true);
+        CellStyle style = workbook.createCellStyle();
+        style.setFont(font);
+        return style;
+    }
+
+    private static CellStyle valueStyle(SXSSFWorkbook workbook, ExportColumn column) {
+        CellStyle style = workbook.createCellStyle();
+        if (column.format() != null) {
+            style.setDataFormat(workbook.createDataFormat().getFormat(column.format()));
+        } else if ("date".equalsIgnoreCase(column.dataType())) {
+            style.setDataFormat(workbook.createDataFormat().getFormat(DEFAULT_DATE_FORMAT));
+        }
+        if (column.alignment() != null) {
+            switch (column.alignment().toLowerCase(Locale.ROOT)) {
+                case "left" -> style.setAlignment(HorizontalAlignment.LEFT);
+                case "center" -> style.setAlignment(HorizontalAlignment.CENTER);
+                case "right" -> style.setAlignment(HorizontalAlignment.RIGHT);
+                default -> {
+                    // Keep the general alignment
+                }
+            }
+        }
+        return style;
+    }
+
+    private static CellStyle dateStyle(SXSSFWorkbook workbook, CellStyle valueStyle) {
+        CellStyle style = workbook.createCellStyle();
+        style.cloneStyleFrom(valueStyle);
+        style.setDataFormat(workbook.createDataFormat().getFormat(DEFAULT_DATE_FORMAT));
+        return style;
+    }
+
+    /**
+     * Column width in pixels to Excel units (1/256 of a character, about 7 pixels per character)
+     */
+    static int widthUnits(int pixels) {
+        return Math.min(255 * 256, pixels * 256 / 7);
+    }
+
+    static String uniqueSheetName(Set<String> used, String baseName) {
+        String base = WorkbookUtil.createSafeSheetName(baseName != null ? baseName : "Sheet");
+        String name = base;
+        for (int n = 2; !used.add(name.toLowerCase(Locale.ROOT)); n++) {
+            String suffix = " (" + n + ")";
+            name = base.substring(0, Math.min(base.length(), MAX_SHEET_NAME_LENGTH - suffix.length())) + suffix;
+        }
+        return name;
+    }
+}
@@ -0,0 +1,35 @@
+package com.reyansh.birt.health;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.List;
+
+/**
+ * Point-in-time capacity of this node
+ *
+ * @param status                UP, OUT_OF_SERVICE while saturated or short of disk, DOWN without an engine
+ * @param reasons               why the node is not UP
+ * @param load                  0 when idle, 1 when every request thread is busy or requests wait for one
+ * @param weight                share of traffic the node can take, 0 to 100; 0 unless UP
+ * @param requestThreadsBusy    request threads in use, at least the running report jobs
+ * @param requestsQueued        accepted requests waiting for a request thread
+ * @param estimatedQueueWaitMs  how long a report requested now would wait before it starts
+ * @param outputFreeBytes       usable space on the output volume, -1 if it could not be read
+ * @param scratchFreeBytes      usable space on the scratch volume, -1 if it could not be read
+ * @param engine                running, disabled (mock services) or unavailable
+ */
+public record CapacityStats(String status, List<String> reasons, double load, int weight,
+                            int activeJobs, double averageJobMs,
+                            int requestThreadsBusy, int requestThreadsMax, int requestsQueued,
+                            long estimatedQueueWaitMs, int previewActive, int previewWaiting, int previewMaxConcurrent,
+                            long outputFreeBytes, long scratchFreeBytes, String engine) {
+
+    /**
+     * Whether the node should receive new reports
+     */
+    @JsonProperty
+    public boolean ready() {
+        return Status.UP.getCode().equals(status);
+    }
+}
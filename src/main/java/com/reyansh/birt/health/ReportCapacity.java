@@ -0,0 +1,167 @@
+package com.reyansh.birt.health;
+
+import com.reyansh.birt.service.PreviewLane;
+import com.reyansh.birt.storage.ReportOutputStore;
+import com.reyansh.birt.storage.ScratchStorage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.birt.report.engine.api.IReportEngine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Whether this node can take more reports, and how many.
+ *
+ * Reports run on the request threads, so the load is the share of them that is busy, counting
+ * requests that wait for a thread as busy too (1 once any wait). A node is taken out of service
+ * (readiness OUT_OF_SERVICE, weight 0) when the load reaches report.capacity.max-load, when a report
+ * requested now would wait longer than report.capacity.max-queue-wait-ms, or when the output or
+ * scratch volume has less than report.capacity.min-free-output-mb / min-free-scratch-mb left. The
+ * wait is estimated from the recent average job duration: requests waiting for a thread spread over
+ * the request threads, plus previews waiting in the preview lane spread over its slots. Without the
+ * BIRT engine it is DOWN.
+ * Otherwise its weight falls from 100 when idle towards 1 as the load rises, for load balancers
+ * that route in proportion to it. The load is published as the report.capacity.load gauge.
+ */
+@Slf4j
+@Component
+public class ReportCapacity implements MeterBinder {
+
+    private static final long MB = 1024L * 1024L;
+
+    private static final int MAX_WEIGHT = 100;
+
+    private final ReportJobs reportJobs;
+
+    private final RequestThreads requestThreads;
+
+    private final PreviewLane previewLane;
+
+    private final ReportOutputStore outputStore;
+
+    private final ScratchStorage scratchStorage;
+
+    private final ObjectProvider<IReportEngine> reportEngine;
+
+    private final boolean engineEnabled;
+
+    private final double maxLoad;
+
+    private final long maxQueueWaitMs;
+
+    private final long minFreeOutputBytes;
+
+    private final long minFreeScratchBytes;
+
+    public ReportCapacity(ReportJobs reportJobs,
+                          RequestThreads requestThreads,
+                          PreviewLane previewLane,
+                          ReportOutputStore outputStore,
+                          ScratchStorage scratchStorage,
+                          ObjectProvider<IReportEngine> reportEngine,
+                          @Value("${birt.engine.enabled:false}") boolean engineEnabled,
+                          @Value("${report.capacity.max-load:0.9}") double maxLoad,
+                          @Value("${report.capacity.max-queue-wait-ms:30000}") long maxQueueWaitMs,
+                          @Value("${report.capacity.min-free-output-mb:512}") long minFreeOutputMb,
+                          @Value("${report.capacity.min-free-scratch-mb:256}") long minFreeScratchMb) {
+        if (maxLoad <= 0 || maxQueueWaitMs <= 0) {
+            throw new IllegalArgumentException("report.capacity.max-load and max-queue-wait-ms must be positive");
+        }
+        this.reportJobs = reportJobs;
+        this.requestThreads = requestThreads;
+        this.previewLane = previewLane;
+        this.outputStore = outputStore;
+        this.scratchStorage = scratchStorage;
+        this.reportEngine = reportEngine;
+        this.engineEnabled = engineEnabled;
+        this.maxLoad = maxLoad;
+        this.maxQueueWaitMs = maxQueueWaitMs;
+        this.minFreeOutputBytes = minFreeOutputMb * MB;
+        this.minFreeScratchBytes = minFreeScratchMb * MB;
+    }
+
+    public CapacityStats snapshot() {
+        int activeJobs = reportJobs.active();
+        double averageJobMs = reportJobs.averageDurationMs();
+        int threadsBusy = threadsBusy();
+        int threadsMax = requestThreads.max();
+        int requestsQueued = requestThreads.queued();
+        int previewWaiting = previewLane.getWaiting();
+        int previewMaxConcurrent = previewLane.getMaxConcurrent();
+
+        double load = load(threadsBusy, requestsQueued, threadsMax);
+        double queuedWork = requestsQueued * averageJobMs / threadsMax
+                + previewWaiting * averageJobMs / Math.max(1, previewMaxConcurrent);
+        long estimatedQueueWaitMs = Math.round(queuedWork);
+        long outputFreeBytes = usableSpace(outputStore::getUsableSpace, "output");
+        long scratchFreeBytes = usableSpace(
+                () -> Files.getFileStore(scratchStorage.getDocumentDirectory()).getUsableSpace(), "scratch");
+        String engine = !engineEnabled ? "disabled" : reportEngine.getIfAvailable() != null ? "running" : "unavailable";
+
+        List<String> reasons = new ArrayList<>();
+        if ("unavailable".equals(engine)) {
+            reasons.add("report engine is not running");
+        }
+        if (load >= maxLoad) {
+            reasons.add(String.format(Locale.ROOT, "load %.2f at or above %.2f", load, maxLoad));
+        }
+        if (estimatedQueueWaitMs > maxQueueWaitMs) {
+            reasons.add("estimated queue wait " + estimatedQueueWaitMs + "ms above " + maxQueueWaitMs + "ms");
+        }
+        if (outputFreeBytes < minFreeOutputBytes) {
+            reasons.add("output volume has " + Math.max(0, outputFreeBytes) / MB + " MB free");
+        }
+        if (scratchFreeBytes < minFreeScratchBytes) {
+            reasons.add("scratch volume has " + Math.max(0, scratchFreeBytes) / MB + " MB free");
+        }
+
+        Status status = "unavailable".equals(engine) ? Status.DOWN
+                : reasons.isEmpty() ? Status.UP : Status.OUT_OF_SERVICE;
+        int weight = status == Status.UP ? Math.max(1, (int) Math.round(MAX_WEIGHT * (1 - load))) : 0;
+        return new CapacityStats(status.getCode(), reasons, load, weight, activeJobs, averageJobMs,
+                threadsBusy, threadsMax, requestsQueued, estimatedQueueWaitMs, previewLane.getActive(),
+                previewWaiting, previewMaxConcurrent, outputFreeBytes, scratchFreeBytes, engine);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("report.capacity.load", this,
+                        capacity -> capacity.load(capacity.threadsBusy(), requestThreads.queued(), requestThreads.max()))
+                .description("Share of report capacity in use, 1 when saturated").register(registry);
+    }
+
+    /**
+     * Busy request threads; running report jobs each hold one, also where the threads cannot be read
+     */
+    private int threadsBusy() {
+        return Math.max(requestThreads.busy(), reportJobs.active());
+    }
+
+    private static double load(int busy, int queued, int max) {
+        return Math.min(1, (double) (busy + queued) / max);
+    }
+
+    @FunctionalInterface
+    private interface SpaceProbe {
+        long usableSpace() throws IOException;
+    }
+
+    private static long usableSpace(SpaceProbe probe, String volume) {
+        try {
+            return probe.usableSpace();
+        } catch (IOException e) {
+            log.warn("Could not read free space of the {} volume: {}", volume, e.getMessage());
+            return -1;
+        }
+    }
+}
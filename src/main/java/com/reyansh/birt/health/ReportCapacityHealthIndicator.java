@@ -0,0 +1,26 @@
+package com.reyansh.birt.health;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Report capacity as the reportCapacity health contributor, part of the readiness group so
+ * /actuator/health/readiness turns OUT_OF_SERVICE while the node is saturated. Liveness does not
+ * include it: a busy node must not be restarted.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportCapacityHealthIndicator implements HealthIndicator {
+
+    private final ReportCapacity reportCapacity;
+
+    @Override
+    public Health health() {
+        CapacityStats stats = reportCapacity.snapshot();
+        return Health.status(stats.status())
+                .withDetail("capacity", stats)
+                .build();
+    }
+}
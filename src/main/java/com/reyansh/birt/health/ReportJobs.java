@@ -0,0 +1,135 @@
+package com.reyansh.birt.health;
+
+import com.reyansh.birt.metrics.ReportEvents;
+import com.reyansh.birt.metrics.SlowReportWatchdog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Report jobs running on this node, on request threads and report workers alike, and how long
+ * recent jobs took. Published as the report.jobs.active gauge. While a job runs, its ID and
+ * template are in the logging context (MDC keys jobId and template) of its thread, it is recorded
+ * as a Flight Recorder job event and the slow-report watchdog watches it.
+ */
+@Component
+public class ReportJobs implements MeterBinder {
+
+    public static final String MDC_JOB_ID = "jobId";
+
+    public static final String MDC_TEMPLATE = "template";
+
+    // Weight of the newest job in the moving average duration
+    private static final double SMOOTHING = 0.2;
+
+    private final SlowReportWatchdog slowReportWatchdog;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private double averageDurationMs;
+
+    private boolean sampled;
+
+    public ReportJobs(SlowReportWatchdog slowReportWatchdog) {
+        this.slowReportWatchdog = slowReportWatchdog;
+    }
+
+    /**
+     * Count a job as running on the current thread until the returned job is closed
+     *
+     * @param template   design or report name
+     * @param parameters report parameters, for the watchdog; only their names and value types are recorded
+     */
+    public Job begin(String jobId, String template, String format, Map<String, ?> parameters) {
+        active.incrementAndGet();
+        Job job = new Job(jobId, template);
+        try {
+            job.event = ReportEvents.begin(jobId, template, format);
+            job.watch = slowReportWatchdog.watch(jobId, template, format, parameters);
+        } catch (RuntimeException e) {
+            job.close();
+            throw e;
+        }
+        return job;
+    }
+
+    public int active() {
+        return active.get();
+    }
+
+    /**
+     * Exponentially weighted average duration of finished jobs, 0 before the first one finished
+     */
+    public synchronized double averageDurationMs() {
+        return averageDurationMs;
+    }
+
+    private synchronized void finished(long nanos) {
+        double ms = nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        averageDurationMs = sampled ? averageDurationMs + SMOOTHING * (ms - averageDurationMs) : ms;
+        sampled = true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("report.jobs.active", active, AtomicInteger::get)
+                .description("Report jobs running").register(registry);
+    }
+
+    /**
+     * A running job
+     */
+    public final class Job implements AutoCloseable {
+
+        private final long startNanos = System.nanoTime();
+
+        // Logging context of an enclosing job, restored on close
+        private final String previousJobId = MDC.get(MDC_JOB_ID);
+
+        private final String previousTemplate = MDC.get(MDC_TEMPLATE);
+
+        private ReportEvents.Job event;
+
+        private SlowReportWatchdog.Watch watch;
+
+        private boolean closed;
+
+        private Job(String jobId, String template) {
+            putContext(MDC_JOB_ID, jobId);
+            putContext(MDC_TEMPLATE, template);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // In the reverse order of begin
+            if (watch != null) {
+                watch.close();
+            }
+            if (event != null) {
+                event.close();
+            }
+            putContext(MDC_JOB_ID, previousJobId);
+            putContext(MDC_TEMPLATE, previousTemplate);
+            active.decrementAndGet();
+            finished(System.nanoTime() - startNanos);
+        }
+    }
+
+    private static void putContext(String key, String value) {
+        if (value != null) {
+            MDC.put(key, value);
+        } else {
+            MDC.remove(key);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.reyansh.birt.health;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Request threads of the embedded Tomcat connector, which run the reports: how many are busy,
+ * how many there are at most and how many accepted requests wait for one. Until the server has
+ * started, or on another server, none are busy or waiting and the maximum is
+ * server.tomcat.threads.max.
+ */
+@Component
+public class RequestThreads implements ApplicationListener<WebServerInitializedEvent> {
+
+    private final int maxThreads;
+
+    private volatile Connector connector;
+
+    public RequestThreads(@Value("${server.tomcat.threads.max:200}") int maxThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("server.tomcat.threads.max must be positive");
+        }
+        this.maxThreads = maxThreads;
+    }
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if (event.getWebServer() instanceof TomcatWebServer tomcat) {
+            connector = tomcat.getTomcat().getConnector();
+        }
+    }
+
+    public int busy() {
+        ThreadPoolExecutor pool = pool();
+        return pool != null ? pool.getActiveCount() : 0;
+    }
+
+    public int max() {
+        ThreadPoolExecutor pool = pool();
+        return pool != null ? pool.getMaximumPoolSize() : maxThreads;
+    }
+
+    public int queued() {
+        ThreadPoolExecutor pool = pool();
+        return pool != null ? pool.getQueue().size() : 0;
+    }
+
+    /**
+     * The connector's thread pool, or null before it is started or with a custom executor
+     */
+    private ThreadPoolExecutor pool() {
+        Connector current = connector;
+        return current != null && current.getProtocolHandler().getExecutor() instanceof ThreadPoolExecutor pool
+                ? pool : null;
+    }
+}
@@ -0,0 +1,119 @@
+package com.reyansh.birt.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit for repetitive log lines, configured in logback-spring.xml.
+ *
+ * Events up to INFO from loggers under loggerPrefix pass at most maxPerSecond times per second
+ * for each message pattern (the format string before its arguments are filled in), so the
+ * per-request lines of a burst do not pile up in the appender queue. Warnings and errors always
+ * pass. The first event of a pattern after some were dropped is preceded by a line saying how many.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    // Patterns tracked at most; events of further patterns are not limited
+    private static final int MAX_PATTERNS = 1024;
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private String loggerPrefix = "com.reyansh.birt";
+
+    private int maxPerSecond = 20;
+
+    public String getLoggerPrefix() {
+        return loggerPrefix;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public void start() {
+        if (maxPerSecond <= 0) {
+            addError("maxPerSecond must be positive");
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        // Level checks (format null), warnings and events that are disabled anyway are not counted
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || level.levelInt < logger.getEffectiveLevel().levelInt
+                || !logger.getName().startsWith(loggerPrefix)
+                || logger.getName().equals(RateLimitingTurboFilter.class.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Window window = windows.get(format);
+        if (window == null) {
+            if (windows.size() >= MAX_PATTERNS) {
+                return FilterReply.NEUTRAL;
+            }
+            window = windows.computeIfAbsent(format, pattern -> new Window());
+        }
+        long dropped = window.admit(System.nanoTime(), maxPerSecond);
+        if (dropped < 0) {
+            return FilterReply.DENY;
+        }
+        if (dropped > 0) {
+            logger.getLoggerContext().getLogger(RateLimitingTurboFilter.class)
+                    .info("Dropped {} log events of {} like \"{}\"", dropped, logger.getName(), format);
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    /**
+     * Events of one pattern in the current second
+     */
+    private static final class Window {
+
+        private long startNanos = System.nanoTime();
+
+        private int admitted;
+
+        private long dropped;
+
+        /**
+         * @return -1 if the event is dropped, otherwise how many were dropped before it since the
+         * last event that passed
+         */
+        synchronized long admit(long now, int max) {
+            if (now - startNanos >= WINDOW_NANOS) {
+                long reported = dropped;
+                startNanos = now;
+                admitted = 1;
+                dropped = 0;
+                return reported;
+            }
+            if (admitted < max) {
+                admitted++;
+                return 0;
+            }
+            dropped++;
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.reyansh.birt.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Locale;
+
+/**
+ * Java Flight Recorder events for the report lifecycle: job submit and dequeue, each phase
+ * (design open, run, render, write, ...), data set execution and the job as a whole, so GC pauses,
+ * lock contention and thread samples in a recording can be lined up with the report work they hit.
+ *
+ * Every event carries the job ID (report ID) of the job bound to the thread by {@link #begin}.
+ * Events follow the JFR idiom of begin / shouldCommit / commit and only fill their fields when the
+ * recording wants them; until a recording has been started {@link #begin} binds nothing and output
+ * is not counted. The events are enabled by the packaged settings in jfr/report-events.jfc, see
+ * {@link ReportRecording}.
+ */
+public final class ReportEvents {
+
+    static final String CATEGORY = "BIRT Report Engine";
+
+    private static final ThreadLocal<Job> CURRENT = new ThreadLocal<>();
+
+    private static final Submission NO_SUBMISSION = new Submission(null);
+
+    private ReportEvents() {
+    }
+
+    @Name("com.reyansh.birt.ReportJob")
+    @Label("Report Job")
+    @Category(CATEGORY)
+    @Description("A report request from start to finish")
+    @StackTrace(false)
+    static class JobEvent extends Event {
+
+        @Label("Job ID")
+        String jobId;
+
+        @Label("Report")
+        String report;
+
+        @Label("Format")
+        String format;
+
+        @Label("Rows")
+        @Description("Rows read from all data sets executed by the service")
+        long rows;
+
+        @Label("Output")
+        @DataAmount
+        long outputBytes;
+    }
+
+    @Name("com.reyansh.birt.ReportJobSubmit")
+    @Label("Report Job Submit")
+    @Category(CATEGORY)
+    @Description("Report work queued for a worker or a preview slot")
+    static class JobSubmitEvent extends Event {
+
+        @Label("Job ID")
+        String jobId;
+
+        @Label("Queue")
+        String queue;
+    }
+
+    @Name("com.reyansh.birt.ReportJobDequeue")
+    @Label("Report Job Dequeue")
+    @Category(CATEGORY)
+    @Description("Report work leaving its queue; the duration is the time it waited")
+    @StackTrace(false)
+    static class JobDequeueEvent extends Event {
+
+        @Label("Job ID")
+        String jobId;
+
+        @Label("Queue")
+        String queue;
+    }
+
+    @Name("com.reyansh.birt.ReportPhase")
+    @Label("Report Phase")
+    @Category(CATEGORY)
+    @Description("A phase of report generation: design open, run, render, write, ...")
+    @StackTrace(false)
+    static class PhaseEvent extends Event {
+
+        @Label("Job ID")
+        String jobId;
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Template")
+        String template;
+
+        @Label("Format")
+        String format;
+
+        @Label("Succeeded")
+        boolean success;
+
+        @Label("Output")
+        @Description("Bytes of report output written during the phase")
+        @DataAmount
+        long outputBytes;
+    }
+
+    @Name("com.reyansh.birt.ReportDataSet")
+    @Label("Report Data Set")
+    @Category(CATEGORY)
+    @Description("A data set executed by the service, from query execution until its rows were closed")
+    @StackTrace(false)
+    public static class DataSetEvent extends Event {
+
+        @Label("Job ID")
+        String jobId;
+
+        @Label("Data Set")
+        String dataSet;
+
+        @Label("Rows")
+        long rows;
+    }
+
+    /**
+     * Bind a job to the current thread until it is closed; events on the thread carry its ID
+     */
+    public static Job begin(String jobId, String report, String format) {
+        if (!FlightRecorder.isInitialized()) {
+            return Job.NONE;
+        }
+        Job job = new Job(jobId, report, format, CURRENT.get());
+        CURRENT.set(job);
+        job.event.begin();
+        return job;
+    }
+
+    /**
+     * Record that work of the current job was queued
+     *
+     * @param queue name of the executor or lane
+     * @return the submission, to be marked {@linkplain Submission#dequeued() dequeued} when the work starts
+     */
+    public static Submission submit(String queue) {
+        JobSubmitEvent submit = new JobSubmitEvent();
+        JobDequeueEvent dequeue = new JobDequeueEvent();
+        if (!submit.isEnabled() && !dequeue.isEnabled()) {
+            return NO_SUBMISSION;
+        }
+        String jobId = currentJobId();
+        if (submit.shouldCommit()) {
+            submit.jobId = jobId;
+            submit.queue = queue;
+            submit.commit();
+        }
+        dequeue.jobId = jobId;
+        dequeue.queue = queue;
+        dequeue.begin();
+        return new Submission(dequeue);
+    }
+
+    /**
+     * Start the event of a data set about to be executed; it is committed by {@link #endDataSet}
+     */
+    public static DataSetEvent beginDataSet() {
+        DataSetEvent event = new DataSetEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endDataSet(DataSetEvent event, String dataSet, long rows) {
+        Job job = CURRENT.get();
+        if (job != null) {
+            job.rows += rows;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.jobId = job != null ? job.jobId : null;
+            event.dataSet = dataSet;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    static PhaseEvent beginPhase() {
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endPhase(PhaseEvent event, ReportMetrics.Phase phase, String template, String format,
+                         boolean success, long outputBytesBefore) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.jobId = currentJobId();
+            event.phase = phase.tag();
+            event.template = ReportMetrics.templateTag(template);
+            event.format = format != null ? format.toLowerCase(Locale.ROOT) : null;
+            event.success = success;
+            event.outputBytes = outputBytes() - outputBytesBefore;
+            event.commit();
+        }
+    }
+
+    /**
+     * Output written so far by the job of the current thread
+     */
+    static long outputBytes() {
+        Job job = CURRENT.get();
+        return job != null ? job.outputBytes : 0;
+    }
+
+    /**
+     * Job bound to the current thread, or null
+     */
+    static Job current() {
+        return CURRENT.get();
+    }
+
+    private static String currentJobId() {
+        Job job = CURRENT.get();
+        return job != null ? job.jobId : null;
+    }
+
+    /**
+     * A job bound to a thread
+     */
+    public static final class Job implements AutoCloseable {
+
+        private static final Job NONE = new Job(null, null, null, null);
+
+        private final JobEvent event = new JobEvent();
+
+        private final String jobId;
+
+        private final Job previous;
+
+        private long rows;
+
+        private long outputBytes;
+
+        private Job(String jobId, String report, String format, Job previous) {
+            this.jobId = jobId;
+            this.previous = previous;
+            event.jobId = jobId;
+            event.report = report;
+            event.format = format;
+        }
+
+        void addOutputBytes(long bytes) {
+            outputBytes += bytes;
+        }
+
+        @Override
+        public void close() {
+            if (this == NONE) {
+                return;
+            }
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.rows = rows;
+                event.outputBytes = outputBytes;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Queued work waiting to be dequeued
+     */
+    public static final class Submission {
+
+        private final JobDequeueEvent dequeue;
+
+        private Submission(JobDequeueEvent dequeue) {
+            this.dequeue = dequeue;
+        }
+
+        /**
+         * Record that the work left the queue; call on the thread that runs it
+         */
+        public void dequeued() {
+            if (dequeue == null) {
+                return;
+            }
+            dequeue.end();
+            if (dequeue.shouldCommit()) {
+                dequeue.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.reyansh.birt.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Timers for the phases of report generation, published as the report.phase histogram.
+ *
+ * Every sample is tagged with the phase, the template (design or library file name without its
+ * extension), the output format and whether the phase completed or failed, so
+ * {@code histogram_quantile} over report_phase_seconds_bucket shows where the time goes per
+ * template and format. Template names come from requests, so only designs and libraries that exist,
+ * in birt.report.directory or at the given path, are tagged by name; the rest share the tag "other"
+ * and cannot add series. Phases of a request that collects {@link ReportTimings} are added to its
+ * breakdown as well, and every phase is recorded as a {@link ReportEvents} flight recorder event.
+ */
+@Component
+public class ReportMetrics {
+
+    public enum Phase {
+        VALIDATE, BUILD_TEMPLATE, OPEN_DESIGN, RUN, RENDER, RUN_AND_RENDER, WRITE, DOWNLOAD;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Step<T> {
+        T call() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    /**
+     * A phase being timed; only the first stop is recorded
+     */
+    @FunctionalInterface
+    public interface Stop {
+        void stop(boolean success);
+    }
+
+    private static final String NONE = "none";
+
+    private static final String OTHER = "other";
+
+    private final MeterRegistry registry;
+
+    private final Path templateDirectory;
+
+    // Templates found on disk; a deployed template stays known, unknown ones are looked up again
+    private final Set<String> knownTemplates = ConcurrentHashMap.newKeySet();
+
+    public ReportMetrics(MeterRegistry registry,
+                         @Value("${birt.report.directory:reports/templates}") String templateDirectory) {
+        this.registry = registry;
+        this.templateDirectory = Paths.get(templateDirectory);
+    }
+
+    /**
+     * Time a phase that produces a value
+     *
+     * @param template design or library path or file name, or null if there is none
+     */
+    public <T> T time(Phase phase, String template, String format, Step<T> step) throws Exception {
+        Timer.Sample sample = Timer.start(registry);
+        ReportEvents.PhaseEvent event = ReportEvents.beginPhase();
+        long outputBytesBefore = ReportEvents.outputBytes();
+        boolean success = false;
+        try {
+            T result = step.call();
+            success = true;
+            return result;
+        } finally {
+            long nanos = sample.stop(timer(phase, template, format, success));
+            ReportEvents.endPhase(event, phase, template, format, success, outputBytesBefore);
+            ReportTimings timings = ReportTimings.current();
+            if (timings != null) {
+                timings.addPhase(phase, nanos);
+            }
+        }
+    }
+
+    /**
+     * Time a phase without a result
+     *
+     * @see #time(Phase, String, String, Step)
+     */
+    public void timeRun(Phase phase, String template, String format, Work work) throws Exception {
+        time(phase, template, format, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Time a phase that ends outside the current call, such as a download written after the handler
+     * returned
+     */
+    public Stop start(Phase phase, String template, String format) {
+        Timer.Sample sample = Timer.start(registry);
+        AtomicBoolean stopped = new AtomicBoolean();
+        return success -> {
+            if (stopped.compareAndSet(false, true)) {
+                sample.stop(timer(phase, template, format, success));
+            }
+        };
+    }
+
+    /**
+     * Stream that records the phase from now until it is closed; it counts as completed once the
+     * end of the stream was reached
+     */
+    public InputStream timeStream(Phase phase, String template, String format, InputStream in) {
+        Stop timing = start(phase, template, format);
+        return new FilterInputStream(in) {
+
+            private boolean complete;
+
+            @Override
+            public int read() throws IOException {
+                int read = super.read();
+                complete |= read == -1;
+                return read;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                complete |= read == -1;
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    timing.stop(complete);
+                }
+            }
+        };
+    }
+
+    private Timer timer(Phase phase, String template, String format, boolean success) {
+        return Timer.builder("report.phase")
+                .description("Time spent in each phase of report generation")
+                .tag("phase", phase.tag())
+                .tag("template", isKnown(template) ? templateTag(template) : OTHER)
+                .tag("format", format != null ? format.toLowerCase(Locale.ROOT) : NONE)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Whether the template is a design or library in the template directory or at the given path
+     */
+    private boolean isKnown(String template) {
+        if (template == null || template.isBlank() || knownTemplates.contains(template)) {
+            return true;
+        }
+        if (!template.endsWith(".rptdesign") && !template.endsWith(".rptlibrary")) {
+            return false;
+        }
+        try {
+            if (Files.isRegularFile(templateDirectory.resolve(template)) || Files.isRegularFile(Paths.get(template))) {
+                knownTemplates.add(template);
+                return true;
+            }
+        } catch (InvalidPathException e) {
+            // Not a file name
+        }
+        return false;
+    }
+
+    /**
+     * File name of a design or library without directories and extension
+     */
+    static String templateTag(String template) {
+        if (template == null || template.isBlank()) {
+            return NONE;
+        }
+        String name = template.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1);
+        int extension = name.lastIndexOf('.');
+        return extension > 0 ? name.substring(0, extension) : name;
+    }
+}
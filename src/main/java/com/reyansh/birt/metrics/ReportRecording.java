@@ -0,0 +1,85 @@
+package com.reyansh.birt.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Continuous flight recording of the node with the JDK default settings plus the report events of
+ * the packaged jfr/report-events.jfc, kept for report.jfr.max-age-minutes. Dump it with
+ * {@code jcmd <pid> JFR.dump name=reports filename=reports.jfr}; it is also written to
+ * report.jfr.destination when the application stops, if one is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "report.jfr.enabled", havingValue = "true")
+public class ReportRecording {
+
+    static final String SETTINGS = "/jfr/report-events.jfc";
+
+    private final long maxAgeMinutes;
+
+    private final String destination;
+
+    private Recording recording;
+
+    public ReportRecording(@Value("${report.jfr.max-age-minutes:60}") long maxAgeMinutes,
+                           @Value("${report.jfr.destination:}") String destination) {
+        this.maxAgeMinutes = maxAgeMinutes;
+        this.destination = destination;
+    }
+
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        recording = new Recording(settings());
+        recording.setName("reports");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        if (!destination.isBlank()) {
+            recording.setDestination(Path.of(destination));
+        }
+        recording.start();
+        log.info("Flight recording 'reports' started, keeping {} minutes", maxAgeMinutes);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            // Stopping writes the recording to its destination, if any
+            recording.stop();
+            recording.close();
+        }
+    }
+
+    /**
+     * JDK default settings with the report event settings on top
+     */
+    static Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (InputStream in = ReportRecording.class.getResourceAsStream(SETTINGS)) {
+            if (in == null) {
+                throw new IOException("Missing flight recorder settings " + SETTINGS);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                settings.putAll(Configuration.create(reader).getSettings());
+            }
+        }
+        return settings;
+    }
+}
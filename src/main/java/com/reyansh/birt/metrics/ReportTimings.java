@@ -0,0 +1,150 @@
+package com.reyansh.birt.metrics;
+
+import com.reyansh.birt.model.TimingBreakdown;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timing breakdown of the report job running on the current thread.
+ *
+ * {@link #start()} binds a collector to the thread and the instrumented code (phase timers, data
+ * set reads, output streams) adds to it only while one is bound. A collector is bound for requests
+ * that send {@value ReportTimingsInterceptor#TIMINGS_HEADER} and, while report.slow.enabled is on,
+ * for every report job, so that a slow-report capture has its breakdown.
+ *
+ * Phases are summed into a fixed array and data set reads into one record per data set. A bound
+ * collector costs a few counters per job, two System.nanoTime calls per data set row and a counter
+ * per write to the output stream; nothing is collected when none is bound.
+ */
+public final class ReportTimings implements AutoCloseable {
+
+    private static final ThreadLocal<ReportTimings> CURRENT = new ThreadLocal<>();
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private static final ReportMetrics.Phase[] PHASES = ReportMetrics.Phase.values();
+
+    private final long startNanos = System.nanoTime();
+
+    private final long[] phaseNanos = new long[PHASES.length];
+
+    // Phases in the order they first ran
+    private final List<ReportMetrics.Phase> phaseOrder = new ArrayList<>(PHASES.length);
+
+    private final List<TimingBreakdown.DataSetFetch> dataSets = new ArrayList<>();
+
+    private long queueWaitNanos;
+
+    private long outputBytes;
+
+    private long endNanos;
+
+    private ReportTimings() {
+    }
+
+    /**
+     * Bind a new collector to the current thread until it is closed
+     */
+    public static ReportTimings start() {
+        ReportTimings timings = new ReportTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Collector of the current thread, or null if none is bound
+     */
+    public static ReportTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Count the bytes written through the stream if the current job collects timings or runs as a
+     * {@link ReportEvents} job
+     */
+    public static OutputStream countOutput(OutputStream out) {
+        ReportTimings timings = CURRENT.get();
+        ReportEvents.Job job = ReportEvents.current();
+        if (timings == null && job == null) {
+            return out;
+        }
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                count(1);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                out.write(buffer, offset, length);
+                count(length);
+            }
+
+            private void count(long bytes) {
+                if (timings != null) {
+                    timings.addOutputBytes(bytes);
+                }
+                if (job != null) {
+                    job.addOutputBytes(bytes);
+                }
+            }
+        };
+    }
+
+    public synchronized void addPhase(ReportMetrics.Phase phase, long nanos) {
+        if (!phaseOrder.contains(phase)) {
+            phaseOrder.add(phase);
+        }
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    public synchronized void addQueueWait(long nanos) {
+        queueWaitNanos += nanos;
+    }
+
+    public synchronized void addDataSet(String name, long rows, long nanos) {
+        dataSets.add(new TimingBreakdown.DataSetFetch(name, rows, nanos / NANOS_PER_MS));
+    }
+
+    private synchronized void addOutputBytes(long bytes) {
+        outputBytes += bytes;
+    }
+
+    /**
+     * The breakdown so far; the total runs until the collector was closed, or until now while it is open
+     */
+    public synchronized TimingBreakdown toBreakdown() {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        for (ReportMetrics.Phase phase : phaseOrder) {
+            phases.put(phase.tag(), phaseNanos[phase.ordinal()] / NANOS_PER_MS);
+        }
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return TimingBreakdown.builder()
+                .totalMs((end - startNanos) / NANOS_PER_MS)
+                .queueWaitMs(queueWaitNanos / NANOS_PER_MS)
+                .phases(phases)
+                .dataSets(List.copyOf(dataSets))
+                .outputBytes(outputBytes)
+                .build();
+    }
+
+    /**
+     * Stop the total and unbind the collector from the thread; the breakdown stays readable
+     */
+    @Override
+    public synchronized void close() {
+        if (endNanos == 0) {
+            endNanos = System.nanoTime();
+        }
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+}
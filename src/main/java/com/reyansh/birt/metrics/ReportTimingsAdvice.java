@@ -0,0 +1,41 @@
+package com.reyansh.birt.metrics;
+
+import com.reyansh.birt.model.ReportResponse;
+import com.reyansh.birt.model.TimingBreakdown;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the timing breakdown collected by {@link ReportTimingsInterceptor} to report responses,
+ * both in the body and as a Server-Timing header
+ */
+@ControllerAdvice
+public class ReportTimingsAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof ReportResponse reportResponse)
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        TimingBreakdown breakdown = ReportTimingsInterceptor.breakdown(servletRequest.getServletRequest());
+        if (breakdown != null) {
+            reportResponse.setTimings(breakdown);
+            response.getHeaders().set(ReportTimingsInterceptor.SERVER_TIMING_HEADER, breakdown.toServerTiming());
+        }
+        return body;
+    }
+}
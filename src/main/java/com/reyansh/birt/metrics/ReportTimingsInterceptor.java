@@ -0,0 +1,67 @@
+package com.reyansh.birt.metrics;
+
+import com.reyansh.birt.model.TimingBreakdown;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Map;
+
+/**
+ * Collects a {@link ReportTimings} breakdown for report requests that send {@value #TIMINGS_HEADER}: true.
+ *
+ * JSON endpoints get the breakdown in the response body and a Server-Timing header (see
+ * {@link ReportTimingsAdvice}). Streaming endpoints have committed their headers before the report
+ * is done, so they get Server-Timing as an HTTP trailer instead.
+ */
+@Slf4j
+@Component
+public class ReportTimingsInterceptor implements HandlerInterceptor {
+
+    public static final String TIMINGS_HEADER = "X-Report-Timings";
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    static final String TIMINGS_ATTRIBUTE = ReportTimings.class.getName();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!Boolean.parseBoolean(request.getHeader(TIMINGS_HEADER))) {
+            return true;
+        }
+        ReportTimings timings = ReportTimings.start();
+        request.setAttribute(TIMINGS_ATTRIBUTE, timings);
+
+        if (handler instanceof HandlerMethod method && method.isVoid()) {
+            try {
+                response.setTrailerFields(() -> Map.of(SERVER_TIMING_HEADER, timings.toBreakdown().toServerTiming()));
+                response.setHeader("Trailer", SERVER_TIMING_HEADER);
+            } catch (IllegalStateException e) {
+                // HTTP/1.0 or a container without trailer support
+                log.debug("Server-Timing trailer not supported for {}: {}", request.getRequestURI(), e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(TIMINGS_ATTRIBUTE) instanceof ReportTimings timings) {
+            timings.close();
+        }
+    }
+
+    /**
+     * Breakdown collected for the request, or null if it did not ask for timings
+     */
+    static TimingBreakdown breakdown(HttpServletRequest request) {
+        if (request.getAttribute(TIMINGS_ATTRIBUTE) instanceof ReportTimings timings) {
+            return timings.toBreakdown();
+        }
+        return null;
+    }
+}
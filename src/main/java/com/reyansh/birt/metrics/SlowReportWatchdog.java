@@ -0,0 +1,289 @@
+package com.reyansh.birt.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Captures reports that run longer than report.slow.threshold-ms.
+ *
+ * Every report job is watched from start to finish. Once a job is past the threshold, its worker
+ * thread's stack is sampled every report.slow.sample-interval-ms until the job ends. The samples
+ * are then written to report.slow.directory as a capture: a JSON file with the template, format,
+ * redacted parameters and the job's timing breakdown (phases, data set fetch times and rows), plus
+ * a collapsed-stack file that flamegraph.pl or speedscope turns into a flame graph. Only the newest
+ * report.slow.keep captures are kept.
+ *
+ * A single daemon thread samples every running job. Jobs that finish under the threshold cost a set
+ * insert and removal, plus the {@link ReportTimings} collector every watched job is given unless its
+ * request already collects one; set report.slow.enabled=false to avoid both.
+ */
+@Slf4j
+@Component
+public class SlowReportWatchdog {
+
+    static final String CAPTURE_SUFFIX = ".json";
+
+    static final String STACKS_SUFFIX = ".collapsed";
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")
+            .withZone(ZoneOffset.UTC);
+
+    private static final Watch NONE = new Watch(null, null, null, null, null, null, false);
+
+    private final boolean enabled;
+
+    private final long thresholdNanos;
+
+    private final long sampleIntervalMs;
+
+    private final int keep;
+
+    private final Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Set<Watch> running = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService sampler;
+
+    public SlowReportWatchdog(@Value("${report.slow.enabled:true}") boolean enabled,
+                              @Value("${report.slow.threshold-ms:10000}") long thresholdMs,
+                              @Value("${report.slow.sample-interval-ms:50}") long sampleIntervalMs,
+                              @Value("${report.slow.keep:20}") int keep,
+                              @Value("${report.slow.directory:logs/slow-reports}") String directory) {
+        if (thresholdMs <= 0 || sampleIntervalMs <= 0 || keep <= 0) {
+            throw new IllegalArgumentException("report.slow threshold, sample interval and keep must be positive");
+        }
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.sampleIntervalMs = sampleIntervalMs;
+        this.keep = keep;
+        this.directory = Paths.get(directory);
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slow-report-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            sampler.scheduleAtFixedRate(this::sample, sampleIntervalMs, sampleIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Watch the report job running on the current thread until the returned watch is closed
+     *
+     * @param template   design or library of the report
+     * @param parameters report parameters; only their names and value types are recorded
+     */
+    public Watch watch(String jobId, String template, String format, Map<String, ?> parameters) {
+        if (!enabled) {
+            return NONE;
+        }
+        // Reuse the timings of a request that asked for them, otherwise collect our own
+        ReportTimings timings = ReportTimings.current();
+        Watch watch = new Watch(this, jobId, template, format, redact(parameters),
+                timings != null ? timings : ReportTimings.start(), timings == null);
+        running.add(watch);
+        return watch;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        sampler.shutdownNow();
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        for (Watch watch : running) {
+            if (now - watch.startNanos >= thresholdNanos) {
+                watch.sample();
+            }
+        }
+    }
+
+    private void finished(Watch watch) {
+        running.remove(watch);
+        long elapsed = System.nanoTime() - watch.startNanos;
+        if (elapsed < thresholdNanos) {
+            return;
+        }
+        try {
+            // Written off the worker thread; the report is already late enough
+            sampler.execute(() -> write(watch, elapsed));
+        } catch (RejectedExecutionException e) {
+            log.debug("Slow report {} not captured, shutting down", watch.jobId);
+        }
+    }
+
+    private void write(Watch watch, long elapsedNanos) {
+        String name = FILE_TIME.format(watch.startedAt) + "-" + safeFileName(watch.jobId);
+        Map<String, Object> capture = new LinkedHashMap<>();
+        capture.put("jobId", watch.jobId);
+        capture.put("template", watch.template);
+        capture.put("format", watch.format);
+        capture.put("thread", watch.thread.getName());
+        capture.put("startedAt", watch.startedAt.toString());
+        capture.put("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        capture.put("thresholdMs", TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+        capture.put("sampleIntervalMs", sampleIntervalMs);
+        capture.put("samples", watch.sampleCount());
+        capture.put("parameters", watch.parameters);
+        capture.put("timings", watch.timings.toBreakdown());
+        capture.put("stacks", name + STACKS_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(name + STACKS_SUFFIX), StandardCharsets.UTF_8)) {
+                watch.writeStacks(writer);
+            }
+            objectMapper.writeValue(directory.resolve(name + CAPTURE_SUFFIX).toFile(), capture);
+            prune();
+            log.warn("Slow report {} ({}) took {}ms, captured {} stack samples in {}", watch.jobId, watch.template,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), watch.sampleCount(),
+                    directory.resolve(name + CAPTURE_SUFFIX));
+        } catch (IOException e) {
+            log.warn("Could not write slow report capture for {}: {}", watch.jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete all but the newest captures; file names start with the start time, so they sort by age
+     */
+    private void prune() throws IOException {
+        List<Path> captures;
+        try (Stream<Path> files = Files.list(directory)) {
+            captures = files.filter(file -> file.getFileName().toString().endsWith(CAPTURE_SUFFIX)).sorted().toList();
+        }
+        for (Path capture : captures.subList(0, Math.max(0, captures.size() - keep))) {
+            String name = capture.getFileName().toString();
+            Files.deleteIfExists(capture);
+            Files.deleteIfExists(directory.resolve(name.substring(0, name.length() - CAPTURE_SUFFIX.length())
+                    + STACKS_SUFFIX));
+        }
+    }
+
+    /**
+     * Parameter names with the type of their value; the values themselves may be personal data
+     */
+    static Map<String, String> redact(Map<String, ?> parameters) {
+        Map<String, String> redacted = new LinkedHashMap<>();
+        if (parameters != null) {
+            parameters.forEach((name, value) -> redacted.put(name, value == null ? "null"
+                    : value instanceof CharSequence text ? "String[" + text.length() + "]"
+                    : value.getClass().getSimpleName()));
+        }
+        return redacted;
+    }
+
+    private static String safeFileName(String jobId) {
+        return jobId == null ? "report" : jobId.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * A running report job
+     */
+    public static final class Watch implements AutoCloseable {
+
+        private final SlowReportWatchdog watchdog;
+
+        private final String jobId;
+
+        private final String template;
+
+        private final String format;
+
+        private final Map<String, String> parameters;
+
+        private final ReportTimings timings;
+
+        private final boolean ownsTimings;
+
+        private final Thread thread = Thread.currentThread();
+
+        private final Instant startedAt = Instant.now();
+
+        private final long startNanos = System.nanoTime();
+
+        // Collapsed stacks (root;...;leaf) and how often each was sampled
+        private final Map<String, Integer> stacks = new HashMap<>();
+
+        private int samples;
+
+        private Watch(SlowReportWatchdog watchdog, String jobId, String template, String format,
+                      Map<String, String> parameters, ReportTimings timings, boolean ownsTimings) {
+            this.watchdog = watchdog;
+            this.jobId = jobId;
+            this.template = template;
+            this.format = format;
+            this.parameters = parameters;
+            this.timings = timings;
+            this.ownsTimings = ownsTimings;
+        }
+
+        private void sample() {
+            StackTraceElement[] frames = thread.getStackTrace();
+            if (frames.length == 0) {
+                return;
+            }
+            StringBuilder stack = new StringBuilder(frames.length * 48);
+            for (int i = frames.length - 1; i >= 0; i--) {
+                stack.append(frames[i].getClassName()).append('.').append(frames[i].getMethodName());
+                if (i > 0) {
+                    stack.append(';');
+                }
+            }
+            synchronized (this) {
+                stacks.merge(stack.toString(), 1, Integer::sum);
+                samples++;
+            }
+        }
+
+        private synchronized int sampleCount() {
+            return samples;
+        }
+
+        private synchronized void writeStacks(Writer writer) throws IOException {
+            for (Map.Entry<String, Integer> entry : stacks.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(Integer.toString(entry.getValue()));
+                writer.write('\n');
+            }
+        }
+
+        @Override
+        public void close() {
+            if (watchdog == null) {
+                return;
+            }
+            if (ownsTimings) {
+                timings.close();
+            }
+            watchdog.finished(this);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.reyansh.birt.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.util.Map;
+
+/**
+ * Request model for rendering a single chart from a library data set
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Chart rendering request")
+public class ChartRequest {
+
+    @NotBlank(message = "Library path is required")
+    @Schema(description = "Path to the .rptlibrary file declaring the chart's data set", example = "reports/library/common.rptlibrary")
+    private String libraryPath;
+
+    @Schema(description = "Data source name from the library to use")
+    private String dataSourceName;
+
+    @Schema(description = "Values of the data set parameters")
+    private Map<String, Object> parameters;
+
+    @Valid
+    @NotNull(message = "Chart is required")
+    @Schema(description = "Chart to render")
+    private DynamicReportRequest.ChartConfig chart;
+}
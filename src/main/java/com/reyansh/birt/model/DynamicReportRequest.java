@@ -30,7 +30,7 @@ public class DynamicReportRequest {
     private String reportName;
 
     @NotBlank(message = "Output format is required")
-    @Schema(description = "Output format for the report", example = "pdf", allowableValues = {"pdf", "html", "xls", "xlsx", "doc", "docx"})
+    @Schema(description = "Output format for the report", example = "pdf", allowableValues = {"pdf", "html", "xls", "xlsx", "doc", "docx", "csv", "ndjson"})
     private String outputFormat;
 
     @Schema(description = "Data source name from the library to use")
@@ -46,6 +46,9 @@ public class DynamicReportRequest {
     @Schema(description = "Report components configuration")
     private ReportComponents components;
 
+    @Schema(description = "Preview run: rows per data set are capped and the output is never stored")
+    private Boolean preview;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
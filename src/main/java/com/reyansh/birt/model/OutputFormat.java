@@ -0,0 +1,42 @@
+package com.reyansh.birt.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Supported report output formats with their file extension and content type
+ */
+@Getter
+@RequiredArgsConstructor
+public enum OutputFormat {
+
+    PDF("pdf", "application/pdf", false),
+    HTML("html", "text/html", true),
+    XLS("xls", "application/vnd.ms-excel", false),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", false),
+    DOC("doc", "application/msword", true),
+    DOCX("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document", false),
+    PPT("ppt", "application/vnd.ms-powerpoint", false),
+    PPTX("pptx", "application/vnd.openxmlformats-officedocument.presentationml.presentation", false),
+    XML("xml", "application/xml", true),
+    CSV("csv", "text/csv", true),
+    NDJSON("ndjson", "application/x-ndjson", true);
+
+    private final String extension;
+
+    private final String contentType;
+
+    // Text based formats worth storing compressed; OOXML formats are already zip archives
+    private final boolean compressible;
+
+    public static OutputFormat fromExtension(String extension) {
+        if (extension != null) {
+            for (OutputFormat format : values()) {
+                if (format.extension.equalsIgnoreCase(extension)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported output format: " + extension);
+    }
+}
@@ -22,8 +22,8 @@ public class ReportRequest {
     private String reportName;
 
     @NotBlank(message = "Output format is required")
-    @Pattern(regexp = "pdf|html|xls|xlsx|doc|docx|ppt|pptx|xml", 
-             message = "Invalid output format. Supported: pdf, html, xls, xlsx, doc, docx, ppt, pptx, xml")
+    @Pattern(regexp = "pdf|html|xls|xlsx|doc|docx|ppt|pptx|xml|csv|ndjson", 
+             message = "Invalid output format. Supported: pdf, html, xls, xlsx, doc, docx, ppt, pptx, xml, csv, ndjson")
     private String outputFormat;
 
     private Map<String, Object> parameters;
@@ -35,4 +35,7 @@ public class ReportRequest {
 
     // Optional: Page range for PDF
     private String pageRange;
+
+    // Optional: Preview run with capped rows and pages, never stored
+    private Boolean preview;
 }
@@ -1,5 +1,6 @@
 package com.reyansh.birt.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -30,6 +31,10 @@ public class ReportResponse {
     
     private String error;
 
+    // Only present when requested with the X-Report-Timings header
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TimingBreakdown timings;
+
     public static ReportResponse success(String reportId, String outputPath, 
                                         String format, long timeMs, String downloadUrl) {
         return ReportResponse.builder()
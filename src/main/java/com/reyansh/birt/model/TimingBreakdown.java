@@ -0,0 +1,81 @@
+package com.reyansh.birt.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Where the time of a single report request went, returned when the request carries
+ * X-Report-Timings: true
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimingBreakdown {
+
+    private double totalMs;
+
+    // Time spent waiting for a slot before any work started
+    private double queueWaitMs;
+
+    // Milliseconds per phase (open_design, run, render, write, ...) in the order they first ran
+    private Map<String, Double> phases;
+
+    private List<DataSetFetch> dataSets;
+
+    private long outputBytes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DataSetFetch {
+
+        private String name;
+
+        private long rows;
+
+        // Query execution plus reading every row
+        private double fetchMs;
+    }
+
+    /**
+     * The breakdown as a Server-Timing header value, readable in browser developer tools
+     */
+    @JsonIgnore
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        appendMetric(header, "total", null, totalMs);
+        if (queueWaitMs > 0) {
+            appendMetric(header, "queue", null, queueWaitMs);
+        }
+        if (phases != null) {
+            phases.forEach((phase, ms) -> appendMetric(header, phase, null, ms));
+        }
+        if (dataSets != null) {
+            for (int i = 0; i < dataSets.size(); i++) {
+                DataSetFetch fetch = dataSets.get(i);
+                appendMetric(header, "dataset" + (i + 1), fetch.getName() + " (" + fetch.getRows() + " rows)",
+                        fetch.getFetchMs());
+            }
+        }
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, String description, double ms) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name);
+        if (description != null) {
+            header.append(";desc=\"").append(description.replaceAll("[\"\\\\\\p{Cntrl}]", "")).append('"');
+        }
+        header.append(";dur=").append(String.format(Locale.ROOT, "%.1f", ms));
+    }
+}
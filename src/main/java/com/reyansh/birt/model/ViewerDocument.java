@@ -0,0 +1,33 @@
+package com.reyansh.birt.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Report document retained for page-by-page viewing
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Report document retained for on-demand page rendering")
+public class ViewerDocument {
+
+    @Schema(description = "Document identifier used in page URLs")
+    private String documentId;
+
+    @Schema(description = "Report design the document was run from", example = "sales-report")
+    private String reportName;
+
+    @Schema(description = "Number of pages in the document", example = "400")
+    private long pageCount;
+
+    @Schema(description = "URL of the first page", example = "/api/reports/{documentId}/pages/1")
+    private String firstPageUrl;
+
+    @Schema(description = "Time taken by the run phase in milliseconds")
+    private long runTimeMs;
+}
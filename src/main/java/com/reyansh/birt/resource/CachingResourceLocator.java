@@ -0,0 +1,166 @@
+package com.reyansh.birt.resource;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.cache.LruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.birt.report.model.api.DefaultResourceLocator;
+import org.eclipse.birt.report.model.api.IResourceLocator;
+import org.eclipse.birt.report.model.api.ModuleHandle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Resource locator of the BIRT engine that keeps image resources in a process-wide cache.
+ *
+ * Resolution is left to BIRT's default locator (resource path, then design folder). Images are read
+ * once into a size-bounded LRU shared by all concurrent renders and handed back as a URL with the
+ * same address whose stream is served from memory. File resources are reloaded when their
+ * modification time changes. Libraries, style sheets and other resources are passed through, since
+ * the engine resolves relative references against their URL.
+ */
+@Slf4j
+@Component
+public class CachingResourceLocator implements IResourceLocator {
+
+    private final IResourceLocator delegate;
+
+    private final LruCache<String, CachedResource> cache;
+
+    private final long maxEntryBytes;
+
+    @Autowired
+    public CachingResourceLocator(CacheRegistry cacheRegistry,
+                                  @Value("${report.cache.resources.max-size-mb:64}") long maxSizeMb,
+                                  @Value("${report.cache.resources.max-entry-kb:4096}") long maxEntryKb) {
+        this(new DefaultResourceLocator(), cacheRegistry, maxSizeMb * 1024 * 1024, maxEntryKb * 1024);
+    }
+
+    CachingResourceLocator(IResourceLocator delegate, CacheRegistry cacheRegistry, long maxBytes, long maxEntryBytes) {
+        this.delegate = delegate;
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = cacheRegistry.register(
+                new LruCache<>("engine-resources", maxBytes, resource -> resource.bytes().length));
+    }
+
+    @Override
+    public URL findResource(ModuleHandle moduleHandle, String fileName, int type) {
+        return cached(delegate.findResource(moduleHandle, fileName, type), type);
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public URL findResource(ModuleHandle moduleHandle, String fileName, int type, Map appContext) {
+        return cached(delegate.findResource(moduleHandle, fileName, type, appContext), type);
+    }
+
+    private URL cached(URL resolved, int type) {
+        if (resolved == null || type != IMAGE) {
+            return resolved;
+        }
+
+        String key = resolved.toExternalForm();
+        long modified = lastModified(resolved);
+        CachedResource resource = cache.get(key);
+        if (resource == null || resource.modified() != modified) {
+            resource = load(resolved, modified);
+            if (resource == null) {
+                return resolved;
+            }
+            cache.put(key, resource);
+        }
+        return inMemory(resolved, resource.bytes());
+    }
+
+    /**
+     * Read a resource, or null if it is too large to cache or cannot be read
+     */
+    private CachedResource load(URL resolved, long modified) {
+        try {
+            URLConnection connection = resolved.openConnection();
+            if (connection.getContentLengthLong() > maxEntryBytes) {
+                return null;
+            }
+            try (InputStream in = connection.getInputStream()) {
+                byte[] bytes = in.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxEntryBytes + 1));
+                if (bytes.length > maxEntryBytes) {
+                    return null;
+                }
+                log.debug("Cached engine resource {} ({} bytes)", resolved, bytes.length);
+                return new CachedResource(bytes, modified);
+            }
+        } catch (IOException e) {
+            log.warn("Could not cache engine resource {}: {}", resolved, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Modification time of file resources; other resources are treated as immutable
+     */
+    private static long lastModified(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return 0;
+        }
+        try {
+            return Files.getLastModifiedTime(Path.of(url.toURI())).toMillis();
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Same address as the resolved URL, but opening it reads the shared bytes
+     */
+    private static URL inMemory(URL resolved, byte[] bytes) {
+        try {
+            return URL.of(resolved.toURI(), new BytesHandler(bytes));
+        } catch (URISyntaxException | IOException | IllegalArgumentException e) {
+            return resolved;
+        }
+    }
+
+    private record CachedResource(byte[] bytes, long modified) {
+    }
+
+    private static final class BytesHandler extends URLStreamHandler {
+
+        private final byte[] bytes;
+
+        private BytesHandler(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        protected URLConnection openConnection(URL url) {
+            return new URLConnection(url) {
+                @Override
+                public void connect() {
+                    connected = true;
+                }
+
+                @Override
+                public InputStream getInputStream() {
+                    return new ByteArrayInputStream(bytes);
+                }
+
+                @Override
+                public long getContentLengthLong() {
+                    return bytes.length;
+                }
+            };
+        }
+    }
+}
@@ -1,24 +1,87 @@
 package com.reyansh.birt.service;
 
+import com.reyansh.birt.aggregate.TableAggregator;
+import com.reyansh.birt.chart.ChartImage;
+import com.reyansh.birt.chart.ChartService;
+import com.reyansh.birt.data.ColumnSelection;
+import com.reyansh.birt.data.DatasetService;
+import com.reyansh.birt.data.RowSource;
+import com.reyansh.birt.export.TableExporter;
+import com.reyansh.birt.health.ReportJobs;
+import com.reyansh.birt.metrics.ReportMetrics;
+import com.reyansh.birt.metrics.ReportTimings;
 import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.model.OutputFormat;
+import com.reyansh.birt.storage.ReportOutputStore;
+import com.reyansh.birt.storage.ShardedPaths;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.TeeOutputStream;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 /**
  * Service for generating reports dynamically from library components
  * Note: This is a mock implementation. Full BIRT integration would require BIRT runtime dependencies.
+ * Table-only formats with a {@link TableExporter} (xlsx) are exported from the library data sets for real,
+ * including cached chart renderings where the format can hold images.
  */
 @Slf4j
 @Service
 public class DynamicReportService {
 
+    private final ReportOutputStore outputStore;
+
+    private final DatasetService datasetService;
+
+    private final ChartService chartService;
+
+    private final TableAggregator tableAggregator;
+
+    private final PreviewLane previewLane;
+
+    private final ReportMetrics reportMetrics;
+
+    private final ReportJobs reportJobs;
+
+    private final List<TableExporter> tableExporters;
+
+    private final Path templateDirectory;
+
+    public DynamicReportService(ReportOutputStore outputStore,
+                                DatasetService datasetService,
+                                ChartService chartService,
+                                TableAggregator tableAggregator,
+                                PreviewLane previewLane,
+                                ReportMetrics reportMetrics,
+                                ReportJobs reportJobs,
+                                List<TableExporter> tableExporters,
+                                @Value("${birt.report.directory:reports/templates}") String templateDirectory) {
+        this.outputStore = outputStore;
+        this.datasetService = datasetService;
+        this.chartService = chartService;
+        this.tableAggregator = tableAggregator;
+        this.previewLane = previewLane;
+        this.reportMetrics = reportMetrics;
+        this.reportJobs = reportJobs;
+        this.tableExporters = tableExporters;
+        this.templateDirectory = Paths.get(templateDirectory);
+    }
+
     @PostConstruct
     public void init() {
         log.info("Initializing Dynamic Report Service (Mock Implementation)...");
@@ -28,35 +91,96 @@ public class DynamicReportService {
 
     /**
      * Generate report dynamically from library components
-     * Mock implementation - generates template file and simulates report generation
+     * Mock implementation - generates template file and simulates report generation.
+     * The template is built in memory and only written once the output is complete.
      */
     public String generateDynamicReport(DynamicReportRequest request) throws Exception {
         log.info("Starting dynamic report generation: {}", request.getReportName());
+        if (Boolean.TRUE.equals(request.getPreview())) {
+            throw new IllegalArgumentException("Previews are never stored; use POST /api/reports/preview/dynamic");
+        }
         
         String reportId = UUID.randomUUID().toString();
-        String templatePath = "reports/templates/" + reportId + ".rptdesign";
-        String outputPath = "reports/output/" + reportId + "." + request.getOutputFormat();
-        
-        // Create directories
-        new File("reports/templates").mkdirs();
-        new File("reports/output").mkdirs();
-        
-        // Generate mock template file
-        generateMockTemplate(request, templatePath);
-        log.info("Report template created: {}", templatePath);
-        
-        // Generate mock output file
-        generateMockOutput(request, outputPath);
-        log.info("Report output generated: {}", outputPath);
-        
-        log.info("Dynamic report generated successfully: {}", outputPath);
+        try (ReportJobs.Job job = reportJobs.begin(reportId, request.getReportName(), request.getOutputFormat(),
+                request.getParameters())) {
+            String template = buildTemplate(request);
+
+            // Generate mock output file
+            Path outputPath = generateMockOutput(request, reportId, template);
+            log.debug("Report output generated: {}", outputPath);
+
+            log.info("Dynamic report generated successfully: {}", outputPath);
+        }
         return reportId;
     }
 
     /**
-     * Generate mock template file with XML structure
+     * Generate report dynamically and write the output straight into the given stream.
+     * Nothing is written to the output directory unless cacheOutput is set, in which case
+     * the bytes are teed into the output store so the report can be downloaded later.
+     * Previews read at most {@link PreviewLane#getMaxRows()} rows per data set and are never cached.
+     * The template is built in memory and only written next to a cached output.
+     * The target stream is flushed but never closed.
      */
-    private void generateMockTemplate(DynamicReportRequest request, String templatePath) throws IOException {
+    public void streamDynamicReport(DynamicReportRequest request, String reportId, OutputStream target,
+                                    boolean cacheOutput) throws Exception {
+        log.info("Starting streamed dynamic report generation: {}", request.getReportName());
+        boolean store = cacheOutput && !Boolean.TRUE.equals(request.getPreview());
+
+        String template = buildTemplate(request);
+
+        OutputFormat format = OutputFormat.fromExtension(request.getOutputFormat());
+        try (ReportOutputStore.PendingOutput cache = store ? outputStore.create(reportId, format) : null) {
+            OutputStream out = CloseShieldOutputStream.wrap(target);
+            if (cache != null) {
+                out = new TeeOutputStream(out, cache.getStream());
+            }
+
+            writeOutput(request, out);
+
+            if (cache != null) {
+                commitWithTemplate(cache, reportId, template);
+            }
+        }
+
+        log.info("Dynamic report streamed successfully: {} (cached: {})", reportId, store);
+    }
+
+    /**
+     * Generated templates are sharded by report ID like the outputs
+     */
+    Path templatePathFor(String reportId) {
+        return ShardedPaths.resolve(templateDirectory, reportId, reportId + ".rptdesign");
+    }
+
+    String buildTemplate(DynamicReportRequest request) throws Exception {
+        return reportMetrics.time(ReportMetrics.Phase.BUILD_TEMPLATE, request.getLibraryPath(),
+                request.getOutputFormat(), () -> generateMockTemplate(request));
+    }
+
+    /**
+     * Write the template next to a complete output and commit both. The template is retained and
+     * evicted together with the output, and deleted again if the commit fails.
+     */
+    private void commitWithTemplate(ReportOutputStore.PendingOutput output, String reportId, String template)
+            throws IOException {
+        Path templatePath = templatePathFor(reportId);
+        Files.createDirectories(templatePath.getParent());
+        Files.writeString(templatePath, template, StandardCharsets.UTF_8);
+        try {
+            output.attach(templatePath);
+            output.commit();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(templatePath);
+            throw e;
+        }
+        log.debug("Report template created: {}", templatePath);
+    }
+
+    /**
+     * Generate mock template with XML structure
+     */
+    private String generateMockTemplate(DynamicReportRequest request) {
         StringBuilder template = new StringBuilder();
         template.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
         template.append("<report xmlns=\"http://www.eclipse.org/birt/2005/design\">\n");
@@ -150,12 +274,7 @@ public class DynamicReportService {
         
         template.append("</report>\n");
         
-        // Write template to file
-        try (FileWriter writer = new FileWriter(templatePath)) {
-            writer.write(template.toString());
-        }
-        
-        log.info("Generated mock template with {} datasets, {} tables, {} charts",
+        log.debug("Generated mock template with {} datasets, {} tables, {} charts",
                 new Object[]{
                     request.getDatasetNames() != null ? request.getDatasetNames().size() : 0,
                     request.getComponents() != null && request.getComponents().getTables() != null ? 
@@ -163,12 +282,133 @@ public class DynamicReportService {
                     request.getComponents() != null && request.getComponents().getCharts() != null ? 
                         request.getComponents().getCharts().size() : 0
                 });
+        return template.toString();
     }
 
     /**
      * Generate mock output file
      */
-    private void generateMockOutput(DynamicReportRequest request, String outputPath) throws IOException {
+    private Path generateMockOutput(DynamicReportRequest request, String reportId, String template)
+            throws Exception {
+        OutputFormat format = OutputFormat.fromExtension(request.getOutputFormat());
+        try (ReportOutputStore.PendingOutput output = outputStore.create(reportId, format)) {
+            writeOutput(request, output.getStream());
+            commitWithTemplate(output, reportId, template);
+            return output.getPath();
+        }
+    }
+
+    /**
+     * Write the report output to the given stream. Tables are exported row by row from their
+     * data sets when the format has a table exporter; everything else gets the mock output.
+     */
+    void writeOutput(DynamicReportRequest request, OutputStream target) throws Exception {
+        OutputStream out = ReportTimings.countOutput(target);
+        reportMetrics.timeRun(ReportMetrics.Phase.WRITE, request.getLibraryPath(), request.getOutputFormat(), () -> {
+            TableExporter exporter = tableExporterFor(request);
+            if (exporter != null) {
+                List<ChartImage> charts = exporter.supportsCharts() ? renderCharts(request) : List.of();
+                exporter.export(request.getComponents().getTables(), table -> openTable(request, table), charts, out);
+                return;
+            }
+
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writeMockOutput(request, writer);
+            writer.flush();
+        });
+    }
+
+    /**
+     * Rows of a table: the data set rows, its group summaries when grouping is enabled, and a
+     * totals row when requested. Previews summarize only the first rows of the data set.
+     */
+    private RowSource openTable(DynamicReportRequest request, DynamicReportRequest.TableConfig table)
+            throws Exception {
+        ColumnSelection selection = selectionFor(table);
+        int maxRows = rowLimit(request);
+        if (maxRows > 0) {
+            selection = selection != null ? selection.withMaxRows(maxRows) : ColumnSelection.limit(maxRows);
+        }
+        RowSource rows = datasetService.open(request.getLibraryPath(), request.getDataSourceName(),
+                table.getDatasetName(), request.getParameters(), selection);
+        boolean totals = Boolean.TRUE.equals(table.getIncludeTotals());
+        if (Boolean.TRUE.equals(table.getEnableGrouping()) && table.getGroupByColumn() != null) {
+            return tableAggregator.group(rows, table.getGroupByColumn(), totals);
+        }
+        return totals ? tableAggregator.withTotals(rows) : rows;
+    }
+
+    /**
+     * Columns a table reads from its data set. A grouped table whose other columns are all numeric
+     * is grouped in the database as well; the aggregator then only merges ready-made group rows.
+     *
+     * @return null if the table shows every column
+     */
+    static ColumnSelection selectionFor(DynamicReportRequest.TableConfig table) {
+        List<DynamicReportRequest.ColumnConfig> columns = table.getColumns();
+        if (columns == null || columns.isEmpty()
+                || columns.stream().anyMatch(column -> column.getName() == null)) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        columns.forEach(column -> names.add(column.getName()));
+        String groupBy = table.getGroupByColumn();
+        if (!Boolean.TRUE.equals(table.getEnableGrouping()) || groupBy == null) {
+            return ColumnSelection.of(names);
+        }
+
+        List<String> sums = new ArrayList<>();
+        for (DynamicReportRequest.ColumnConfig column : columns) {
+            if (column.getName().equalsIgnoreCase(groupBy)) {
+                continue;
+            }
+            String dataType = column.getDataType();
+            if (!"integer".equalsIgnoreCase(dataType) && !"decimal".equalsIgnoreCase(dataType)) {
+                names.add(groupBy);
+                return ColumnSelection.of(names);
+            }
+            sums.add(column.getName());
+        }
+        return ColumnSelection.groupBy(groupBy, sums);
+    }
+
+    private List<ChartImage> renderCharts(DynamicReportRequest request) throws Exception {
+        if (request.getComponents().getCharts() == null) {
+            return List.of();
+        }
+        List<ChartImage> charts = new ArrayList<>();
+        for (DynamicReportRequest.ChartConfig chart : request.getComponents().getCharts()) {
+            charts.add(chartService.render(request.getLibraryPath(), request.getDataSourceName(),
+                    request.getParameters(), chart, rowLimit(request)));
+        }
+        return charts;
+    }
+
+    /**
+     * Rows read per data set, 0 for all
+     */
+    private int rowLimit(DynamicReportRequest request) {
+        return Boolean.TRUE.equals(request.getPreview()) ? previewLane.getMaxRows() : 0;
+    }
+
+    private TableExporter tableExporterFor(DynamicReportRequest request) {
+        if (request.getComponents() == null || request.getComponents().getTables() == null
+                || request.getComponents().getTables().isEmpty()) {
+            return null;
+        }
+        OutputFormat format = OutputFormat.fromExtension(request.getOutputFormat());
+        for (TableExporter exporter : tableExporters) {
+            if (exporter.getFormat() == format) {
+                return exporter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Write mock output content to the given writer
+     */
+    private void writeMockOutput(DynamicReportRequest request, Writer writer) throws IOException {
         StringBuilder output = new StringBuilder();
         output.append("=".repeat(80)).append("\n");
         output.append("BIRT REPORT - ").append(request.getReportName().toUpperCase()).append("\n");
@@ -232,9 +472,6 @@ public class DynamicReportService {
         output.append("Note: Install BIRT runtime dependencies for full functionality\n");
         output.append("=".repeat(80)).append("\n");
         
-        // Write output to file
-        try (FileWriter writer = new FileWriter(outputPath)) {
-            writer.write(output.toString());
-        }
+        writer.write(output.toString());
     }
 }
@@ -0,0 +1,125 @@
+package com.reyansh.birt.service;
+
+import com.reyansh.birt.exception.PreviewCapacityException;
+import com.reyansh.birt.metrics.ReportEvents;
+import com.reyansh.birt.metrics.ReportTimings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission and limits for report previews.
+ *
+ * Previews read at most report.preview.max-rows rows per data set and render at most
+ * report.preview.max-pages pages. No more than report.preview.max-concurrent previews run at
+ * once, independent of the production report capacity, so authoring sessions cannot crowd out
+ * scheduled and on-demand reports. A preview waits up to report.preview.queue-timeout-ms for a
+ * slot and is rejected after that. Running and waiting previews and rejections are published as
+ * report.preview.* and report.executor.rejected meters.
+ */
+@Slf4j
+@Component
+public class PreviewLane implements MeterBinder {
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    @Getter
+    private final int maxRows;
+
+    @Getter
+    private final int maxPages;
+
+    @Getter
+    private final int maxConcurrent;
+
+    private final Semaphore slots;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final long queueTimeoutMs;
+
+    public PreviewLane(@Value("${report.preview.max-rows:200}") int maxRows,
+                       @Value("${report.preview.max-pages:3}") int maxPages,
+                       @Value("${report.preview.max-concurrent:2}") int maxConcurrent,
+                       @Value("${report.preview.queue-timeout-ms:5000}") long queueTimeoutMs) {
+        if (maxRows <= 0 || maxPages <= 0 || maxConcurrent <= 0) {
+            throw new IllegalArgumentException("report.preview limits must be positive");
+        }
+        this.maxRows = maxRows;
+        this.maxPages = maxPages;
+        this.maxConcurrent = maxConcurrent;
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    /**
+     * Run a preview on the calling thread once a slot is free
+     *
+     * @throws PreviewCapacityException if no slot frees up within the queue timeout
+     */
+    public void run(Work work) throws Exception {
+        long start = System.nanoTime();
+        ReportEvents.Submission submission = ReportEvents.submit("preview");
+        boolean acquired = slots.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        submission.dequeued();
+        ReportTimings timings = ReportTimings.current();
+        if (timings != null) {
+            timings.addQueueWait(System.nanoTime() - start);
+        }
+        if (!acquired) {
+            rejected.incrementAndGet();
+            log.warn("Preview rejected, all preview slots busy for {}ms", queueTimeoutMs);
+            throw new PreviewCapacityException("All preview slots are busy, try again shortly");
+        }
+        try {
+            work.run();
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Previews running
+     */
+    public int getActive() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    /**
+     * Previews waiting for a slot
+     */
+    public int getWaiting() {
+        return slots.getQueueLength();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("report.preview.active", this, PreviewLane::getActive)
+                .description("Previews running").register(registry);
+        Gauge.builder("report.preview.waiting", this, PreviewLane::getWaiting)
+                .description("Previews waiting for a slot").register(registry);
+        FunctionCounter.builder("report.executor.rejected", rejected, AtomicLong::get)
+                .tag("name", "preview")
+                .description("Tasks turned away because every worker was busy")
+                .register(registry);
+    }
+
+    /**
+     * Page range covering the preview pages, in the engine's page range syntax
+     */
+    public String getPageRange() {
+        return "1-" + maxPages;
+    }
+}
@@ -0,0 +1,499 @@
+package com.reyansh.birt.service;
+
+import com.reyansh.birt.data.ColumnSelection;
+import com.reyansh.birt.data.ConnectionPools;
+import com.reyansh.birt.data.DatasetService;
+import com.reyansh.birt.data.LibraryDefinition;
+import com.reyansh.birt.export.TableExporter;
+import com.reyansh.birt.health.ReportJobs;
+import com.reyansh.birt.metrics.ReportMetrics;
+import com.reyansh.birt.metrics.ReportTimings;
+import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.model.OutputFormat;
+import com.reyansh.birt.model.ReportRequest;
+import com.reyansh.birt.model.ReportResponse;
+import com.reyansh.birt.storage.ReportOutputStore;
+import com.reyansh.birt.storage.ScratchStorage;
+import com.reyansh.birt.template.DesignCache;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.TeeOutputStream;
+import org.eclipse.birt.core.archive.compound.ArchiveFile;
+import org.eclipse.birt.core.archive.compound.ArchiveReader;
+import org.eclipse.birt.core.archive.compound.ArchiveWriter;
+import org.eclipse.birt.report.engine.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for generating BIRT reports with multithreading support
+ * Supports parallel report generation for scalability
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "birt.engine.enabled", havingValue = "true")
+public class ReportGenerationService {
+
+    @Autowired
+    private IReportEngine reportEngine;
+
+    @Autowired
+    private ReportOutputStore outputStore;
+
+    @Autowired
+    private ScratchStorage scratchStorage;
+
+    @Autowired
+    private DesignCache designCache;
+
+    @Autowired
+    private DatasetService datasetService;
+
+    @Autowired
+    private ConnectionPools connectionPools;
+
+    @Autowired
+    private List<TableExporter> tableExporters;
+
+    @Autowired
+    private PreviewLane previewLane;
+
+    @Autowired
+    private ReportMetrics reportMetrics;
+
+    @Autowired
+    private ReportJobs reportJobs;
+
+    @Value("${birt.report.directory:reports/templates}")
+    private String reportDirectory;
+
+    // Row-only formats without a BIRT emitter, exported straight from the design's data sets
+    private static final Set<OutputFormat> TABLE_FORMATS = EnumSet.of(OutputFormat.CSV, OutputFormat.NDJSON);
+
+    // App context key of the BIRT JDBC driver for a connection supplied by the caller
+    private static final String PASS_IN_CONNECTION = "OdaJDBCDriverPassInConnection";
+
+    // Track report generation status
+    private final Map<String, String> reportStatus = new ConcurrentHashMap<>();
+
+    /**
+     * Generate report asynchronously
+     * Uses thread pool for parallel processing
+     */
+    @Async("reportTaskExecutor")
+    public CompletableFuture<ReportResponse> generateReportAsync(ReportRequest request) {
+        String reportId = UUID.randomUUID().toString();
+        log.info("Starting async report generation - ID: {}, Report: {}, Format: {}",
+                reportId, request.getReportName(), request.getOutputFormat());
+
+        reportStatus.put(reportId, "PROCESSING");
+
+        try {
+            ReportResponse response = generateReport(request, reportId);
+            reportStatus.put(reportId, response.isSuccess() ? "COMPLETED" : "FAILED");
+            return CompletableFuture.completedFuture(response);
+        } catch (Exception e) {
+            log.error("Error generating report asynchronously - ID: {}", reportId, e);
+            reportStatus.put(reportId, "FAILED");
+            return CompletableFuture.completedFuture(ReportResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Generate report synchronously
+     */
+    public ReportResponse generateReport(ReportRequest request, String reportId) {
+        long startTime = System.currentTimeMillis();
+        if (Boolean.TRUE.equals(request.getPreview())) {
+            return ReportResponse.error("Previews are never stored; use POST /api/reports/preview");
+        }
+
+        try (ReportJobs.Job job = reportJobs.begin(reportId, request.getReportName(), request.getOutputFormat(),
+                request.getParameters())) {
+            log.debug("Generating report - ID: {}, Name: {}, Format: {}",
+                    reportId, request.getReportName(), request.getOutputFormat());
+
+            // Output is stored under the requested file name or the report ID
+            String outputId = request.getOutputFileName() != null
+                    ? request.getOutputFileName()
+                    : reportId;
+            OutputFormat format = OutputFormat.fromExtension(request.getOutputFormat());
+
+            Path outputFilePath;
+            if (TABLE_FORMATS.contains(format)) {
+                try (ReportOutputStore.PendingOutput output = outputStore.create(outputId, format)) {
+                    exportTables(request, format, output.getStream());
+                    output.commit();
+                    outputFilePath = output.getPath();
+                }
+            } else {
+                outputFilePath = runAndRender(request, reportId, outputId, format);
+            }
+
+            long endTime = System.currentTimeMillis();
+            long duration = endTime - startTime;
+
+            log.info("Report generated successfully - ID: {}, Format: {}, Time: {}ms",
+                    reportId, request.getOutputFormat(), duration);
+
+            String downloadUrl = "/api/reports/download/" + outputId;
+
+            return ReportResponse.success(reportId, outputFilePath.toString(), request.getOutputFormat(),
+                    duration, downloadUrl);
+
+        } catch (Exception e) {
+            log.error("Error generating report - ID: {}", reportId, e);
+            return ReportResponse.error("Report generation failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run the design into an intermediate document and render it into the output store
+     */
+    private Path runAndRender(ReportRequest request, String reportId, String outputId, OutputFormat format)
+            throws Exception {
+        try (ReportOutputStore.PendingOutput output = outputStore.create(outputId, format)) {
+            // Page range only applies to PDF output
+            String pageRange = "pdf".equalsIgnoreCase(request.getOutputFormat()) ? request.getPageRange() : null;
+            renderDocument(request, reportId, output.getStream(), pageRange);
+            output.commit();
+            return output.getPath();
+        }
+    }
+
+    /**
+     * Run the design into an intermediate document and render it, or only the given pages of it,
+     * into the stream
+     *
+     * @param pageRange pages to render, or null for all
+     */
+    private void renderDocument(ReportRequest request, String reportId, OutputStream out, String pageRange)
+            throws Exception {
+        try (ScratchStorage.Allocation scratch = scratchStorage.allocate(reportId, request.getReportName())) {
+            ArchiveFile archive = runDocument(request, scratch);
+            IReportDocument reportDocument = null;
+            IRenderTask renderTask = null;
+            try {
+                reportDocument = openDocument(scratch, archive);
+
+                // Create render task
+                renderTask = reportEngine.createRenderTask(reportDocument);
+
+                // Set rendering options
+                renderTask.setRenderOption(createRenderOptions(request.getOutputFormat(), out));
+                if (pageRange != null) {
+                    renderTask.setPageRange(pageRange);
+                }
+
+                // Render report
+                timed(ReportMetrics.Phase.RENDER, request, renderTask::render);
+            } finally {
+                if (renderTask != null) {
+                    renderTask.close();
+                }
+                if (reportDocument != null) {
+                    reportDocument.close();
+                }
+                if (archive != null) {
+                    archive.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the design into a report document (rptdocument) on scratch storage or on the heap
+     *
+     * @return the heap archive holding the document, or null if it was written to the scratch file
+     */
+    ArchiveFile runDocument(ReportRequest request, ScratchStorage.Allocation scratch) throws Exception {
+        IRunTask runTask = reportEngine.createRunTask(openDesign(request));
+        applyRequest(runTask, request);
+
+        ArchiveFile archive = null;
+        Connection connection = null;
+        try {
+            connection = borrowConnection(runTask, request);
+            if (scratch.isInMemory()) {
+                archive = new ArchiveFile(scratch.getPath().toString(), "rwt");
+                archive.setCacheSize(scratch.getMemoryLimit());
+                ArchiveWriter writer = new ArchiveWriter(archive);
+                timed(ReportMetrics.Phase.RUN, request, () -> runTask.run(writer));
+            } else {
+                timed(ReportMetrics.Phase.RUN, request, () -> runTask.run(scratch.getPath().toString()));
+            }
+        } catch (Exception e) {
+            if (archive != null) {
+                archive.close();
+            }
+            throw e;
+        } finally {
+            runTask.close();
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        log.debug("Report document generated: {} (in memory: {})", scratch.getPath(), scratch.isInMemory());
+        return archive;
+    }
+
+    /**
+     * Open a document produced by {@link #runDocument}. Closing the document leaves the archive open.
+     */
+    IReportDocument openDocument(ScratchStorage.Allocation scratch, ArchiveFile archive) throws Exception {
+        if (archive != null) {
+            return reportEngine.openReportDocument(scratch.getPath().toString(),
+                    new ArchiveReader(archive), new HashMap<>());
+        }
+        return reportEngine.openReportDocument(scratch.getPath().toString());
+    }
+
+    /**
+     * Run and render a report straight into the given stream (usually the servlet response).
+     * The client receives bytes while rendering is still in progress and no intermediate
+     * .rptdocument is written. When cacheOutput is set, the bytes are also teed into the
+     * output store so the report can be downloaded again later.
+     * Previews read at most {@link PreviewLane#getMaxRows()} rows per query, render only the first
+     * {@link PreviewLane#getMaxPages()} pages through an intermediate document, and are never cached.
+     * The target stream is flushed but never closed.
+     */
+    public void streamReport(ReportRequest request, String reportId, OutputStream target,
+                             boolean cacheOutput) throws Exception {
+        long startTime = System.currentTimeMillis();
+        log.debug("Streaming report - ID: {}, Name: {}, Format: {}",
+                reportId, request.getReportName(), request.getOutputFormat());
+
+        OutputFormat format = OutputFormat.fromExtension(request.getOutputFormat());
+        boolean preview = Boolean.TRUE.equals(request.getPreview());
+        boolean store = cacheOutput && !preview;
+        IRunAndRenderTask task = null;
+        Connection connection = null;
+        if (!TABLE_FORMATS.contains(format) && !preview) {
+            task = reportEngine.createRunAndRenderTask(openDesign(request));
+            applyRequest(task, request);
+        }
+
+        try (ReportOutputStore.PendingOutput cache = store ? outputStore.create(reportId, format) : null) {
+            OutputStream out = CloseShieldOutputStream.wrap(target);
+            if (cache != null) {
+                out = new TeeOutputStream(out, cache.getStream());
+            }
+
+            if (task != null) {
+                connection = borrowConnection(task, request);
+                task.setRenderOption(createRenderOptions(request.getOutputFormat(), out));
+                timed(ReportMetrics.Phase.RUN_AND_RENDER, request, task::run);
+            } else if (!TABLE_FORMATS.contains(format)) {
+                // Only a render task can stop after the first pages
+                renderDocument(request, reportId, out, previewLane.getPageRange());
+            } else {
+                exportTables(request, format, out);
+            }
+            out.flush();
+
+            if (cache != null) {
+                cache.commit();
+            }
+        } finally {
+            if (task != null) {
+                task.close();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        log.info("Report streamed successfully - ID: {}, Format: {}, Preview: {}, Cached: {}, Time: {}ms",
+                reportId, request.getOutputFormat(), preview, store, System.currentTimeMillis() - startTime);
+    }
+
+    private IReportRunnable openDesign(ReportRequest request) throws Exception {
+        designFile(request);
+
+        // Opened designs are cached until the template is redeployed
+        return reportMetrics.time(ReportMetrics.Phase.OPEN_DESIGN, designName(request), request.getOutputFormat(),
+                () -> designCache.get(designName(request)));
+    }
+
+    private void timed(ReportMetrics.Phase phase, ReportRequest request, ReportMetrics.Work work) throws Exception {
+        reportMetrics.timeRun(phase, designName(request), request.getOutputFormat(), work);
+    }
+
+    /**
+     * Report design file name of the request, relative to the template directory
+     */
+    private static String designName(ReportRequest request) {
+        String reportDesignName = request.getReportName();
+        if (!reportDesignName.endsWith(".rptdesign")) {
+            reportDesignName += ".rptdesign";
+        }
+        return reportDesignName;
+    }
+
+    private File designFile(ReportRequest request) {
+        File reportDesignFile = new File(reportDirectory, designName(request));
+        if (!reportDesignFile.exists()) {
+            throw new RuntimeException("Report design file not found: " + reportDesignFile.getPath());
+        }
+        return reportDesignFile;
+    }
+
+    /**
+     * Export the rows of every data set declared in the design, skipping the run and render
+     * steps entirely. Used for the row-only formats that have no BIRT emitter.
+     */
+    private void exportTables(ReportRequest request, OutputFormat format, OutputStream out) throws Exception {
+        String designPath = designFile(request).getPath();
+        List<DynamicReportRequest.TableConfig> tables = new ArrayList<>();
+        for (String dataSetName : datasetService.getLibrary(designPath).getDataSets().keySet()) {
+            tables.add(DynamicReportRequest.TableConfig.builder().datasetName(dataSetName).title(dataSetName).build());
+        }
+        if (tables.isEmpty()) {
+            throw new IllegalArgumentException("Report design declares no data sets: " + request.getReportName());
+        }
+
+        TableExporter exporter = tableExporters.stream()
+                .filter(candidate -> candidate.getFormat() == format)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported output format: " + format.getExtension()));
+        ColumnSelection selection = rowLimit(request) > 0 ? ColumnSelection.limit(rowLimit(request)) : null;
+        // Data set parameters take the values of the report parameters they are linked to
+        Map<String, Object> parameters = request.getParameters();
+        OutputStream counted = ReportTimings.countOutput(out);
+        timed(ReportMetrics.Phase.WRITE, request, () -> exporter.export(tables,
+                table -> datasetService.open(designPath, null, table.getDatasetName(), parameters, selection), counted));
+    }
+
+    /**
+     * Designs with a single JDBC data source run on a connection borrowed from the shared pool
+     * instead of opening their own. The caller returns the connection once the task is closed.
+     * For previews every query on the connection is capped at the preview row limit.
+     *
+     * @return the borrowed connection, or null if the design keeps its own connection handling
+     */
+    private Connection borrowConnection(IEngineTask task, ReportRequest request) throws Exception {
+        Map<String, LibraryDefinition.DataSourceDefinition> dataSources =
+                datasetService.getLibrary(designFile(request).getPath()).getDataSources();
+        if (dataSources.size() != 1) {
+            return null;
+        }
+        LibraryDefinition.DataSourceDefinition dataSource = dataSources.values().iterator().next();
+        if (dataSource.url() == null) {
+            return null;
+        }
+
+        Connection connection = connectionPools.getConnection(dataSource, rowLimit(request));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> appContext = new HashMap<>(task.getAppContext());
+        appContext.put(PASS_IN_CONNECTION, connection);
+        task.setAppContext(appContext);
+        return connection;
+    }
+
+    /**
+     * Rows read per query, 0 for all
+     */
+    private int rowLimit(ReportRequest request) {
+        return Boolean.TRUE.equals(request.getPreview()) ? previewLane.getMaxRows() : 0;
+    }
+
+    private void applyRequest(IEngineTask task, ReportRequest request) {
+        // Set parameters if provided
+        if (request.getParameters() != null && !request.getParameters().isEmpty()) {
+            for (Map.Entry<String, Object> entry : request.getParameters().entrySet()) {
+                task.setParameterValue(entry.getKey(), entry.getValue());
+            }
+            log.debug("Set {} parameters for report", request.getParameters().size());
+        }
+
+        // Set locale if provided
+        if (request.getLocale() != null) {
+            task.setLocale(new java.util.Locale(request.getLocale()));
+        }
+    }
+
+    /**
+     * Create render options based on output format.
+     * The caller owns the output stream and is responsible for closing it.
+     */
+    IRenderOption createRenderOptions(String format, OutputStream outputStream) {
+        IRenderOption options;
+
+        switch (format.toLowerCase()) {
+            case "pdf":
+                options = new PDFRenderOption();
+                options.setOutputFormat("pdf");
+                break;
+            case "html":
+                HTMLRenderOption htmlOptions = new HTMLRenderOption();
+                htmlOptions.setOutputFormat("html");
+                htmlOptions.setEmbeddable(false);
+                options = htmlOptions;
+                break;
+            case "xls":
+                options = new EXCELRenderOption();
+                options.setOutputFormat("xls");
+                break;
+            case "xlsx":
+                options = new EXCELRenderOption();
+                options.setOutputFormat("xlsx");
+                break;
+            case "doc":
+            case "docx":
+                options = new RenderOption();
+                options.setOutputFormat(format);
+                break;
+            case "ppt":
+            case "pptx":
+                options = new RenderOption();
+                options.setOutputFormat(format);
+                break;
+            case "xml":
+                options = new RenderOption();
+                options.setOutputFormat("xml");
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported output format: " + format);
+        }
+
+        options.setOutputStream(ReportTimings.countOutput(outputStream));
+        return options;
+    }
+
+    /**
+     * Get report generation status
+     */
+    public String getReportStatus(String reportId) {
+        return reportStatus.getOrDefault(reportId, "NOT_FOUND");
+    }
+
+    /**
+     * List available report templates
+     */
+    public String[] listReportTemplates() {
+        File reportDir = new File(reportDirectory);
+        if (!reportDir.exists() || !reportDir.isDirectory()) {
+            return new String[0];
+        }
+
+        return reportDir.list((dir, name) -> name.endsWith(".rptdesign"));
+    }
+}
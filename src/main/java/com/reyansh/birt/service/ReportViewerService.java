@@ -0,0 +1,379 @@
+package com.reyansh.birt.service;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.cache.LruCache;
+import com.reyansh.birt.model.ReportRequest;
+import com.reyansh.birt.model.ViewerDocument;
+import com.reyansh.birt.storage.ScratchStorage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.birt.core.archive.compound.ArchiveFile;
+import org.eclipse.birt.report.engine.api.HTMLRenderOption;
+import org.eclipse.birt.report.engine.api.IRenderTask;
+import org.eclipse.birt.report.engine.api.IReportDocument;
+import org.eclipse.birt.report.engine.api.IReportEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Viewer mode: keeps the report document of a run and renders HTML pages on demand.
+ *
+ * Only the requested page is rendered, so the first page is available as soon as the run phase
+ * finishes. Rendered pages are kept in a small LRU and the following report.viewer.prefetch-pages
+ * pages are rendered in the background on a dedicated pool; prefetching is best effort and is
+ * dropped when the pool is busy. Documents hold their scratch allocation until they are closed,
+ * expire after report.viewer.document-ttl-minutes without access, or are displaced by newer ones;
+ * a document that is closed while pages of it are rendering is released once they finish.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "birt.engine.enabled", havingValue = "true")
+public class ReportViewerService {
+
+    private final IReportEngine reportEngine;
+
+    private final ReportGenerationService generationService;
+
+    private final ScratchStorage scratchStorage;
+
+    private final int prefetchPages;
+
+    private final long documentTtlMillis;
+
+    private final int maxDocuments;
+
+    private final LruCache<PageKey, byte[]> pages;
+
+    private final Map<String, RetainedDocument> documents = new ConcurrentHashMap<>();
+
+    // Pages being rendered, so a request joins a prefetch of the same page instead of repeating it
+    private final Map<PageKey, CompletableFuture<byte[]>> rendering = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor prefetchExecutor;
+
+    public ReportViewerService(IReportEngine reportEngine,
+                               ReportGenerationService generationService,
+                               ScratchStorage scratchStorage,
+                               CacheRegistry cacheRegistry,
+                               @Value("${report.viewer.page-cache-mb:32}") long pageCacheMb,
+                               @Value("${report.viewer.prefetch-pages:2}") int prefetchPages,
+                               @Value("${report.viewer.prefetch-threads:2}") int prefetchThreads,
+                               @Value("${report.viewer.document-ttl-minutes:30}") long documentTtlMinutes,
+                               @Value("${report.viewer.max-documents:20}") int maxDocuments) {
+        this.reportEngine = reportEngine;
+        this.generationService = generationService;
+        this.scratchStorage = scratchStorage;
+        this.prefetchPages = prefetchPages;
+        this.documentTtlMillis = TimeUnit.MINUTES.toMillis(documentTtlMinutes);
+        this.maxDocuments = maxDocuments;
+        this.pages = cacheRegistry.register(
+                new LruCache<>("viewer-pages", pageCacheMb * 1024 * 1024, html -> html.length));
+
+        AtomicInteger threads = new AtomicInteger();
+        this.prefetchExecutor = new ThreadPoolExecutor(prefetchThreads, prefetchThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(prefetchThreads * prefetchPages * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "viewer-prefetch-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Run a report and retain its document for viewing. Nothing is rendered yet.
+     */
+    public ViewerDocument open(ReportRequest request) throws Exception {
+        long startTime = System.currentTimeMillis();
+        String documentId = UUID.randomUUID().toString();
+
+        ScratchStorage.Allocation scratch = scratchStorage.allocate(documentId, request.getReportName());
+        RetainedDocument document;
+        try {
+            ArchiveFile archive = generationService.runDocument(request, scratch);
+            document = new RetainedDocument(documentId, scratch, archive);
+            IReportDocument reportDocument = document.open();
+            try {
+                document.pageCount = reportDocument.getPageCount();
+            } finally {
+                reportDocument.close();
+            }
+        } catch (Exception e) {
+            scratch.close();
+            throw e;
+        }
+
+        evictExcessDocuments();
+        documents.put(documentId, document);
+
+        long runTime = System.currentTimeMillis() - startTime;
+        log.info("Viewer document {} retained for {} with {} pages in {}ms",
+                documentId, request.getReportName(), document.pageCount, runTime);
+        return ViewerDocument.builder()
+                .documentId(documentId)
+                .reportName(request.getReportName())
+                .pageCount(document.pageCount)
+                .firstPageUrl(pageUrl(documentId, 1))
+                .runTimeMs(runTime)
+                .build();
+    }
+
+    /**
+     * HTML of one page, from the page cache or rendered now. Following pages are prefetched.
+     *
+     * @return empty if the document is unknown or has expired
+     * @throws IllegalArgumentException if the page is outside the document
+     */
+    public Optional<byte[]> getPage(String documentId, long page) throws Exception {
+        RetainedDocument document = documents.get(documentId);
+        if (document == null) {
+            return Optional.empty();
+        }
+        if (page < 1 || page > document.pageCount) {
+            throw new IllegalArgumentException(
+                    "Page " + page + " out of range, document has " + document.pageCount + " pages");
+        }
+        if (!document.acquire()) {
+            return Optional.empty();
+        }
+        document.lastAccess = System.currentTimeMillis();
+
+        byte[] html;
+        try {
+            html = page(document, page).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            document.release();
+        }
+
+        for (long next = page + 1; next <= Math.min(document.pageCount, page + prefetchPages); next++) {
+            PageKey key = new PageKey(documentId, next);
+            if (!pages.containsKey(key) && !rendering.containsKey(key)) {
+                long prefetch = next;
+                prefetchExecutor.execute(() -> {
+                    if (document.acquire()) {
+                        try {
+                            page(document, prefetch);
+                        } finally {
+                            document.release();
+                        }
+                    }
+                });
+            }
+        }
+        return Optional.of(html);
+    }
+
+    static String pageUrl(String documentId, long page) {
+        return "/api/reports/" + documentId + "/pages/" + page;
+    }
+
+    /**
+     * Release a document, its cached pages and its scratch space. Pages of it still rendering
+     * finish first and are not cached.
+     *
+     * @return false if the document is unknown
+     */
+    public boolean close(String documentId) {
+        RetainedDocument document = documents.remove(documentId);
+        if (document == null) {
+            return false;
+        }
+        // Closed before the pages are dropped, so a render finishing now does not cache its page
+        document.close();
+        pages.invalidateIf(key -> key.documentId().equals(documentId));
+        log.debug("Viewer document {} closed", documentId);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${report.engine.cleanup-interval-minutes:30}",
+            initialDelayString = "${report.engine.cleanup-interval-minutes:30}",
+            timeUnit = TimeUnit.MINUTES)
+    public void expireDocuments() {
+        long cutoff = System.currentTimeMillis() - documentTtlMillis;
+        documents.values().stream()
+                .filter(document -> document.lastAccess < cutoff)
+                .map(document -> document.documentId)
+                .toList()
+                .forEach(this::close);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        prefetchExecutor.shutdownNow();
+        documents.keySet().forEach(this::close);
+    }
+
+    private void evictExcessDocuments() {
+        while (documents.size() >= maxDocuments) {
+            Optional<RetainedDocument> oldest = documents.values().stream()
+                    .min(Comparator.comparingLong(document -> document.lastAccess));
+            if (oldest.isEmpty() || !close(oldest.get().documentId)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Render or look up a page; the caller holds a use of the document
+     */
+    private CompletableFuture<byte[]> page(RetainedDocument document, long page) {
+        PageKey key = new PageKey(document.documentId, page);
+        byte[] cached = pages.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = rendering.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            byte[] html = pages.peek(key);
+            if (html == null) {
+                html = render(document, page);
+                document.cache(key, html);
+            }
+            created.complete(html);
+        } catch (Exception e) {
+            log.warn("Rendering page {} of viewer document {} failed: {}", page, document.documentId, e.getMessage());
+            created.completeExceptionally(e);
+        } finally {
+            rendering.remove(key);
+        }
+        return created;
+    }
+
+    private byte[] render(RetainedDocument document, long page) throws Exception {
+        long startTime = System.currentTimeMillis();
+        IReportDocument reportDocument = document.open();
+        IRenderTask renderTask = reportEngine.createRenderTask(reportDocument);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            HTMLRenderOption options = new HTMLRenderOption();
+            options.setOutputFormat("html");
+            options.setEmbeddable(false);
+            options.setOutputStream(out);
+            renderTask.setRenderOption(options);
+            renderTask.setPageRange(Long.toString(page));
+            renderTask.render();
+
+            log.debug("Rendered page {} of viewer document {} in {}ms",
+                    page, document.documentId, System.currentTimeMillis() - startTime);
+            return out.toByteArray();
+        } finally {
+            renderTask.close();
+            reportDocument.close();
+        }
+    }
+
+    record PageKey(String documentId, long page) {
+    }
+
+    /**
+     * A retained document and the renders using it. The archive and scratch space are released
+     * when the document is closed and no render uses it any more.
+     */
+    private class RetainedDocument {
+
+        private final String documentId;
+
+        private final ScratchStorage.Allocation scratch;
+
+        private final ArchiveFile archive;
+
+        private volatile long pageCount;
+
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private int uses;
+
+        private boolean closed;
+
+        private RetainedDocument(String documentId, ScratchStorage.Allocation scratch, ArchiveFile archive) {
+            this.documentId = documentId;
+            this.scratch = scratch;
+            this.archive = archive;
+        }
+
+        IReportDocument open() throws Exception {
+            return generationService.openDocument(scratch, archive);
+        }
+
+        /**
+         * Start a use of the document
+         *
+         * @return false if it is closed
+         */
+        synchronized boolean acquire() {
+            if (closed) {
+                return false;
+            }
+            uses++;
+            return true;
+        }
+
+        /**
+         * End a use, releasing the document if it was closed meanwhile
+         */
+        void release() {
+            synchronized (this) {
+                if (--uses > 0 || !closed) {
+                    return;
+                }
+            }
+            free();
+        }
+
+        /**
+         * Close the document, releasing it now if no render uses it
+         */
+        void close() {
+            synchronized (this) {
+                closed = true;
+                if (uses > 0) {
+                    return;
+                }
+            }
+            free();
+        }
+
+        /**
+         * Cache a rendered page unless the document has been closed
+         */
+        synchronized void cache(PageKey key, byte[] html) {
+            if (!closed) {
+                pages.put(key, html);
+            }
+        }
+
+        private void free() {
+            try {
+                if (archive != null) {
+                    archive.close();
+                }
+                scratch.close();
+            } catch (IOException e) {
+                log.warn("Could not release viewer document {}: {}", documentId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.reyansh.birt.storage;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Index entry for a stored report output and the files that belong to it
+ */
+@Getter
+public class OutputEntry {
+
+    private final String reportId;
+
+    // Output variants plus attached artifacts such as the generated template
+    private final List<Path> files;
+
+    private final long size;
+
+    private final long createdAt;
+
+    private volatile long lastAccessedAt;
+
+    public OutputEntry(String reportId, List<Path> files, long size, long createdAt, long lastAccessedAt) {
+        this.reportId = reportId;
+        this.files = List.copyOf(files);
+        this.size = size;
+        this.createdAt = createdAt;
+        this.lastAccessedAt = lastAccessedAt;
+    }
+
+    void touch(long now) {
+        lastAccessedAt = now;
+    }
+}
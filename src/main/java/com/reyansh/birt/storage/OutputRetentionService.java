@@ -0,0 +1,165 @@
+package com.reyansh.birt.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Background retention for generated reports.
+ *
+ * Runs every report.engine.cleanup-interval-minutes and enforces three thresholds on the
+ * output store: maximum age, maximum total size and minimum free disk space. Size and disk
+ * pressure evict the least recently downloaded outputs first. Outputs that are currently
+ * being downloaded are skipped and retried on the next run.
+ *
+ * Works from the store's in-memory index, so a run never walks the output directory. Each run
+ * also sweeps the template directory for generated templates that no output owns.
+ */
+@Slf4j
+@Service
+public class OutputRetentionService {
+
+    private static final long MB = 1024L * 1024L;
+
+    // Orphaned generated templates are only needed while their report is running
+    private static final long ORPHAN_GRACE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final ReportOutputStore outputStore;
+
+    private final Path templateDirectory;
+
+    private final long maxAgeMillis;
+
+    private final long maxTotalSizeBytes;
+
+    private final long minFreeDiskBytes;
+
+    private volatile boolean templatesMigrated;
+
+    public OutputRetentionService(ReportOutputStore outputStore,
+                                  @Value("${birt.report.directory:reports/templates}") String templateDirectory,
+                                  @Value("${report.retention.max-age-minutes:1440}") long maxAgeMinutes,
+                                  @Value("${report.retention.max-total-size-mb:10240}") long maxTotalSizeMb,
+                                  @Value("${report.retention.min-free-disk-mb:1024}") long minFreeDiskMb) {
+        this.outputStore = outputStore;
+        this.templateDirectory = Paths.get(templateDirectory);
+        this.maxAgeMillis = TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+        this.maxTotalSizeBytes = maxTotalSizeMb * MB;
+        this.minFreeDiskBytes = minFreeDiskMb * MB;
+    }
+
+    @Scheduled(fixedDelayString = "${report.engine.cleanup-interval-minutes:30}",
+            initialDelayString = "${report.engine.cleanup-interval-minutes:30}",
+            timeUnit = TimeUnit.MINUTES)
+    public void scheduledCleanup() {
+        try {
+            enforce();
+        } catch (Exception e) {
+            log.error("Output retention run failed", e);
+        }
+    }
+
+    /**
+     * Apply the retention thresholds once
+     *
+     * @return number of outputs evicted
+     */
+    public int enforce() throws IOException {
+        sweepTemplates();
+
+        long now = System.currentTimeMillis();
+        List<OutputEntry> entries = new ArrayList<>(outputStore.entries());
+        entries.sort(Comparator.comparingLong(OutputEntry::getLastAccessedAt));
+
+        long totalSize = 0;
+        for (OutputEntry entry : entries) {
+            totalSize += entry.getSize();
+        }
+        long diskShortfall = minFreeDiskBytes > 0 ? minFreeDiskBytes - outputStore.getUsableSpace() : 0;
+
+        int evicted = 0;
+        int inUse = 0;
+        long freed = 0;
+        for (OutputEntry entry : entries) {
+            boolean expired = maxAgeMillis > 0 && now - entry.getCreatedAt() > maxAgeMillis;
+            boolean overSize = maxTotalSizeBytes > 0 && totalSize - freed > maxTotalSizeBytes;
+            boolean lowDisk = diskShortfall > freed;
+            if (!expired && !overSize && !lowDisk) {
+                continue;
+            }
+
+            switch (outputStore.delete(entry.getReportId())) {
+                case DELETED -> {
+                    evicted++;
+                    freed += entry.getSize();
+                }
+                case IN_USE -> inUse++;
+                default -> {
+                    // Deleted concurrently, nothing to do
+                }
+            }
+        }
+
+        if (evicted > 0 || inUse > 0) {
+            log.info("Output retention evicted {} outputs ({} bytes), skipped {} in use; {} outputs remain",
+                    evicted, freed, inUse, entries.size() - evicted);
+        } else {
+            log.debug("Output retention: nothing to evict among {} outputs", entries.size());
+        }
+        if (diskShortfall > freed) {
+            log.warn("Free disk space still below {} MB after retention run", minFreeDiskBytes / MB);
+        }
+        return evicted;
+    }
+
+    /**
+     * Pass over the template directory. The first run moves flat generated templates into their
+     * shards. Generated templates that belong to a stored output are attached to it so they are
+     * evicted together, and orphans older than an hour, such as those of reports that failed or
+     * of a previous process, are deleted.
+     */
+    private void sweepTemplates() throws IOException {
+        if (!Files.isDirectory(templateDirectory)) {
+            return;
+        }
+        if (!templatesMigrated) {
+            ShardedLayoutMigration.migrateTemplates(templateDirectory);
+            templatesMigrated = true;
+        }
+
+        long cutoff = System.currentTimeMillis() - ORPHAN_GRACE_MILLIS;
+        int attached = 0;
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(templateDirectory, 3)) {
+            for (Path template : (Iterable<Path>) files::iterator) {
+                String reportId = ShardedLayoutMigration.generatedTemplateId(template.getFileName().toString());
+                if (reportId == null) {
+                    continue;
+                }
+                if (outputStore.getEntry(reportId).map(entry -> entry.getFiles().contains(template)).orElse(false)) {
+                    continue;
+                }
+                if (outputStore.attach(reportId, template)) {
+                    attached++;
+                } else if (Files.getLastModifiedTime(template).toMillis() < cutoff) {
+                    Files.deleteIfExists(template);
+                    deleted++;
+                }
+            }
+        }
+        if (attached > 0 || deleted > 0) {
+            log.info("Template sweep attached {} generated templates and deleted {} orphans", attached, deleted);
+        }
+    }
+}
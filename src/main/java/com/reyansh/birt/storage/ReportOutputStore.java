@@ -0,0 +1,598 @@
+package com.reyansh.birt.storage;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+import com.reyansh.birt.model.OutputFormat;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.TeeOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores generated report outputs in the output directory, sharded by report ID
+ * (see {@link ShardedPaths}).
+ *
+ * Compressible formats are compressed once at write time, in the same streaming pass,
+ * into gzip and zstd variants (reportId.html.gz, reportId.html.zst) and the uncompressed
+ * file is never kept. Downloads serve the stored variant that matches Accept-Encoding,
+ * so nothing is re-compressed per request.
+ *
+ * The store keeps an in-memory index of committed outputs (built once at startup and
+ * updated on every write, download and delete) so that retention never has to walk
+ * the directory, and tracks downloads in progress so their files are never deleted.
+ */
+@Slf4j
+@Service
+public class ReportOutputStore {
+
+    public static final String GZIP = "gzip";
+    public static final String ZSTD = "zstd";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    private final Path outputDirectory;
+
+    private final boolean compressionEnabled;
+
+    private final int zstdLevel;
+
+    private final boolean zstdAvailable;
+
+    private final Map<String, OutputEntry> index = new ConcurrentHashMap<>();
+
+    // Number of downloads currently streaming each report
+    private final Map<String, Integer> leases = new ConcurrentHashMap<>();
+
+    public enum DeleteResult {
+        DELETED, NOT_FOUND, IN_USE
+    }
+
+    public ReportOutputStore(@Value("${birt.output.directory:reports/output}") String outputDirectory,
+                             @Value("${report.output.compression.enabled:true}") boolean compressionEnabled,
+                             @Value("${report.output.compression.zstd-level:3}") int zstdLevel) {
+        this.outputDirectory = Paths.get(outputDirectory);
+        this.compressionEnabled = compressionEnabled;
+        this.zstdLevel = zstdLevel;
+        this.zstdAvailable = compressionEnabled && loadZstd();
+    }
+
+    private static boolean loadZstd() {
+        try {
+            Native.load();
+            return true;
+        } catch (UnsatisfiedLinkError e) {
+            log.warn("Zstd native library not available, storing gzip variants only: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Build the output index with a single directory scan at startup.
+     * Outputs still in the old flat layout are moved into their shards first.
+     */
+    @PostConstruct
+    public void loadIndex() throws IOException {
+        if (!Files.isDirectory(outputDirectory)) {
+            return;
+        }
+        ShardedLayoutMigration.migrateOutputs(outputDirectory);
+
+        Map<String, List<Path>> filesById = new HashMap<>();
+        try (Stream<Path> files = Files.walk(outputDirectory, 3)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String reportId = reportIdOf(file.getFileName().toString());
+                if (reportId != null && Files.isRegularFile(file)) {
+                    filesById.computeIfAbsent(reportId, id -> new ArrayList<>()).add(file);
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<Path>> entry : filesById.entrySet()) {
+            long size = 0;
+            long createdAt = Long.MAX_VALUE;
+            long lastModified = 0;
+            for (Path file : entry.getValue()) {
+                size += Files.size(file);
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                createdAt = Math.min(createdAt, modified);
+                lastModified = Math.max(lastModified, modified);
+            }
+            index.put(entry.getKey(), new OutputEntry(entry.getKey(), entry.getValue(), size, createdAt, lastModified));
+        }
+        log.info("Indexed {} stored outputs in {}", index.size(), outputDirectory);
+    }
+
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public long getUsableSpace() throws IOException {
+        Files.createDirectories(outputDirectory);
+        return Files.getFileStore(outputDirectory).getUsableSpace();
+    }
+
+    /**
+     * Snapshot of all indexed outputs
+     */
+    public Collection<OutputEntry> entries() {
+        return List.copyOf(index.values());
+    }
+
+    public Optional<OutputEntry> getEntry(String reportId) {
+        return Optional.ofNullable(reportId == null ? null : index.get(reportId));
+    }
+
+    /**
+     * Attach an existing file (such as a generated template) to an indexed output so
+     * it is deleted together with the output
+     */
+    public boolean attach(String reportId, Path file) throws IOException {
+        if (!index.containsKey(reportId)) {
+            return false;
+        }
+        long size = Files.size(file);
+        // Atomic with delete, which must not be followed by an entry for the files it removed
+        OutputEntry attached = index.computeIfPresent(reportId, (id, entry) -> {
+            List<Path> files = new ArrayList<>(entry.getFiles());
+            files.add(file);
+            return new OutputEntry(id, files, entry.getSize() + size, entry.getCreatedAt(), entry.getLastAccessedAt());
+        });
+        return attached != null;
+    }
+
+    /**
+     * Delete an output and its attached files unless a download is currently streaming it
+     */
+    public DeleteResult delete(String reportId) {
+        if (!isValidId(reportId)) {
+            return DeleteResult.NOT_FOUND;
+        }
+
+        // Runs under the lease map's lock for this ID, so no download can start mid-delete
+        AtomicReference<DeleteResult> result = new AtomicReference<>();
+        leases.compute(reportId, (id, count) -> {
+            if (count != null) {
+                result.set(DeleteResult.IN_USE);
+                return count;
+            }
+            OutputEntry entry = index.remove(id);
+            if (entry == null) {
+                result.set(DeleteResult.NOT_FOUND);
+                return null;
+            }
+            for (Path file : entry.getFiles()) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}: {}", file, e.getMessage());
+                }
+            }
+            result.set(DeleteResult.DELETED);
+            return null;
+        });
+        return result.get();
+    }
+
+    private void register(String reportId, List<Path> files) throws IOException {
+        long size = 0;
+        for (Path file : files) {
+            size += Files.size(file);
+        }
+        long now = System.currentTimeMillis();
+        index.put(reportId, new OutputEntry(reportId, files, size, now, now));
+    }
+
+    /**
+     * Extract the report ID from a stored file name, or null for files that are not committed outputs
+     */
+    static String reportIdOf(String fileName) {
+        String name = stripEncoding(fileName);
+        return formatOf(fileName) == null ? null : name.substring(0, name.lastIndexOf('.'));
+    }
+
+    /**
+     * Output format of a stored file name (with or without compression suffix), or null if none
+     */
+    static OutputFormat formatOf(String fileName) {
+        String name = stripEncoding(fileName);
+        int dot = name.lastIndexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String extension = name.substring(dot + 1);
+        for (OutputFormat format : OutputFormat.values()) {
+            if (format.getExtension().equals(extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static String stripEncoding(String fileName) {
+        if (fileName.endsWith(".gz")) {
+            return fileName.substring(0, fileName.length() - 3);
+        }
+        if (fileName.endsWith(".zst")) {
+            return fileName.substring(0, fileName.length() - 4);
+        }
+        return fileName;
+    }
+
+    boolean isZstdAvailable() {
+        return zstdAvailable;
+    }
+
+    /**
+     * Open a pending output for the given report. Bytes written to the pending output's
+     * stream go to temporary .part files which only become visible on commit.
+     */
+    public PendingOutput create(String reportId, OutputFormat format) throws IOException {
+        if (!isValidId(reportId)) {
+            throw new IllegalArgumentException("Invalid report ID: " + reportId);
+        }
+        Path directory = ShardedPaths.directoryFor(outputDirectory, reportId);
+        Files.createDirectories(directory);
+
+        String baseName = reportId + "." + format.getExtension();
+        List<Path> targets = new ArrayList<>();
+        if (compressionEnabled && format.isCompressible()) {
+            targets.add(directory.resolve(baseName + ".gz"));
+            if (zstdAvailable) {
+                targets.add(directory.resolve(baseName + ".zst"));
+            }
+        } else {
+            targets.add(directory.resolve(baseName));
+        }
+
+        PendingOutput output = new PendingOutput(this, reportId, targets);
+        try {
+            for (Path target : targets) {
+                output.open(target, zstdLevel);
+            }
+        } catch (IOException e) {
+            output.close();
+            throw e;
+        }
+        return output;
+    }
+
+    /**
+     * Find the stored output for a report and pick the variant to serve for the given
+     * Accept-Encoding header. Returns empty when the report does not exist.
+     */
+    public Optional<StoredOutput> resolve(String reportId, String acceptEncoding) {
+        OutputEntry entry = reportId == null ? null : index.get(reportId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        OutputFormat format = null;
+        Path identity = null;
+        Path gz = null;
+        Path zst = null;
+        for (Path file : entry.getFiles()) {
+            String name = file.getFileName().toString();
+            OutputFormat fileFormat = formatOf(name);
+            if (fileFormat == null) {
+                // Attached artifact, not an output variant
+                continue;
+            }
+            format = fileFormat;
+            if (name.endsWith(".zst")) {
+                zst = file;
+            } else if (name.endsWith(".gz")) {
+                gz = file;
+            } else {
+                identity = file;
+            }
+        }
+
+        if (format == null) {
+            return Optional.empty();
+        }
+        if (identity != null) {
+            return Optional.of(new StoredOutput(reportId, identity, format, null, false));
+        }
+        if (zst != null && accepts(acceptEncoding, ZSTD)) {
+            return Optional.of(new StoredOutput(reportId, zst, format, ZSTD, false));
+        }
+        if (gz != null && accepts(acceptEncoding, GZIP)) {
+            return Optional.of(new StoredOutput(reportId, gz, format, GZIP, false));
+        }
+        // Client accepts none of the stored encodings, decode on the fly
+        return Optional.of(gz != null
+                ? new StoredOutput(reportId, gz, format, GZIP, true)
+                : new StoredOutput(reportId, zst, format, ZSTD, true));
+    }
+
+    /**
+     * Protect a stored output from deletion until the returned lease is closed, for a download that
+     * reads its file directly
+     *
+     * @throws NoSuchFileException if the output has been deleted since it was resolved
+     */
+    public Lease lease(StoredOutput output) throws NoSuchFileException {
+        String reportId = output.getReportId();
+        leases.merge(reportId, 1, Integer::sum);
+        OutputEntry entry = index.get(reportId);
+        if (entry == null) {
+            release(reportId);
+            throw new NoSuchFileException(output.getPath().toString());
+        }
+        entry.touch(System.currentTimeMillis());
+        return new Lease(this, output);
+    }
+
+    /**
+     * Open a stored output for reading, decoding it when the client cannot accept the stored encoding.
+     * The output is protected from deletion until the returned stream is closed.
+     */
+    public InputStream openStream(StoredOutput output) throws IOException {
+        Lease lease = lease(output);
+        try {
+            return new LeasedInputStream(lease.openStream(), lease);
+        } catch (IOException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
+    /**
+     * True while at least one download is streaming the given report
+     */
+    public boolean isInUse(String reportId) {
+        return leases.containsKey(reportId);
+    }
+
+    private void release(String reportId) {
+        leases.computeIfPresent(reportId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Check whether an Accept-Encoding header allows the given content coding.
+     * An explicit entry for the coding takes precedence over the "*" wildcard.
+     */
+    static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+
+        Double explicitQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] tokens = entry.trim().split(";");
+            String name = tokens[0].trim();
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(coding)) {
+                explicitQuality = quality;
+            } else if ("*".equals(name)) {
+                wildcardQuality = quality;
+            }
+        }
+
+        if (explicitQuality != null) {
+            return explicitQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    static boolean isValidId(String reportId) {
+        return reportId != null && VALID_ID.matcher(reportId).matches() && !reportId.contains("..");
+    }
+
+    /**
+     * A download's hold on a stored output. Closing it closes the streams it opened; closing it more
+     * than once has no further effect.
+     */
+    public static class Lease implements Closeable {
+
+        private final ReportOutputStore store;
+
+        private final StoredOutput output;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private final List<InputStream> streams = new ArrayList<>();
+
+        private Lease(ReportOutputStore store, StoredOutput output) {
+            this.store = store;
+            this.output = output;
+        }
+
+        /**
+         * Read the output, decoded when the client cannot accept the stored encoding. Closing the
+         * stream does not end the lease.
+         */
+        public InputStream openStream() throws IOException {
+            if (closed.get()) {
+                throw new IllegalStateException("Lease on " + output.getReportId() + " is closed");
+            }
+            InputStream in = new BufferedInputStream(Files.newInputStream(output.getPath()), BUFFER_SIZE);
+            if (output.isDecodeRequired()) {
+                try {
+                    in = GZIP.equals(output.getContentEncoding())
+                            ? new GZIPInputStream(in, BUFFER_SIZE)
+                            : new ZstdInputStream(in);
+                } catch (IOException e) {
+                    in.close();
+                    throw e;
+                }
+            }
+            synchronized (streams) {
+                streams.add(in);
+            }
+            return in;
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                synchronized (streams) {
+                    for (InputStream stream : streams) {
+                        IOUtils.closeQuietly(stream);
+                    }
+                    streams.clear();
+                }
+            } finally {
+                store.release(output.getReportId());
+            }
+        }
+    }
+
+    /**
+     * Input stream that releases the download lease when closed
+     */
+    private static class LeasedInputStream extends FilterInputStream {
+
+        private final Lease lease;
+
+        LeasedInputStream(InputStream in, Lease lease) {
+            super(in);
+            this.lease = lease;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                lease.close();
+            }
+        }
+    }
+
+    /**
+     * Output being written. Call commit() once all bytes are written; closing without
+     * committing discards the partial files.
+     */
+    public static class PendingOutput implements Closeable {
+
+        private final ReportOutputStore store;
+
+        private final String reportId;
+
+        private final List<Path> targets;
+
+        private final List<Path> partFiles = new ArrayList<>();
+
+        private final List<Path> attachments = new ArrayList<>();
+
+        private OutputStream stream;
+
+        private boolean committed;
+
+        PendingOutput(ReportOutputStore store, String reportId, List<Path> targets) {
+            this.store = store;
+            this.reportId = reportId;
+            this.targets = targets;
+        }
+
+        private void open(Path target, int zstdLevel) throws IOException {
+            Path part = target.resolveSibling(target.getFileName() + ".part");
+            partFiles.add(part);
+
+            OutputStream raw = new BufferedOutputStream(Files.newOutputStream(part), BUFFER_SIZE);
+            OutputStream encoded;
+            String name = target.getFileName().toString();
+            if (name.endsWith(".gz")) {
+                encoded = new GZIPOutputStream(raw, BUFFER_SIZE);
+            } else if (name.endsWith(".zst")) {
+                encoded = new ZstdOutputStream(raw, zstdLevel);
+            } else {
+                encoded = raw;
+            }
+            stream = stream == null ? encoded : new TeeOutputStream(stream, encoded);
+        }
+
+        public OutputStream getStream() {
+            return stream;
+        }
+
+        /**
+         * Primary path of the committed output
+         */
+        public Path getPath() {
+            return targets.get(0);
+        }
+
+        /**
+         * Attach a related file (such as the generated template) that should be
+         * retained and deleted together with this output
+         */
+        public void attach(Path file) {
+            attachments.add(file);
+        }
+
+        public void commit() throws IOException {
+            stream.close();
+            for (int i = 0; i < targets.size(); i++) {
+                Files.move(partFiles.get(i), targets.get(i),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            committed = true;
+
+            List<Path> files = new ArrayList<>(targets);
+            for (Path attachment : attachments) {
+                if (Files.exists(attachment)) {
+                    files.add(attachment);
+                }
+            }
+            store.register(reportId, files);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) {
+                return;
+            }
+            IOUtils.closeQuietly(stream);
+            for (Path part : partFiles) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.reyansh.birt.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.file.PathUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fast scratch storage for intermediate .rptdocument files and BIRT engine temp files.
+ *
+ * The scratch directory is meant for a tmpfs or local NVMe mount so intermediate I/O does
+ * not compete with output writes on the persistent volume. Documents are admitted against
+ * a size budget using the last observed document size of each design; when a document
+ * would exceed the budget and is expected to be small, it is kept in a heap-backed archive
+ * instead. Larger documents still go to scratch, over budget, rather than to the output volume.
+ */
+@Slf4j
+@Service
+public class ScratchStorage {
+
+    private static final long MB = 1024L * 1024L;
+
+    // Expected size for designs that have not been run yet
+    private static final long DEFAULT_ESTIMATE_BYTES = MB;
+
+    @Getter
+    private final Path documentDirectory;
+
+    @Getter
+    private final Path engineTempDirectory;
+
+    private final long maxSizeBytes;
+
+    private final long heapDocumentMaxBytes;
+
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    // Last observed document size per design
+    private final Map<String, Long> documentSizes = new ConcurrentHashMap<>();
+
+    public ScratchStorage(@Value("${report.scratch.directory:${java.io.tmpdir}/birt-scratch}") String directory,
+                          @Value("${report.scratch.max-size-mb:2048}") long maxSizeMb,
+                          @Value("${report.scratch.heap-document-max-mb:16}") long heapDocumentMaxMb) {
+        Path root = Paths.get(directory);
+        this.documentDirectory = root.resolve("documents");
+        this.engineTempDirectory = root.resolve("engine-tmp");
+        this.maxSizeBytes = maxSizeMb * MB;
+        this.heapDocumentMaxBytes = heapDocumentMaxMb * MB;
+    }
+
+    /**
+     * Scratch content never outlives the process, so leftovers from a previous run are removed
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (Files.isDirectory(documentDirectory)) {
+            PathUtils.cleanDirectory(documentDirectory);
+        }
+        Files.createDirectories(documentDirectory);
+        Files.createDirectories(engineTempDirectory);
+        log.info("Scratch storage at {} with a budget of {} MB", documentDirectory.getParent(), maxSizeBytes / MB);
+    }
+
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    /**
+     * Allocate space for the intermediate document of a report run
+     *
+     * @param reportId  report being generated
+     * @param designKey design the document is produced from, used to estimate its size
+     */
+    public Allocation allocate(String reportId, String designKey) {
+        long estimate = documentSizes.getOrDefault(designKey, DEFAULT_ESTIMATE_BYTES);
+        Path path = documentDirectory.resolve(reportId + ".rptdocument");
+
+        long reserved = reservedBytes.addAndGet(estimate);
+        if (reserved <= maxSizeBytes) {
+            return new Allocation(designKey, path, false, estimate);
+        }
+
+        if (estimate <= heapDocumentMaxBytes) {
+            reservedBytes.addAndGet(-estimate);
+            log.debug("Scratch budget exhausted, keeping document for {} on the heap", reportId);
+            return new Allocation(designKey, path, true, 0);
+        }
+
+        log.warn("Scratch budget of {} MB exceeded by document for {} (expected {} bytes)",
+                maxSizeBytes / MB, reportId, estimate);
+        return new Allocation(designKey, path, false, estimate);
+    }
+
+    /**
+     * Space for one intermediate document. For heap allocations the path is only used as the
+     * archive name and as overflow file if the document outgrows the heap limit.
+     * Closing deletes the document file and releases the reservation.
+     */
+    @Getter
+    public class Allocation implements Closeable {
+
+        private final String designKey;
+
+        private final Path path;
+
+        private final boolean inMemory;
+
+        private final long reservedSize;
+
+        private Allocation(String designKey, Path path, boolean inMemory, long reservedSize) {
+            this.designKey = designKey;
+            this.path = path;
+            this.inMemory = inMemory;
+            this.reservedSize = reservedSize;
+        }
+
+        /**
+         * Maximum bytes a heap-backed archive may keep in memory before overflowing to its file
+         */
+        public long getMemoryLimit() {
+            return heapDocumentMaxBytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (!inMemory && Files.exists(path)) {
+                    documentSizes.put(designKey, Files.size(path));
+                }
+                Files.deleteIfExists(path);
+            } finally {
+                reservedBytes.addAndGet(-reservedSize);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.reyansh.birt.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Moves files from the old flat layout (reports/output/id.ext, reports/templates/id.rptdesign)
+ * into the sharded layout of {@link ShardedPaths}.
+ *
+ * Each file is moved with a single rename, so the migration is safe to interrupt and rerun.
+ * Partially written files and user templates are left untouched.
+ *
+ * Runs automatically when the output store builds its index and on the first retention run,
+ * or offline:
+ * java -cp app.jar -Dloader.main=com.reyansh.birt.storage.ShardedLayoutMigration
+ *      org.springframework.boot.loader.launch.PropertiesLauncher reports/output reports/templates
+ */
+@Slf4j
+public final class ShardedLayoutMigration {
+
+    // Templates generated by DynamicReportService are named after the report ID
+    static final Pattern GENERATED_TEMPLATE = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.rptdesign");
+
+    private ShardedLayoutMigration() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length > 2) {
+            System.err.println("Usage: ShardedLayoutMigration <outputDirectory> [templateDirectory]");
+            System.exit(1);
+        }
+
+        List<Path> outputs = migrateOutputs(Paths.get(args[0]));
+        System.out.println("Migrated " + outputs.size() + " output files in " + args[0]);
+        if (args.length > 1) {
+            List<Path> templates = migrateTemplates(Paths.get(args[1]));
+            System.out.println("Migrated " + templates.size() + " generated templates in " + args[1]);
+        }
+    }
+
+    /**
+     * Shard flat output files
+     *
+     * @return new paths of the moved files
+     */
+    public static List<Path> migrateOutputs(Path outputDirectory) throws IOException {
+        return migrate(outputDirectory, ReportOutputStore::reportIdOf);
+    }
+
+    /**
+     * Shard flat templates generated by the dynamic report service
+     *
+     * @return new paths of the moved files
+     */
+    public static List<Path> migrateTemplates(Path templateDirectory) throws IOException {
+        return migrate(templateDirectory, ShardedLayoutMigration::generatedTemplateId);
+    }
+
+    static String generatedTemplateId(String fileName) {
+        return GENERATED_TEMPLATE.matcher(fileName).matches()
+                ? fileName.substring(0, fileName.length() - ".rptdesign".length())
+                : null;
+    }
+
+    private static List<Path> migrate(Path root, Function<String, String> idOf) throws IOException {
+        List<Path> moved = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return moved;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                String id = idOf.apply(fileName);
+                if (id == null) {
+                    continue;
+                }
+                Path target = ShardedPaths.resolve(root, id, fileName);
+                Files.createDirectories(target.getParent());
+                Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                moved.add(target);
+            }
+        }
+
+        if (!moved.isEmpty()) {
+            log.info("Migrated {} files in {} to the sharded layout", moved.size(), root);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,36 @@
+package com.reyansh.birt.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Resolves report IDs to a hashed two-level directory layout.
+ *
+ * Files for an ID live in root/ab/cd/ where ab and cd are taken from a CRC32 of the ID,
+ * giving 65536 leaf directories. That keeps every directory small enough for lookups,
+ * listings and deletes to stay fast with millions of stored files.
+ */
+public final class ShardedPaths {
+
+    private ShardedPaths() {
+    }
+
+    /**
+     * Leaf directory holding the files of the given ID
+     */
+    public static Path directoryFor(Path root, String id) {
+        CRC32 crc = new CRC32();
+        crc.update(id.getBytes(StandardCharsets.UTF_8));
+        long hash = crc.getValue();
+        return root.resolve(String.format("%02x", (hash >>> 8) & 0xff))
+                .resolve(String.format("%02x", hash & 0xff));
+    }
+
+    /**
+     * Path of a file belonging to the given ID
+     */
+    public static Path resolve(Path root, String id, String fileName) {
+        return directoryFor(root, id).resolve(fileName);
+    }
+}
@@ -0,0 +1,31 @@
+package com.reyansh.birt.storage;
+
+import com.reyansh.birt.model.OutputFormat;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * A stored report output selected for download
+ */
+@Getter
+@RequiredArgsConstructor
+public class StoredOutput {
+
+    private final String reportId;
+
+    private final Path path;
+
+    private final OutputFormat format;
+
+    // Encoding of the stored bytes (gzip, zstd) or null when stored uncompressed
+    private final String contentEncoding;
+
+    // True when the client accepts none of the stored encodings and the bytes must be decoded on the fly
+    private final boolean decodeRequired;
+
+    public String getFileName() {
+        return reportId + "." + format.getExtension();
+    }
+}
@@ -0,0 +1,120 @@
+package com.reyansh.birt.template;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.birt.report.engine.api.EngineException;
+import org.eclipse.birt.report.engine.api.IReportEngine;
+import org.eclipse.birt.report.engine.api.IReportRunnable;
+import org.eclipse.birt.report.model.api.LibraryHandle;
+import org.eclipse.birt.report.model.api.ModuleHandle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of opened report designs, keyed by template file name relative to the template directory.
+ *
+ * Parsing a design is the most expensive part of a cold report run, so designs are opened once
+ * and reused until their file changes. Each entry remembers the libraries the design uses, which
+ * lets a library deployment evict only the designs that depend on it.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "birt.engine.enabled", havingValue = "true")
+public class DesignCache {
+
+    private final IReportEngine reportEngine;
+
+    private final Path templateDirectory;
+
+    private final Map<String, CachedDesign> designs = new ConcurrentHashMap<>();
+
+    public DesignCache(IReportEngine reportEngine,
+                       @Value("${birt.report.directory:reports/templates}") String templateDirectory) {
+        this.reportEngine = reportEngine;
+        this.templateDirectory = Paths.get(templateDirectory);
+    }
+
+    /**
+     * Opened design for the given template, reopened when the file was modified since it was cached
+     *
+     * @throws java.nio.file.NoSuchFileException if the template does not exist
+     */
+    public IReportRunnable get(String fileName) throws IOException, EngineException {
+        Path path = templateDirectory.resolve(fileName);
+        FileTime modified = Files.getLastModifiedTime(path);
+
+        CachedDesign cached = designs.get(fileName);
+        if (cached != null && cached.modified().equals(modified)) {
+            return cached.runnable();
+        }
+
+        IReportRunnable runnable = reportEngine.openReportDesign(path.toString());
+        designs.put(fileName, new CachedDesign(runnable, modified, librariesOf(runnable)));
+        log.debug("Cached report design {}", fileName);
+        return runnable;
+    }
+
+    /**
+     * Open a design with the engine and reject it if the model reports errors
+     *
+     * @throws IllegalArgumentException if the design has errors
+     */
+    public void validate(Path design) throws EngineException {
+        IReportRunnable runnable = reportEngine.openReportDesign(design.toString());
+        ModuleHandle module = runnable.getDesignHandle().getModuleHandle();
+        try {
+            List<?> errors = module.getErrorList();
+            if (!errors.isEmpty()) {
+                throw new IllegalArgumentException("Invalid report design: " + errors.get(0));
+            }
+        } finally {
+            module.close();
+        }
+    }
+
+    /**
+     * Evict a changed template. For a library, every cached design that uses it is evicted as well;
+     * all other designs stay cached.
+     *
+     * @return number of evicted designs
+     */
+    public int invalidate(String fileName) {
+        int evicted = designs.remove(fileName) != null ? 1 : 0;
+        for (Map.Entry<String, CachedDesign> entry : designs.entrySet()) {
+            if (entry.getValue().libraries().contains(fileName) && designs.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        log.info("Invalidated {} cached designs for {}", evicted, fileName);
+        return evicted;
+    }
+
+    public int size() {
+        return designs.size();
+    }
+
+    private static Set<String> librariesOf(IReportRunnable runnable) {
+        Set<String> libraries = new HashSet<>();
+        for (Object library : runnable.getDesignHandle().getModuleHandle().getAllLibraries()) {
+            String fileName = ((LibraryHandle) library).getFileName();
+            if (fileName != null) {
+                libraries.add(fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1));
+            }
+        }
+        return libraries;
+    }
+
+    private record CachedDesign(IReportRunnable runnable, FileTime modified, Set<String> libraries) {
+    }
+}
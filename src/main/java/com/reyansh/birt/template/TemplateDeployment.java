@@ -0,0 +1,46 @@
+package com.reyansh.birt.template;
+
+import lombok.Getter;
+
+/**
+ * State of one template upload. Validation and the swap into the template directory run in
+ * the background after the upload has been written, so callers poll this state.
+ */
+@Getter
+public class TemplateDeployment {
+
+    public enum Status {
+        VALIDATING,
+        DEPLOYED,
+        FAILED
+    }
+
+    private final String deploymentId;
+
+    private final String fileName;
+
+    private final long size;
+
+    private volatile Status status = Status.VALIDATING;
+
+    private volatile String message;
+
+    private volatile int invalidatedDesigns;
+
+    public TemplateDeployment(String deploymentId, String fileName, long size) {
+        this.deploymentId = deploymentId;
+        this.fileName = fileName;
+        this.size = size;
+    }
+
+    void deployed(int invalidatedDesigns) {
+        this.invalidatedDesigns = invalidatedDesigns;
+        this.message = "Template deployed";
+        this.status = Status.DEPLOYED;
+    }
+
+    void failed(String message) {
+        this.message = message;
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,184 @@
+package com.reyansh.birt.template;
+
+import com.reyansh.birt.exception.UploadTooLargeException;
+import com.reyansh.birt.metrics.ReportMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+/**
+ * Hot deployment of report designs and libraries.
+ *
+ * An upload is streamed straight into a temp file inside the template directory, so it is never
+ * buffered in memory. Validation then runs on the report executor; a valid file is moved over the
+ * live template with a single atomic rename and only the affected cached designs are evicted.
+ * Every other design stays warm, so a deployment no longer needs a restart.
+ */
+@Slf4j
+@Service
+public class TemplateDeploymentService {
+
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*\\.(rptdesign|rptlibrary)");
+
+    private static final long MB = 1024L * 1024L;
+
+    // Finished deployments are only kept for status polling
+    private static final int MAX_TRACKED_DEPLOYMENTS = 256;
+
+    private final Path templateDirectory;
+
+    private final long maxUploadBytes;
+
+    private final Executor executor;
+
+    // Only available when birt.engine.enabled=true
+    private final ObjectProvider<DesignCache> designCache;
+
+    private final ReportMetrics reportMetrics;
+
+    private final Map<String, TemplateDeployment> deployments = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TemplateDeployment> eldest) {
+                    return size() > MAX_TRACKED_DEPLOYMENTS;
+                }
+            });
+
+    public TemplateDeploymentService(@Value("${birt.report.directory:reports/templates}") String templateDirectory,
+                                     @Value("${report.templates.max-upload-size-mb:50}") long maxUploadSizeMb,
+                                     @Qualifier("reportTaskExecutor") Executor executor,
+                                     ObjectProvider<DesignCache> designCache,
+                                     ReportMetrics reportMetrics) {
+        this.templateDirectory = Paths.get(templateDirectory);
+        this.maxUploadBytes = maxUploadSizeMb * MB;
+        this.executor = executor;
+        this.designCache = designCache;
+        this.reportMetrics = reportMetrics;
+    }
+
+    /**
+     * Stream an uploaded template to disk and schedule its validation and deployment
+     *
+     * @param fileName target file name, e.g. sales-report.rptdesign or common.rptlibrary
+     * @param body     raw upload body, read to the end but not closed
+     * @throws IllegalArgumentException if the file name is not a plain design or library name
+     * @throws UploadTooLargeException  if the body exceeds report.templates.max-upload-size-mb
+     */
+    public TemplateDeployment upload(String fileName, InputStream body) throws IOException {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches() || fileName.contains("..")) {
+            throw new IllegalArgumentException("Invalid template file name: " + fileName);
+        }
+
+        Files.createDirectories(templateDirectory);
+        Path upload = Files.createTempFile(templateDirectory, ".upload-", ".tmp");
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(upload)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                size += read;
+                if (size > maxUploadBytes) {
+                    throw new UploadTooLargeException("Template exceeds " + maxUploadBytes / MB + " MB");
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+
+        TemplateDeployment deployment = new TemplateDeployment(UUID.randomUUID().toString(), fileName, size);
+        deployments.put(deployment.getDeploymentId(), deployment);
+        log.info("Received template {} ({} bytes), deployment {}", fileName, size, deployment.getDeploymentId());
+
+        executor.execute(() -> deploy(deployment, upload));
+        return deployment;
+    }
+
+    public Optional<TemplateDeployment> getDeployment(String deploymentId) {
+        return Optional.ofNullable(deployments.get(deploymentId));
+    }
+
+    private void deploy(TemplateDeployment deployment, Path upload) {
+        String fileName = deployment.getFileName();
+        try {
+            String type = fileName.substring(fileName.lastIndexOf('.') + 1);
+            reportMetrics.timeRun(ReportMetrics.Phase.VALIDATE, fileName, type, () -> validate(upload, fileName));
+
+            Path target = templateDirectory.resolve(fileName);
+            Files.move(upload, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            DesignCache cache = designCache.getIfAvailable();
+            int invalidated = cache != null ? cache.invalidate(fileName) : 0;
+            deployment.deployed(invalidated);
+            log.info("Deployed template {} (deployment {}), {} cached designs invalidated",
+                    fileName, deployment.getDeploymentId(), invalidated);
+        } catch (Exception e) {
+            log.warn("Deployment {} of template {} failed: {}", deployment.getDeploymentId(), fileName, e.getMessage());
+            deployment.failed(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete upload {}", upload, e);
+            }
+        }
+    }
+
+    private void validate(Path upload, String fileName) throws Exception {
+        String expectedRoot = fileName.endsWith(".rptlibrary") ? "library" : "report";
+        checkXml(upload, expectedRoot);
+
+        // Designs are also opened with the engine when it is running
+        DesignCache cache = designCache.getIfAvailable();
+        if (cache != null && "report".equals(expectedRoot)) {
+            cache.validate(upload);
+        }
+    }
+
+    /**
+     * Well-formedness and root element check. Streams through the whole document in constant
+     * memory; DTDs and external entities are not processed.
+     */
+    static void checkXml(Path file, String expectedRoot) throws IOException, XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        try (InputStream in = Files.newInputStream(file)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                reader.nextTag();
+                if (!expectedRoot.equals(reader.getLocalName())) {
+                    throw new IllegalArgumentException("Expected <" + expectedRoot + "> root element but found <"
+                            + reader.getLocalName() + ">");
+                }
+                while (reader.hasNext()) {
+                    reader.next();
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+}
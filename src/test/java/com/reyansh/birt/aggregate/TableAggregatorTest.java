@@ -0,0 +1,175 @@
+package com.reyansh.birt.aggregate;
+
+import com.reyansh.birt.data.ListRowSource;
+import com.reyansh.birt.data.RowSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TableAggregator
+ */
+class TableAggregatorTest {
+
+    private final TableAggregator tableAggregator = new TableAggregator(4, 0);
+
+    @AfterEach
+    void tearDown() {
+        tableAggregator.destroy();
+    }
+
+    @Test
+    void testGroup_SumsAcrossChunks() throws Exception {
+        int rowCount = TableAggregator.CHUNK_ROWS * 5 + 123;
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        long[] expectedQuantity = new long[7];
+        for (int i = 0; i < rowCount; i++) {
+            int region = i % 7;
+            rows.add(new Object[]{"region-" + region, i, new BigDecimal("0.5"), "note"});
+            expectedQuantity[region] += i;
+        }
+
+        List<Object[]> summary = readAll(tableAggregator.group(
+                new ListRowSource(List.of("REGION", "QUANTITY", "AMOUNT", "NOTE"), rows), "region", false));
+
+        assertEquals(7, summary.size());
+        for (int region = 0; region < 7; region++) {
+            Object[] row = summary.get(region);
+            assertEquals("region-" + region, row[0]);
+            assertEquals(expectedQuantity[region], row[1]);
+            long groupRows = (rowCount - region + 6) / 7;
+            assertEquals(groupRows * 0.5, (Double) row[2], 1e-6);
+            assertNull(row[3]);
+        }
+    }
+
+    @Test
+    void testGroup_ManyGroupsAcrossChunks() throws Exception {
+        // More groups than rows per sum task, revisited out of order across chunks
+        int groupCount = TableAggregator.CHUNK_ROWS + 1000;
+        int rowCount = TableAggregator.CHUNK_ROWS * 3;
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        long[] expectedQuantity = new long[groupCount];
+        for (int i = 0; i < rowCount; i++) {
+            int group = (int) (i * 31L % groupCount);
+            rows.add(new Object[]{group, i});
+            expectedQuantity[group] += i;
+        }
+
+        List<Object[]> summary = readAll(tableAggregator.group(
+                new ListRowSource(List.of("ID", "QUANTITY"), rows), "id", false));
+
+        assertEquals(groupCount, summary.size());
+        for (int group = 0; group < groupCount; group++) {
+            assertEquals(group, summary.get(group)[0]);
+            assertEquals(expectedQuantity[group], summary.get(group)[1]);
+        }
+    }
+
+    @Test
+    void testGroup_SharesChunkBudgetAcrossRequests() throws Exception {
+        TableAggregator budgeted = new TableAggregator(2, 2);
+        int rowCount = TableAggregator.CHUNK_ROWS * 3 + 7;
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        long[] expectedQuantity = new long[5];
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(new Object[]{i % 5, i});
+            expectedQuantity[i % 5] += i;
+        }
+        ExecutorService requests = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Object[]>>> results = new ArrayList<>();
+            for (int request = 0; request < 4; request++) {
+                results.add(requests.submit(() -> readAll(budgeted.group(
+                        new ListRowSource(List.of("ID", "QUANTITY"), rows), "id", false))));
+            }
+            for (Future<List<Object[]>> result : results) {
+                List<Object[]> summary = result.get(30, TimeUnit.SECONDS);
+                for (int group = 0; group < 5; group++) {
+                    assertEquals(expectedQuantity[group], summary.get(group)[1]);
+                }
+            }
+
+            // A failed read returns its blocks to the budget
+            RowSource failing = new ListRowSource(List.of("ID", "QUANTITY"), rows) {
+                private int read;
+
+                @Override
+                public boolean next() {
+                    if (++read > TableAggregator.CHUNK_ROWS * 2 + 1) {
+                        throw new IllegalStateException("connection reset");
+                    }
+                    return super.next();
+                }
+            };
+            assertThrows(IllegalStateException.class, () -> budgeted.group(failing, "id", false));
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertEquals(5, readAll(budgeted.group(
+                    new ListRowSource(List.of("ID", "QUANTITY"), rows), "id", false)).size()));
+        } finally {
+            requests.shutdownNow();
+            budgeted.destroy();
+        }
+    }
+
+    @Test
+    void testGroup_SortsKeysAndAppendsTotals() throws Exception {
+        RowSource source = new ListRowSource(List.of("YEAR", "SALES"), List.of(
+                new Object[]{2024, 10},
+                new Object[]{2022, 5L},
+                new Object[]{null, 1},
+                new Object[]{2024, 2.5}));
+
+        List<Object[]> summary = readAll(tableAggregator.group(source, "YEAR", true));
+
+        assertEquals(4, summary.size());
+        assertArrayEquals(new Object[]{null, 1.0}, summary.get(0));
+        assertArrayEquals(new Object[]{2022, 5.0}, summary.get(1));
+        assertArrayEquals(new Object[]{2024, 12.5}, summary.get(2));
+        assertArrayEquals(new Object[]{"Total", 18.5}, summary.get(3));
+    }
+
+    @Test
+    void testGroup_UnknownColumn() {
+        RowSource source = new ListRowSource(List.of("YEAR"), List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> tableAggregator.group(source, "REGION", false));
+    }
+
+    @Test
+    void testWithTotals_AppendsTotalsRow() throws Exception {
+        RowSource source = new ListRowSource(List.of("PRODUCT", "QUANTITY", "PRICE"), List.of(
+                new Object[]{"Widget", 3, 1.25},
+                new Object[]{"Gadget", 4, null}));
+
+        List<Object[]> rows = readAll(tableAggregator.withTotals(source));
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new Object[]{"Gadget", 4, null}, rows.get(1));
+        assertArrayEquals(new Object[]{"Total", 7L, 1.25}, rows.get(2));
+    }
+
+    private static List<Object[]> readAll(RowSource source) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        try (source) {
+            int columns = source.getColumnNames().size();
+            while (source.next()) {
+                Object[] row = new Object[columns];
+                for (int i = 0; i < columns; i++) {
+                    row[i] = source.getValue(i);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
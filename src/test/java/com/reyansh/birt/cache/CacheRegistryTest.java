@@ -0,0 +1,32 @@
+package com.reyansh.birt.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CacheRegistry
+ */
+class CacheRegistryTest {
+
+    @Test
+    void testBindTo_PublishesCachesRegisteredBeforeAndAfter() {
+        CacheRegistry cacheRegistry = new CacheRegistry();
+        LruCache<String, String> early = cacheRegistry.register(new LruCache<>("early", 1024, String::length));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        cacheRegistry.bindTo(registry);
+        LruCache<String, String> late = cacheRegistry.register(new LruCache<>("late", 1024, String::length));
+        early.put("a", "value");
+        early.get("a");
+        early.get("b");
+        late.get("c");
+
+        assertEquals(1, registry.get("report.cache.hits").tag("cache", "early").functionCounter().count());
+        assertEquals(1, registry.get("report.cache.misses").tag("cache", "early").functionCounter().count());
+        assertEquals(0.5, registry.get("report.cache.hit.ratio").tag("cache", "early").gauge().value());
+        assertEquals(5, registry.get("report.cache.size").tag("cache", "early").gauge().value());
+        assertEquals(1, registry.get("report.cache.misses").tag("cache", "late").functionCounter().count());
+    }
+}
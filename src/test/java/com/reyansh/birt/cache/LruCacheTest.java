@@ -0,0 +1,101 @@
+package com.reyansh.birt.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LruCache
+ */
+class LruCacheTest {
+
+    private LruCache<String, byte[]> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LruCache<>("test", 100, value -> value.length);
+    }
+
+    @Test
+    void testGet_CountsHitsAndMisses() {
+        cache.put("a", new byte[10]);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+        assertEquals(10, stats.sizeBytes());
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[40]);
+        cache.get("a");
+        cache.put("c", new byte[40]);
+
+        assertNotNull(cache.peek("a"));
+        assertNull(cache.peek("b"));
+        assertNotNull(cache.peek("c"));
+        assertEquals(1, cache.getStats().evictions());
+        assertEquals(80, cache.getStats().sizeBytes());
+    }
+
+    @Test
+    void testPut_RejectsValueLargerThanCache() {
+        assertFalse(cache.put("big", new byte[101]));
+        assertEquals(0, cache.getStats().entries());
+    }
+
+    @Test
+    void testPut_ReplacesValue() {
+        cache.put("a", new byte[40]);
+        cache.put("a", new byte[20]);
+
+        assertEquals(1, cache.getStats().entries());
+        assertEquals(20, cache.getStats().sizeBytes());
+    }
+
+    @Test
+    void testInvalidateIf() {
+        cache.put("sales:1", new byte[10]);
+        cache.put("sales:2", new byte[10]);
+        cache.put("inventory:1", new byte[10]);
+
+        assertEquals(2, cache.invalidateIf(key -> key.startsWith("sales:")));
+        assertEquals(1, cache.getStats().entries());
+        assertEquals(10, cache.getStats().sizeBytes());
+    }
+
+    @Test
+    void testRemovalListener_CalledOnEvictionAndInvalidation() {
+        List<byte[]> removed = new ArrayList<>();
+        LruCache<String, byte[]> listened = new LruCache<>("test", 100, value -> value.length, removed::add);
+        byte[] a = new byte[60];
+        byte[] b = new byte[60];
+        byte[] c = new byte[10];
+        listened.put("a", a);
+        listened.put("b", b);
+        listened.put("c", c);
+        listened.invalidate("c");
+
+        assertEquals(List.of(a, c), removed);
+    }
+
+    @Test
+    void testGet_RemovesInvalidValue() {
+        cache.put("a", new byte[10]);
+
+        assertNull(cache.get("a", value -> false));
+        assertNull(cache.peek("a"));
+        assertEquals(1, cache.getStats().misses());
+        assertEquals(0, cache.getStats().sizeBytes());
+    }
+}
@@ -0,0 +1,126 @@
+package com.reyansh.birt.chart;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.cache.CacheStats;
+import com.reyansh.birt.data.DatasetService;
+import com.reyansh.birt.data.ListRowSource;
+import com.reyansh.birt.model.DynamicReportRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ChartService
+ */
+class ChartServiceTest {
+
+    private static final List<String> COLUMNS = List.of("MONTH", "TOTAL_SALES");
+
+    private DatasetService datasetService;
+
+    private ChartRenderer renderer;
+
+    private CacheRegistry cacheRegistry;
+
+    private ChartService chartService;
+
+    private List<Object[]> rows;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        datasetService = mock(DatasetService.class);
+        renderer = spy(new ChartRenderer());
+        cacheRegistry = new CacheRegistry();
+        chartService = new ChartService(datasetService, renderer, cacheRegistry, 8);
+
+        rows = List.of(new Object[]{"Jan", 120}, new Object[]{"Feb", 95.5}, new Object[]{"Mar", null});
+        when(datasetService.open(any(), any(), any(), any(), any())).thenAnswer(invocation -> new ListRowSource(COLUMNS, rows));
+    }
+
+    private static DynamicReportRequest.ChartConfig chart(String type, String datasetName) {
+        return DynamicReportRequest.ChartConfig.builder()
+                .datasetName(datasetName)
+                .title("Sales Trend")
+                .chartType(type)
+                .categoryColumn("month")
+                .valueColumn("total_sales")
+                .width(300)
+                .height(200)
+                .showLegend(true)
+                .build();
+    }
+
+    @Test
+    void testRender_AllChartTypes() throws Exception {
+        for (String type : List.of("bar", "line", "pie", "area")) {
+            ChartImage image = chartService.render("lib.rptlibrary", null, Map.of(), chart(type, "SalesDataset"));
+
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(image.bytes()));
+            assertEquals("image/png", image.contentType());
+            assertEquals(300, decoded.getWidth());
+            assertEquals(200, decoded.getHeight());
+        }
+    }
+
+    @Test
+    void testRender_ReusesImageForSameConfigAndData() throws Exception {
+        ChartImage first = chartService.render("lib.rptlibrary", null, Map.of(), chart("bar", "SalesDataset"));
+        // Another report reading identical data through a different data set
+        ChartImage second = chartService.render("other.rptlibrary", "Warehouse", Map.of(), chart("bar", "SalesCopy"));
+
+        assertSame(first, second);
+        verify(renderer, times(1)).render(any(), any());
+        CacheStats stats = cacheRegistry.getStats().get(0);
+        assertEquals("chart-images", stats.name());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void testRender_ChangedDataRendersAgain() throws Exception {
+        chartService.render("lib.rptlibrary", null, Map.of(), chart("bar", "SalesDataset"));
+        rows = List.of(new Object[]{"Jan", 121}, new Object[]{"Feb", 95.5}, new Object[]{"Mar", null});
+        chartService.render("lib.rptlibrary", null, Map.of(), chart("bar", "SalesDataset"));
+
+        verify(renderer, times(2)).render(any(), any());
+    }
+
+    @Test
+    void testRender_ChangedSizeRendersAgain() throws Exception {
+        DynamicReportRequest.ChartConfig larger = chart("bar", "SalesDataset");
+        larger.setWidth(600);
+
+        chartService.render("lib.rptlibrary", null, Map.of(), chart("bar", "SalesDataset"));
+        chartService.render("lib.rptlibrary", null, Map.of(), larger);
+
+        verify(renderer, times(2)).render(any(), any());
+    }
+
+    @Test
+    void testRender_UnknownColumn() throws Exception {
+        DynamicReportRequest.ChartConfig chart = chart("bar", "SalesDataset");
+        chart.setValueColumn("profit");
+
+        assertThrows(IllegalArgumentException.class, () -> chartService.render("lib.rptlibrary", null, Map.of(), chart));
+        verify(datasetService).open(eq("lib.rptlibrary"), any(), eq("SalesDataset"), any(), any());
+    }
+
+    @Test
+    void testSeriesDigest_DependsOnData() {
+        ChartSeries series = new ChartSeries(List.of("a", "b"), new double[]{1, 2});
+
+        assertEquals(series.digest(), new ChartSeries(List.of("a", "b"), new double[]{1, 2}).digest());
+        assertNotEquals(series.digest(), new ChartSeries(List.of("a", "b"), new double[]{1, 3}).digest());
+        assertNotEquals(series.digest(), new ChartSeries(List.of("ab", ""), new double[]{1, 2}).digest());
+    }
+}
@@ -0,0 +1,54 @@
+package com.reyansh.birt.controller;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.cache.CacheStats;
+import com.reyansh.birt.data.ResultCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for CacheController
+ */
+@WebMvcTest(CacheController.class)
+class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheRegistry cacheRegistry;
+
+    @MockBean
+    private ResultCache resultCache;
+
+    @Test
+    void testGetStats() throws Exception {
+        when(cacheRegistry.getStats()).thenReturn(List.of(
+                new CacheStats("engine-resources", 3, 1, 0, 2, 2048, 67108864)));
+
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("engine-resources"))
+                .andExpect(jsonPath("$[0].hits").value(3))
+                .andExpect(jsonPath("$[0].hitRate").value(0.75));
+    }
+
+    @Test
+    void testInvalidateDatasets() throws Exception {
+        when(resultCache.invalidate("Orders", null)).thenReturn(2);
+
+        mockMvc.perform(delete("/api/cache/datasets").param("dataSet", "Orders"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.invalidated").value(2));
+    }
+}
@@ -0,0 +1,84 @@
+package com.reyansh.birt.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reyansh.birt.chart.ChartImage;
+import com.reyansh.birt.chart.ChartService;
+import com.reyansh.birt.model.ChartRequest;
+import com.reyansh.birt.model.DynamicReportRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for ChartController
+ */
+@WebMvcTest(ChartController.class)
+class ChartControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ChartService chartService;
+
+    private static ChartRequest request() {
+        return ChartRequest.builder()
+                .libraryPath("reports/library/common.rptlibrary")
+                .chart(DynamicReportRequest.ChartConfig.builder()
+                        .datasetName("SalesDataset")
+                        .chartType("bar")
+                        .categoryColumn("month")
+                        .valueColumn("total_sales")
+                        .build())
+                .build();
+    }
+
+    @Test
+    void testRenderChart_Png() throws Exception {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G'};
+        when(chartService.render(eq("reports/library/common.rptlibrary"), any(), any(), any()))
+                .thenReturn(new ChartImage(null, "image/png", png, 600, 400));
+
+        mockMvc.perform(post("/api/charts/render")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(png));
+    }
+
+    @Test
+    void testRenderChart_MissingChart() throws Exception {
+        ChartRequest request = request();
+        request.setChart(null);
+
+        mockMvc.perform(post("/api/charts/render")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRenderChart_UnknownColumn() throws Exception {
+        when(chartService.render(any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Chart column not found: total_sales"));
+
+        mockMvc.perform(post("/api/charts/render")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+}
@@ -0,0 +1,40 @@
+package com.reyansh.birt.controller;
+
+import com.reyansh.birt.data.ConnectionPools;
+import com.reyansh.birt.data.PoolStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for ConnectionPoolController
+ */
+@WebMvcTest(ConnectionPoolController.class)
+class ConnectionPoolControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ConnectionPools connectionPools;
+
+    @Test
+    void testGetStats() throws Exception {
+        when(connectionPools.getStats()).thenReturn(List.of(
+                new PoolStats("report-Warehouse", "jdbc:postgresql://warehouse/dw", 20, 15, 5, 20, 3, 1)));
+
+        mockMvc.perform(get("/api/pools/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("report-Warehouse"))
+                .andExpect(jsonPath("$[0].waiting").value(3))
+                .andExpect(jsonPath("$[0].saturation").value(0.75));
+    }
+}
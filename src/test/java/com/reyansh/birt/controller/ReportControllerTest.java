@@ -2,19 +2,37 @@ package com.reyansh.birt.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.model.OutputFormat;
 import com.reyansh.birt.model.ReportRequest;
+import com.reyansh.birt.exception.PreviewCapacityException;
+import com.reyansh.birt.health.CapacityStats;
+import com.reyansh.birt.health.ReportCapacity;
+import com.reyansh.birt.health.ReportJobs;
+import com.reyansh.birt.metrics.ReportMetrics;
 import com.reyansh.birt.service.DynamicReportService;
+import com.reyansh.birt.service.PreviewLane;
+import com.reyansh.birt.storage.ReportOutputStore;
+import com.reyansh.birt.storage.StoredOutput;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,11 +52,34 @@ class ReportControllerTest {
     @MockBean
     private DynamicReportService dynamicReportService;
 
+    @MockBean
+    private ReportOutputStore outputStore;
+
+    @MockBean
+    private PreviewLane previewLane;
+
+    @MockBean
+    private ReportMetrics reportMetrics;
+
+    @MockBean
+    private ReportJobs reportJobs;
+
+    @MockBean
+    private ReportCapacity reportCapacity;
+
+    @TempDir
+    Path tempDir;
+
+    private final ReportMetrics.Stop downloadTiming = mock(ReportMetrics.Stop.class);
+
     private DynamicReportRequest validDynamicRequest;
     private ReportRequest validReportRequest;
 
     @BeforeEach
     void setUp() {
+        // Downloads are timed until the request completes
+        when(reportMetrics.start(any(), any(), any())).thenReturn(downloadTiming);
+
         // Setup valid dynamic report request
         validDynamicRequest = DynamicReportRequest.builder()
                 .libraryPath("reports/library/common.rptlibrary")
@@ -76,6 +117,27 @@ class ReportControllerTest {
         verify(dynamicReportService, times(1)).generateDynamicReport(any(DynamicReportRequest.class));
     }
 
+    @Test
+    void testGenerateDynamicReport_WithTimings() throws Exception {
+        when(dynamicReportService.generateDynamicReport(any(DynamicReportRequest.class)))
+                .thenReturn(UUID.randomUUID().toString());
+
+        mockMvc.perform(post("/api/reports/generate-dynamic")
+                        .header("X-Report-Timings", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDynamicRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timings.totalMs").exists())
+                .andExpect(header().string("Server-Timing", startsWith("total;dur=")));
+
+        mockMvc.perform(post("/api/reports/generate-dynamic")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDynamicRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timings").doesNotExist())
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+
     @Test
     void testGenerateDynamicReport_MissingLibraryPath() throws Exception {
         validDynamicRequest.setLibraryPath(null);
@@ -222,21 +284,231 @@ class ReportControllerTest {
         verify(dynamicReportService, times(1)).generateDynamicReport(any(DynamicReportRequest.class));
     }
 
+    @Test
+    void testStreamDynamicReport_WritesHeaders() throws Exception {
+        mockMvc.perform(post("/api/reports/generate-dynamic/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDynamicRequest)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/pdf"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"test-report.pdf\""))
+                .andExpect(header().exists("X-Report-Id"));
+
+        verify(dynamicReportService, times(1))
+                .streamDynamicReport(any(DynamicReportRequest.class), anyString(), any(), eq(false));
+    }
+
+    @Test
+    void testStreamDynamicReport_WithCache() throws Exception {
+        mockMvc.perform(post("/api/reports/generate-dynamic/stream")
+                        .param("cache", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDynamicRequest)))
+                .andExpect(status().isOk());
+
+        verify(dynamicReportService, times(1))
+                .streamDynamicReport(any(DynamicReportRequest.class), anyString(), any(), eq(true));
+    }
+
+    @Test
+    void testPreviewDynamicReport_RunsInPreviewLaneWithoutCaching() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<PreviewLane.Work>getArgument(0).run();
+            return null;
+        }).when(previewLane).run(any());
+
+        mockMvc.perform(post("/api/reports/preview/dynamic")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDynamicRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Report-Preview", "true"));
+
+        verify(previewLane, times(1)).run(any());
+        verify(dynamicReportService, times(1)).streamDynamicReport(
+                argThat(request -> Boolean.TRUE.equals(request.getPreview())), anyString(), any(), eq(false));
+    }
+
+    @Test
+    void testPreviewDynamicReport_LaneFull() throws Exception {
+        doThrow(new PreviewCapacityException("All preview slots are busy")).when(previewLane).run(any());
+
+        mockMvc.perform(post("/api/reports/preview/dynamic")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDynamicRequest)))
+                .andExpect(status().isTooManyRequests());
+
+        verify(dynamicReportService, never()).streamDynamicReport(any(), anyString(), any(), anyBoolean());
+    }
+
+    @Test
+    void testGenerateDynamicReport_PreviewRejected() throws Exception {
+        validDynamicRequest.setPreview(true);
+
+        mockMvc.perform(post("/api/reports/generate-dynamic")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDynamicRequest)))
+                .andExpect(status().isBadRequest());
+
+        verify(dynamicReportService, never()).generateDynamicReport(any());
+    }
+
+    @Test
+    void testStreamReport_EngineDisabled() throws Exception {
+        mockMvc.perform(post("/api/reports/generate/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validReportRequest)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testDownloadReport_NotFound() throws Exception {
+        mockMvc.perform(get("/api/reports/download/missing-report"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testDownloadReport_ServesStoredEncoding() throws Exception {
+        Path stored = Files.write(tempDir.resolve("report-1.html.gz"), new byte[]{1, 2, 3});
+        StoredOutput output = new StoredOutput("report-1", stored, OutputFormat.HTML, "gzip", false);
+        when(outputStore.resolve(eq("report-1"), eq("gzip, deflate"))).thenReturn(Optional.of(output));
+        ReportOutputStore.Lease lease = mock(ReportOutputStore.Lease.class);
+        when(outputStore.lease(output)).thenReturn(lease);
+
+        mockMvc.perform(get("/api/reports/download/report-1")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().longValue("Content-Length", 3))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"report-1.html\""))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+
+        verify(lease).close();
+        verify(downloadTiming).stop(true);
+    }
+
+    @Test
+    void testDownloadReport_ServesRangeOfStoredFile() throws Exception {
+        Path stored = Files.write(tempDir.resolve("report-3.pdf"), new byte[]{1, 2, 3});
+        StoredOutput output = new StoredOutput("report-3", stored, OutputFormat.PDF, null, false);
+        when(outputStore.resolve(eq("report-3"), isNull())).thenReturn(Optional.of(output));
+        ReportOutputStore.Lease lease = mock(ReportOutputStore.Lease.class);
+        when(outputStore.lease(output)).thenReturn(lease);
+
+        mockMvc.perform(get("/api/reports/download/report-3")
+                        .header("Range", "bytes=1-2"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 1-2/3"))
+                .andExpect(content().bytes(new byte[]{2, 3}));
+
+        verify(lease).close();
+    }
+
+    @Test
+    void testDownloadReport_LeaseNotFound() throws Exception {
+        Path stored = tempDir.resolve("report-4.pdf");
+        StoredOutput output = new StoredOutput("report-4", stored, OutputFormat.PDF, null, false);
+        when(outputStore.resolve(eq("report-4"), isNull())).thenReturn(Optional.of(output));
+        when(outputStore.lease(output)).thenThrow(new java.nio.file.NoSuchFileException(stored.toString()));
+
+        mockMvc.perform(get("/api/reports/download/report-4"))
+                .andExpect(status().isNotFound());
+
+        verify(reportMetrics, never()).start(any(), any(), any());
+    }
+
+    @Test
+    void testDownloadReport_DecodesWhenEncodingNotAccepted() throws Exception {
+        Path stored = Files.write(tempDir.resolve("report-2.html.gz"), new byte[]{1});
+        StoredOutput output = new StoredOutput("report-2", stored, OutputFormat.HTML, "gzip", true);
+        when(outputStore.resolve(eq("report-2"), isNull())).thenReturn(Optional.of(output));
+        ReportOutputStore.Lease lease = mock(ReportOutputStore.Lease.class);
+        when(outputStore.lease(output)).thenReturn(lease);
+        when(lease.openStream()).thenReturn(new java.io.ByteArrayInputStream("<html/>".getBytes()));
+
+        mockMvc.perform(get("/api/reports/download/report-2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("<html/>"));
+
+        verify(lease).close();
+    }
+
     @Test
     void testHealthCheck() throws Exception {
+        when(reportCapacity.snapshot()).thenReturn(capacity("UP", List.of(), 0.25, 75));
+
         mockMvc.perform(get("/api/reports/health"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("UP"))
-                .andExpect(jsonPath("$.service").value("BIRT Report Engine"));
+                .andExpect(jsonPath("$.service").value("BIRT Report Engine"))
+                .andExpect(jsonPath("$.capacity.ready").value(true))
+                .andExpect(jsonPath("$.capacity.weight").value(75));
+    }
+
+    @Test
+    void testHealthCheck_Saturated() throws Exception {
+        when(reportCapacity.snapshot()).thenReturn(
+                capacity("OUT_OF_SERVICE", List.of("load 0.95 at or above 0.90"), 0.95, 0));
+
+        mockMvc.perform(get("/api/reports/health"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("OUT_OF_SERVICE"))
+                .andExpect(jsonPath("$.capacity.ready").value(false))
+                .andExpect(jsonPath("$.capacity.reasons[0]").value("load 0.95 at or above 0.90"));
+    }
+
+    @Test
+    void testLivenessCheck() throws Exception {
+        mockMvc.perform(get("/api/reports/health/live"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+
+        verifyNoInteractions(reportCapacity);
+    }
+
+    @Test
+    void testGetLoad() throws Exception {
+        when(reportCapacity.snapshot()).thenReturn(capacity("UP", List.of(), 0.4, 60));
+
+        mockMvc.perform(get("/api/reports/load"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.load").value(0.4))
+                .andExpect(jsonPath("$.weight").value(60))
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    private static CapacityStats capacity(String status, List<String> reasons, double load, int weight) {
+        return new CapacityStats(status, reasons, load, weight, 5, 1200, 5, 200, 0, 0, 0, 0, 2,
+                1L << 30, 1L << 30, "disabled");
     }
 
     @Test
     void testDeleteReport() throws Exception {
         String reportId = "test-report-123";
+        when(outputStore.delete(reportId)).thenReturn(ReportOutputStore.DeleteResult.DELETED);
         
         mockMvc.perform(delete("/api/reports/" + reportId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Report deleted successfully"))
                 .andExpect(jsonPath("$.reportId").value(reportId));
     }
+
+    @Test
+    void testDeleteReport_NotFound() throws Exception {
+        when(outputStore.delete("missing")).thenReturn(ReportOutputStore.DeleteResult.NOT_FOUND);
+
+        mockMvc.perform(delete("/api/reports/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.reportId").value("missing"));
+    }
+
+    @Test
+    void testDeleteReport_InUse() throws Exception {
+        when(outputStore.delete("busy")).thenReturn(ReportOutputStore.DeleteResult.IN_USE);
+
+        mockMvc.perform(delete("/api/reports/busy"))
+                .andExpect(status().isConflict());
+    }
 }
@@ -0,0 +1,92 @@
+package com.reyansh.birt.controller;
+
+import com.reyansh.birt.exception.UploadTooLargeException;
+import com.reyansh.birt.template.TemplateDeployment;
+import com.reyansh.birt.template.TemplateDeploymentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for TemplateController
+ */
+@WebMvcTest(TemplateController.class)
+class TemplateControllerTest {
+
+    private static final String DESIGN = "<?xml version=\"1.0\"?><report xmlns=\"http://www.eclipse.org/birt/2005/design\"/>";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TemplateDeploymentService deploymentService;
+
+    @Test
+    void testUploadTemplate_Accepted() throws Exception {
+        TemplateDeployment deployment = new TemplateDeployment("deployment-1", "sales.rptdesign", DESIGN.length());
+        when(deploymentService.upload(eq("sales.rptdesign"), any(InputStream.class))).thenReturn(deployment);
+
+        mockMvc.perform(put("/api/templates/sales.rptdesign")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(DESIGN))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/templates/deployments/deployment-1"))
+                .andExpect(jsonPath("$.deploymentId").value("deployment-1"))
+                .andExpect(jsonPath("$.fileName").value("sales.rptdesign"))
+                .andExpect(jsonPath("$.status").value("VALIDATING"));
+    }
+
+    @Test
+    void testUploadTemplate_InvalidName() throws Exception {
+        when(deploymentService.upload(eq("notes.txt"), any(InputStream.class)))
+                .thenThrow(new IllegalArgumentException("Invalid template file name: notes.txt"));
+
+        mockMvc.perform(put("/api/templates/notes.txt")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("text"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testUploadTemplate_TooLarge() throws Exception {
+        when(deploymentService.upload(eq("big.rptdesign"), any(InputStream.class)))
+                .thenThrow(new UploadTooLargeException("Template exceeds 50 MB"));
+
+        mockMvc.perform(put("/api/templates/big.rptdesign")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(DESIGN))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.message").value("Upload too large"));
+    }
+
+    @Test
+    void testGetDeployment() throws Exception {
+        TemplateDeployment deployment = new TemplateDeployment("deployment-2", "common.rptlibrary", 10);
+        when(deploymentService.getDeployment("deployment-2")).thenReturn(Optional.of(deployment));
+
+        mockMvc.perform(get("/api/templates/deployments/deployment-2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fileName").value("common.rptlibrary"));
+    }
+
+    @Test
+    void testGetDeployment_NotFound() throws Exception {
+        when(deploymentService.getDeployment("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/templates/deployments/missing"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,97 @@
+package com.reyansh.birt.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reyansh.birt.model.ReportRequest;
+import com.reyansh.birt.model.ViewerDocument;
+import com.reyansh.birt.service.ReportViewerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for ViewerController
+ */
+@WebMvcTest(ViewerController.class)
+class ViewerControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ReportViewerService viewerService;
+
+    private String request(String format) throws Exception {
+        return objectMapper.writeValueAsString(
+                ReportRequest.builder().reportName("sales-report").outputFormat(format).build());
+    }
+
+    @Test
+    void testOpenViewer_Created() throws Exception {
+        when(viewerService.open(any(ReportRequest.class))).thenReturn(ViewerDocument.builder()
+                .documentId("doc-1")
+                .reportName("sales-report")
+                .pageCount(400)
+                .firstPageUrl("/api/reports/doc-1/pages/1")
+                .build());
+
+        mockMvc.perform(post("/api/reports/viewer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request("html")))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/reports/doc-1/pages/1"))
+                .andExpect(jsonPath("$.pageCount").value(400));
+    }
+
+    @Test
+    void testOpenViewer_RejectsNonHtmlFormat() throws Exception {
+        mockMvc.perform(post("/api/reports/viewer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request("pdf")))
+                .andExpect(status().isBadRequest());
+
+        verify(viewerService, never()).open(any());
+    }
+
+    @Test
+    void testGetPage_Html() throws Exception {
+        when(viewerService.getPage("doc-1", 3))
+                .thenReturn(Optional.of("<html>page 3</html>".getBytes(StandardCharsets.UTF_8)));
+
+        mockMvc.perform(get("/api/reports/doc-1/pages/3"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andExpect(content().string("<html>page 3</html>"));
+    }
+
+    @Test
+    void testGetPage_UnknownDocument() throws Exception {
+        when(viewerService.getPage("missing", 1)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/reports/missing/pages/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCloseViewer() throws Exception {
+        when(viewerService.close("doc-1")).thenReturn(true);
+
+        mockMvc.perform(delete("/api/reports/viewer/doc-1"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/reports/viewer/doc-2"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,38 @@
+package com.reyansh.birt.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ColumnSelection
+ */
+class ColumnSelectionTest {
+
+    @Test
+    void testRewrite_Projection() {
+        ColumnSelection selection = ColumnSelection.of(List.of("product", "amount", "PRODUCT"));
+
+        assertEquals("select product, amount from (\nselect * from sales -- all rows\n) q",
+                selection.rewrite("  select * from sales -- all rows;  "));
+    }
+
+    @Test
+    void testRewrite_GroupBy() {
+        ColumnSelection selection = ColumnSelection.groupBy("region", List.of("quantity", "amount"));
+
+        assertEquals("select region, sum(quantity) as quantity, sum(amount) as amount from (\n"
+                        + "select * from sales\n) q group by region",
+                selection.rewrite("select * from sales"));
+    }
+
+    @Test
+    void testRewrite_RefusesUnsafeInput() {
+        assertNull(ColumnSelection.of(List.of("amount")).rewrite("with s as (select 1) select * from s"));
+        assertNull(ColumnSelection.of(List.of("amount")).rewrite("select 1; delete from sales"));
+        assertNull(ColumnSelection.of(List.of("amount) from x --")).rewrite("select * from sales"));
+        assertNull(ColumnSelection.of(List.of("\"Order Total\"")).rewrite("select * from sales"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.reyansh.birt.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ConnectionPools
+ */
+class ConnectionPoolsTest {
+
+    private static final String URL = "jdbc:h2:mem:pools;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPools pools;
+
+    @BeforeEach
+    void setUp() {
+        pools = new ConnectionPools(3, "Small=1", 300, 600000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pools.close();
+    }
+
+    private static LibraryDefinition.DataSourceDefinition dataSource(String name) {
+        return new LibraryDefinition.DataSourceDefinition(name, "org.h2.Driver", URL, "sa", "");
+    }
+
+    @Test
+    void testGetConnection_SharedPoolForSameDefinition() throws Exception {
+        try (Connection first = pools.getConnection(dataSource("Warehouse"));
+             Connection second = pools.getConnection(dataSource("WarehouseCopy"))) {
+            assertFalse(first.isClosed());
+            assertFalse(second.isClosed());
+
+            assertEquals(1, pools.getStats().size());
+            PoolStats stats = pools.getStats().get(0);
+            assertEquals("report-Warehouse", stats.name());
+            assertEquals(3, stats.maxSize());
+            assertEquals(2, stats.active());
+        }
+
+        assertEquals(0, pools.getStats().get(0).active());
+    }
+
+    @Test
+    void testGetConnection_PerSourceMaxSizeAndTimeout() throws Exception {
+        LibraryDefinition.DataSourceDefinition small =
+                new LibraryDefinition.DataSourceDefinition("Small", "org.h2.Driver", "jdbc:h2:mem:small", "sa", "");
+
+        try (Connection ignored = pools.getConnection(small)) {
+            assertThrows(SQLTransientConnectionException.class, () -> pools.getConnection(small));
+
+            PoolStats stats = pools.getStats().get(0);
+            assertEquals(1, stats.maxSize());
+            assertEquals(1.0, stats.saturation());
+            assertEquals(1, stats.timeouts());
+        }
+    }
+
+    @Test
+    void testGetConnection_MissingUrl() {
+        assertThrows(IllegalArgumentException.class, () -> pools.getConnection(
+                new LibraryDefinition.DataSourceDefinition("Broken", null, null, null, null)));
+    }
+}
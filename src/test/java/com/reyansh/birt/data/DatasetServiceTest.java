@@ -0,0 +1,175 @@
+package com.reyansh.birt.data;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.metrics.ReportTimings;
+import com.reyansh.birt.model.TimingBreakdown;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for DatasetService
+ */
+class DatasetServiceTest {
+
+    private static final String URL = "jdbc:h2:mem:datasets;DB_CLOSE_DELAY=-1";
+
+    private static final String LIBRARY = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <library xmlns="http://www.eclipse.org/birt/2005/design" version="3.2.23" id="1">
+                <data-sources>
+                    <oda-data-source extensionID="org.eclipse.birt.report.data.oda.jdbc" name="Warehouse" id="2">
+                        <property name="odaDriverClass">org.h2.Driver</property>
+                        <property name="odaURL">%s</property>
+                        <property name="odaUser">sa</property>
+                    </oda-data-source>
+                </data-sources>
+                <data-sets>
+                    <oda-data-set extensionID="org.eclipse.birt.report.data.oda.jdbc.JdbcSelectDataSet" name="Orders" id="3">
+                        <list-property name="parameters">
+                            <structure>
+                                <property name="name">param_1</property>
+                                <property name="paramName">minQuantity</property>
+                                <property name="position">1</property>
+                                <expression name="defaultValue" type="constant">0</expression>
+                            </structure>
+                        </list-property>
+                        <property name="dataSource">Warehouse</property>
+                        <xml-property name="queryText"><![CDATA[select region, product, quantity from orders where quantity > ?]]></xml-property>
+                    </oda-data-set>
+                </data-sets>
+            </library>
+            """.formatted(URL);
+
+    @TempDir
+    Path tempDir;
+
+    private ConnectionPools connectionPools;
+
+    private DatasetService datasetService;
+
+    private String libraryPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists orders");
+            statement.execute("create table orders (region varchar(10), product varchar(20), quantity int)");
+            statement.execute("insert into orders values ('West', 'Widget', 3), ('East', 'Gadget', 4), "
+                    + "('West', 'Gadget', 5)");
+        }
+        libraryPath = Files.writeString(tempDir.resolve("warehouse.rptlibrary"), LIBRARY).toString();
+
+        connectionPools = new ConnectionPools(2, "", 30000, 600000);
+        ResultCache resultCache = new ResultCache(new CacheRegistry(), tempDir.resolve("cache").toString(),
+                16, 16, 0, "");
+        resultCache.init();
+        datasetService = new DatasetService(connectionPools, resultCache, new RowPrefetcher(0, 16), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionPools.close();
+    }
+
+    @Test
+    void testOpen_BindsParameters() throws Exception {
+        List<Object[]> rows = readAll(datasetService.open(libraryPath, null, "Orders", Map.of("minQuantity", 3)));
+
+        assertEquals(2, rows.size());
+        assertEquals(0, readAll(datasetService.open(libraryPath, null, "Orders", Map.of("minQuantity", 5))).size());
+        assertEquals(3, readAll(datasetService.open(libraryPath, null, "Orders", Map.of())).size());
+    }
+
+    @Test
+    void testOpen_SelectsOnlyRequestedColumns() throws Exception {
+        try (RowSource source = datasetService.open(libraryPath, null, "Orders", Map.of(),
+                ColumnSelection.of(List.of("product")))) {
+            assertEquals(List.of("PRODUCT"), source.getColumnNames());
+        }
+    }
+
+    @Test
+    void testOpen_GroupsInDatabase() throws Exception {
+        RowSource source = datasetService.open(libraryPath, null, "Orders", Map.of(),
+                ColumnSelection.groupBy("region", List.of("quantity")));
+        assertEquals(List.of("REGION", "QUANTITY"), source.getColumnNames());
+        List<Object[]> rows = readAll(source);
+
+        rows.sort((a, b) -> a[0].toString().compareTo(b[0].toString()));
+        assertEquals("East", rows.get(0)[0]);
+        assertEquals(4L, ((Number) rows.get(0)[1]).longValue());
+        assertEquals(8L, ((Number) rows.get(1)[1]).longValue());
+    }
+
+    @Test
+    void testOpen_CapsRowsInDatabase() throws Exception {
+        List<Object[]> rows = readAll(datasetService.open(libraryPath, null, "Orders", Map.of(),
+                ColumnSelection.of(List.of("product")).withMaxRows(2)));
+
+        assertEquals(2, rows.size());
+        // The cap only applies to the selection that carries it
+        assertEquals(3, readAll(datasetService.open(libraryPath, null, "Orders", Map.of(),
+                ColumnSelection.of(List.of("product")))).size());
+    }
+
+    @Test
+    void testOpen_RecordsFetchTimings() throws Exception {
+        TimingBreakdown breakdown;
+        try (ReportTimings timings = ReportTimings.start()) {
+            readAll(datasetService.open(libraryPath, null, "Orders", Map.of("minQuantity", 3)));
+            breakdown = timings.toBreakdown();
+        }
+
+        assertEquals(1, breakdown.getDataSets().size());
+        assertEquals("Orders", breakdown.getDataSets().get(0).getName());
+        assertEquals(2, breakdown.getDataSets().get(0).getRows());
+    }
+
+    @Test
+    void testOpen_RejectedRewriteRunsDataSetUnchanged() throws Exception {
+        RowSource source = datasetService.open(libraryPath, null, "Orders", Map.of(),
+                ColumnSelection.of(List.of("missing")));
+
+        assertEquals(List.of("REGION", "PRODUCT", "QUANTITY"), source.getColumnNames());
+        assertEquals(3, readAll(source).size());
+    }
+
+    @Test
+    void testIsRejection_OnlyQueryErrors() {
+        assertTrue(DatasetService.isRejection(new java.sql.SQLSyntaxErrorException("Column not found")));
+        assertTrue(DatasetService.isRejection(new java.sql.SQLException("ORDER BY in derived table", "42000")));
+        assertFalse(DatasetService.isRejection(new java.sql.SQLTimeoutException("Query timed out", "HYT00")));
+        assertFalse(DatasetService.isRejection(new java.sql.SQLException("Connection reset", "08S01")));
+        assertFalse(DatasetService.isRejection(new java.sql.SQLException("Lock wait timeout", "40001")));
+        assertFalse(DatasetService.isRejection(new java.sql.SQLException("Unknown failure")));
+    }
+
+    private static List<Object[]> readAll(RowSource source) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        try (source) {
+            int columns = source.getColumnNames().size();
+            while (source.next()) {
+                Object[] row = new Object[columns];
+                for (int i = 0; i < columns; i++) {
+                    row[i] = source.getValue(i);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,97 @@
+package com.reyansh.birt.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LibraryDefinition
+ */
+class LibraryDefinitionTest {
+
+    private static final String LIBRARY = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <library xmlns="http://www.eclipse.org/birt/2005/design" version="3.2.23" id="1">
+                <data-sources>
+                    <oda-data-source extensionID="org.eclipse.birt.report.data.oda.jdbc" name="SalesDB" id="4">
+                        <list-property name="privateDriverProperties">
+                            <ex-property>
+                                <name>metadataBidiFormatStr</name>
+                                <value>ILYNN</value>
+                            </ex-property>
+                        </list-property>
+                        <property name="odaDriverClass">org.postgresql.Driver</property>
+                        <property name="odaURL">jdbc:postgresql://db/sales</property>
+                        <property name="odaUser">report</property>
+                        <encrypted-property name="odaPassword" encryptionID="base64">c2VjcmV0</encrypted-property>
+                    </oda-data-source>
+                </data-sources>
+                <data-sets>
+                    <oda-data-set extensionID="org.eclipse.birt.report.data.oda.jdbc.JdbcSelectDataSet" name="Orders" id="5">
+                        <structure name="cachedMetaData">
+                            <list-property name="resultSet">
+                                <structure>
+                                    <property name="position">1</property>
+                                    <property name="name">ID</property>
+                                </structure>
+                            </list-property>
+                        </structure>
+                        <list-property name="parameters">
+                            <structure>
+                                <property name="name">param_2</property>
+                                <property name="paramName">region</property>
+                                <property name="position">2</property>
+                                <property name="isInput">true</property>
+                            </structure>
+                            <structure>
+                                <property name="name">param_1</property>
+                                <property name="position">1</property>
+                                <expression name="defaultValue" type="javascript">0</expression>
+                                <property name="isInput">true</property>
+                            </structure>
+                        </list-property>
+                        <property name="dataSource">SalesDB</property>
+                        <xml-property name="queryText"><![CDATA[select id, amount from orders where amount > ? and region = ?]]></xml-property>
+                    </oda-data-set>
+                </data-sets>
+            </library>
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testParse() throws Exception {
+        Path library = Files.writeString(tempDir.resolve("sales.rptlibrary"), LIBRARY);
+
+        LibraryDefinition definition = LibraryDefinition.parse(library);
+
+        LibraryDefinition.DataSourceDefinition dataSource = definition.getDataSource("SalesDB").orElseThrow();
+        assertEquals("org.postgresql.Driver", dataSource.driverClass());
+        assertEquals("jdbc:postgresql://db/sales", dataSource.url());
+        assertEquals("report", dataSource.user());
+        assertEquals("secret", dataSource.password());
+
+        LibraryDefinition.DataSetDefinition dataSet = definition.getDataSet("Orders").orElseThrow();
+        assertEquals("SalesDB", dataSet.dataSourceName());
+        assertEquals("select id, amount from orders where amount > ? and region = ?", dataSet.queryText());
+        assertEquals(List.of(
+                new LibraryDefinition.ParameterDefinition("param_1", null, 1, "0"),
+                new LibraryDefinition.ParameterDefinition("param_2", "region", 2, null)), dataSet.parameters());
+        assertEquals("region", dataSet.parameters().get(1).boundName());
+        assertTrue(definition.getDataSet("Missing").isEmpty());
+    }
+
+    @Test
+    void testParse_InvalidXml() throws Exception {
+        Path library = Files.writeString(tempDir.resolve("broken.rptlibrary"), "<library><data-sources>");
+
+        assertThrows(IOException.class, () -> LibraryDefinition.parse(library));
+    }
+}
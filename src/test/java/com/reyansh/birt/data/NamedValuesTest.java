@@ -0,0 +1,27 @@
+package com.reyansh.birt.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for NamedValues
+ */
+class NamedValuesTest {
+
+    @Test
+    void testParse() {
+        assertEquals(Map.of("Warehouse", 20, "Crm", 5), NamedValues.parse("sizes", "Warehouse=20, Crm=5"));
+        assertTrue(NamedValues.parse("sizes", "").isEmpty());
+        assertTrue(NamedValues.parse("sizes", null).isEmpty());
+    }
+
+    @Test
+    void testParse_InvalidEntry() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> NamedValues.parse("report.data.pool.max-sizes", "Warehouse"));
+        assertTrue(e.getMessage().contains("report.data.pool.max-sizes"));
+    }
+}
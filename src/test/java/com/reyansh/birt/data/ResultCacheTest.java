@@ -0,0 +1,143 @@
+package com.reyansh.birt.data;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ResultCache
+ */
+class ResultCacheTest {
+
+    private static final ResultCache.ResultKey KEY = new ResultCache.ResultKey("jdbc:h2:mem:test", "sa",
+            "select * from orders where id = ?", List.of(1), 0);
+
+    @TempDir
+    Path tempDir;
+
+    private ResultCache resultCache;
+
+    private CacheRegistry cacheRegistry;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cacheRegistry = new CacheRegistry();
+        resultCache = new ResultCache(cacheRegistry, tempDir.toString(), 1, 1, 60, "Live=0");
+        resultCache.init();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testOpen_SecondReadServedFromCache() throws Exception {
+        assertEquals(2, readAll(resultCache.open("Orders", "SalesDB", KEY, loader())).size());
+        List<Object[]> rows = readAll(resultCache.open("Orders", "SalesDB", KEY, loader()));
+
+        assertEquals(1, loads.get());
+        assertEquals(2, rows.size());
+        assertEquals(1, cacheRegistry.getStats().get(0).hits());
+        assertEquals("Widget", rows.get(0)[0]);
+        assertEquals(new BigDecimal("12.50"), rows.get(0)[1]);
+        assertEquals(java.sql.Date.valueOf(LocalDate.of(2024, 3, 1)), rows.get(0)[2]);
+        assertNull(rows.get(1)[1]);
+        assertEquals(7L, rows.get(1)[3]);
+    }
+
+    @Test
+    void testOpen_PartiallyReadResultNotCached() throws Exception {
+        try (RowSource source = resultCache.open("Orders", "SalesDB", KEY, loader())) {
+            assertTrue(source.next());
+        }
+        readAll(resultCache.open("Orders", "SalesDB", KEY, loader()));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testOpen_DifferentParameterValuesLoadedSeparately() throws Exception {
+        ResultCache.ResultKey other = new ResultCache.ResultKey(KEY.url(), KEY.user(), KEY.queryText(),
+                Arrays.asList((Object) null), 0);
+
+        readAll(resultCache.open("Orders", "SalesDB", KEY, loader()));
+        readAll(resultCache.open("Orders", "SalesDB", other, loader()));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testOpen_ZeroTtlBypassesCache() throws Exception {
+        readAll(resultCache.open("Live", "SalesDB", KEY, loader()));
+        readAll(resultCache.open("Live", "SalesDB", KEY, loader()));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cacheRegistry.getStats().get(0).entries());
+    }
+
+    @Test
+    void testOpen_ResultLargerThanEntryLimitNotCached() throws Exception {
+        String large = "x".repeat(600 * 1024);
+        Callable<RowSource> loader = () -> {
+            loads.incrementAndGet();
+            return new ListRowSource(List.of("TEXT"), List.of(new Object[]{large}, new Object[]{large}));
+        };
+
+        readAll(resultCache.open("Orders", "SalesDB", KEY, loader));
+        List<Object[]> rows = readAll(resultCache.open("Orders", "SalesDB", KEY, loader));
+
+        assertEquals(2, loads.get());
+        assertEquals(large, rows.get(1)[0]);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testInvalidate() throws Exception {
+        readAll(resultCache.open("Orders", "SalesDB", KEY, loader()));
+
+        assertEquals(0, resultCache.invalidate("Customers", null));
+        assertEquals(1, resultCache.invalidate("Orders", null));
+        readAll(resultCache.open("Orders", "SalesDB", KEY, loader()));
+
+        assertEquals(2, loads.get());
+    }
+
+    private Callable<RowSource> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return new ListRowSource(List.of("PRODUCT", "AMOUNT", "ORDERED", "QUANTITY"), List.of(
+                    new Object[]{"Widget", new BigDecimal("12.50"), java.sql.Date.valueOf(LocalDate.of(2024, 3, 1)), 3L},
+                    new Object[]{"Gadget", null, java.sql.Date.valueOf(LocalDate.of(2024, 3, 2)), 7L}));
+        };
+    }
+
+    private static List<Object[]> readAll(RowSource source) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        try (source) {
+            int columns = source.getColumnNames().size();
+            while (source.next()) {
+                Object[] row = new Object[columns];
+                for (int i = 0; i < columns; i++) {
+                    row[i] = source.getValue(i);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
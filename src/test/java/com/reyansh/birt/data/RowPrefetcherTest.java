@@ -0,0 +1,170 @@
+package com.reyansh.birt.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RowPrefetcher
+ */
+class RowPrefetcherTest {
+
+    private final RowPrefetcher rowPrefetcher = new RowPrefetcher(2, 0);
+
+    @AfterEach
+    void tearDown() {
+        rowPrefetcher.destroy();
+    }
+
+    @Test
+    void testPrefetch_DeliversAllRowsInOrder() throws Exception {
+        CountingRowSource source = new CountingRowSource(10_000, -1);
+
+        RowPrefetcher buffered = new RowPrefetcher(2, 1);
+        long sum = 0;
+        int count = 0;
+        try (RowSource rows = buffered.prefetch(source, 100)) {
+            assertEquals(List.of("ID", "NAME"), rows.getColumnNames());
+            while (rows.next()) {
+                assertEquals(count, rows.getValue(0));
+                assertEquals("row-" + count, rows.getValue(1));
+                sum += (Integer) rows.getValue(0);
+                count++;
+            }
+            assertFalse(rows.next());
+        } finally {
+            buffered.destroy();
+        }
+
+        assertEquals(10_000, count);
+        assertEquals(49_995_000L, sum);
+        assertTrue(source.closed.get());
+    }
+
+    @Test
+    void testPrefetch_ProducerWaitsForConsumer() throws Exception {
+        CountingRowSource source = new CountingRowSource(1_000_000, -1);
+
+        try (RowSource rows = rowPrefetcher.prefetch(source, 10)) {
+            assertTrue(rows.next());
+            Thread.sleep(200);
+
+            // With a zero budget only the batch being consumed and the one being filled exist
+            assertTrue(source.read.get() <= 2, "read ahead " + source.read.get() + " rows");
+        }
+
+        assertTrue(source.closed.get());
+        assertTrue(source.read.get() < 1_000_000);
+    }
+
+    @Test
+    void testPrefetch_PropagatesFailure() throws Exception {
+        CountingRowSource source = new CountingRowSource(100, 50);
+
+        try (RowSource rows = rowPrefetcher.prefetch(source, 10)) {
+            SQLException failure = assertThrows(SQLException.class, () -> {
+                while (rows.next()) {
+                    // Drain
+                }
+            });
+            assertEquals("Connection reset", failure.getMessage());
+        }
+
+        assertTrue(source.closed.get());
+    }
+
+    @Test
+    void testPrefetch_CloseCancelsBlockedFetch() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        RowSource slowQuery = new ListRowSource(List.of("ID"), List.of()) {
+            @Override
+            public boolean next() {
+                fetching.countDown();
+                try {
+                    // A query that only returns once it is cancelled
+                    assertTrue(cancelled.await(30, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Query cancelled");
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.countDown();
+            }
+        };
+
+        RowSource rows = rowPrefetcher.prefetch(slowQuery, 10);
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), rows::close);
+        assertEquals(0, cancelled.getCount());
+    }
+
+    @Test
+    void testPrefetch_DisabledReturnsSource() {
+        RowSource source = new ListRowSource(List.of("ID"), List.of());
+
+        assertSame(source, new RowPrefetcher(0, 16).prefetch(source, 100));
+    }
+
+    /**
+     * Generates numbered rows, optionally failing at a given row
+     */
+    private static class CountingRowSource implements RowSource {
+
+        private final int rows;
+
+        private final int failAt;
+
+        private final AtomicInteger read = new AtomicInteger();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private int current = -1;
+
+        CountingRowSource(int rows, int failAt) {
+            this.rows = rows;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public List<String> getColumnNames() {
+            return List.of("ID", "NAME");
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            if (current + 1 == failAt) {
+                throw new SQLException("Connection reset");
+            }
+            if (current + 1 >= rows) {
+                return false;
+            }
+            current++;
+            read.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public Object getValue(int index) {
+            return index == 0 ? current : "row-" + current;
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+}
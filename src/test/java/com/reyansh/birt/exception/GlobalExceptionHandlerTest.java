@@ -108,6 +108,35 @@ class GlobalExceptionHandlerTest {
         assertFalse((Boolean) body.get("success"));
     }
 
+    @Test
+    void testHandleUploadTooLargeException() {
+        UploadTooLargeException exception = new UploadTooLargeException("Template exceeds 50 MB");
+
+        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleUploadTooLargeException(exception);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+        
+        Map<String, Object> body = response.getBody();
+        assertNotNull(body);
+        assertFalse((Boolean) body.get("success"));
+        assertEquals("Upload too large", body.get("message"));
+        assertEquals("Template exceeds 50 MB", body.get("error"));
+    }
+
+    @Test
+    void testHandlePreviewCapacityException() {
+        PreviewCapacityException exception = new PreviewCapacityException("All preview slots are busy");
+
+        ResponseEntity<Map<String, Object>> response = exceptionHandler.handlePreviewCapacityException(exception);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        Map<String, Object> body = response.getBody();
+        assertNotNull(body);
+        assertFalse((Boolean) body.get("success"));
+        assertEquals("All preview slots are busy", body.get("error"));
+    }
+
     @Test
     void testHandleGenericException() {
         Exception exception = new Exception("Something went wrong");
@@ -0,0 +1,83 @@
+package com.reyansh.birt.export;
+
+import com.reyansh.birt.data.ListRowSource;
+import com.reyansh.birt.model.DynamicReportRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CsvTableExporter
+ */
+class CsvTableExporterTest {
+
+    private final CsvTableExporter exporter = new CsvTableExporter();
+
+    private static String export(List<DynamicReportRequest.TableConfig> tables, List<Object[]> rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CsvTableExporter().export(tables,
+                table -> new ListRowSource(List.of("NAME", "AMOUNT", "SOLD_ON"), rows), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static DynamicReportRequest.TableConfig table(List<DynamicReportRequest.ColumnConfig> columns) {
+        return DynamicReportRequest.TableConfig.builder().datasetName("Sales").columns(columns).build();
+    }
+
+    @Test
+    void testExport_FormatsColumns() throws Exception {
+        List<DynamicReportRequest.ColumnConfig> columns = List.of(
+                DynamicReportRequest.ColumnConfig.builder().name("name").label("Name").build(),
+                DynamicReportRequest.ColumnConfig.builder().name("amount").label("Amount").format("0.00").build(),
+                DynamicReportRequest.ColumnConfig.builder().name("sold_on").label("Sold On").format("dd/MM/yyyy").build());
+        List<Object[]> rows = List.<Object[]>of(
+                new Object[]{"Widget", new BigDecimal("12.5"), LocalDate.of(2024, 3, 1)},
+                new Object[]{null, 3, null});
+
+        assertEquals("Name,Amount,Sold On\r\nWidget,12.50,01/03/2024\r\n,3.00,\r\n",
+                export(List.of(table(columns)), rows));
+    }
+
+    @Test
+    void testExport_QuotesSpecialCharacters() throws Exception {
+        List<Object[]> rows = List.<Object[]>of(new Object[]{"Say \"hi\", then\nleave", 1, null});
+
+        String csv = export(List.of(table(null)), rows);
+
+        assertEquals("NAME,AMOUNT,SOLD_ON\r\n\"Say \"\"hi\"\", then\nleave\",1,\r\n", csv);
+    }
+
+    @Test
+    void testExport_MultipleTablesSeparatedByEmptyLine() throws Exception {
+        List<Object[]> rows = List.<Object[]>of(new Object[]{"Widget", 1, null});
+
+        String csv = export(List.of(table(null), table(null)), rows);
+
+        assertEquals("NAME,AMOUNT,SOLD_ON\r\nWidget,1,\r\n\r\nNAME,AMOUNT,SOLD_ON\r\nWidget,1,\r\n", csv);
+    }
+
+    @Test
+    void testExport_ManyRows() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(new Object[]{"row" + i, i, null});
+        }
+
+        String csv = export(List.of(table(null)), rows);
+
+        assertEquals(10_001, csv.split("\r\n").length);
+        assertTrue(csv.endsWith("row9999,9999,\r\n"));
+    }
+
+    @Test
+    void testGetFormat() {
+        assertEquals("csv", exporter.getFormat().getExtension());
+    }
+}
@@ -0,0 +1,91 @@
+package com.reyansh.birt.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reyansh.birt.data.ListRowSource;
+import com.reyansh.birt.model.DynamicReportRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for NdjsonTableExporter
+ */
+class NdjsonTableExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static String export(List<DynamicReportRequest.ColumnConfig> columns, List<Object[]> rows)
+            throws Exception {
+        DynamicReportRequest.TableConfig table = DynamicReportRequest.TableConfig.builder()
+                .datasetName("Sales")
+                .columns(columns)
+                .build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new NdjsonTableExporter().export(List.of(table),
+                source -> new ListRowSource(List.of("NAME", "AMOUNT", "SOLD_AT", "ACTIVE"), rows), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testExport_OneObjectPerLine() throws Exception {
+        List<Object[]> rows = List.<Object[]>of(
+                new Object[]{"Widget", new BigDecimal("12.50"), null, true},
+                new Object[]{"Gadget", 7L, null, false});
+
+        String ndjson = export(null, rows);
+        String[] lines = ndjson.split("\n");
+
+        assertTrue(ndjson.endsWith("\n"));
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Widget", first.get("NAME").asText());
+        assertTrue(first.get("AMOUNT").isNumber());
+        assertEquals(12.5, first.get("AMOUNT").doubleValue());
+        assertTrue(first.get("SOLD_AT").isNull());
+        assertTrue(first.get("ACTIVE").asBoolean());
+        assertEquals(7, objectMapper.readTree(lines[1]).get("AMOUNT").asLong());
+    }
+
+    @Test
+    void testExport_UsesLabelsAndFormats() throws Exception {
+        List<DynamicReportRequest.ColumnConfig> columns = List.of(
+                DynamicReportRequest.ColumnConfig.builder().name("amount").label("Amount").format("#,##0.00").build(),
+                DynamicReportRequest.ColumnConfig.builder().name("sold_at").label("Sold").dataType("date").build(),
+                DynamicReportRequest.ColumnConfig.builder().name("name").label("Code").dataType("string").build());
+        List<Object[]> rows = List.<Object[]>of(new Object[]{
+                "00042", 1234.5, Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 10, 30)), true});
+
+        JsonNode row = objectMapper.readTree(export(columns, rows).trim());
+
+        assertEquals("1,234.50", row.get("Amount").asText());
+        assertTrue(row.get("Amount").isTextual());
+        assertEquals("2024-03-01", row.get("Sold").asText());
+        assertEquals("00042", row.get("Code").asText());
+        assertNull(row.get("NAME"));
+    }
+
+    @Test
+    void testExport_IntegerColumnsDropTheFraction() throws Exception {
+        List<DynamicReportRequest.ColumnConfig> columns = List.of(
+                DynamicReportRequest.ColumnConfig.builder().name("amount").dataType("integer").build(),
+                DynamicReportRequest.ColumnConfig.builder().name("name").dataType("integer").build());
+        String ndjson = export(columns, List.<Object[]>of(
+                new Object[]{"first", 12.7, null, true},
+                new Object[]{"second", new BigDecimal("123456789012345678901.9"), null, true}));
+        String[] lines = ndjson.split("\n");
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertTrue(first.get("amount").isIntegralNumber());
+        assertEquals(12, first.get("amount").longValue());
+        assertEquals("first", first.get("name").asText());
+        assertEquals("123456789012345678901", objectMapper.readTree(lines[1]).get("amount").bigIntegerValue().toString());
+    }
+}
@@ -0,0 +1,118 @@
+package com.reyansh.birt.export;
+
+import com.reyansh.birt.data.ListRowSource;
+import com.reyansh.birt.model.DynamicReportRequest;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for XlsxTableExporter
+ */
+class XlsxTableExporterTest {
+
+    private static final List<String> COLUMNS = List.of("REGION", "AMOUNT", "SOLD_ON");
+
+    private static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Region " + i, i * 1.5, LocalDate.of(2024, 1, 1).plusDays(i)});
+        }
+        return rows;
+    }
+
+    private static DynamicReportRequest.TableConfig table(String title, List<DynamicReportRequest.ColumnConfig> columns) {
+        return DynamicReportRequest.TableConfig.builder()
+                .datasetName("SalesDataset")
+                .title(title)
+                .columns(columns)
+                .build();
+    }
+
+    private static XSSFWorkbook export(XlsxTableExporter exporter, List<DynamicReportRequest.TableConfig> tables,
+                                       int rowCount) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(tables, table -> new ListRowSource(COLUMNS, rows(rowCount)), out);
+        return new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    void testExport_HonorsColumnConfig() throws Exception {
+        List<DynamicReportRequest.ColumnConfig> columns = List.of(
+                DynamicReportRequest.ColumnConfig.builder().name("amount").label("Amount")
+                        .width(140).dataType("decimal").format("#,##0.00").alignment("right").build(),
+                DynamicReportRequest.ColumnConfig.builder().name("region").label("Region").build(),
+                DynamicReportRequest.ColumnConfig.builder().name("sold_on").label("Sold On").dataType("date").build());
+
+        try (XSSFWorkbook workbook = export(new XlsxTableExporter(10), List.of(table("Sales", columns)), 3)) {
+            Sheet sheet = workbook.getSheet("Sales");
+            assertEquals("Amount", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("Region", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals(XlsxTableExporter.widthUnits(140), sheet.getColumnWidth(0));
+
+            assertEquals(3.0, sheet.getRow(3).getCell(0).getNumericCellValue());
+            assertEquals("#,##0.00", sheet.getRow(3).getCell(0).getCellStyle().getDataFormatString());
+            assertEquals(HorizontalAlignment.RIGHT, sheet.getRow(3).getCell(0).getCellStyle().getAlignment());
+            assertEquals("Region 2", sheet.getRow(3).getCell(1).getStringCellValue());
+            assertEquals(CellType.NUMERIC, sheet.getRow(3).getCell(2).getCellType());
+            assertTrue(DateUtil.isCellDateFormatted(sheet.getRow(3).getCell(2)));
+            assertEquals(3, sheet.getLastRowNum());
+        }
+    }
+
+    @Test
+    void testExport_AllColumnsWhenNoneConfigured() throws Exception {
+        try (XSSFWorkbook workbook = export(new XlsxTableExporter(10), List.of(table("Sales", null)), 1)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("REGION", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("SOLD_ON", sheet.getRow(0).getCell(2).getStringCellValue());
+        }
+    }
+
+    @Test
+    void testExport_RowsBeyondWindowAndSheetLimit() throws Exception {
+        // Window of 5 rows and 100 rows per sheet (header included)
+        try (XSSFWorkbook workbook = export(new XlsxTableExporter(5, 100), List.of(table("Sales", null)), 250)) {
+            assertEquals(3, workbook.getNumberOfSheets());
+            assertEquals("Sales", workbook.getSheetName(0));
+            assertEquals("Sales (2)", workbook.getSheetName(1));
+            assertEquals(99, workbook.getSheetAt(0).getLastRowNum());
+            assertEquals("REGION", workbook.getSheetAt(1).getRow(0).getCell(0).getStringCellValue());
+            assertEquals("Region 99", workbook.getSheetAt(1).getRow(1).getCell(0).getStringCellValue());
+            assertEquals(52, workbook.getSheetAt(2).getLastRowNum());
+        }
+    }
+
+    @Test
+    void testExport_UnknownColumn() {
+        List<DynamicReportRequest.ColumnConfig> columns = List.of(
+                DynamicReportRequest.ColumnConfig.builder().name("missing").build());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> export(new XlsxTableExporter(10), List.of(table("Sales", columns)), 1));
+    }
+
+    @Test
+    void testUniqueSheetName() {
+        Set<String> used = new HashSet<>();
+
+        assertEquals("Sales", XlsxTableExporter.uniqueSheetName(used, "Sales"));
+        assertEquals("Sales (2)", XlsxTableExporter.uniqueSheetName(used, "sales"));
+        assertEquals("Sheet", XlsxTableExporter.uniqueSheetName(used, null));
+        assertEquals(31, XlsxTableExporter.uniqueSheetName(used, "x".repeat(40)).length());
+        assertEquals(31, XlsxTableExporter.uniqueSheetName(used, "x".repeat(40)).length());
+    }
+}
@@ -0,0 +1,29 @@
+package com.reyansh.birt.health;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ReportCapacityHealthIndicator
+ */
+class ReportCapacityHealthIndicatorTest {
+
+    @Test
+    void testReportsCapacityStatus() {
+        ReportCapacity reportCapacity = mock(ReportCapacity.class);
+        CapacityStats stats = new CapacityStats("OUT_OF_SERVICE", List.of("load 0.95 at or above 0.90"), 0.95, 0,
+                180, 800, 190, 200, 0, 0, 0, 0, 2, 1L << 30, 1L << 30, "running");
+        when(reportCapacity.snapshot()).thenReturn(stats);
+
+        Health health = new ReportCapacityHealthIndicator(reportCapacity).health();
+
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertSame(stats, health.getDetails().get("capacity"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.reyansh.birt.health;
+
+import com.reyansh.birt.metrics.SlowReportWatchdog;
+import com.reyansh.birt.service.PreviewLane;
+import com.reyansh.birt.storage.ReportOutputStore;
+import com.reyansh.birt.storage.ScratchStorage;
+import org.eclipse.birt.report.engine.api.IReportEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ReportCapacity
+ */
+class ReportCapacityTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SlowReportWatchdog watchdog;
+
+    private ReportJobs reportJobs;
+
+    private RequestThreads requestThreads;
+
+    private PreviewLane previewLane;
+
+    private ReportOutputStore outputStore;
+
+    private ScratchStorage scratchStorage;
+
+    private final List<ReportJobs.Job> running = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        watchdog = new SlowReportWatchdog(false, 60000, 50, 5, tempDir.resolve("slow").toString());
+        reportJobs = new ReportJobs(watchdog);
+        requestThreads = new RequestThreads(4);
+        previewLane = new PreviewLane(200, 3, 2, 0);
+        outputStore = new ReportOutputStore(tempDir.resolve("output").toString(), true, 3);
+        scratchStorage = new ScratchStorage(tempDir.resolve("scratch").toString(), 64, 16);
+        scratchStorage.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        running.forEach(ReportJobs.Job::close);
+        watchdog.destroy();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReportCapacity capacity(boolean engineEnabled, IReportEngine engine, long minFreeMb) {
+        ObjectProvider<IReportEngine> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(engine);
+        return new ReportCapacity(reportJobs, requestThreads, previewLane, outputStore, scratchStorage,
+                provider, engineEnabled, 0.9, 30000, minFreeMb, minFreeMb);
+    }
+
+    private void startJobs(int count) {
+        for (int i = 0; i < count; i++) {
+            running.add(reportJobs.begin("job-" + i, "sales", "pdf", null));
+        }
+    }
+
+    @Test
+    void testIdleNodeIsReadyWithFullWeight() {
+        CapacityStats stats = capacity(false, null, 0).snapshot();
+
+        assertEquals("UP", stats.status());
+        assertTrue(stats.ready());
+        assertTrue(stats.reasons().isEmpty());
+        assertEquals(0, stats.load());
+        assertEquals(100, stats.weight());
+        assertEquals("disabled", stats.engine());
+        assertTrue(stats.outputFreeBytes() > 0);
+        assertTrue(stats.scratchFreeBytes() > 0);
+        assertEquals(2, stats.previewMaxConcurrent());
+    }
+
+    @Test
+    void testWeightFallsWithRunningJobs() {
+        ReportCapacity capacity = capacity(true, mock(IReportEngine.class), 0);
+        startJobs(2);
+
+        CapacityStats stats = capacity.snapshot();
+
+        assertEquals("UP", stats.status());
+        assertEquals(0.5, stats.load());
+        assertEquals(50, stats.weight());
+        assertEquals(2, stats.activeJobs());
+        assertEquals(2, stats.requestThreadsBusy());
+        assertEquals(4, stats.requestThreadsMax());
+        assertEquals("running", stats.engine());
+    }
+
+    @Test
+    void testSaturatedNodeIsOutOfService() {
+        ReportCapacity capacity = capacity(false, null, 0);
+        startJobs(4);
+
+        CapacityStats stats = capacity.snapshot();
+
+        assertEquals("OUT_OF_SERVICE", stats.status());
+        assertFalse(stats.ready());
+        assertEquals(1, stats.load());
+        assertEquals(0, stats.weight());
+        assertTrue(stats.reasons().get(0).startsWith("load 1.00"));
+    }
+
+    @Test
+    void testWaitingRequestsAndPreviewsCountTowardsQueueWait() throws Exception {
+        try (ReportJobs.Job job = reportJobs.begin("job-0", "sales", "pdf", null)) {
+            Thread.sleep(50);
+        }
+        double averageJobMs = reportJobs.averageDurationMs();
+        requestThreads = mock(RequestThreads.class);
+        when(requestThreads.busy()).thenReturn(4);
+        when(requestThreads.max()).thenReturn(4);
+        when(requestThreads.queued()).thenReturn(8);
+        previewLane = mock(PreviewLane.class);
+        when(previewLane.getWaiting()).thenReturn(3);
+        when(previewLane.getMaxConcurrent()).thenReturn(2);
+
+        CapacityStats stats = capacity(false, null, 0).snapshot();
+
+        assertEquals(1, stats.load());
+        assertEquals(8, stats.requestsQueued());
+        assertEquals(3, stats.previewWaiting());
+        assertEquals(Math.round(8 * averageJobMs / 4 + 3 * averageJobMs / 2), stats.estimatedQueueWaitMs());
+        assertEquals("OUT_OF_SERVICE", stats.status());
+    }
+
+    @Test
+    void testLowDiskIsOutOfService() {
+        CapacityStats stats = capacity(false, null, Long.MAX_VALUE / (1024L * 1024L)).snapshot();
+
+        assertEquals("OUT_OF_SERVICE", stats.status());
+        assertEquals(0, stats.weight());
+        assertTrue(stats.reasons().stream().anyMatch(reason -> reason.startsWith("output volume")));
+        assertTrue(stats.reasons().stream().anyMatch(reason -> reason.startsWith("scratch volume")));
+    }
+
+    @Test
+    void testMissingEngineIsDown() {
+        CapacityStats stats = capacity(true, null, 0).snapshot();
+
+        assertEquals("DOWN", stats.status());
+        assertEquals("unavailable", stats.engine());
+        assertEquals(0, stats.weight());
+    }
+
+    @Test
+    void testRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ReportCapacity(reportJobs, requestThreads,
+                previewLane, outputStore, scratchStorage, null, false, 0.9, 0, 0, 0));
+    }
+}
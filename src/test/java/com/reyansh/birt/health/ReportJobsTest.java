@@ -0,0 +1,97 @@
+package com.reyansh.birt.health;
+
+import com.reyansh.birt.metrics.ReportTimings;
+import com.reyansh.birt.metrics.SlowReportWatchdog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ReportJobs
+ */
+class ReportJobsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SlowReportWatchdog watchdog;
+
+    private ReportJobs reportJobs;
+
+    @BeforeEach
+    void setUp() {
+        watchdog = new SlowReportWatchdog(true, 60000, 50, 5, tempDir.toString());
+        reportJobs = new ReportJobs(watchdog);
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchdog.destroy();
+    }
+
+    @Test
+    void testCountsRunningJobs() {
+        assertEquals(0, reportJobs.active());
+
+        ReportJobs.Job first = reportJobs.begin("job-1", "sales", "pdf", null);
+        try (ReportJobs.Job second = reportJobs.begin("job-2", "sales", "pdf", null)) {
+            assertEquals(2, reportJobs.active());
+        }
+        assertEquals(1, reportJobs.active());
+
+        first.close();
+        first.close();
+        assertEquals(0, reportJobs.active());
+    }
+
+    @Test
+    void testBindsLoggingContext() {
+        try (ReportJobs.Job outer = reportJobs.begin("job-1", "sales", "pdf", null)) {
+            assertEquals("job-1", MDC.get(ReportJobs.MDC_JOB_ID));
+            assertEquals("sales", MDC.get(ReportJobs.MDC_TEMPLATE));
+
+            try (ReportJobs.Job inner = reportJobs.begin("job-2", null, "pdf", null)) {
+                assertEquals("job-2", MDC.get(ReportJobs.MDC_JOB_ID));
+                assertNull(MDC.get(ReportJobs.MDC_TEMPLATE));
+            }
+
+            assertEquals("job-1", MDC.get(ReportJobs.MDC_JOB_ID));
+            assertEquals("sales", MDC.get(ReportJobs.MDC_TEMPLATE));
+        }
+        assertNull(MDC.get(ReportJobs.MDC_JOB_ID));
+        assertNull(MDC.get(ReportJobs.MDC_TEMPLATE));
+    }
+
+    @Test
+    void testWatchesJob() {
+        try (ReportJobs.Job job = reportJobs.begin("job-1", "sales", "pdf", Map.of("year", 2024))) {
+            assertNotNull(ReportTimings.current());
+        }
+        assertNull(ReportTimings.current());
+    }
+
+    @Test
+    void testAveragesJobDurations() throws Exception {
+        assertEquals(0, reportJobs.averageDurationMs());
+
+        try (ReportJobs.Job job = reportJobs.begin("job-1", "sales", "pdf", null)) {
+            Thread.sleep(50);
+        }
+        double first = reportJobs.averageDurationMs();
+        assertTrue(first >= 50);
+
+        try (ReportJobs.Job job = reportJobs.begin("job-1", "sales", "pdf", null)) {
+            // Finishes right away and pulls the average down by a fifth of the difference
+        }
+        double second = reportJobs.averageDurationMs();
+        assertTrue(second < first);
+        assertTrue(second > first * 0.7);
+    }
+}
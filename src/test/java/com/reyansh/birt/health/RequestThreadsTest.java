@@ -0,0 +1,25 @@
+package com.reyansh.birt.health;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RequestThreads
+ */
+class RequestThreadsTest {
+
+    @Test
+    void testConfiguredMaximumBeforeServerStarts() {
+        RequestThreads requestThreads = new RequestThreads(200);
+
+        assertEquals(0, requestThreads.busy());
+        assertEquals(200, requestThreads.max());
+        assertEquals(0, requestThreads.queued());
+    }
+
+    @Test
+    void testRejectsInvalidMaximum() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestThreads(0));
+    }
+}
@@ -0,0 +1,103 @@
+package com.reyansh.birt.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RateLimitingTurboFilter
+ */
+class RateLimitingTurboFilterTest {
+
+    private LoggerContext context;
+
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+        filter.setContext(context);
+        filter.setLoggerPrefix("com.reyansh.birt");
+        filter.setMaxPerSecond(3);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(appender);
+    }
+
+    @Test
+    void testLimitsEachPattern() {
+        Logger logger = context.getLogger("com.reyansh.birt.service.DynamicReportService");
+
+        for (int i = 0; i < 10; i++) {
+            logger.info("Starting dynamic report generation: {}", "report-" + i);
+            logger.debug("Report template created: {}", "template-" + i);
+        }
+
+        assertEquals(3, count("Starting dynamic report generation: {}"));
+        assertEquals(3, count("Report template created: {}"));
+    }
+
+    @Test
+    void testWarningsAndOtherLoggersPass() {
+        Logger logger = context.getLogger("com.reyansh.birt.service.DynamicReportService");
+        Logger other = context.getLogger("org.springframework.web.servlet.DispatcherServlet");
+
+        for (int i = 0; i < 10; i++) {
+            logger.warn("Slow data set {}", i);
+            other.info("Completed {}", i);
+        }
+
+        assertEquals(10, count("Slow data set {}"));
+        assertEquals(10, count("Completed {}"));
+    }
+
+    @Test
+    void testDisabledEventsAreNotCounted() {
+        Logger logger = context.getLogger("com.reyansh.birt.controller.ReportController");
+        logger.setLevel(Level.INFO);
+
+        for (int i = 0; i < 10; i++) {
+            logger.debug("Checking status for report: {}", i);
+        }
+        logger.setLevel(Level.DEBUG);
+        logger.debug("Checking status for report: {}", "report-1");
+
+        assertEquals(1, count("Checking status for report: {}"));
+    }
+
+    @Test
+    void testReportsDroppedEventsInTheNextSecond() throws Exception {
+        Logger logger = context.getLogger("com.reyansh.birt.controller.ReportController");
+
+        for (int i = 0; i < 5; i++) {
+            logger.info("Generating report: {}", i);
+        }
+        Thread.sleep(1100);
+        logger.info("Generating report: {}", 5);
+
+        assertEquals(4, count("Generating report: {}"));
+        ILoggingEvent summary = appender.list.stream()
+                .filter(event -> event.getLoggerName().equals(RateLimitingTurboFilter.class.getName()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Dropped 2 log events of com.reyansh.birt.controller.ReportController like "
+                + "\"Generating report: {}\"", summary.getFormattedMessage());
+    }
+
+    private long count(String pattern) {
+        return appender.list.stream().filter(event -> pattern.equals(event.getMessage())).count();
+    }
+}
@@ -0,0 +1,77 @@
+package com.reyansh.birt.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ReportEvents
+ */
+class ReportEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ReportMetrics reportMetrics = new ReportMetrics(new SimpleMeterRegistry(), "reports/templates");
+
+    @Test
+    void testRecordsJobLifecycle() throws Exception {
+        Path file = tempDir.resolve("reports.jfr");
+        try (Recording recording = new Recording(ReportRecording.settings())) {
+            recording.start();
+
+            try (ReportEvents.Job job = ReportEvents.begin("job-1", "sales", "csv")) {
+                ReportEvents.submit("preview").dequeued();
+                ReportEvents.DataSetEvent dataSet = ReportEvents.beginDataSet();
+                Thread.sleep(2);
+                ReportEvents.endDataSet(dataSet, "Orders", 42);
+                reportMetrics.timeRun(ReportMetrics.Phase.WRITE, "reports/sales.rptdesign", "CSV", () -> {
+                    try (OutputStream out = ReportTimings.countOutput(new ByteArrayOutputStream())) {
+                        out.write(new byte[16]);
+                    }
+                });
+            }
+
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.reyansh.birt."))
+                .toList();
+
+        RecordedEvent job = single(events, "com.reyansh.birt.ReportJob");
+        assertEquals("job-1", job.getString("jobId"));
+        assertEquals(42, job.getLong("rows"));
+        assertEquals(16, job.getLong("outputBytes"));
+
+        RecordedEvent phase = single(events, "com.reyansh.birt.ReportPhase");
+        assertEquals("write", phase.getString("phase"));
+        assertEquals("sales", phase.getString("template"));
+        assertEquals("csv", phase.getString("format"));
+        assertEquals(16, phase.getLong("outputBytes"));
+        assertEquals("job-1", phase.getString("jobId"));
+
+        assertEquals("Orders", single(events, "com.reyansh.birt.ReportDataSet").getString("dataSet"));
+        assertEquals("preview", single(events, "com.reyansh.birt.ReportJobSubmit").getString("queue"));
+        assertEquals("job-1", single(events, "com.reyansh.birt.ReportJobDequeue").getString("jobId"));
+        assertNull(ReportEvents.current());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.reyansh.birt.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ReportMetrics
+ */
+class ReportMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path tempDir;
+
+    private ReportMetrics reportMetrics;
+
+    private Path library;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path templates = Files.createDirectories(tempDir.resolve("templates"));
+        Files.writeString(templates.resolve("sales-report.rptdesign"), "<report/>");
+        library = Files.writeString(Files.createDirectories(tempDir.resolve("library")).resolve("common.rptlibrary"),
+                "<library/>");
+        reportMetrics = new ReportMetrics(registry, templates.toString());
+    }
+
+    @Test
+    void testTime_TagsPhaseTemplateFormatAndOutcome() throws Exception {
+        assertEquals("done", reportMetrics.time(ReportMetrics.Phase.OPEN_DESIGN, "sales-report.rptdesign", "PDF",
+                () -> "done"));
+        assertThrows(IllegalStateException.class, () -> reportMetrics.timeRun(ReportMetrics.Phase.RENDER,
+                library.toString(), "html", () -> {
+                    throw new IllegalStateException("render failed");
+                }));
+
+        Timer open = registry.get("report.phase").tags("phase", "open_design", "template", "sales-report",
+                "format", "pdf", "outcome", "success").timer();
+        Timer render = registry.get("report.phase").tags("phase", "render", "template", "common",
+                "format", "html", "outcome", "error").timer();
+        assertEquals(1, open.count());
+        assertEquals(1, render.count());
+    }
+
+    @Test
+    void testTimeStream_RecordsOnceWhenClosed() throws Exception {
+        InputStream in = reportMetrics.timeStream(ReportMetrics.Phase.DOWNLOAD, null, "csv",
+                new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        assertEquals(3, in.readAllBytes().length);
+        in.close();
+        in.close();
+
+        Timer download = registry.get("report.phase").tags("phase", "download", "template", "none",
+                "outcome", "success").timer();
+        assertEquals(1, download.count());
+    }
+
+    @Test
+    void testStart_RecordsFirstStopOnly() {
+        ReportMetrics.Stop download = reportMetrics.start(ReportMetrics.Phase.DOWNLOAD, null, "pdf");
+
+        download.stop(false);
+        download.stop(true);
+
+        assertEquals(1, registry.get("report.phase").tags("phase", "download", "outcome", "error").timer().count());
+        assertNull(registry.find("report.phase").tags("phase", "download", "outcome", "success").timer());
+    }
+
+    @Test
+    void testTime_UnknownTemplatesShareOneTag() throws Exception {
+        for (String template : new String[]{"missing.rptdesign", "../../etc/passwd", "random-name-1", "sales-report"}) {
+            reportMetrics.timeRun(ReportMetrics.Phase.BUILD_TEMPLATE, template, "pdf", () -> { });
+        }
+
+        assertEquals(1, registry.find("report.phase").timers().size());
+        assertEquals(4, registry.get("report.phase").tags("template", "other").timer().count());
+    }
+
+    @Test
+    void testTemplateTag() {
+        assertEquals("sales", ReportMetrics.templateTag("C:\\reports\\sales.rptdesign"));
+        assertEquals("sales-report", ReportMetrics.templateTag("sales-report"));
+        assertEquals("none", ReportMetrics.templateTag(null));
+    }
+}
@@ -0,0 +1,66 @@
+package com.reyansh.birt.metrics;
+
+import com.reyansh.birt.model.TimingBreakdown;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ReportTimings
+ */
+class ReportTimingsTest {
+
+    private final ReportMetrics reportMetrics = new ReportMetrics(new SimpleMeterRegistry(), "reports/templates");
+
+    @Test
+    void testCollectsPhasesDataSetsAndOutput() throws Exception {
+        TimingBreakdown breakdown;
+        try (ReportTimings timings = ReportTimings.start()) {
+            reportMetrics.timeRun(ReportMetrics.Phase.OPEN_DESIGN, "sales.rptdesign", "pdf", () -> { });
+            reportMetrics.timeRun(ReportMetrics.Phase.RENDER, "sales.rptdesign", "pdf", () -> { });
+            reportMetrics.timeRun(ReportMetrics.Phase.OPEN_DESIGN, "sales.rptdesign", "pdf", () -> { });
+            timings.addQueueWait(2_000_000);
+            timings.addDataSet("Orders", 42, 3_500_000);
+            try (OutputStream out = ReportTimings.countOutput(new ByteArrayOutputStream())) {
+                out.write(new byte[10]);
+                out.write(1);
+            }
+            breakdown = timings.toBreakdown();
+        }
+
+        assertEquals(List.of("open_design", "render"), List.copyOf(breakdown.getPhases().keySet()));
+        assertEquals(2.0, breakdown.getQueueWaitMs());
+        assertEquals(11, breakdown.getOutputBytes());
+        assertEquals(1, breakdown.getDataSets().size());
+        assertEquals(42, breakdown.getDataSets().get(0).getRows());
+        assertTrue(breakdown.getTotalMs() >= 0);
+        assertTrue(breakdown.toServerTiming().contains("dataset1;desc=\"Orders (42 rows)\";dur=3.5"));
+        assertTrue(breakdown.toServerTiming().contains("queue;dur=2.0"));
+    }
+
+    @Test
+    void testNothingCollectedWithoutCollector() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        assertNull(ReportTimings.current());
+        assertSame(target, ReportTimings.countOutput(target));
+        reportMetrics.timeRun(ReportMetrics.Phase.RUN, null, "pdf", () -> { });
+        assertNull(ReportTimings.current());
+    }
+
+    @Test
+    void testCloseUnbindsAndStopsTotal() throws Exception {
+        ReportTimings timings = ReportTimings.start();
+        timings.close();
+        double total = timings.toBreakdown().getTotalMs();
+
+        assertNull(ReportTimings.current());
+        Thread.sleep(5);
+        assertEquals(total, timings.toBreakdown().getTotalMs());
+    }
+}
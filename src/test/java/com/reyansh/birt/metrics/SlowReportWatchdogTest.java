@@ -0,0 +1,184 @@
+package com.reyansh.birt.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SlowReportWatchdog
+ */
+class SlowReportWatchdogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SlowReportWatchdog watchdog;
+
+    @AfterEach
+    void tearDown() {
+        if (watchdog != null) {
+            watchdog.destroy();
+        }
+    }
+
+    @Test
+    void testCapturesSlowReport() throws Exception {
+        watchdog = new SlowReportWatchdog(true, 50, 10, 5, tempDir.toString());
+        ReportMetrics reportMetrics = new ReportMetrics(new SimpleMeterRegistry(), "reports/templates");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("customer", "secret");
+        parameters.put("year", 2024);
+
+        try (SlowReportWatchdog.Watch watch = watchdog.watch("job/1", "sales", "pdf", parameters)) {
+            reportMetrics.timeRun(ReportMetrics.Phase.RUN, "reports/sales.rptdesign", "pdf", () -> Thread.sleep(300));
+        }
+
+        List<Path> captures = awaitCaptures(1, "-job_1.json");
+        JsonNode capture = new ObjectMapper().readTree(captures.get(0).toFile());
+        assertEquals("job/1", capture.get("jobId").asText());
+        assertEquals("sales", capture.get("template").asText());
+        assertEquals("String[6]", capture.get("parameters").get("customer").asText());
+        assertEquals("Integer", capture.get("parameters").get("year").asText());
+        assertFalse(capture.toString().contains("secret"));
+        assertTrue(capture.get("durationMs").asLong() >= 300);
+        assertTrue(capture.get("samples").asInt() > 0);
+        assertTrue(capture.get("timings").get("phases").get("run").asDouble() >= 300);
+
+        String stacks = Files.readString(tempDir.resolve(capture.get("stacks").asText()));
+        assertTrue(stacks.contains("SlowReportWatchdogTest.testCapturesSlowReport"));
+        assertTrue(stacks.lines().allMatch(line -> line.matches(".+ \\d+")));
+    }
+
+    @Test
+    void testFastReportIsNotCaptured() throws Exception {
+        watchdog = new SlowReportWatchdog(true, 60000, 10, 5, tempDir.toString());
+
+        try (SlowReportWatchdog.Watch watch = watchdog.watch("job-1", "sales", "pdf", Map.of())) {
+            Thread.sleep(20);
+        }
+
+        Thread.sleep(100);
+        assertEquals(0, captures().size());
+    }
+
+    @Test
+    void testKeepsNewestCaptures() throws Exception {
+        watchdog = new SlowReportWatchdog(true, 20, 10, 2, tempDir.toString());
+
+        for (int i = 1; i <= 3; i++) {
+            try (SlowReportWatchdog.Watch watch = watchdog.watch("job-" + i, "sales", "csv", null)) {
+                Thread.sleep(40);
+            }
+        }
+
+        List<Path> captures = awaitCaptures(2, "-job-3.json");
+        assertTrue(captures.get(1).getFileName().toString().endsWith("-job-3.json"));
+        assertTrue(captures.get(0).getFileName().toString().endsWith("-job-2.json"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(4, files.count());
+        }
+    }
+
+    @Test
+    void testDisabledWatchdogDoesNothing() throws Exception {
+        watchdog = new SlowReportWatchdog(false, 1, 1, 5, tempDir.toString());
+
+        try (SlowReportWatchdog.Watch watch = watchdog.watch("job-1", "sales", "pdf", Map.of())) {
+            Thread.sleep(20);
+            assertNull(ReportTimings.current());
+        }
+
+        Thread.sleep(100);
+        assertEquals(0, captures().size());
+    }
+
+    @Test
+    void testWatchCollectsTimingsOfJobsWithoutThem() {
+        watchdog = new SlowReportWatchdog(true, 60000, 10, 5, tempDir.toString());
+
+        try (SlowReportWatchdog.Watch watch = watchdog.watch("job-1", "sales", "pdf", Map.of())) {
+            assertNotNull(ReportTimings.current());
+        }
+        assertNull(ReportTimings.current());
+    }
+
+    @Test
+    void testWatchReusesRequestTimings() {
+        watchdog = new SlowReportWatchdog(true, 60000, 10, 5, tempDir.toString());
+
+        try (ReportTimings timings = ReportTimings.start()) {
+            try (SlowReportWatchdog.Watch watch = watchdog.watch("job-1", "sales", "pdf", Map.of())) {
+                assertSame(timings, ReportTimings.current());
+            }
+            assertSame(timings, ReportTimings.current());
+        }
+        assertNull(ReportTimings.current());
+    }
+
+    @Test
+    void testRedactKeepsNamesAndTypes() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("name", "Alice");
+        parameters.put("limit", 10L);
+        parameters.put("empty", null);
+
+        Map<String, String> redacted = SlowReportWatchdog.redact(parameters);
+
+        assertEquals(List.of("name", "limit", "empty"), List.copyOf(redacted.keySet()));
+        assertEquals("String[5]", redacted.get("name"));
+        assertEquals("Long", redacted.get("limit"));
+        assertEquals("null", redacted.get("empty"));
+        assertTrue(SlowReportWatchdog.redact(null).isEmpty());
+    }
+
+    @Test
+    void testRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlowReportWatchdog(true, 0, 10, 5, tempDir.toString()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlowReportWatchdog(true, 100, 10, 0, tempDir.toString()));
+    }
+
+    /**
+     * Captures are written off the report thread; wait until the newest one has been written and pruned
+     */
+    private List<Path> awaitCaptures(int count, String newest) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<Path> captures = captures();
+        while (!written(captures, count, newest) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            captures = captures();
+        }
+        assertEquals(count, captures.size());
+        return captures;
+    }
+
+    private boolean written(List<Path> captures, int count, String newest) throws Exception {
+        if (captures.size() != count || !captures.get(count - 1).getFileName().toString().endsWith(newest)) {
+            return false;
+        }
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.count() == count * 2L;
+        }
+    }
+
+    private List<Path> captures() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SlowReportWatchdog.CAPTURE_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -122,7 +122,8 @@ class DynamicReportRequestTest {
                 "TestDS",
                 datasets,
                 params,
-                null
+                null,
+                true
         );
 
         assertEquals("reports/library/test.rptlibrary", request.getLibraryPath());
@@ -131,6 +132,7 @@ class DynamicReportRequestTest {
         assertEquals("TestDS", request.getDataSourceName());
         assertEquals(datasets, request.getDatasetNames());
         assertEquals(params, request.getParameters());
+        assertTrue(request.getPreview());
     }
 
     @Test
@@ -78,7 +78,7 @@ class ReportRequestTest {
 
     @Test
     void testReportRequest_AllValidFormats() {
-        String[] validFormats = {"pdf", "html", "xls", "xlsx", "doc", "docx", "ppt", "pptx", "xml"};
+        String[] validFormats = {"pdf", "html", "xls", "xlsx", "doc", "docx", "ppt", "pptx", "xml", "csv", "ndjson"};
         
         for (String format : validFormats) {
             ReportRequest request = ReportRequest.builder()
@@ -129,7 +129,8 @@ class ReportRequestTest {
                 params,
                 "output.pdf",
                 "en_US",
-                "1-10"
+                "1-10",
+                false
         );
 
         assertEquals("test-report", request.getReportName());
@@ -138,6 +139,7 @@ class ReportRequestTest {
         assertEquals("output.pdf", request.getOutputFileName());
         assertEquals("en_US", request.getLocale());
         assertEquals("1-10", request.getPageRange());
+        assertFalse(request.getPreview());
     }
 
     @Test
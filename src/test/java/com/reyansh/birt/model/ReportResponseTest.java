@@ -84,6 +84,7 @@ class ReportResponseTest {
                 "pdf",
                 1000L,
                 "/download/123",
+                null,
                 null
         );
 
@@ -0,0 +1,109 @@
+package com.reyansh.birt.resource;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.cache.CacheStats;
+import org.eclipse.birt.report.model.api.IResourceLocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for CachingResourceLocator
+ */
+class CachingResourceLocatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private IResourceLocator delegate;
+
+    private CacheRegistry cacheRegistry;
+
+    private CachingResourceLocator locator;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(IResourceLocator.class);
+        cacheRegistry = new CacheRegistry();
+        locator = new CachingResourceLocator(delegate, cacheRegistry, 1024, 100);
+    }
+
+    private Path resource(String fileName, String content, int type) throws Exception {
+        Path file = tempDir.resolve(fileName);
+        Files.writeString(file, content);
+        when(delegate.findResource(any(), eq(fileName), eq(type))).thenReturn(file.toUri().toURL());
+        return file;
+    }
+
+    private static String read(URL url) throws Exception {
+        try (InputStream in = url.openStream()) {
+            return new String(in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testFindResource_ImageServedFromCache() throws Exception {
+        Path logo = resource("logo.png", "png-bytes", IResourceLocator.IMAGE);
+
+        URL first = locator.findResource(null, "logo.png", IResourceLocator.IMAGE);
+        URL second = locator.findResource(null, "logo.png", IResourceLocator.IMAGE);
+
+        assertEquals(logo.toUri().toURL().toExternalForm(), first.toExternalForm());
+        assertEquals("png-bytes", read(second));
+
+        CacheStats stats = cacheRegistry.getStats().get(0);
+        assertEquals("engine-resources", stats.name());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(9, stats.sizeBytes());
+    }
+
+    @Test
+    void testFindResource_ReloadsModifiedFile() throws Exception {
+        Path logo = resource("logo.png", "old", IResourceLocator.IMAGE);
+        locator.findResource(null, "logo.png", IResourceLocator.IMAGE);
+
+        Files.writeString(logo, "new");
+        Files.setLastModifiedTime(logo, FileTime.from(Instant.now().plusSeconds(60)));
+
+        assertEquals("new", read(locator.findResource(null, "logo.png", IResourceLocator.IMAGE)));
+    }
+
+    @Test
+    void testFindResource_LargeImageNotCached() throws Exception {
+        Path photo = resource("photo.jpg", "x".repeat(101), IResourceLocator.IMAGE);
+
+        URL url = locator.findResource(null, "photo.jpg", IResourceLocator.IMAGE);
+
+        assertEquals(photo.toUri().toURL(), url);
+        assertEquals(0, cacheRegistry.getStats().get(0).entries());
+    }
+
+    @Test
+    void testFindResource_LibraryPassedThrough() throws Exception {
+        Path library = resource("common.rptlibrary", "<library/>", IResourceLocator.LIBRARY);
+
+        assertEquals(library.toUri().toURL(), locator.findResource(null, "common.rptlibrary", IResourceLocator.LIBRARY));
+        assertEquals(0, cacheRegistry.getStats().get(0).misses());
+    }
+
+    @Test
+    void testFindResource_Unresolved() {
+        when(delegate.findResource(any(), any(), anyInt())).thenReturn(null);
+
+        assertNull(locator.findResource(null, "missing.png", IResourceLocator.IMAGE));
+    }
+}
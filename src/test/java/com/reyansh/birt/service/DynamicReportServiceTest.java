@@ -1,34 +1,74 @@
 package com.reyansh.birt.service;
 
+import com.reyansh.birt.aggregate.TableAggregator;
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.chart.ChartRenderer;
+import com.reyansh.birt.chart.ChartService;
+import com.reyansh.birt.data.ColumnSelection;
+import com.reyansh.birt.data.DatasetService;
+import com.reyansh.birt.data.ListRowSource;
+import com.reyansh.birt.export.CsvTableExporter;
+import com.reyansh.birt.export.NdjsonTableExporter;
+import com.reyansh.birt.export.XlsxTableExporter;
+import com.reyansh.birt.health.ReportJobs;
+import com.reyansh.birt.metrics.ReportMetrics;
+import com.reyansh.birt.metrics.SlowReportWatchdog;
 import com.reyansh.birt.model.DynamicReportRequest;
+import com.reyansh.birt.storage.ReportOutputStore;
+import com.reyansh.birt.storage.ShardedPaths;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFDrawing;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
-import org.mockito.InjectMocks;
-import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  * Test class for DynamicReportService
  */
 class DynamicReportServiceTest {
 
-    @InjectMocks
     private DynamicReportService dynamicReportService;
 
+    private ReportOutputStore outputStore;
+
+    private DatasetService datasetService;
+
     @TempDir
     Path tempDir;
 
     private DynamicReportRequest validRequest;
 
+    private static File outputFile(String reportId, String suffix) {
+        return ShardedPaths.resolve(Paths.get("reports/output"), reportId, reportId + suffix).toFile();
+    }
+
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this);
+        outputStore = new ReportOutputStore("reports/output", true, 3);
+        datasetService = mock(DatasetService.class);
+        ChartService chartService = new ChartService(datasetService, new ChartRenderer(), new CacheRegistry(), 8);
+        dynamicReportService = new DynamicReportService(outputStore, datasetService, chartService,
+                new TableAggregator(2, 0), new PreviewLane(2, 1, 1, 0),
+                new ReportMetrics(new SimpleMeterRegistry(), "reports/templates"),
+                new ReportJobs(new SlowReportWatchdog(true, 60000, 50, 5, tempDir.resolve("slow").toString())),
+                List.of(new XlsxTableExporter(100), new CsvTableExporter(), new NdjsonTableExporter()),
+                "reports/templates");
         dynamicReportService.init();
 
         validRequest = DynamicReportRequest.builder()
@@ -71,8 +111,8 @@ class DynamicReportServiceTest {
     void testGenerateDynamicReport_CreatesFiles() throws Exception {
         String reportId = dynamicReportService.generateDynamicReport(validRequest);
         
-        File templateFile = new File("reports/templates/" + reportId + ".rptdesign");
-        File outputFile = new File("reports/output/" + reportId + ".pdf");
+        File templateFile = dynamicReportService.templatePathFor(reportId).toFile();
+        File outputFile = outputFile(reportId, ".pdf");
         
         assertTrue(templateFile.exists());
         assertTrue(outputFile.exists());
@@ -89,8 +129,7 @@ class DynamicReportServiceTest {
             String reportId = dynamicReportService.generateDynamicReport(validRequest);
             
             assertNotNull(reportId);
-            File outputFile = new File("reports/output/" + reportId + "." + format);
-            assertTrue(outputFile.exists());
+            assertTrue(outputStore.resolve(reportId, null).isPresent());
         }
     }
 
@@ -190,7 +229,7 @@ class DynamicReportServiceTest {
     void testGenerateDynamicReport_TemplateContainsReportName() throws Exception {
         String reportId = dynamicReportService.generateDynamicReport(validRequest);
         
-        File templateFile = new File("reports/templates/" + reportId + ".rptdesign");
+        File templateFile = dynamicReportService.templatePathFor(reportId).toFile();
         assertTrue(templateFile.exists());
         
         // Template file should exist and have content
@@ -201,8 +240,217 @@ class DynamicReportServiceTest {
     void testGenerateDynamicReport_OutputFileNotEmpty() throws Exception {
         String reportId = dynamicReportService.generateDynamicReport(validRequest);
         
-        File outputFile = new File("reports/output/" + reportId + ".pdf");
+        File outputFile = outputFile(reportId, ".pdf");
         assertTrue(outputFile.exists());
         assertTrue(outputFile.length() > 0);
     }
+
+    @Test
+    void testStreamDynamicReport_WritesToStreamOnly() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String reportId = UUID.randomUUID().toString();
+
+        dynamicReportService.streamDynamicReport(validRequest, reportId, out, false);
+
+        assertTrue(out.size() > 0);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("TEST-REPORT"));
+        assertFalse(outputFile(reportId, ".pdf").exists());
+    }
+
+    @Test
+    void testStreamDynamicReport_TeesToOutputCache() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String reportId = UUID.randomUUID().toString();
+
+        dynamicReportService.streamDynamicReport(validRequest, reportId, out, true);
+
+        File outputFile = outputFile(reportId, ".pdf");
+        assertTrue(outputFile.exists());
+        assertEquals(out.size(), outputFile.length());
+        assertFalse(outputFile(reportId, ".pdf.part").exists());
+        assertTrue(dynamicReportService.templatePathFor(reportId).toFile().length() > 0);
+    }
+
+    @Test
+    void testGenerateDynamicReport_CompressibleFormatStoredCompressed() throws Exception {
+        validRequest.setOutputFormat("html");
+
+        String reportId = dynamicReportService.generateDynamicReport(validRequest);
+
+        assertFalse(outputFile(reportId, ".html").exists());
+        assertTrue(outputFile(reportId, ".html.gz").exists());
+    }
+
+    @Test
+    void testGenerateDynamicReport_LeavesNoTemplateWhenExportFails() throws Exception {
+        Path templates = tempDir.resolve("templates");
+        DynamicReportService service = new DynamicReportService(outputStore, datasetService,
+                new ChartService(datasetService, new ChartRenderer(), new CacheRegistry(), 8),
+                new TableAggregator(2, 0), new PreviewLane(2, 1, 1, 0),
+                new ReportMetrics(new SimpleMeterRegistry(), templates.toString()),
+                new ReportJobs(new SlowReportWatchdog(false, 60000, 50, 5, tempDir.resolve("slow").toString())),
+                List.of(new CsvTableExporter()), templates.toString());
+        when(datasetService.open(any(), any(), eq("Dataset1"), any(), any()))
+                .thenThrow(new java.sql.SQLException("Table not found"));
+        validRequest.setOutputFormat("csv");
+        validRequest.setComponents(DynamicReportRequest.ReportComponents.builder()
+                .tables(List.of(DynamicReportRequest.TableConfig.builder().datasetName("Dataset1").build()))
+                .build());
+
+        assertThrows(java.sql.SQLException.class, () -> service.generateDynamicReport(validRequest));
+
+        if (java.nio.file.Files.exists(templates)) {
+            try (var files = java.nio.file.Files.walk(templates)) {
+                assertTrue(files.noneMatch(java.nio.file.Files::isRegularFile));
+            }
+        }
+    }
+
+    @Test
+    void testStreamDynamicReport_RemovesTemplateWhenNotCached() throws Exception {
+        String reportId = UUID.randomUUID().toString();
+
+        dynamicReportService.streamDynamicReport(validRequest, reportId, new ByteArrayOutputStream(), false);
+
+        assertFalse(dynamicReportService.templatePathFor(reportId).toFile().exists());
+    }
+
+    @Test
+    void testStreamDynamicReport_XlsxTablesExportedFromDataSet() throws Exception {
+        when(datasetService.open(eq("reports/library/test.rptlibrary"), eq("TestDataSource"), eq("Dataset1"),
+                eq(Map.of("param1", "value1", "param2", 100)), any()))
+                .thenReturn(new ListRowSource(List.of("PRODUCT", "AMOUNT"),
+                        List.of(new Object[]{"Widget", 12.5}, new Object[]{"Gadget", 7})));
+        validRequest.setOutputFormat("xlsx");
+        validRequest.setComponents(DynamicReportRequest.ReportComponents.builder()
+                .tables(List.of(DynamicReportRequest.TableConfig.builder()
+                        .datasetName("Dataset1")
+                        .title("Sales")
+                        .columns(List.of(
+                                DynamicReportRequest.ColumnConfig.builder().name("product").label("Product").build(),
+                                DynamicReportRequest.ColumnConfig.builder().name("amount").label("Amount")
+                                        .dataType("decimal").format("#,##0.00").build()))
+                        .build()))
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dynamicReportService.streamDynamicReport(validRequest, UUID.randomUUID().toString(), out, false);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Sales");
+            assertEquals("Amount", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals("Gadget", sheet.getRow(2).getCell(0).getStringCellValue());
+            assertEquals(12.5, sheet.getRow(1).getCell(1).getNumericCellValue());
+        }
+        verify(datasetService, times(1)).open(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGenerateDynamicReport_CsvTablesStoredFromDataSet() throws Exception {
+        when(datasetService.open(any(), any(), eq("Dataset1"), any(), any()))
+                .thenReturn(new ListRowSource(List.of("PRODUCT", "AMOUNT"),
+                        List.of(new Object[]{"Widget", 12.5}, new Object[]{"Gadget, large", 7})));
+        validRequest.setOutputFormat("csv");
+        validRequest.setComponents(DynamicReportRequest.ReportComponents.builder()
+                .tables(List.of(DynamicReportRequest.TableConfig.builder().datasetName("Dataset1").build()))
+                .build());
+
+        String reportId = dynamicReportService.generateDynamicReport(validRequest);
+
+        try (var in = outputStore.openStream(outputStore.resolve(reportId, null).orElseThrow())) {
+            assertEquals("PRODUCT,AMOUNT\r\nWidget,12.5\r\n\"Gadget, large\",7\r\n",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testStreamDynamicReport_GroupedTableWithTotals() throws Exception {
+        when(datasetService.open(any(), any(), eq("Dataset1"), any(), any()))
+                .thenReturn(new ListRowSource(List.of("REGION", "PRODUCT", "QUANTITY"), List.of(
+                        new Object[]{"West", "Widget", 3},
+                        new Object[]{"East", "Gadget", 4},
+                        new Object[]{"West", "Gadget", 5})));
+        validRequest.setOutputFormat("csv");
+        validRequest.setComponents(DynamicReportRequest.ReportComponents.builder()
+                .tables(List.of(DynamicReportRequest.TableConfig.builder().datasetName("Dataset1")
+                        .enableGrouping(true).groupByColumn("region").includeTotals(true).build()))
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dynamicReportService.streamDynamicReport(validRequest, UUID.randomUUID().toString(), out, false);
+
+        assertEquals("REGION,PRODUCT,QUANTITY\r\nEast,,4\r\nWest,,8\r\nTotal,,12\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testStreamDynamicReport_PreviewCapsRowsAndIsNeverCached() throws Exception {
+        when(datasetService.open(any(), any(), eq("Dataset1"), any(), eq(ColumnSelection.limit(2))))
+                .thenReturn(new ListRowSource(List.of("PRODUCT"), List.of(
+                        new Object[]{"Widget"},
+                        new Object[]{"Gadget"})));
+        validRequest.setOutputFormat("csv");
+        validRequest.setPreview(true);
+        validRequest.setComponents(DynamicReportRequest.ReportComponents.builder()
+                .tables(List.of(DynamicReportRequest.TableConfig.builder().datasetName("Dataset1").build()))
+                .build());
+        String reportId = UUID.randomUUID().toString();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dynamicReportService.streamDynamicReport(validRequest, reportId, out, true);
+
+        assertEquals("PRODUCT\r\nWidget\r\nGadget\r\n", out.toString(StandardCharsets.UTF_8));
+        assertFalse(outputFile(reportId, ".csv").exists());
+        assertFalse(dynamicReportService.templatePathFor(reportId).toFile().exists());
+    }
+
+    @Test
+    void testGenerateDynamicReport_PreviewRejected() {
+        validRequest.setPreview(true);
+
+        assertThrows(IllegalArgumentException.class, () -> dynamicReportService.generateDynamicReport(validRequest));
+    }
+
+    @Test
+    void testSelectionFor_PushesDownNumericGroupBy() {
+        DynamicReportRequest.TableConfig table = DynamicReportRequest.TableConfig.builder()
+                .enableGrouping(true).groupByColumn("REGION")
+                .columns(List.of(
+                        DynamicReportRequest.ColumnConfig.builder().name("REGION").build(),
+                        DynamicReportRequest.ColumnConfig.builder().name("QUANTITY").dataType("integer").build()))
+                .build();
+
+        assertEquals(ColumnSelection.groupBy("REGION", List.of("QUANTITY")), DynamicReportService.selectionFor(table));
+
+        table.setColumns(List.of(DynamicReportRequest.ColumnConfig.builder().name("PRODUCT").build()));
+        assertEquals(ColumnSelection.of(List.of("PRODUCT", "REGION")), DynamicReportService.selectionFor(table));
+
+        table.setColumns(null);
+        assertNull(DynamicReportService.selectionFor(table));
+    }
+
+    @Test
+    void testStreamDynamicReport_XlsxEmbedsCharts() throws Exception {
+        when(datasetService.open(any(), any(), eq("Dataset1"), any(), any())).thenAnswer(invocation ->
+                new ListRowSource(List.of("PRODUCT", "AMOUNT"),
+                        List.of(new Object[]{"Widget", 12.5}, new Object[]{"Gadget", 7})));
+        validRequest.setOutputFormat("xlsx");
+        validRequest.setComponents(DynamicReportRequest.ReportComponents.builder()
+                .tables(List.of(DynamicReportRequest.TableConfig.builder().datasetName("Dataset1").title("Sales").build()))
+                .charts(List.of(DynamicReportRequest.ChartConfig.builder()
+                        .datasetName("Dataset1").title("Sales by Product").chartType("bar")
+                        .categoryColumn("product").valueColumn("amount").width(320).height(200).build()))
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dynamicReportService.streamDynamicReport(validRequest, UUID.randomUUID().toString(), out, false);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertNotNull(workbook.getSheet("Sales"));
+            XSSFSheet charts = workbook.getSheet("Charts");
+            XSSFDrawing drawing = charts.getDrawingPatriarch();
+            assertEquals(1, drawing.getShapes().size());
+            assertEquals(1, workbook.getAllPictures().size());
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.reyansh.birt.service;
+
+import com.reyansh.birt.exception.PreviewCapacityException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PreviewLane
+ */
+class PreviewLaneTest {
+
+    @Test
+    void testRun_RunsWorkAndReleasesSlot() throws Exception {
+        PreviewLane lane = new PreviewLane(100, 3, 1, 0);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        lane.run(() -> ran.set(true));
+        assertThrows(IllegalStateException.class, () -> lane.run(() -> {
+            throw new IllegalStateException("render failed");
+        }));
+        lane.run(() -> ran.set(true));
+
+        assertTrue(ran.get());
+        assertEquals("1-3", lane.getPageRange());
+    }
+
+    @Test
+    void testRun_RejectsWhenAllSlotsBusy() throws Exception {
+        PreviewLane lane = new PreviewLane(100, 3, 1, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> running = executor.submit(() -> {
+                lane.run(() -> {
+                    started.countDown();
+                    release.await();
+                });
+                return null;
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(PreviewCapacityException.class, () -> lane.run(() -> fail("should not run")));
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConstructor_RejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new PreviewLane(0, 3, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PreviewLane(100, 3, 0, 0));
+    }
+}
@@ -0,0 +1,211 @@
+package com.reyansh.birt.service;
+
+import com.reyansh.birt.cache.CacheRegistry;
+import com.reyansh.birt.cache.CacheStats;
+import com.reyansh.birt.model.ReportRequest;
+import com.reyansh.birt.model.ViewerDocument;
+import com.reyansh.birt.storage.ScratchStorage;
+import org.eclipse.birt.report.engine.api.IRenderOption;
+import org.eclipse.birt.report.engine.api.IRenderTask;
+import org.eclipse.birt.report.engine.api.IReportDocument;
+import org.eclipse.birt.report.engine.api.IReportEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ReportViewerService
+ */
+class ReportViewerServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private IReportEngine reportEngine;
+
+    private ReportGenerationService generationService;
+
+    private ScratchStorage scratchStorage;
+
+    private CacheRegistry cacheRegistry;
+
+    private ReportViewerService viewerService;
+
+    // Page ranges of every render task, in order
+    private final List<String> renderedPages = Collections.synchronizedList(new ArrayList<>());
+
+    // When set, renders count down renderStarted and wait for renderGate before writing the page
+    private volatile CountDownLatch renderStarted;
+
+    private volatile CountDownLatch renderGate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reportEngine = mock(IReportEngine.class);
+        generationService = mock(ReportGenerationService.class);
+        scratchStorage = new ScratchStorage(tempDir.toString(), 64, 1);
+        scratchStorage.init();
+        cacheRegistry = new CacheRegistry();
+
+        IReportDocument reportDocument = mock(IReportDocument.class);
+        when(reportDocument.getPageCount()).thenReturn(400L);
+        when(generationService.openDocument(any(), any())).thenReturn(reportDocument);
+        when(reportEngine.createRenderTask(reportDocument)).thenAnswer(invocation -> renderTask());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (viewerService != null) {
+            viewerService.destroy();
+        }
+    }
+
+    private ReportViewerService viewer(int prefetchPages, int maxDocuments) {
+        viewerService = new ReportViewerService(reportEngine, generationService, scratchStorage, cacheRegistry,
+                8, prefetchPages, 1, 30, maxDocuments);
+        return viewerService;
+    }
+
+    /**
+     * Render task that writes the requested page range as the page content
+     */
+    private IRenderTask renderTask() throws Exception {
+        IRenderTask task = mock(IRenderTask.class);
+        IRenderOption[] option = new IRenderOption[1];
+        String[] range = new String[1];
+        doAnswer(invocation -> option[0] = invocation.getArgument(0)).when(task).setRenderOption(any());
+        doAnswer(invocation -> range[0] = invocation.getArgument(0)).when(task).setPageRange(any());
+        doAnswer(invocation -> {
+            if (renderGate != null) {
+                renderStarted.countDown();
+                renderGate.await();
+            }
+            renderedPages.add(range[0]);
+            option[0].getOutputStream().write(("page " + range[0]).getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(task).render();
+        return task;
+    }
+
+    private static ReportRequest request() {
+        return ReportRequest.builder().reportName("sales-report").outputFormat("html").build();
+    }
+
+    @Test
+    void testOpen_RetainsDocumentWithoutRendering() throws Exception {
+        ViewerDocument document = viewer(0, 5).open(request());
+
+        assertEquals(400, document.getPageCount());
+        assertEquals("/api/reports/" + document.getDocumentId() + "/pages/1", document.getFirstPageUrl());
+        assertTrue(renderedPages.isEmpty());
+        assertTrue(scratchStorage.getReservedBytes() > 0);
+    }
+
+    @Test
+    void testGetPage_RendersOnlyRequestedPageAndCaches() throws Exception {
+        ViewerDocument document = viewer(0, 5).open(request());
+
+        byte[] first = viewerService.getPage(document.getDocumentId(), 7).orElseThrow();
+        byte[] second = viewerService.getPage(document.getDocumentId(), 7).orElseThrow();
+
+        assertEquals("page 7", new String(first, StandardCharsets.UTF_8));
+        assertSame(first, second);
+        assertEquals(List.of("7"), renderedPages);
+        CacheStats stats = cacheRegistry.getStats().get(0);
+        assertEquals("viewer-pages", stats.name());
+        assertEquals(1, stats.hits());
+    }
+
+    @Test
+    void testGetPage_PrefetchesFollowingPages() throws Exception {
+        ViewerDocument document = viewer(2, 5).open(request());
+
+        viewerService.getPage(document.getDocumentId(), 1);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (renderedPages.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("1", "2", "3"), renderedPages.stream().sorted().toList());
+
+        assertEquals("page 2", new String(viewerService.getPage(document.getDocumentId(), 2).orElseThrow(),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testGetPage_UnknownDocumentAndPageOutOfRange() throws Exception {
+        ViewerDocument document = viewer(0, 5).open(request());
+
+        assertTrue(viewerService.getPage("unknown", 1).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> viewerService.getPage(document.getDocumentId(), 401));
+        assertThrows(IllegalArgumentException.class, () -> viewerService.getPage(document.getDocumentId(), 0));
+    }
+
+    @Test
+    void testClose_ReleasesDocumentAndPages() throws Exception {
+        ViewerDocument document = viewer(0, 5).open(request());
+        viewerService.getPage(document.getDocumentId(), 1);
+
+        assertTrue(viewerService.close(document.getDocumentId()));
+
+        assertFalse(viewerService.close(document.getDocumentId()));
+        assertTrue(viewerService.getPage(document.getDocumentId(), 1).isEmpty());
+        assertEquals(0, cacheRegistry.getStats().get(0).entries());
+        assertEquals(0, scratchStorage.getReservedBytes());
+    }
+
+    @Test
+    void testClose_WaitsForRenderingPageAndDoesNotCacheIt() throws Exception {
+        ViewerDocument document = viewer(0, 5).open(request());
+        renderStarted = new CountDownLatch(1);
+        renderGate = new CountDownLatch(1);
+        CompletableFuture<Optional<byte[]>> page = CompletableFuture.supplyAsync(() -> {
+            try {
+                return viewerService.getPage(document.getDocumentId(), 1);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+        assertTrue(renderStarted.await(5, TimeUnit.SECONDS));
+
+        assertTrue(viewerService.close(document.getDocumentId()));
+        assertTrue(scratchStorage.getReservedBytes() > 0);
+
+        renderGate.countDown();
+        assertEquals("page 1", new String(page.get(5, TimeUnit.SECONDS).orElseThrow(), StandardCharsets.UTF_8));
+        assertEquals(0, cacheRegistry.getStats().get(0).entries());
+        assertEquals(0, scratchStorage.getReservedBytes());
+        assertTrue(viewerService.getPage(document.getDocumentId(), 1).isEmpty());
+    }
+
+    @Test
+    void testOpen_DisplacesLeastRecentlyUsedDocument() throws Exception {
+        viewer(0, 2);
+        ViewerDocument first = viewerService.open(request());
+        Thread.sleep(5);
+        ViewerDocument second = viewerService.open(request());
+        Thread.sleep(5);
+        viewerService.getPage(first.getDocumentId(), 1);
+
+        viewerService.open(request());
+
+        assertTrue(viewerService.getPage(first.getDocumentId(), 1).isPresent());
+        assertTrue(viewerService.getPage(second.getDocumentId(), 1).isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package com.reyansh.birt.storage;
+
+import com.reyansh.birt.model.OutputFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for OutputRetentionService
+ */
+class OutputRetentionServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ReportOutputStore store;
+
+    private Path outputDir;
+
+    private Path templateDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        outputDir = tempDir.resolve("output");
+        templateDir = Files.createDirectories(tempDir.resolve("templates"));
+        store = new ReportOutputStore(outputDir.toString(), false, 3);
+    }
+
+    private void write(String reportId, int size) throws Exception {
+        try (ReportOutputStore.PendingOutput output = store.create(reportId, OutputFormat.PDF)) {
+            output.getStream().write(new byte[size]);
+            output.commit();
+        }
+    }
+
+    private OutputRetentionService retention(long maxAgeMinutes, long maxTotalSizeMb) {
+        return new OutputRetentionService(store, templateDir.toString(), maxAgeMinutes, maxTotalSizeMb, 0);
+    }
+
+    @Test
+    void testEnforce_NothingToEvict() throws Exception {
+        write("report-1", 100);
+
+        assertEquals(0, retention(60, 100).enforce());
+        assertTrue(store.getEntry("report-1").isPresent());
+    }
+
+    @Test
+    void testEnforce_EvictsLeastRecentlyDownloadedFirst() throws Exception {
+        write("report-1", 600 * 1024);
+        write("report-2", 600 * 1024);
+        Thread.sleep(5);
+        // Downloading report-1 makes report-2 the least recently used
+        store.openStream(store.resolve("report-1", null).orElseThrow()).close();
+
+        assertEquals(1, retention(0, 1).enforce());
+        assertTrue(store.getEntry("report-1").isPresent());
+        assertTrue(store.getEntry("report-2").isEmpty());
+        assertFalse(Files.exists(ShardedPaths.resolve(outputDir, "report-2", "report-2.pdf")));
+    }
+
+    @Test
+    void testEnforce_NeverDeletesOutputBeingDownloaded() throws Exception {
+        write("report-1", 2 * 1024 * 1024);
+
+        try (InputStream download = store.openStream(store.resolve("report-1", null).orElseThrow())) {
+            assertEquals(0, retention(0, 1).enforce());
+            assertTrue(Files.exists(ShardedPaths.resolve(outputDir, "report-1", "report-1.pdf")));
+            assertEquals(ReportOutputStore.DeleteResult.IN_USE, store.delete("report-1"));
+        }
+
+        assertEquals(1, retention(0, 1).enforce());
+        assertFalse(Files.exists(ShardedPaths.resolve(outputDir, "report-1", "report-1.pdf")));
+    }
+
+    @Test
+    void testLoadIndex_PicksUpExistingOutputs() throws Exception {
+        write("report-1", 10);
+        ReportOutputStore restarted = new ReportOutputStore(outputDir.toString(), false, 3);
+        restarted.loadIndex();
+
+        assertTrue(restarted.getEntry("report-1").isPresent());
+        assertEquals(10, restarted.getEntry("report-1").get().getSize());
+    }
+
+    @Test
+    void testEnforce_DeletesOrphanedGeneratedTemplates() throws Exception {
+        Path orphan = Files.writeString(templateDir.resolve(UUID.randomUUID() + ".rptdesign"), "<report/>");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        Path userTemplate = Files.writeString(templateDir.resolve("sales-report.rptdesign"), "<report/>");
+        Files.setLastModifiedTime(userTemplate, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+
+        retention(60, 100).enforce();
+
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(userTemplate));
+    }
+
+    @Test
+    void testEnforce_DeletesOrphanedTemplatesOnEveryRun() throws Exception {
+        OutputRetentionService retention = retention(60, 100);
+        retention.enforce();
+
+        String reportId = UUID.randomUUID().toString();
+        Path orphan = ShardedPaths.resolve(templateDir, reportId, reportId + ".rptdesign");
+        Files.createDirectories(orphan.getParent());
+        Files.writeString(orphan, "<report/>");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+
+        retention.enforce();
+
+        assertFalse(Files.exists(orphan));
+    }
+}
@@ -0,0 +1,184 @@
+package com.reyansh.birt.storage;
+
+import com.reyansh.birt.model.OutputFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test class for ReportOutputStore
+ */
+class ReportOutputStoreTest {
+
+    private static final String CONTENT = "<html><body>" + "row ".repeat(1000) + "</body></html>";
+
+    @TempDir
+    Path tempDir;
+
+    private ReportOutputStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ReportOutputStore(tempDir.toString(), true, 3);
+    }
+
+    private void write(String reportId, OutputFormat format, String content) throws Exception {
+        try (ReportOutputStore.PendingOutput output = store.create(reportId, format)) {
+            output.getStream().write(content.getBytes(StandardCharsets.UTF_8));
+            output.commit();
+        }
+    }
+
+    @Test
+    void testCompressibleFormat_StoredAsCompressedVariantsOnly() throws Exception {
+        write("report-1", OutputFormat.HTML, CONTENT);
+
+        assertFalse(Files.exists(ShardedPaths.resolve(tempDir, "report-1", "report-1.html")));
+        assertTrue(Files.exists(ShardedPaths.resolve(tempDir, "report-1", "report-1.html.gz")));
+        assertTrue(Files.size(ShardedPaths.resolve(tempDir, "report-1", "report-1.html.gz")) < CONTENT.length());
+        if (store.isZstdAvailable()) {
+            assertTrue(Files.exists(ShardedPaths.resolve(tempDir, "report-1", "report-1.html.zst")));
+        }
+    }
+
+    @Test
+    void testNonCompressibleFormat_StoredAsIs() throws Exception {
+        write("report-2", OutputFormat.PDF, "%PDF-1.4");
+
+        Optional<StoredOutput> output = store.resolve("report-2", "gzip");
+
+        assertTrue(output.isPresent());
+        assertEquals(OutputFormat.PDF, output.get().getFormat());
+        assertNull(output.get().getContentEncoding());
+        assertFalse(output.get().isDecodeRequired());
+    }
+
+    @Test
+    void testResolve_PrefersZstdWhenAccepted() throws Exception {
+        assumeTrue(store.isZstdAvailable());
+        write("report-3", OutputFormat.HTML, CONTENT);
+
+        StoredOutput output = store.resolve("report-3", "gzip, deflate, br, zstd").orElseThrow();
+
+        assertEquals(ReportOutputStore.ZSTD, output.getContentEncoding());
+        assertFalse(output.isDecodeRequired());
+    }
+
+    @Test
+    void testResolve_FallsBackToGzip() throws Exception {
+        write("report-4", OutputFormat.XML, CONTENT);
+
+        StoredOutput output = store.resolve("report-4", "gzip").orElseThrow();
+
+        assertEquals(ReportOutputStore.GZIP, output.getContentEncoding());
+        assertEquals("report-4.xml", output.getFileName());
+        assertFalse(output.isDecodeRequired());
+    }
+
+    @Test
+    void testResolve_DecodesWhenNoEncodingAccepted() throws Exception {
+        write("report-5", OutputFormat.HTML, CONTENT);
+
+        StoredOutput output = store.resolve("report-5", null).orElseThrow();
+        assertTrue(output.isDecodeRequired());
+
+        try (InputStream in = store.openStream(output)) {
+            assertEquals(CONTENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testLease_HoldsOutputAndClosesItsStreams() throws Exception {
+        write("report-7", OutputFormat.HTML, CONTENT);
+        StoredOutput output = store.resolve("report-7", null).orElseThrow();
+
+        ReportOutputStore.Lease lease = store.lease(output);
+        InputStream in = lease.openStream();
+        assertEquals(ReportOutputStore.DeleteResult.IN_USE, store.delete("report-7"));
+
+        lease.close();
+        lease.close();
+        assertThrows(java.io.IOException.class, in::read);
+        assertEquals(ReportOutputStore.DeleteResult.DELETED, store.delete("report-7"));
+        assertThrows(java.nio.file.NoSuchFileException.class, () -> store.lease(output));
+    }
+
+    @Test
+    void testAttach_AddsFileUnlessOutputWasDeleted() throws Exception {
+        write("report-8", OutputFormat.HTML, CONTENT);
+        Path template = Files.writeString(tempDir.resolve("report-8.rptdesign"), "<report/>");
+        long size = store.getEntry("report-8").orElseThrow().getSize();
+
+        assertTrue(store.attach("report-8", template));
+        assertTrue(store.getEntry("report-8").orElseThrow().getFiles().contains(template));
+        assertEquals(size + Files.size(template), store.getEntry("report-8").orElseThrow().getSize());
+
+        assertEquals(ReportOutputStore.DeleteResult.DELETED, store.delete("report-8"));
+        assertFalse(Files.exists(template));
+        Path late = Files.writeString(tempDir.resolve("report-8-late.rptdesign"), "<report/>");
+        assertFalse(store.attach("report-8", late));
+        assertTrue(store.getEntry("report-8").isEmpty());
+    }
+
+    @Test
+    void testResolve_UnknownOrInvalidId() {
+        assertTrue(store.resolve("missing", "gzip").isEmpty());
+        assertTrue(store.resolve("../etc/passwd", "gzip").isEmpty());
+        assertTrue(store.resolve(null, "gzip").isEmpty());
+    }
+
+    @Test
+    void testUncommittedOutput_IsDiscarded() throws Exception {
+        try (ReportOutputStore.PendingOutput output = store.create("report-6", OutputFormat.HTML)) {
+            output.getStream().write(1);
+        }
+
+        try (var files = Files.walk(tempDir)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void testAccepts() {
+        assertTrue(ReportOutputStore.accepts("gzip, deflate", "gzip"));
+        assertTrue(ReportOutputStore.accepts("*", "zstd"));
+        assertFalse(ReportOutputStore.accepts("gzip;q=0", "gzip"));
+        assertFalse(ReportOutputStore.accepts("*, zstd;q=0", "zstd"));
+        assertFalse(ReportOutputStore.accepts("deflate", "gzip"));
+        assertFalse(ReportOutputStore.accepts(null, "gzip"));
+    }
+
+    @Test
+    void testCreate_UsesShardedLayout() throws Exception {
+        write("report-7", OutputFormat.PDF, "%PDF-1.4");
+
+        Path stored = store.resolve("report-7", null).orElseThrow().getPath();
+
+        assertEquals(ShardedPaths.directoryFor(tempDir, "report-7"), stored.getParent());
+        assertEquals(tempDir, stored.getParent().getParent().getParent());
+        assertFalse(Files.exists(tempDir.resolve("report-7.pdf")));
+    }
+
+    @Test
+    void testLoadIndex_MigratesFlatLayout() throws Exception {
+        Files.writeString(tempDir.resolve("legacy.pdf"), "%PDF-1.4");
+        Files.writeString(tempDir.resolve("legacy.html.part"), "partial");
+
+        store.loadIndex();
+
+        Path migrated = ShardedPaths.resolve(tempDir, "legacy", "legacy.pdf");
+        assertTrue(Files.exists(migrated));
+        assertFalse(Files.exists(tempDir.resolve("legacy.pdf")));
+        assertTrue(Files.exists(tempDir.resolve("legacy.html.part")));
+        assertEquals(migrated, store.resolve("legacy", null).orElseThrow().getPath());
+    }
+}
@@ -0,0 +1,79 @@
+package com.reyansh.birt.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ScratchStorage
+ */
+class ScratchStorageTest {
+
+    private static final int KB = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private ScratchStorage scratch;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // 4 MB budget, documents up to 1 MB may spill to the heap
+        scratch = new ScratchStorage(tempDir.toString(), 4, 1);
+        scratch.init();
+    }
+
+    private void run(String designKey, int size) throws Exception {
+        try (ScratchStorage.Allocation allocation = scratch.allocate("seed-" + designKey, designKey)) {
+            assertFalse(allocation.isInMemory());
+            Files.write(allocation.getPath(), new byte[size]);
+        }
+    }
+
+    @Test
+    void testInit_CreatesDirectoriesAndRemovesLeftovers() throws Exception {
+        assertTrue(Files.isDirectory(scratch.getEngineTempDirectory()));
+        Files.writeString(scratch.getDocumentDirectory().resolve("stale.rptdocument"), "stale");
+
+        scratch.init();
+
+        assertFalse(Files.exists(scratch.getDocumentDirectory().resolve("stale.rptdocument")));
+    }
+
+    @Test
+    void testAllocate_WithinBudget_UsesScratchFile() throws Exception {
+        try (ScratchStorage.Allocation allocation = scratch.allocate("report-1", "sales")) {
+            assertFalse(allocation.isInMemory());
+            assertEquals(scratch.getDocumentDirectory(), allocation.getPath().getParent());
+            assertTrue(scratch.getReservedBytes() > 0);
+            Files.writeString(allocation.getPath(), "document");
+        }
+
+        assertEquals(0, scratch.getReservedBytes());
+        try (var files = Files.list(scratch.getDocumentDirectory())) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testAllocate_OverBudget_OnlySmallDocumentsSpillToHeap() throws Exception {
+        run("large", 3 * KB * KB);
+        run("small", 100 * KB);
+
+        try (ScratchStorage.Allocation first = scratch.allocate("report-1", "large");
+             ScratchStorage.Allocation second = scratch.allocate("report-2", "large");
+             ScratchStorage.Allocation third = scratch.allocate("report-3", "small")) {
+            // Too large for the heap, kept on scratch over budget
+            assertFalse(second.isInMemory());
+            assertTrue(third.isInMemory());
+            assertEquals(0, third.getReservedSize());
+            assertEquals(KB * KB, third.getMemoryLimit());
+        }
+        assertEquals(0, scratch.getReservedBytes());
+    }
+}
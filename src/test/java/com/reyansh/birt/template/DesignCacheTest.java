@@ -0,0 +1,111 @@
+package com.reyansh.birt.template;
+
+import org.eclipse.birt.report.engine.api.IReportEngine;
+import org.eclipse.birt.report.engine.api.IReportRunnable;
+import org.eclipse.birt.report.model.api.LibraryHandle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for DesignCache
+ */
+class DesignCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private IReportEngine reportEngine;
+
+    private DesignCache cache;
+
+    @BeforeEach
+    void setUp() {
+        reportEngine = mock(IReportEngine.class);
+        cache = new DesignCache(reportEngine, tempDir.toString());
+    }
+
+    private static IReportRunnable runnable(String... libraries) {
+        IReportRunnable runnable = mock(IReportRunnable.class, RETURNS_DEEP_STUBS);
+        List<LibraryHandle> handles = new ArrayList<>();
+        for (String library : libraries) {
+            LibraryHandle handle = mock(LibraryHandle.class);
+            when(handle.getFileName()).thenReturn("file:/opt/reports/templates/" + library);
+            handles.add(handle);
+        }
+        when(runnable.getDesignHandle().getModuleHandle().getAllLibraries()).thenReturn(handles);
+        return runnable;
+    }
+
+    private void design(String fileName, String... libraries) throws Exception {
+        Files.writeString(tempDir.resolve(fileName), "<report/>");
+        IReportRunnable runnable = runnable(libraries);
+        when(reportEngine.openReportDesign(tempDir.resolve(fileName).toString())).thenReturn(runnable);
+    }
+
+    @Test
+    void testGet_CachesOpenedDesign() throws Exception {
+        design("sales.rptdesign");
+
+        IReportRunnable first = cache.get("sales.rptdesign");
+        IReportRunnable second = cache.get("sales.rptdesign");
+
+        assertSame(first, second);
+        verify(reportEngine, times(1)).openReportDesign(tempDir.resolve("sales.rptdesign").toString());
+    }
+
+    @Test
+    void testGet_ReopensModifiedDesign() throws Exception {
+        design("sales.rptdesign");
+        cache.get("sales.rptdesign");
+
+        Files.setLastModifiedTime(tempDir.resolve("sales.rptdesign"), FileTime.from(Instant.now().plusSeconds(60)));
+        cache.get("sales.rptdesign");
+
+        verify(reportEngine, times(2)).openReportDesign(tempDir.resolve("sales.rptdesign").toString());
+    }
+
+    @Test
+    void testGet_MissingDesign() {
+        assertThrows(NoSuchFileException.class, () -> cache.get("missing.rptdesign"));
+    }
+
+    @Test
+    void testInvalidate_LibraryEvictsOnlyDependentDesigns() throws Exception {
+        design("sales.rptdesign", "common.rptlibrary");
+        design("inventory.rptdesign", "common.rptlibrary", "charts.rptlibrary");
+        design("customer.rptdesign", "charts.rptlibrary");
+        cache.get("sales.rptdesign");
+        cache.get("inventory.rptdesign");
+        cache.get("customer.rptdesign");
+
+        assertEquals(2, cache.invalidate("common.rptlibrary"));
+        assertEquals(1, cache.size());
+
+        cache.get("customer.rptdesign");
+        verify(reportEngine, times(1)).openReportDesign(tempDir.resolve("customer.rptdesign").toString());
+    }
+
+    @Test
+    void testInvalidate_Design() throws Exception {
+        design("sales.rptdesign");
+        design("inventory.rptdesign");
+        cache.get("sales.rptdesign");
+        cache.get("inventory.rptdesign");
+
+        assertEquals(1, cache.invalidate("sales.rptdesign"));
+        assertEquals(0, cache.invalidate("unknown.rptdesign"));
+        assertEquals(1, cache.size());
+    }
+}
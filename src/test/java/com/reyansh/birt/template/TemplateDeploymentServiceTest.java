@@ -0,0 +1,131 @@
+package com.reyansh.birt.template;
+
+import com.reyansh.birt.exception.UploadTooLargeException;
+import com.reyansh.birt.metrics.ReportMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TemplateDeploymentService
+ */
+class TemplateDeploymentServiceTest {
+
+    private static final String DESIGN = "<?xml version=\"1.0\"?>\n"
+            + "<report xmlns=\"http://www.eclipse.org/birt/2005/design\" version=\"3.2.23\"><body/></report>";
+
+    private static final String LIBRARY = "<?xml version=\"1.0\"?>\n"
+            + "<library xmlns=\"http://www.eclipse.org/birt/2005/design\" version=\"3.2.23\"/>";
+
+    @TempDir
+    Path tempDir;
+
+    private ObjectProvider<DesignCache> designCacheProvider;
+
+    private DesignCache designCache;
+
+    private TemplateDeploymentService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        designCacheProvider = mock(ObjectProvider.class);
+        designCache = mock(DesignCache.class);
+        // Validation runs inline so the result is visible right after the upload
+        service = new TemplateDeploymentService(tempDir.toString(), 1, Runnable::run, designCacheProvider,
+                new ReportMetrics(new SimpleMeterRegistry(), tempDir.toString()));
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long uploadsLeft() throws Exception {
+        try (var files = Files.list(tempDir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(".upload-")).count();
+        }
+    }
+
+    @Test
+    void testUpload_ValidDesignIsDeployed() throws Exception {
+        Files.writeString(tempDir.resolve("sales.rptdesign"), "old");
+
+        TemplateDeployment deployment = service.upload("sales.rptdesign", body(DESIGN));
+
+        assertEquals(TemplateDeployment.Status.DEPLOYED, deployment.getStatus());
+        assertEquals(DESIGN, Files.readString(tempDir.resolve("sales.rptdesign")));
+        assertEquals(0, uploadsLeft());
+        assertSame(deployment, service.getDeployment(deployment.getDeploymentId()).orElseThrow());
+    }
+
+    @Test
+    void testUpload_InvalidatesAffectedDesigns() throws Exception {
+        when(designCacheProvider.getIfAvailable()).thenReturn(designCache);
+        when(designCache.invalidate("common.rptlibrary")).thenReturn(2);
+
+        TemplateDeployment deployment = service.upload("common.rptlibrary", body(LIBRARY));
+
+        assertEquals(TemplateDeployment.Status.DEPLOYED, deployment.getStatus());
+        assertEquals(2, deployment.getInvalidatedDesigns());
+        // Libraries cannot be opened as designs, only designs go through the engine
+        verify(designCache, never()).validate(any());
+    }
+
+    @Test
+    void testUpload_EngineValidationFailureKeepsLiveTemplate() throws Exception {
+        Files.writeString(tempDir.resolve("sales.rptdesign"), "old");
+        when(designCacheProvider.getIfAvailable()).thenReturn(designCache);
+        doThrow(new IllegalArgumentException("Invalid report design: bad element")).when(designCache).validate(any());
+
+        TemplateDeployment deployment = service.upload("sales.rptdesign", body(DESIGN));
+
+        assertEquals(TemplateDeployment.Status.FAILED, deployment.getStatus());
+        assertEquals("old", Files.readString(tempDir.resolve("sales.rptdesign")));
+        verify(designCache, never()).invalidate(any());
+        assertEquals(0, uploadsLeft());
+    }
+
+    @Test
+    void testUpload_MalformedXmlFails() throws Exception {
+        TemplateDeployment deployment = service.upload("sales.rptdesign", body("<report><body></report>"));
+
+        assertEquals(TemplateDeployment.Status.FAILED, deployment.getStatus());
+        assertFalse(Files.exists(tempDir.resolve("sales.rptdesign")));
+        assertEquals(0, uploadsLeft());
+    }
+
+    @Test
+    void testUpload_WrongRootElementFails() throws Exception {
+        TemplateDeployment deployment = service.upload("common.rptlibrary", body(DESIGN));
+
+        assertEquals(TemplateDeployment.Status.FAILED, deployment.getStatus());
+        assertTrue(deployment.getMessage().contains("<library>"));
+    }
+
+    @Test
+    void testUpload_RejectsInvalidFileNames() {
+        assertThrows(IllegalArgumentException.class, () -> service.upload("../evil.rptdesign", body(DESIGN)));
+        assertThrows(IllegalArgumentException.class, () -> service.upload("notes.txt", body(DESIGN)));
+        assertThrows(IllegalArgumentException.class, () -> service.upload(null, body(DESIGN)));
+    }
+
+    @Test
+    void testUpload_TooLarge() throws Exception {
+        byte[] content = new byte[2 * 1024 * 1024];
+
+        assertThrows(UploadTooLargeException.class,
+                () -> service.upload("big.rptdesign", new ByteArrayInputStream(content)));
+        assertEquals(0, uploadsLeft());
+    }
+}